@@ -0,0 +1,244 @@
+package biz.netcentric.filevault.validator.aem.classification.mojo;
+
+/*-
+ * #%L
+ * AEM Classification Maven Plugin
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+import biz.netcentric.filevault.validator.aem.classification.ContentUsage;
+import biz.netcentric.filevault.validator.aem.classification.MutableContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapIndex;
+import biz.netcentric.filevault.validator.aem.classification.map.MutableContentClassificationMapImpl;
+
+/**
+ * Common base class for all goals generating a classification map file (and optionally wrapping that within a JAR file).
+ */
+public abstract class AbstractContentClassificationMapMojo extends AbstractMojo {
+
+    static final String PROPERTY_PATH = "jcr:path";
+    static final String PROPERTY_DEPRECATED = "cq:deprecated";
+    static final String PROPERTY_DEPRECATED_REASON = "cq:deprecatedReason";
+    private static final LocalDateTime DEFAULT_OUTPUT_TIMESTAMP = LocalDateTime.of(1980, 2, 1, 0, 0);
+
+    /**
+     * If the classification map should be wrapped in a JAR file this
+     * needs to be set to the filepath the map should have within the JAR.
+     */
+    @Parameter(property="relativeFileNameInJar", required = false)
+    Path relativeFileNameInJar;
+
+    /**
+     * If {@code true} all entries which are implied by their nearest ancestor entry (same classification for child nodes and same remark) are not written to the map file.
+     * This does not change the classification returned for any resource path.
+     */
+    @Parameter(property="minimize", defaultValue = "true")
+    boolean minimize = true;
+
+    /**
+     * The timestamp used for all entries of the wrapper JAR file to make it reproducible. Either given in ISO 8601 format or as seconds since the epoch.
+     * If not set, a fixed timestamp is used.
+     */
+    @Parameter(property="outputTimestamp", defaultValue = "${project.build.outputTimestamp}")
+    String outputTimestamp;
+
+    /** The path of the classification map file (and potentially wrapper jar) without extension. If not set it is written to a new directory with a random name below the default temporary directory of the file system (shared by all files written by one execution). */
+    @Parameter(property="outputFile", required = false)
+    Path outputFile;
+
+    /** the base file (without extension) in a new temporary directory from which the names of all output files are derived in case no {@link #outputFile} is set */
+    private Path temporaryOutputFile;
+
+    void addClassification(ContentClassification classification, Collection<String> resourcePaths, MutableContentClassificationMap map) {
+        for (String resourcePath : resourcePaths) {
+            map.put(resourcePath, classification, null);
+        }
+        getLog().info("Retrieved " + resourcePaths.size() + " entries for classification " + classification.getLabel());
+    }
+
+    /**
+     * Adds the given deprecation metadata to the map. Must be called after all classifications have been added.
+     * @param deprecatedResourceTypes the deprecation metadata, each map containing the keys {@code jcr:path}, {@code cq:deprecated} and {@code cq:deprecatedReason}
+     * @param map the map to add the deprecations to
+     */
+    void addDeprecations(Collection<Map<String, String>> deprecatedResourceTypes, MutableContentClassificationMap map) {
+        EnumSet<ContentUsage> allContentUsages = EnumSet.allOf(ContentUsage.class);
+        for (Map<String, String> result : deprecatedResourceTypes) {
+            String resourceType = result.get(PROPERTY_PATH);
+            // override classification in case any usage is allowed!
+            ContentClassification classification = map.getContentClassificationAndRemarkForResourcePath(resourceType, null).getKey();
+            if (classification.isAllowed(allContentUsages)) {
+                classification = ContentClassification.INTERNAL_DEPRECATED_ANNOTATION;
+            }
+            // override classification in case this is still marked as public
+            String deprecatedSince = String.valueOf(result.get(PROPERTY_DEPRECATED));
+            String deprecatedReason = String.valueOf(result.get(PROPERTY_DEPRECATED_REASON));
+            final ContentClassificationRemark deprecationRemark;
+            if (deprecatedSince.isEmpty() || deprecatedSince.contains(": ")) {
+                // cannot be represented as structured remark
+                deprecationRemark = ContentClassificationRemark.parse("Deprecated since " + deprecatedSince + ": " + deprecatedReason);
+            } else {
+                deprecationRemark = ContentClassificationRemark.deprecation(deprecatedSince, deprecatedReason);
+            }
+            map.putWithStructuredRemark(resourceType, classification, deprecationRemark);
+        }
+        getLog().info("Retrieved " + deprecatedResourceTypes.size() + " entries for deprecations.");
+    }
+
+    void writeMap(MutableContentClassificationMapImpl map, Path classificationMapFile) throws IOException {
+        if (minimize) {
+            int numRemovedEntries = map.minimize();
+            getLog().info("Removed " + numRemovedEntries + " entries implied by their ancestor entries.");
+        }
+        try (OutputStream fileOutputStream = Files.newOutputStream(classificationMapFile)) {
+            map.write(fileOutputStream);
+        }
+        getLog().info("Written classification map to " + classificationMapFile + " containing " + map.size() + " entries.");
+    }
+
+    void createJarWrapperIfNecessary(MutableContentClassificationMapImpl map) throws IOException {
+        if (relativeFileNameInJar != null) {
+            Path jarFile = createJarWrapper(map, relativeFileNameInJar);
+            getLog().info("Written wrapper jar to " + jarFile);
+        }
+    }
+
+    /**
+     * Creates a JAR file containing the serialized map and its {@link ContentClassificationMapIndex}.
+     * Both are directly written into the JAR entries. The JAR is reproducible, i.e. all entries are written in a fixed order with the timestamp
+     * given in {@link #outputTimestamp}.
+     * @param map the map
+     * @param relativeFileNameInJar the file name of the map within the JAR
+     * @return the path of the JAR file
+     * @throws IOException in case the JAR could not be written
+     */
+    Path createJarWrapper(MutableContentClassificationMapImpl map, Path relativeFileNameInJar) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        final Path jarFile = getOutputFile(".jar");
+        final LocalDateTime timestamp = getOutputTimestamp(outputTimestamp);
+        final String mapEntryName = getPathWithUnixSeparators(relativeFileNameInJar);
+
+        // not using the JarOutputStream constructor with manifest as that writes the current time into the manifest entry
+        try (JarOutputStream target = new JarOutputStream(new BufferedOutputStream(Files.newOutputStream(jarFile)))) {
+            target.putNextEntry(newJarEntry(JarFile.MANIFEST_NAME, timestamp));
+            manifest.write(target);
+            target.closeEntry();
+
+            target.putNextEntry(newJarEntry(mapEntryName, timestamp));
+            CheckedOutputStream checkedOutput = new CheckedOutputStream(new NonClosingOutputStream(target), new CRC32());
+            map.write(checkedOutput);
+            target.closeEntry();
+
+            target.putNextEntry(newJarEntry(mapEntryName + ContentClassificationMapIndex.EXTENSION, timestamp));
+            ContentClassificationMapIndex.write(map, checkedOutput.getChecksum().getValue(), target);
+            target.closeEntry();
+        }
+        return jarFile;
+    }
+
+    private static JarEntry newJarEntry(String name, LocalDateTime timestamp) {
+        JarEntry entry = new JarEntry(name);
+        // local time is stored as is (i.e. independent of the default time zone)
+        entry.setTimeLocal(timestamp);
+        return entry;
+    }
+
+    /**
+     * Parses the timestamp in the format used by property {@code project.build.outputTimestamp}.
+     * @param outputTimestamp either an ISO 8601 date time or the number of seconds since the epoch (or {@code null})
+     * @return the timestamp to use for all JAR entries (in UTC)
+     */
+    static LocalDateTime getOutputTimestamp(String outputTimestamp) {
+        // same logic as in maven-archiver (values with less than 2 characters disable reproducible builds there)
+        if (outputTimestamp == null || outputTimestamp.length() < 2) {
+            return DEFAULT_OUTPUT_TIMESTAMP;
+        }
+        final Instant instant;
+        if (outputTimestamp.chars().allMatch(Character::isDigit)) {
+            instant = Instant.ofEpochSecond(Long.parseLong(outputTimestamp));
+        } else {
+            instant = OffsetDateTime.parse(outputTimestamp).toInstant();
+        }
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    /**
+     * Prevents closing the underlying stream (only flushes it instead).
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Returns the output file with the given extension. All output files of one execution share the same name and only differ in their extension.
+     * @param extension the extension (including the leading dot)
+     * @return the output file
+     * @throws IOException in case the temporary directory could not be created
+     */
+    Path getOutputFile(String extension) throws IOException {
+        final Path baseFile;
+        if (outputFile == null) {
+            if (temporaryOutputFile == null) {
+                // the random directory name makes the output files unique without leaving a placeholder file behind
+                temporaryOutputFile = Files.createTempDirectory("contentclassification").resolve("contentclassification");
+            }
+            baseFile = temporaryOutputFile;
+        } else {
+            baseFile = outputFile;
+        }
+        return baseFile.resolveSibling(baseFile.getFileName() + extension);
+    }
+
+    static String getPathWithUnixSeparators(Path path) {
+        return StreamSupport.stream(path.spliterator(), false).map(Path::toString).collect(Collectors.joining("/"));
+    }
+}
@@ -0,0 +1,201 @@
+package biz.netcentric.filevault.validator.aem.classification.mojo;
+
+/*-
+ * #%L
+ * AEM Classification Maven Plugin
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapDiff;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapDiff.Change;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapDiff.ChangeType;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapImpl;
+
+/**
+ *  Reports the differences between two classification maps (e.g. generated from two different AEM versions).
+ *  Each map may be given either as map file or as JAR file wrapping the map (like the map artifacts).
+ *  <p>
+ *  The report contains one line per changed entry: added ({@code +}), removed ({@code -}), reclassified ({@code ~}) entries and entries with changed remarks ({@code *}).
+ *  For added and removed entries the effective classification change of the according subtree is given in addition.
+ */
+@Mojo(requiresProject=false, name = "diff-content-classification")
+public class DiffContentClassificationMojo extends AbstractMojo {
+
+    /** The old classification map file or the JAR file containing the old classification map. */
+    @Parameter(property="oldMap", required = true)
+    Path oldMap;
+
+    /** The new classification map file or the JAR file containing the new classification map. */
+    @Parameter(property="newMap", required = true)
+    Path newMap;
+
+    /**
+     * The file path of the map within the JAR files given in {@link #oldMap} and {@link #newMap}.
+     * Only necessary if the JAR files contain more than one file with extension {@code .map}.
+     */
+    @Parameter(property="relativeFileNameInJar", required = false)
+    String relativeFileNameInJar;
+
+    /** The file to which to write the report. If not set the report is only logged. */
+    @Parameter(property="outputFile", required = false)
+    Path outputFile;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        final ContentClassificationMapImpl oldClassificationMap;
+        final ContentClassificationMapImpl newClassificationMap;
+        try {
+            oldClassificationMap = loadMap(oldMap, relativeFileNameInJar);
+            newClassificationMap = loadMap(newMap, relativeFileNameInJar);
+        } catch (IOException|IllegalArgumentException e) {
+            throw new MojoExecutionException("Could not load classification map: " + e.getMessage(), e);
+        }
+        Map<ChangeType, Integer> numChangesPerType = new EnumMap<>(ChangeType.class);
+        final int numChanges;
+        try {
+            if (outputFile != null) {
+                try (Writer writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8)) {
+                    numChanges = writeDiff(oldClassificationMap, newClassificationMap, writer, numChangesPerType);
+                }
+                getLog().info("Written report to " + outputFile);
+            } else {
+                StringWriter writer = new StringWriter();
+                numChanges = writeDiff(oldClassificationMap, newClassificationMap, writer, numChangesPerType);
+                writer.toString().lines().forEach(getLog()::info);
+            }
+        } catch (IOException e) {
+            throw new MojoFailureException("Could not write report: " + e.getMessage(), e);
+        }
+        getLog().info("Found " + numChanges + " changed entries: " + numChangesPerType.entrySet().stream()
+                .map(e -> e.getValue() + " " + e.getKey().toString().toLowerCase())
+                .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Loads the map from the given file.
+     * @param file either a map file or a JAR file containing a map file
+     * @param relativeFileNameInJar the path of the map file within the JAR file (may be {@code null} in case the JAR contains only one map file)
+     * @return the map
+     * @throws IOException in case the map could not be read
+     */
+    static ContentClassificationMapImpl loadMap(Path file, String relativeFileNameInJar) throws IOException {
+        if (!file.getFileName().toString().endsWith(".jar")) {
+            try (InputStream input = Files.newInputStream(file)) {
+                return new ContentClassificationMapImpl(input, file.toString());
+            }
+        }
+        try (JarFile jarFile = new JarFile(file.toFile())) {
+            final JarEntry mapEntry;
+            if (relativeFileNameInJar != null) {
+                mapEntry = jarFile.getJarEntry(relativeFileNameInJar);
+                if (mapEntry == null) {
+                    throw new IOException("Could not find map file " + relativeFileNameInJar + " in " + file);
+                }
+            } else {
+                List<JarEntry> mapEntries = jarFile.stream().filter(e -> e.getName().endsWith(".map")).collect(Collectors.toList());
+                if (mapEntries.size() != 1) {
+                    throw new IOException("Expected exactly one map file in " + file + " but found " + mapEntries.size() + ", use parameter relativeFileNameInJar to select one");
+                }
+                mapEntry = mapEntries.get(0);
+            }
+            try (InputStream input = jarFile.getInputStream(mapEntry)) {
+                return new ContentClassificationMapImpl(input, file + "!/" + mapEntry.getName());
+            }
+        }
+    }
+
+    /**
+     * Writes the differences between the given maps.
+     * @param oldMap the old map
+     * @param newMap the new map
+     * @param writer the writer to write the report to
+     * @param numChangesPerType the map which is populated with the number of changes per type
+     * @return the number of changed entries
+     * @throws IOException in case writing failed
+     */
+    static int writeDiff(ContentClassificationMapImpl oldMap, ContentClassificationMapImpl newMap, Writer writer, Map<ChangeType, Integer> numChangesPerType) throws IOException {
+        Writer bufferedWriter = new BufferedWriter(writer);
+        bufferedWriter.write("# Changes from '" + oldMap.getLabel() + "' to '" + newMap.getLabel() + "'\n");
+        final int numChanges;
+        try {
+            numChanges = ContentClassificationMapDiff.diff(oldMap, newMap, change -> {
+                for (ChangeType type : change.getTypes()) {
+                    numChangesPerType.merge(type, 1, Integer::sum);
+                }
+                try {
+                    writeChange(change, bufferedWriter);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        bufferedWriter.flush();
+        return numChanges;
+    }
+
+    private static void writeChange(Change change, Writer writer) throws IOException {
+        Set<ChangeType> types = change.getTypes();
+        ContentClassificationMapEntry oldEntry = change.getOldEntry();
+        ContentClassificationMapEntry newEntry = change.getNewEntry();
+        if (types.contains(ChangeType.ADDED)) {
+            writer.write("+ " + change.getResourcePath() + "," + newEntry.getClassification() + getSubtreeChange(change) + "\n");
+        } else if (types.contains(ChangeType.REMOVED)) {
+            writer.write("- " + change.getResourcePath() + "," + oldEntry.getClassification() + getSubtreeChange(change) + "\n");
+        } else {
+            if (types.contains(ChangeType.RECLASSIFIED)) {
+                writer.write("~ " + change.getResourcePath() + "," + oldEntry.getClassification() + " -> " + newEntry.getClassification() + "\n");
+            }
+            if (types.contains(ChangeType.REMARK_CHANGED)) {
+                writer.write("* " + change.getResourcePath() + "," + getRemark(oldEntry) + " -> " + getRemark(newEntry) + "\n");
+            }
+        }
+    }
+
+    private static String getSubtreeChange(Change change) {
+        if (!change.isEffectiveClassificationChanged()) {
+            return " (subtree unchanged)";
+        }
+        return " (subtree " + getClassification(change.getOldEffectiveEntry()) + " -> " + getClassification(change.getNewEffectiveEntry()) + ")";
+    }
+
+    private static String getClassification(ContentClassificationMapEntry entry) {
+        return entry != null ? entry.getClassification().toString() : "none";
+    }
+
+    private static String getRemark(ContentClassificationMapEntry entry) {
+        return entry.getRemark() != null ? "'" + entry.getRemark() + "'" : "none";
+    }
+}
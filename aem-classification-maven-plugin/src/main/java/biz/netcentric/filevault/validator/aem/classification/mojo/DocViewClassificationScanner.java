@@ -0,0 +1,367 @@
+package biz.netcentric.filevault.validator.aem.classification.mojo;
+
+/*-
+ * #%L
+ * AEM Classification Maven Plugin
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+
+/**
+ * Extracts the classification and deprecation metadata from the
+ * <a href="https://jackrabbit.apache.org/filevault/docview.html">FileVault DocView</a> files ({@code .content.xml}) below a {@code jcr_root} folder
+ * either contained in a content package ZIP or in a file system directory.
+ * <p>
+ * The DocView files are parsed in parallel in a streaming fashion (via StAX). Only the properties {@code jcr:mixinTypes}, {@code cq:deprecated}
+ * and {@code cq:deprecatedReason} are evaluated.
+ * <p>
+ * Instances are thread-safe but can only be used for scanning once.
+ */
+final class DocViewClassificationScanner {
+
+    static final String JCR_ROOT = "jcr_root";
+    private static final String DOCVIEW_FILE_NAME = ".content.xml";
+    private static final String DOCVIEW_ROOT_ELEMENT = "jcr:root";
+    private static final String PROPERTY_MIXIN_TYPES = "jcr:mixinTypes";
+
+    private final XMLInputFactory xmlInputFactory;
+    private final Map<String, ContentClassification> classificationsByMixin;
+    private final Map<ContentClassification, Set<String>> resourcePathsPerClassification;
+    private final Map<String, Map<String, String>> deprecatedResourceTypes;
+    private final AtomicInteger numDocViewFiles;
+
+    DocViewClassificationScanner() {
+        xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        classificationsByMixin = new HashMap<>();
+        resourcePathsPerClassification = new ConcurrentHashMap<>();
+        for (ContentClassification classification : ContentClassification.values()) {
+            if (classification.isLabelMixin()) {
+                classificationsByMixin.put(classification.getLabel(), classification);
+                resourcePathsPerClassification.put(classification, new ConcurrentSkipListSet<>());
+            }
+        }
+        deprecatedResourceTypes = new ConcurrentSkipListMap<>();
+        numDocViewFiles = new AtomicInteger();
+    }
+
+    /**
+     * Scans all DocView files below the {@code jcr_root} folder of the given source.
+     * @param source either a content package ZIP, a directory containing a {@code jcr_root} folder or the {@code jcr_root} folder itself
+     * @throws IOException in case any file could not be read or parsed
+     */
+    void scan(Path source) throws IOException {
+        try {
+            if (Files.isDirectory(source)) {
+                Path jcrRoot = source.resolve(JCR_ROOT);
+                scanDirectory(Files.isDirectory(jcrRoot) ? jcrRoot : source);
+            } else {
+                scanZip(source);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void scanDirectory(Path jcrRoot) throws IOException {
+        List<Path> docViewFiles;
+        try (Stream<Path> files = Files.walk(jcrRoot)) {
+            docViewFiles = files.filter(file -> file.getFileName().toString().equals(DOCVIEW_FILE_NAME)).collect(Collectors.toList());
+        }
+        docViewFiles.parallelStream().forEach(file -> {
+            try (InputStream input = Files.newInputStream(file)) {
+                scanDocView(input, getRepositoryPath(jcrRoot.relativize(file.getParent())), file.toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void scanZip(Path zip) throws IOException {
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            // entries can be read concurrently from the same ZipFile
+            List<? extends ZipEntry> docViewEntries = zipFile.stream()
+                    .filter(entry -> entry.getName().startsWith(JCR_ROOT + "/") && (entry.getName().endsWith("/" + DOCVIEW_FILE_NAME)))
+                    .collect(Collectors.toList());
+            docViewEntries.parallelStream().forEach(entry -> {
+                String name = entry.getName();
+                String relativeParentPath = name.substring(JCR_ROOT.length() + 1, name.length() - DOCVIEW_FILE_NAME.length());
+                try (InputStream input = zipFile.getInputStream(entry)) {
+                    scanDocView(input, getRepositoryPath(relativeParentPath), zip + "!" + name);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    void scanDocView(InputStream input, String nodePath, String fileName) throws IOException {
+        try {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(input);
+            try {
+                Deque<String> nodePaths = new ArrayDeque<>();
+                while (reader.hasNext()) {
+                    switch (reader.next()) {
+                        case XMLStreamConstants.START_ELEMENT:
+                            String elementName = getQualifiedName(reader.getPrefix(), reader.getLocalName());
+                            final String currentNodePath;
+                            if (nodePaths.isEmpty()) {
+                                if (!DOCVIEW_ROOT_ELEMENT.equals(elementName)) {
+                                    // no DocView file
+                                    return;
+                                }
+                                numDocViewFiles.incrementAndGet();
+                                currentNodePath = nodePath;
+                            } else {
+                                currentNodePath = getChildPath(nodePaths.peek(), decodeElementName(elementName));
+                            }
+                            nodePaths.push(currentNodePath);
+                            scanProperties(reader, currentNodePath);
+                            break;
+                        case XMLStreamConstants.END_ELEMENT:
+                            nodePaths.pop();
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse DocView file " + fileName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void scanProperties(XMLStreamReader reader, String nodePath) {
+        String deprecatedSince = null;
+        String deprecatedReason = null;
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String name = getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+            switch (name) {
+                case PROPERTY_MIXIN_TYPES:
+                    for (String mixin : parseValues(reader.getAttributeValue(i))) {
+                        ContentClassification classification = classificationsByMixin.get(mixin);
+                        if (classification != null) {
+                            resourcePathsPerClassification.get(classification).add(nodePath);
+                        }
+                    }
+                    break;
+                case AbstractContentClassificationMapMojo.PROPERTY_DEPRECATED:
+                    deprecatedSince = getFirstValue(reader.getAttributeValue(i));
+                    break;
+                case AbstractContentClassificationMapMojo.PROPERTY_DEPRECATED_REASON:
+                    deprecatedReason = getFirstValue(reader.getAttributeValue(i));
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (deprecatedSince != null) {
+            Map<String, String> deprecation = new HashMap<>();
+            deprecation.put(AbstractContentClassificationMapMojo.PROPERTY_PATH, nodePath);
+            deprecation.put(AbstractContentClassificationMapMojo.PROPERTY_DEPRECATED, deprecatedSince);
+            deprecation.put(AbstractContentClassificationMapMojo.PROPERTY_DEPRECATED_REASON, deprecatedReason);
+            deprecatedResourceTypes.put(nodePath, deprecation);
+        }
+    }
+
+    /**
+     *
+     * @return the sorted resource paths per classification (in the order of the enum)
+     */
+    Map<ContentClassification, Collection<String>> getResourcePathsPerClassification() {
+        Map<ContentClassification, Collection<String>> result = new EnumMap<>(ContentClassification.class);
+        for (Map.Entry<ContentClassification, Set<String>> entry : resourcePathsPerClassification.entrySet()) {
+            result.put(entry.getKey(), Collections.unmodifiableSet(new TreeSet<>(entry.getValue())));
+        }
+        return result;
+    }
+
+    /**
+     *
+     * @return the deprecation metadata sorted by path, each map containing the keys {@code jcr:path}, {@code cq:deprecated} and {@code cq:deprecatedReason}
+     */
+    Collection<Map<String, String>> getDeprecatedResourceTypes() {
+        return new ArrayList<>(deprecatedResourceTypes.values());
+    }
+
+    int getNumDocViewFiles() {
+        return numDocViewFiles.get();
+    }
+
+    private static String getQualifiedName(String prefix, String localName) {
+        if (prefix == null || prefix.isEmpty()) {
+            return localName;
+        }
+        return prefix + ":" + localName;
+    }
+
+    private static String getChildPath(String parentPath, String name) {
+        if (parentPath.endsWith("/")) {
+            return parentPath + name;
+        }
+        return parentPath + "/" + name;
+    }
+
+    /**
+     * Converts a relative file system path (with platform names as used by FileVault) to an absolute repository path.
+     * @param relativePath the path relative to the {@code jcr_root} folder
+     * @return the absolute repository path
+     */
+    static String getRepositoryPath(Path relativePath) {
+        return getRepositoryPath(AbstractContentClassificationMapMojo.getPathWithUnixSeparators(relativePath));
+    }
+
+    static String getRepositoryPath(String relativePath) {
+        StringBuilder repositoryPath = new StringBuilder();
+        for (String segment : relativePath.split("/")) {
+            if (!segment.isEmpty()) {
+                repositoryPath.append('/').append(getRepositoryName(segment));
+            }
+        }
+        return repositoryPath.length() == 0 ? "/" : repositoryPath.toString();
+    }
+
+    /**
+     * Reverts the FileVault platform name escaping, i.e. {@code _ns_name} becomes {@code ns:name}, {@code __name} becomes {@code _name}
+     * and {@code %xx} is decoded.
+     * @param platformName the file or directory name
+     * @return the repository name
+     */
+    static String getRepositoryName(String platformName) {
+        String name = platformName;
+        if (name.startsWith("__")) {
+            name = name.substring(1);
+        } else if (name.startsWith("_")) {
+            int namespaceEnd = name.indexOf('_', 1);
+            if (namespaceEnd > 1) {
+                name = name.substring(1, namespaceEnd) + ":" + name.substring(namespaceEnd + 1);
+            }
+        }
+        if (name.indexOf('%') < 0) {
+            return name;
+        }
+        StringBuilder decodedName = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '%' && i + 2 < name.length() && isHex(name.charAt(i + 1)) && isHex(name.charAt(i + 2))) {
+                decodedName.append((char) Integer.parseInt(name.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                decodedName.append(c);
+            }
+        }
+        return decodedName.toString();
+    }
+
+    /**
+     * Reverts the ISO 9075 escaping of XML element names, i.e. {@code _xHHHH_} is replaced by the according character.
+     * @param elementName the XML element name
+     * @return the node name
+     */
+    static String decodeElementName(String elementName) {
+        if (elementName.indexOf("_x") < 0) {
+            return elementName;
+        }
+        StringBuilder name = new StringBuilder(elementName.length());
+        int i = 0;
+        while (i < elementName.length()) {
+            if (elementName.startsWith("_x", i) && i + 6 < elementName.length() && elementName.charAt(i + 6) == '_'
+                    && isHex(elementName.charAt(i + 2)) && isHex(elementName.charAt(i + 3)) && isHex(elementName.charAt(i + 4)) && isHex(elementName.charAt(i + 5))) {
+                name.append((char) Integer.parseInt(elementName.substring(i + 2, i + 6), 16));
+                i += 7;
+            } else {
+                name.append(elementName.charAt(i++));
+            }
+        }
+        return name.toString();
+    }
+
+    private static boolean isHex(char c) {
+        return Character.digit(c, 16) >= 0;
+    }
+
+    /**
+     * Parses a DocView property value which may be prefixed with the type (e.g. {@code {Name}}) and may be multi-value (e.g. {@code [a,b]}).
+     * @param attributeValue the raw attribute value
+     * @return the unescaped values
+     */
+    static List<String> parseValues(String attributeValue) {
+        int start = 0;
+        if (attributeValue.startsWith("{")) {
+            int typeEnd = attributeValue.indexOf('}');
+            if (typeEnd > 0) {
+                start = typeEnd + 1;
+            }
+        }
+        List<String> values = new ArrayList<>();
+        boolean isMultiValue = attributeValue.startsWith("[", start) && attributeValue.endsWith("]");
+        int end = attributeValue.length();
+        if (isMultiValue) {
+            start++;
+            end--;
+            if (start == end) {
+                return values;
+            }
+        }
+        StringBuilder value = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            char c = attributeValue.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                value.append(attributeValue.charAt(++i));
+            } else if (c == ',' && isMultiValue) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static String getFirstValue(String attributeValue) {
+        List<String> values = parseValues(attributeValue);
+        return values.isEmpty() ? "" : values.get(0);
+    }
+}
@@ -18,7 +18,9 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -27,22 +29,31 @@ import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collection;
-import java.util.Date;
-import java.util.EnumSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.jar.Attributes;
-import java.util.jar.JarEntry;
-import java.util.jar.JarOutputStream;
-import java.util.jar.Manifest;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
 
-import org.apache.felix.utils.json.JSONParser;
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.logging.Log;
@@ -50,8 +61,12 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
-import biz.netcentric.filevault.validator.aem.classification.ContentUsage;
-import biz.netcentric.filevault.validator.aem.classification.MutableContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.json.JsonPullParser;
+import biz.netcentric.filevault.validator.aem.classification.json.JsonPullParser.Token;
+import biz.netcentric.filevault.validator.aem.classification.map.CompositeContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapDiff.ChangeType;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapImpl;
 import biz.netcentric.filevault.validator.aem.classification.map.MutableContentClassificationMapImpl;
 
 /**
@@ -61,80 +76,122 @@ import biz.netcentric.filevault.validator.aem.classification.map.MutableContentC
  *  That JAR file still needs to be manually uploaded to a Maven repository to leverage this classification map from the aem-classification-validator.
  *  <p>
  *  Uses the JCR search to find the current classification and also deprecation infos from properties {@code cq:deprecated} and {@code cq:deprecatedReason}.
+ *  All query results are retrieved in pages and parsed in a streaming fashion.
  */
 @Mojo(requiresProject=false, name = "download-content-classification")
-public class DownloadContentClassificationMojo extends AbstractMojo {
+public class DownloadContentClassificationMojo extends AbstractContentClassificationMapMojo {
+
+    private static final Collection<String> DEPRECATION_PROPERTY_NAMES = Arrays.asList(PROPERTY_PATH, PROPERTY_DEPRECATED, PROPERTY_DEPRECATED_REASON);
+    /** the map segment matching exactly one arbitrary segment */
+    private static final String WILDCARD_SEGMENT = "*";
 
     /**
      * the base URL where AEM is deployed
      */
     @Parameter(property="baseUrl", defaultValue="http://localhost:4502")
     URI baseUrl;
-    
+
+    /**
+     * The base URLs of multiple AEM instances (e.g. with different add-ons installed) which are all harvested in parallel.
+     * The maps retrieved from the individual instances are merged into a single map where the strictest classification wins
+     * (the same semantics as when using multiple maps in the validator). The label of the merged map contains the product versions of all instances.
+     * If set, {@code baseUrl} is ignored. All instances are accessed with the same credentials.
+     */
+    @Parameter(property="baseUrls", required = false)
+    List<URI> baseUrls;
+
     /**
-     * the user name to access the {@link baseUrl}
+     * the user name to access the {@code baseUrl}
      */
     @Parameter(property="username", defaultValue = "admin")
     String username;
     
     /**
-     * the password of the user to access the {@link baseUrl}
+     * the password of the user to access the {@code baseUrl}
      */
     @Parameter(property="password", defaultValue = "admin")
     String password;
 
+    /** The maximum number of hits to request with a single query. Larger result sets are retrieved in multiple pages. */
+    @Parameter(property="pageSize", defaultValue="1000")
+    int pageSize = 1000;
+
     /**
-     * If the classification map should be wrapped in a JAR file this
-     * needs to be set to the filepath the map should have within the JAR.
+     * If {@code true} the pages are retrieved with keyset pagination, i.e. each page is requested with a condition on {@code jcr:path} being greater than
+     * the last path of the previous page. This requires the index definitions from the {@code aem-classification-search-index-package} in version 1.1.0 or newer.
+     * Those don't index {@code jcr:path}, therefore the repository may still filter and sort the hits by path in memory for every page.
+     * Otherwise the pages are requested with an increasing offset (which makes the repository traverse all previous hits for every page).
      */
-    @Parameter(property="relativeFileNameInJar", required = false)
-    Path relativeFileNameInJar;
+    @Parameter(property="keysetPagination", defaultValue="true")
+    boolean keysetPagination = true;
 
-    /** The path of the classification map file (and potentially wrapper jar) without extension. If not set it is written to the default temporary directory of the file system with a random file name. */
-    @Parameter(property="outputFile", required = false)
-    Path outputFile;
+    /**
+     * The path of a previously generated classification map file. If set, the full data is only downloaded in case the product versions
+     * or the number of hits of any query changed compared to the fingerprint recorded next to the previous map
+     * (in a file with the same name and the additional extension {@code .fingerprint}).
+     * Otherwise the previous map is reused.
+     * <p>
+     * The fingerprint only consists of the product versions and the number of hits per query, as comparing the hits themselves would require downloading all of them.
+     * Therefore changes which keep the number of hits of every query stable (e.g. a path being reclassified from {@code granite:FinalArea} to {@code granite:InternalArea}
+     * while another one is added to {@code granite:FinalArea}, or a modified {@code cq:deprecatedReason}) are not detected without a product version change.
+     * Omit this parameter to enforce a full download.
+     * <p>
+     * In case of changes, a change log listing all added, removed and reclassified paths is written in addition to the new map
+     * (in a file with extension {@code .changes.txt}).
+     */
+    @Parameter(property="previousMapFile", required = false)
+    Path previousMapFile;
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         Log log = getLog();
-        HttpClient httpClient = HttpClient.newHttpClient();
+        // all requests are independent of each other, therefore issue them concurrently (multiplexed over one connection in case HTTP/2 is supported by the server)
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
         try {
-            Collection<String> products = getProducts(httpClient);
-            
-            log.warn("Make sure that the relevant search index definitions are deployed on AEM at " + baseUrl + ". Otherwise this goal will fail!");
-            log.info("Start retrieving the classification and deprecation data from " + baseUrl);
-            
-            MutableContentClassificationMap map = new MutableContentClassificationMapImpl(products.stream().collect(Collectors.joining(", ")));
-            // always make sure that the root node is PUBLIC (even though this might not be part of the classification map extracted from a repo)
-            map.put("/", ContentClassification.PUBLIC, null);
-            // 1. retrieve classifications from mixins and store in map
-            for (ContentClassification classification : ContentClassification.values()) {
-                if (classification.isLabelMixin() == false) {
-                    continue;
-                }
-                retrieveClassificationForMixin(httpClient, classification, map);
+            Collection<URI> instanceUrls = getBaseUrls();
+            Map<URI, CompletableFuture<Collection<String>>> productsFutures = new LinkedHashMap<>();
+            for (URI instanceUrl : instanceUrls) {
+                log.warn("Make sure that the relevant search index definitions are deployed on AEM at " + instanceUrl + ". Otherwise this goal will fail!");
+                productsFutures.put(instanceUrl, getProducts(httpClient, instanceUrl));
             }
-            
-            // 2. update map with deprecation entries
-            retrieveDeprecatedResourceTypes(httpClient, map);
-            
-            // 3. persist the map
-            final Path classificationMapFile;
-            if (outputFile == null) {
-                classificationMapFile = Files.createTempFile("contentclassification", ".map");
+            final Path classificationMapFile = getOutputFile(".map");
+            final MutableContentClassificationMapImpl previousMap;
+            if (previousMapFile != null) {
+                try (InputStream input = Files.newInputStream(previousMapFile)) {
+                    previousMap = new MutableContentClassificationMapImpl(input, previousMapFile.toString());
+                }
+                if (isUnchanged(httpClient, productsFutures, previousMap)) {
+                    log.info("Neither the product versions nor the number of hits of any query changed since generating " + previousMapFile + ", skipping download.");
+                    if (!classificationMapFile.toAbsolutePath().equals(previousMapFile.toAbsolutePath())) {
+                        Files.copy(previousMapFile, classificationMapFile, StandardCopyOption.REPLACE_EXISTING);
+                        Files.copy(getFingerprintFile(previousMapFile), getFingerprintFile(classificationMapFile), StandardCopyOption.REPLACE_EXISTING);
+                        log.info("Copied classification map to " + classificationMapFile);
+                    }
+                    createJarWrapperIfNecessary(previousMap);
+                    return;
+                }
             } else {
-                classificationMapFile = outputFile.resolveSibling(outputFile.getFileName() + ".map");
+                previousMap = null;
             }
-            try (OutputStream fileOutputStream = Files.newOutputStream(classificationMapFile)) {
-                map.write(fileOutputStream);
+            log.info("Start retrieving the classification and deprecation data from " + instanceUrls);
+            Map<String, Long> totals = new TreeMap<>();
+            MutableContentClassificationMapImpl map = retrieveMap(httpClient, productsFutures, totals);
+
+            // 3. persist the map together with its fingerprint
+            writeMap(map, classificationMapFile);
+            writeFingerprint(totals, getFingerprintFile(classificationMapFile));
+
+            if (previousMap != null) {
+                Path changeLogFile = getOutputFile(".changes.txt");
+                final int numChanges;
+                try (Writer writer = Files.newBufferedWriter(changeLogFile, StandardCharsets.UTF_8)) {
+                    numChanges = DiffContentClassificationMojo.writeDiff(previousMap, map, writer, new EnumMap<>(ChangeType.class));
+                }
+                log.info("Written change log with " + numChanges + " changes compared to " + previousMapFile + " to " + changeLogFile);
             }
-            log.info("Written classification map to " + classificationMapFile + " containing " + map.size() + " entries.");
             
             // 4. optionally wrap in a JAR
-            if (relativeFileNameInJar != null) {
-                Path jarFile = createJarWrapper(classificationMapFile, relativeFileNameInJar);
-                log.info("Written wrapper jar to " + jarFile);
-            }
+            createJarWrapperIfNecessary(map);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new MojoFailureException("Could not retrieve classification metadata: " + e.getMessage(), e);
@@ -143,13 +200,265 @@ public class DownloadContentClassificationMojo extends AbstractMojo {
         }
     }
 
-    Collection<String> getProducts(HttpClient httpClient) throws IOException, InterruptedException {
-        // http://localhost:4502/system/console/status-productinfo does not provide proper JSON, therefore parse TXT
-        try (InputStream input = downloadFromAem(httpClient, "/system/console/status-productinfo.txt")) {
-            return extractProductsFromProductInfo(input);
+    /**
+     * Retrieves all classification and deprecation data from all given instances in parallel.
+     * In case of multiple instances the individual maps are merged with {@link #mergeMaps(String, Collection)}.
+     * @param httpClient the client to use
+     * @param productsFutures the futures returning the installed products per instance
+     * @param totals the map which is populated with the number of hits per query (and instance in case of multiple instances)
+     * @return the new map
+     * @throws IOException in case any request failed
+     * @throws InterruptedException in case the current thread was interrupted
+     * @throws MojoExecutionException in case the hits of some query could not be paged through
+     */
+    MutableContentClassificationMapImpl retrieveMap(HttpClient httpClient, Map<URI, CompletableFuture<Collection<String>>> productsFutures, Map<String, Long> totals) throws IOException, InterruptedException, MojoExecutionException {
+        Map<URI, Map<String, Long>> totalsPerInstance = new LinkedHashMap<>();
+        Map<URI, CompletableFuture<MutableContentClassificationMapImpl>> mapFutures = new LinkedHashMap<>();
+        for (Map.Entry<URI, CompletableFuture<Collection<String>>> entry : productsFutures.entrySet()) {
+            Map<String, Long> instanceTotals = new TreeMap<>();
+            totalsPerInstance.put(entry.getKey(), instanceTotals);
+            mapFutures.put(entry.getKey(), retrieveMap(httpClient, entry.getKey(), entry.getValue(), instanceTotals));
+        }
+        List<ContentClassificationMapImpl> maps = new ArrayList<>();
+        for (CompletableFuture<MutableContentClassificationMapImpl> mapFuture : mapFutures.values()) {
+            maps.add(join(mapFuture));
+        }
+        addTotals(totalsPerInstance, totals);
+        if (maps.size() == 1) {
+            return (MutableContentClassificationMapImpl) maps.get(0);
+        }
+        MutableContentClassificationMapImpl map = mergeMaps(getLabel(productsFutures), maps);
+        getLog().info("Merged maps from " + maps.size() + " instances into one map with " + map.size() + " entries.");
+        return map;
+    }
+
+    /**
+     * Retrieves all classification and deprecation data from a single instance.
+     * All queries are issued concurrently, the returned future completes once all of them are processed.
+     * @param httpClient the client to use
+     * @param baseUrl the base URL of the instance
+     * @param productsFuture the future returning the installed products of the instance
+     * @param totals the map which is populated with the number of hits per query (once the returned future completed)
+     * @return the future returning the new map
+     * @throws IOException in case any request could not be created
+     */
+    CompletableFuture<MutableContentClassificationMapImpl> retrieveMap(HttpClient httpClient, URI baseUrl, CompletableFuture<Collection<String>> productsFuture, Map<String, Long> totals) throws IOException {
+        Map<ContentClassification, CompletableFuture<Collection<String>>> resourcePathsPerClassificationFutures = new EnumMap<>(ContentClassification.class);
+        for (ContentClassification classification : ContentClassification.values()) {
+            if (classification.isLabelMixin() == false) {
+                continue;
+            }
+            resourcePathsPerClassificationFutures.put(classification, retrieveResourcePathsForMixin(httpClient, baseUrl, classification));
+        }
+        CompletableFuture<Collection<Map<String, String>>> deprecatedResourceTypesFuture = retrieveDeprecatedResourceTypes(httpClient, baseUrl);
+
+        List<CompletableFuture<?>> allFutures = new ArrayList<>(resourcePathsPerClassificationFutures.values());
+        allFutures.add(deprecatedResourceTypesFuture);
+        allFutures.add(productsFuture);
+        // only evaluated once all futures completed, therefore join() never blocks
+        return CompletableFuture.allOf(allFutures.toArray(new CompletableFuture[0])).thenApply(v -> {
+            MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl(String.join(", ", productsFuture.join()));
+            // always make sure that the root node is PUBLIC (even though this might not be part of the classification map extracted from a repo)
+            map.put("/", ContentClassification.PUBLIC, null);
+            // 1. store classifications from mixins in map (in the order of the enum, independent of the order in which the responses arrived)
+            for (Map.Entry<ContentClassification, CompletableFuture<Collection<String>>> entry : resourcePathsPerClassificationFutures.entrySet()) {
+                Collection<String> resourcePaths = entry.getValue().join();
+                addClassification(entry.getKey(), resourcePaths, map);
+                totals.put(entry.getKey().getLabel(), (long) resourcePaths.size());
+            }
+            // 2. update map with deprecation entries (must be applied after all classifications are known)
+            Collection<Map<String, String>> deprecatedResourceTypes = deprecatedResourceTypesFuture.join();
+            addDeprecations(deprecatedResourceTypes, map);
+            totals.put(PROPERTY_DEPRECATED, (long) deprecatedResourceTypes.size());
+            return map;
+        });
+    }
+
+    /**
+     * Merges the given maps into one map which returns the strictest classification of any of the given maps for each path
+     * (i.e. the same as a {@link CompositeContentClassificationMap} consisting of the given maps).
+     * The merged map contains the union of all paths of the given maps.
+     * In case the strictest classification of the descendants of a path differs from the child node classification of the strictest classification of the path itself
+     * (e.g. {@code /p,FINAL} in one map and {@code /p,INTERNAL_DEPRECATED} in another map lead to {@code INTERNAL_CHILD} for {@code /p/q} but {@code INTERNAL_DEPRECATED} for {@code /p})
+     * an additional entry with a wildcard segment ({@code /p/*}) is added for the descendants. Those maps are not minimized then.
+     * @param label the label of the merged map
+     * @param maps the maps to merge
+     * @return the merged map
+     */
+    static MutableContentClassificationMapImpl mergeMaps(String label, Collection<ContentClassificationMapImpl> maps) {
+        ContentClassificationMap compositeMap = new CompositeContentClassificationMap(new ArrayList<ContentClassificationMap>(maps));
+        SortedSet<String> resourcePaths = new TreeSet<>();
+        for (ContentClassificationMapImpl map : maps) {
+            map.entryIterator().forEachRemaining(entry -> resourcePaths.add(entry.getResourcePath()));
+        }
+        MutableContentClassificationMapImpl mergedMap = new MutableContentClassificationMapImpl(label);
+        for (String resourcePath : resourcePaths) {
+            Map.Entry<ContentClassification, String> entry = compositeMap.getContentClassificationAndRemarkForResourcePath(resourcePath, null);
+            mergedMap.put(resourcePath, entry.getKey(), entry.getValue());
+            // the descendants only inherit from the strictest entry of the path itself, which is not necessarily the strictest for them
+            String descendantsPath = (resourcePath.equals("/") ? "" : resourcePath) + "/" + WILDCARD_SEGMENT;
+            Map.Entry<ContentClassification, String> descendantsEntry = compositeMap.getContentClassificationAndRemarkForResourcePath(descendantsPath, null);
+            if (!resourcePaths.contains(descendantsPath) && (descendantsEntry.getKey() != entry.getKey().getChildNodeClassification()
+                    || !Objects.equals(descendantsEntry.getValue(), entry.getValue()))) {
+                mergedMap.put(descendantsPath, descendantsEntry.getKey(), descendantsEntry.getValue());
+            }
+        }
+        return mergedMap;
+    }
+
+    /**
+     * 
+     * @param productsFutures the futures returning the installed products per instance
+     * @return the label containing each product (version) only once
+     * @throws IOException in case any request failed
+     * @throws InterruptedException in case the current thread was interrupted
+     * @throws MojoExecutionException in case retrieving the products failed with a {@link MojoExecutionException}
+     */
+    static String getLabel(Map<URI, CompletableFuture<Collection<String>>> productsFutures) throws IOException, InterruptedException, MojoExecutionException {
+        Collection<String> products = new LinkedHashSet<>();
+        for (CompletableFuture<Collection<String>> productsFuture : productsFutures.values()) {
+            products.addAll(join(productsFuture));
+        }
+        return String.join(", ", products);
+    }
+
+    /**
+     * Adds the given totals per instance to the given totals map. The keys are only qualified with the instance URL in case there are multiple instances
+     * (to stay compatible with fingerprints of maps generated from a single instance).
+     * @param totalsPerInstance the totals per instance
+     * @param totals the map to add the (potentially qualified) totals to
+     */
+    static void addTotals(Map<URI, Map<String, Long>> totalsPerInstance, Map<String, Long> totals) {
+        for (Map.Entry<URI, Map<String, Long>> instanceEntry : totalsPerInstance.entrySet()) {
+            for (Map.Entry<String, Long> entry : instanceEntry.getValue().entrySet()) {
+                String key = totalsPerInstance.size() == 1 ? entry.getKey() : entry.getKey() + "@" + instanceEntry.getKey();
+                totals.put(key, entry.getValue());
+            }
         }
     }
 
+    /**
+     * Checks whether the data in AEM changed since the given previous map has been generated.
+     * This is only based on the product versions and the number of hits per query (recorded in the fingerprint file belonging to the previous map).
+     * @param httpClient the client to use
+     * @param productsFutures the futures returning the installed products per instance
+     * @param previousMap the previously generated map
+     * @return {@code true} in case nothing changed, otherwise {@code false}
+     * @throws IOException in case any request failed
+     * @throws InterruptedException in case the current thread was interrupted
+     * @throws MojoExecutionException in case retrieving the products failed with a {@link MojoExecutionException}
+     */
+    boolean isUnchanged(HttpClient httpClient, Map<URI, CompletableFuture<Collection<String>>> productsFutures, ContentClassificationMap previousMap) throws IOException, InterruptedException, MojoExecutionException {
+        Path previousFingerprintFile = getFingerprintFile(previousMapFile);
+        if (!Files.exists(previousFingerprintFile)) {
+            getLog().info("No fingerprint found at " + previousFingerprintFile + ", cannot detect changes.");
+            return false;
+        }
+        String label = getLabel(productsFutures);
+        if (!label.equals(previousMap.getLabel())) {
+            getLog().info("Product versions changed from '" + previousMap.getLabel() + "' to '" + label + "'.");
+            return false;
+        }
+        Map<String, Long> previousTotals = readFingerprint(previousFingerprintFile);
+        Map<URI, CompletableFuture<Map<String, Long>>> totalsFutures = new LinkedHashMap<>();
+        for (URI instanceUrl : productsFutures.keySet()) {
+            totalsFutures.put(instanceUrl, retrieveTotals(httpClient, instanceUrl));
+        }
+        Map<URI, Map<String, Long>> totalsPerInstance = new LinkedHashMap<>();
+        for (Map.Entry<URI, CompletableFuture<Map<String, Long>>> entry : totalsFutures.entrySet()) {
+            totalsPerInstance.put(entry.getKey(), join(entry.getValue()));
+        }
+        Map<String, Long> totals = new TreeMap<>();
+        addTotals(totalsPerInstance, totals);
+        if (!totals.equals(previousTotals)) {
+            getLog().info("Number of hits per query changed from " + previousTotals + " to " + totals + ".");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Only retrieves the number of hits for each query (without the actual hits).
+     * @param httpClient the client to use
+     * @param baseUrl the base URL of the instance
+     * @return the future returning the number of hits per query
+     * @throws IOException in case any request could not be created
+     */
+    CompletableFuture<Map<String, Long>> retrieveTotals(HttpClient httpClient, URI baseUrl) throws IOException {
+        Map<String, CompletableFuture<Long>> totalFutures = new TreeMap<>();
+        for (ContentClassification classification : ContentClassification.values()) {
+            if (classification.isLabelMixin() == false) {
+                continue;
+            }
+            totalFutures.put(classification.getLabel(), retrieveQueryBuilderTotal(httpClient, baseUrl, getQueryForMixin(classification)));
+        }
+        totalFutures.put(PROPERTY_DEPRECATED, retrieveQueryBuilderTotal(httpClient, baseUrl, getQueryForDeprecations()));
+        return CompletableFuture.allOf(totalFutures.values().toArray(new CompletableFuture[0]))
+                .thenApply(v -> totalFutures.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().join(), (a, b) -> a, TreeMap::new)));
+    }
+
+    static Map<String, Long> readFingerprint(Path fingerprintFile) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(fingerprintFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, Long> totals = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                totals.put(key, Long.parseLong(properties.getProperty(key)));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid number for key '" + key + "' in fingerprint file " + fingerprintFile, e);
+            }
+        }
+        return totals;
+    }
+
+    static void writeFingerprint(Map<String, Long> totals, Path fingerprintFile) throws IOException {
+        Properties properties = new Properties();
+        for (Map.Entry<String, Long> entry : totals.entrySet()) {
+            properties.setProperty(entry.getKey(), entry.getValue().toString());
+        }
+        try (Writer writer = Files.newBufferedWriter(fingerprintFile, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Number of hits per query");
+        }
+    }
+
+    static Path getFingerprintFile(Path mapFile) {
+        return mapFile.resolveSibling(mapFile.getFileName() + ".fingerprint");
+    }
+
+    /**
+     * Waits for the given future to complete and unwraps the exception in case it completed exceptionally.
+     * @param future the future to wait for
+     * @return the result of the future
+     * @throws IOException in case the future failed with an {@link IOException} or {@link UncheckedIOException}
+     * @throws InterruptedException in case the current thread was interrupted while waiting
+     * @throws MojoExecutionException in case the future failed with a {@link MojoExecutionException}
+     */
+    static <T> T join(CompletableFuture<T> future) throws IOException, InterruptedException, MojoExecutionException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof MojoExecutionException) {
+                throw (MojoExecutionException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    CompletableFuture<Collection<String>> getProducts(HttpClient httpClient, URI baseUrl) {
+        // http://localhost:4502/system/console/status-productinfo does not provide proper JSON, therefore parse TXT
+        return downloadFromAem(httpClient, baseUrl, "/system/console/status-productinfo.txt", DownloadContentClassificationMojo::extractProductsFromProductInfo);
+    }
+
     static Collection<String> extractProductsFromProductInfo(InputStream input) throws IOException {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
             String line;
@@ -170,77 +479,199 @@ public class DownloadContentClassificationMojo extends AbstractMojo {
         }
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
-    void retrieveClassificationForMixin(HttpClient httpClient, ContentClassification classification, MutableContentClassificationMap map) throws IOException, InterruptedException {
-        // Uses the crxde search to find the current classification
-        // (http://localhost:8080/crx/de/query.jsp?_dc=1536334082630&_charset_=utf-8&type=JCR_SQL2&stmt=SELECT%20*%20FROM%20%5Bgranite%3AInternalArea%5D%0A&showResults=true)
+    CompletableFuture<Collection<String>> retrieveResourcePathsForMixin(HttpClient httpClient, URI baseUrl, ContentClassification classification) throws IOException {
+        // Uses the query builder to find the current classification
         // the index is crucial for that though (property index limited to properties jcr:primaryType and jcr:mixinTypes)
         // for AEM 6.4 we talk about roughly 300 entries
-        String query = "SELECT * FROM [" + classification.getLabel() + "]";
-        StringBuilder urlParameters = new StringBuilder();
-        urlParameters.append("_dc=").append(new Date().getTime()).append("&_charset_=utf-8&type=JCR-SQL2&stmt=").append(URLEncoder.encode(query, "ASCII")).append("&showResults=true");
-        try (InputStream input = downloadFromAem(httpClient, "/crx/de/query.jsp?" + urlParameters)) {
-            JSONParser parser = new JSONParser(input);
-            Map<String, Object> response = parser.getParsed();
-            getLog().debug("Received JSON response " + response);
-            /*
-             JSON Format
-            "results": [{ "path": "<resource type>" }],
-            "total": 102,
-            "success": true,
-            "time": 27
-            */
-            // check status first
-            if (!Boolean.TRUE.equals(response.get("success"))) {
-                throw new IllegalStateException("JSON response did not indicate success");
+        Collection<String> resourcePaths = new ArrayList<>();
+        return retrieveAllQueryBuilderHits(httpClient, baseUrl, getQueryForMixin(classification), Collections.singleton(PROPERTY_PATH), hit -> {
+            String resourceType = hit.get(PROPERTY_PATH);
+            if (resourceType != null) {
+                resourcePaths.add(resourceType);
             }
-            Object results = response.get("results");
-            if (!(results instanceof List)) {
-                throw new IllegalStateException("JSON response did not have an array of results");
+        }).thenApply(numHits -> resourcePaths);
+    }
+
+    static String getQueryForMixin(ContentClassification classification) throws IOException {
+        return "type=" + URLEncoder.encode(classification.getLabel(), "ASCII") + "&p.hits=selective&p.properties=" + URLEncoder.encode(PROPERTY_PATH, "ASCII");
+    }
+
+    CompletableFuture<Collection<Map<String, String>>> retrieveDeprecatedResourceTypes(HttpClient httpClient, URI baseUrl) throws IOException {
+        // uses query builder api to retrieve all deprecation metadata
+        Collection<Map<String, String>> deprecatedResourceTypes = new ArrayList<>();
+        return retrieveAllQueryBuilderHits(httpClient, baseUrl, getQueryForDeprecations(), DEPRECATION_PROPERTY_NAMES, deprecatedResourceTypes::add)
+                .thenApply(numHits -> deprecatedResourceTypes);
+    }
+
+    static String getQueryForDeprecations() throws IOException {
+        return "1_property=" + PROPERTY_DEPRECATED + "&1_property.operation=exists&p.hits=selective&p.properties=" + URLEncoder.encode(String.join(" ", DEPRECATION_PROPERTY_NAMES), "ASCII");
+    }
+
+    /**
+     * Only retrieves the total number of hits of the given query (the hits themselves are not relevant).
+     * @param httpClient the client to use
+     * @param baseUrl the base URL of the instance
+     * @param query the query builder predicates (URL encoded)
+     * @return the future returning the total number of hits
+     */
+    CompletableFuture<Long> retrieveQueryBuilderTotal(HttpClient httpClient, URI baseUrl, String query) {
+        return downloadFromAem(httpClient, baseUrl, "/bin/querybuilder.json?" + query + "&p.limit=1", DownloadContentClassificationMojo::extractTotalFromQueryBuilderResponse);
+    }
+
+    static long extractTotalFromQueryBuilderResponse(InputStream input) throws IOException {
+        try (JsonPullParser parser = new JsonPullParser(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if (parser.next() != Token.BEGIN_OBJECT) {
+                throw new IllegalStateException("JSON response is not an object");
             }
-            for (Map<String, Object> result : (List<Map<String, Object>>)results) {
-                String resourceType = (String)result.get("path");
-                if (resourceType != null) {
-                    map.put(resourceType, classification, null);
+            while (parser.next() == Token.NAME) {
+                if (parser.textEquals("success")) {
+                    if (parser.next() != Token.TRUE) {
+                        throw new IllegalStateException("JSON response did not indicate success");
+                    }
+                } else if (parser.textEquals("total")) {
+                    if (parser.next() != Token.NUMBER) {
+                        throw new IllegalStateException("JSON response did not have a numeric total");
+                    }
+                    return Long.parseLong(parser.getText());
+                } else {
+                    parser.skipValue();
                 }
             }
-            getLog().info("Retrieved " + ((List)results).size() + " entries for classification " +classification.getLabel());
         }
-        
+        throw new IllegalStateException("JSON response did not have a total");
     }
 
-    @SuppressWarnings("unchecked")
-    void retrieveDeprecatedResourceTypes(HttpClient httpClient, MutableContentClassificationMap map) throws IOException, InterruptedException {
-        // uses query builder api to retrieve all deprecation metadata
-        String query = "1_property=cq:deprecated&1_property.operation=exists&p.limit=-1&p.hits=selective&p.properties=" + URLEncoder.encode("jcr:mixinTypes jcr:path cq:deprecated cq:deprecatedReason", "ASCII");
-        EnumSet<ContentUsage> allContentUsages = EnumSet.allOf(ContentUsage.class);
-        try (InputStream input = downloadFromAem(httpClient, "/bin/querybuilder.json?" + query)) {
-            JSONParser parser = new JSONParser(input);
-            Map<String, Object> response = parser.getParsed();
-            getLog().debug("Received JSON response " + response);
-            Object results = response.get("hits");
-            if (!(results instanceof List)) {
-                throw new IllegalStateException("JSON response did not have an array of hits");
+    /**
+     * Executes the given query builder query page by page (each page is only requested after the previous one has been processed).
+     * @param httpClient the client to use
+     * @param baseUrl the base URL of the instance
+     * @param query the query builder predicates (URL encoded)
+     * @param propertyNames the names of the properties to extract from each hit
+     * @param hitConsumer the consumer being called for each hit
+     * @return the future returning the overall number of hits
+     */
+    CompletableFuture<Long> retrieveAllQueryBuilderHits(HttpClient httpClient, URI baseUrl, String query, Collection<String> propertyNames, Consumer<Map<String, String>> hitConsumer) {
+        return retrieveQueryBuilderHits(httpClient, baseUrl, query, propertyNames, hitConsumer, 0, null);
+    }
+
+    private CompletableFuture<Long> retrieveQueryBuilderHits(HttpClient httpClient, URI baseUrl, String query, Collection<String> propertyNames, Consumer<Map<String, String>> hitConsumer, long numPreviousHits, String lastPath) {
+        // ordering is necessary for stable pages, the total is not needed (and expensive to calculate)
+        StringBuilder path = new StringBuilder("/bin/querybuilder.json?").append(query).append("&orderby=path&p.guessTotal=true&p.limit=").append(pageSize);
+        if (keysetPagination) {
+            if (lastPath != null) {
+                path.append('&').append(getKeysetPredicate(lastPath));
+            }
+        } else {
+            path.append("&p.offset=").append(numPreviousHits);
+        }
+        AtomicReference<String> lastPathOfPage = new AtomicReference<>();
+        return downloadFromAem(httpClient, baseUrl, path.toString(), input -> extractHitsFromQueryBuilderResponse(input, propertyNames, hit -> {
+                    String hitPath = hit.get(PROPERTY_PATH);
+                    if (hitPath != null) {
+                        lastPathOfPage.set(hitPath);
+                    }
+                    hitConsumer.accept(hit);
+                }))
+                .thenCompose(numHits -> {
+                    if (numHits < pageSize) {
+                        return CompletableFuture.completedFuture(numPreviousHits + numHits);
+                    } else if (keysetPagination && lastPathOfPage.get() == null) {
+                        // otherwise the same page would be requested over and over again
+                        return CompletableFuture.failedFuture(new MojoExecutionException("None of the " + numHits + " hits of the query '" + query
+                                + "' returned from " + baseUrl + " contains a " + PROPERTY_PATH + ", cannot request the next page"));
+                    } else {
+                        return retrieveQueryBuilderHits(httpClient, baseUrl, query, propertyNames, hitConsumer, numPreviousHits + numHits, lastPathOfPage.get());
+                    }
+                });
+    }
+
+    /**
+     * Returns the predicate for keyset pagination.
+     * The condition on {@code jcr:path} is not covered by any index from the {@code aem-classification-search-index-package}, i.e. it only restricts the returned hits
+     * but not necessarily the nodes traversed by the repository.
+     * @param lastPath the last path of the previous page
+     * @return the query builder predicate only matching hits with a path greater than the given one
+     */
+    static String getKeysetPredicate(String lastPath) {
+        return "rangeproperty.property=" + URLEncoder.encode(PROPERTY_PATH, StandardCharsets.US_ASCII)
+                + "&rangeproperty.lowerBound=" + URLEncoder.encode(lastPath, StandardCharsets.UTF_8)
+                + "&rangeproperty.lowerOperation=" + URLEncoder.encode(">", StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Parses the query builder JSON response in a streaming fashion and passes each hit to the given consumer.
+     * Each hit only contains the requested scalar properties (as string).
+     * @param input the JSON response
+     * @param propertyNames the names of the properties to extract from each hit
+     * @param hitConsumer the consumer being called for each hit
+     * @return the number of hits
+     * @throws IOException in case the response could not be parsed
+     */
+    static int extractHitsFromQueryBuilderResponse(InputStream input, Collection<String> propertyNames, Consumer<Map<String, String>> hitConsumer) throws IOException {
+        /*
+         JSON Format
+        "success": true,
+        "results": 2,
+        "total": 2,
+        "more": false,
+        "offset": 0,
+        "hits": [{ "jcr:path": "<resource type>", ... }]
+        */
+        int numHits = -1;
+        try (JsonPullParser parser = new JsonPullParser(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if (parser.next() != Token.BEGIN_OBJECT) {
+                throw new IllegalStateException("JSON response is not an object");
             }
-            for (Map<String, Object> result : (List<Map<String, Object>>)results) {
-                String resourceType = (String)result.get("jcr:path");
-                // override classification in case any usage is allowed!
-                ContentClassification classification = map.getContentClassificationAndRemarkForResourcePath(resourceType, null).getKey();
-                if (classification.isAllowed(allContentUsages)) {
-                    classification = ContentClassification.INTERNAL_DEPRECATED_ANNOTATION;
+            while (parser.next() == Token.NAME) {
+                if (parser.textEquals("success")) {
+                    if (parser.next() != Token.TRUE) {
+                        throw new IllegalStateException("JSON response did not indicate success");
+                    }
+                } else if (parser.textEquals("hits")) {
+                    if (parser.next() != Token.BEGIN_ARRAY) {
+                        throw new IllegalStateException("JSON response did not have an array of hits");
+                    }
+                    numHits = 0;
+                    while (parser.next() == Token.BEGIN_OBJECT) {
+                        hitConsumer.accept(extractHit(parser, propertyNames));
+                        numHits++;
+                    }
+                } else {
+                    parser.skipValue();
                 }
-                // override classification in case this is still marked as public
-                String deprecatedSince = (String) result.get("cq:deprecated");
-                String deprecatedReason = (String) result.get("cq:deprecatedReason");
-                String deprecationRemark = "Deprecated since " + deprecatedSince + ": " + deprecatedReason;
-                map.put(resourceType, classification, deprecationRemark);
             }
-            getLog().info("Retrieved " + ((List)results).size() + " entries for deprecations.");
         }
+        if (numHits < 0) {
+            throw new IllegalStateException("JSON response did not have an array of hits");
+        }
+        return numHits;
+    }
+
+    private static Map<String, String> extractHit(JsonPullParser parser, Collection<String> propertyNames) throws IOException {
+        Map<String, String> hit = new HashMap<>();
+        while (parser.next() == Token.NAME) {
+            String name = parser.getText();
+            Token value = parser.next();
+            if (propertyNames.contains(name) && (value == Token.STRING || value == Token.NUMBER)) {
+                hit.put(name, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return hit;
+    }
+
+    /**
+     * Parses the body of a successful response.
+     * @param <T> the type of the parsed body
+     */
+    @FunctionalInterface
+    interface ResponseBodyParser<T> {
+        T parse(InputStream input) throws IOException;
     }
 
     @SuppressWarnings("java:S2647") // basic auth is ok in this context
-    private InputStream downloadFromAem(HttpClient httpClient, String path) throws IOException, InterruptedException {
+    private <T> CompletableFuture<T> downloadFromAem(HttpClient httpClient, URI baseUrl, String path, ResponseBodyParser<T> parser) {
         String credentials = username+":"+password;
         String encoded = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
         URI uri = baseUrl.resolve(path);
@@ -248,38 +679,35 @@ public class DownloadContentClassificationMojo extends AbstractMojo {
                 .uri(uri)
                 // preemptive-auth only natively supported once authentication in cache (after first successful request), https://stackoverflow.com/a/58612586
                 .header("Authorization", "Basic "+encoded)
+                .header("Accept-Encoding", "gzip")
                 .build();
         getLog().debug("Connecting to " + uri + "...");
-        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
-        if (response.statusCode() != 200) {
-            throw new IOException("Could not download from " + uri + ", server returned status code " + response.statusCode());
-        }
-        return response.body();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> {
+                    try (InputStream input = response.body()) {
+                        if (response.statusCode() != 200) {
+                            throw new IOException("Could not download from " + uri + ", server returned status code " + response.statusCode());
+                        }
+                        // decode on the fly
+                        if (response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent()) {
+                            return parser.parse(new GZIPInputStream(input));
+                        }
+                        return parser.parse(input);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
     }
 
-    Path createJarWrapper(Path sourceFile, Path relativeFileNameInJar) throws IOException {
-        Manifest manifest = new Manifest();
-        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
-        final Path jarFile;
-        if (outputFile == null) {
-            jarFile = Files.createTempFile("contentclassification", ".jar");
+    /**
+     * 
+     * @return the base URLs of all instances to harvest
+     */
+    Collection<URI> getBaseUrls() {
+        if (baseUrls != null && !baseUrls.isEmpty()) {
+            return baseUrls;
         } else {
-            jarFile = outputFile.resolveSibling(outputFile.getFileName() + ".jar");
+            return Collections.singletonList(baseUrl);
         }
-        
-        try (JarOutputStream target = new JarOutputStream(Files.newOutputStream(jarFile), manifest)) {
-            JarEntry entry = new JarEntry(getPathWithUnixSeparators(relativeFileNameInJar));
-            entry.setTime(Files.getLastModifiedTime(sourceFile).toMillis());
-            target.putNextEntry(entry);
-            try (InputStream input = Files.newInputStream(sourceFile)) {
-                input.transferTo(target);
-            }
-            target.closeEntry();
-        }
-        return jarFile;
-    }
-
-    static String getPathWithUnixSeparators(Path path) {
-        return StreamSupport.stream(path.spliterator(), false).map(Path::toString).collect(Collectors.joining("/"));
     }
 }
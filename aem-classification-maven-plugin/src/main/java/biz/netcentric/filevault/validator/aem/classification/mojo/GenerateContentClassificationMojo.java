@@ -0,0 +1,81 @@
+package biz.netcentric.filevault.validator.aem.classification.mojo;
+
+/*-
+ * #%L
+ * AEM Classification Maven Plugin
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.map.MutableContentClassificationMapImpl;
+
+/**
+ *  Generates the classification map from an exported content package or an unpacked {@code jcr_root} folder (e.g. containing {@code /libs})
+ *  without the need for a running AEM instance or any custom search index.
+ *  <p>
+ *  Evaluates the mixins from the {@code jcr:mixinTypes} property and the deprecation infos from properties {@code cq:deprecated} and {@code cq:deprecatedReason}
+ *  of all nodes serialized in DocView files ({@code .content.xml}). The resulting map is equal to the one generated by {@link DownloadContentClassificationMojo}
+ *  from an AEM instance with the same content.
+ */
+@Mojo(requiresProject=false, name = "generate-content-classification")
+public class GenerateContentClassificationMojo extends AbstractContentClassificationMapMojo {
+
+    /**
+     * The content package ZIP file or the directory containing the {@code jcr_root} folder (or the {@code jcr_root} folder itself)
+     * from which to extract the classification.
+     */
+    @Parameter(property="source", required = true)
+    Path source;
+
+    /**
+     * The label of the generated map (usually the product version the content has been exported from). If not set the file name of {@code source} is used.
+     */
+    @Parameter(property="label", required = false)
+    String label;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try {
+            getLog().info("Start scanning " + source + " for classification and deprecation data");
+            DocViewClassificationScanner scanner = new DocViewClassificationScanner();
+            scanner.scan(source);
+            getLog().info("Scanned " + scanner.getNumDocViewFiles() + " DocView files.");
+
+            MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl(label != null ? label : source.getFileName().toString());
+            // always make sure that the root node is PUBLIC (even though this might not be part of the content)
+            map.put("/", ContentClassification.PUBLIC, null);
+            // 1. store classifications from mixins in map (in the order of the enum)
+            for (Map.Entry<ContentClassification, Collection<String>> entry : scanner.getResourcePathsPerClassification().entrySet()) {
+                addClassification(entry.getKey(), entry.getValue(), map);
+            }
+            // 2. update map with deprecation entries (must be applied after all classifications are known)
+            addDeprecations(scanner.getDeprecatedResourceTypes(), map);
+
+            // 3. persist the map
+            Path classificationMapFile = getOutputFile(".map");
+            writeMap(map, classificationMapFile);
+
+            // 4. optionally wrap in a JAR
+            createJarWrapperIfNecessary(map);
+        } catch (IOException e) {
+            throw new MojoFailureException("Could not generate classification map from " + source + ": " + e.getMessage(), e);
+        }
+    }
+}
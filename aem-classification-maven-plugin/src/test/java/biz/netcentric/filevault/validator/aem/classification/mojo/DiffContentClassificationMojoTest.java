@@ -0,0 +1,105 @@
+package biz.netcentric.filevault.validator.aem.classification.mojo;
+
+/*-
+ * #%L
+ * AEM Classification Maven Plugin
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapDiff.ChangeType;
+import biz.netcentric.filevault.validator.aem.classification.map.MutableContentClassificationMapImpl;
+
+class DiffContentClassificationMojoTest {
+
+    @Test
+    void testWriteDiff() throws IOException {
+        StringWriter writer = new StringWriter();
+        Map<ChangeType, Integer> numChangesPerType = new EnumMap<>(ChangeType.class);
+        assertEquals(4, DiffContentClassificationMojo.writeDiff(createOldMap(), createNewMap(), writer, numChangesPerType));
+        assertEquals("# Changes from '1.0' to '2.0'\n"
+                + "+ /libs/added,ABSTRACT (subtree PUBLIC -> ABSTRACT)\n"
+                + "~ /libs/reclassified,PUBLIC -> INTERNAL_DEPRECATED_ANNOTATION\n"
+                + "* /libs/reclassified,none -> 'Deprecated since 2.0: Reason'\n"
+                + "- /libs/removed,INTERNAL (subtree INTERNAL -> PUBLIC)\n"
+                + "- /libs/unchanged/redundant,INTERNAL_CHILD (subtree unchanged)\n", writer.toString());
+        assertEquals(Map.of(ChangeType.ADDED, 1, ChangeType.REMOVED, 2, ChangeType.RECLASSIFIED, 1, ChangeType.REMARK_CHANGED, 1), numChangesPerType);
+    }
+
+    @Test
+    void testExecuteWithJars(@TempDir Path tempDir) throws IOException, MojoExecutionException, MojoFailureException {
+        writeJar(createOldMap(), tempDir.resolve("old"));
+        writeJar(createNewMap(), tempDir.resolve("new"));
+        DiffContentClassificationMojo mojo = new DiffContentClassificationMojo();
+        mojo.oldMap = tempDir.resolve("old.jar");
+        mojo.newMap = tempDir.resolve("new.jar");
+        mojo.outputFile = tempDir.resolve("diff.txt");
+        mojo.execute();
+        StringWriter writer = new StringWriter();
+        DiffContentClassificationMojo.writeDiff(createOldMap(), createNewMap(), writer, new EnumMap<>(ChangeType.class));
+        assertEquals(writer.toString(), Files.readString(mojo.outputFile, StandardCharsets.UTF_8));
+
+        mojo.relativeFileNameInJar = "other.map";
+        assertThrows(MojoExecutionException.class, mojo::execute);
+    }
+
+    @Test
+    void testLoadMapFile(@TempDir Path tempDir) throws IOException {
+        MutableContentClassificationMapImpl map = createOldMap();
+        Path mapFile = tempDir.resolve("old.map");
+        try (OutputStream output = Files.newOutputStream(mapFile)) {
+            map.write(output);
+        }
+        assertEquals(map, DiffContentClassificationMojo.loadMap(mapFile, null));
+    }
+
+    private static void writeJar(MutableContentClassificationMapImpl map, Path outputFile) throws IOException {
+        GenerateContentClassificationMojo mojo = new GenerateContentClassificationMojo();
+        mojo.outputFile = outputFile;
+        mojo.createJarWrapper(map, Paths.get("biz", "netcentric", "classification.map"));
+    }
+
+    private static MutableContentClassificationMapImpl createOldMap() {
+        MutableContentClassificationMapImpl oldMap = new MutableContentClassificationMapImpl("1.0");
+        oldMap.put("/", ContentClassification.PUBLIC, null);
+        oldMap.put("/libs/removed", ContentClassification.INTERNAL, null);
+        oldMap.put("/libs/reclassified", ContentClassification.PUBLIC, null);
+        oldMap.put("/libs/unchanged", ContentClassification.FINAL, null);
+        oldMap.put("/libs/unchanged/redundant", ContentClassification.INTERNAL_CHILD, null);
+        return oldMap;
+    }
+
+    private static MutableContentClassificationMapImpl createNewMap() {
+        MutableContentClassificationMapImpl newMap = new MutableContentClassificationMapImpl("2.0");
+        newMap.put("/", ContentClassification.PUBLIC, null);
+        newMap.put("/libs/added", ContentClassification.ABSTRACT, null);
+        newMap.put("/libs/reclassified", ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 2.0: Reason");
+        newMap.put("/libs/unchanged", ContentClassification.FINAL, null);
+        return newMap;
+    }
+}
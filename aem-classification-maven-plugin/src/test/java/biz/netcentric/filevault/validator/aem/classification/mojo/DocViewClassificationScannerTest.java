@@ -0,0 +1,100 @@
+package biz.netcentric.filevault.validator.aem.classification.mojo;
+
+/*-
+ * #%L
+ * AEM Classification Maven Plugin
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+
+class DocViewClassificationScannerTest {
+
+    @Test
+    void testGetRepositoryPath() {
+        assertEquals("/", DocViewClassificationScanner.getRepositoryPath(""));
+        assertEquals("/libs/cq/gui/cq:dialog", DocViewClassificationScanner.getRepositoryPath("libs/cq/gui/_cq_dialog/"));
+        assertEquals("/libs/_private/a:b", DocViewClassificationScanner.getRepositoryPath("libs/__private/a%3ab"));
+    }
+
+    @Test
+    void testDecodeElementName() {
+        assertEquals("abstract type", DocViewClassificationScanner.decodeElementName("abstract_x0020_type"));
+        assertEquals("jcr:content", DocViewClassificationScanner.decodeElementName("jcr:content"));
+        assertEquals("_x00_", DocViewClassificationScanner.decodeElementName("_x00_"));
+    }
+
+    @Test
+    void testParseValues() {
+        assertEquals(List.of("granite:InternalArea", "mix:lockable"), DocViewClassificationScanner.parseValues("{Name}[granite:InternalArea,mix:lockable]"));
+        assertEquals(List.of(), DocViewClassificationScanner.parseValues("[]"));
+        assertEquals(List.of("some, value"), DocViewClassificationScanner.parseValues("some, value"));
+        assertEquals(List.of("a,b", "[c]"), DocViewClassificationScanner.parseValues("[a\\,b,\\[c\\]]"));
+    }
+
+    @Test
+    void testScanDirectory() throws IOException, URISyntaxException {
+        DocViewClassificationScanner scanner = new DocViewClassificationScanner();
+        scanner.scan(getContentPackageDirectory());
+        assertScanResult(scanner);
+    }
+
+    @Test
+    void testScanZip(@TempDir Path tempDir) throws IOException, URISyntaxException {
+        Path directory = getContentPackageDirectory();
+        Path zip = tempDir.resolve("content-package.zip");
+        try (ZipOutputStream output = new ZipOutputStream(Files.newOutputStream(zip));
+             Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                output.putNextEntry(new ZipEntry(AbstractContentClassificationMapMojo.getPathWithUnixSeparators(directory.relativize(file))));
+                Files.copy(file, output);
+                output.closeEntry();
+            }
+        }
+        DocViewClassificationScanner scanner = new DocViewClassificationScanner();
+        scanner.scan(zip);
+        assertScanResult(scanner);
+    }
+
+    static Path getContentPackageDirectory() throws URISyntaxException {
+        return Paths.get(DocViewClassificationScannerTest.class.getResource("/content-package").toURI());
+    }
+
+    private static void assertScanResult(DocViewClassificationScanner scanner) {
+        assertEquals(3, scanner.getNumDocViewFiles());
+        Map<ContentClassification, ? extends Object> resourcePathsPerClassification = scanner.getResourcePathsPerClassification();
+        assertEquals(Set.of("/libs/cq/gui/components/authoring/cq:dialog", "/libs/granite/ui/components/internal"), resourcePathsPerClassification.get(ContentClassification.INTERNAL));
+        assertEquals(Set.of("/libs/granite/ui/components/internal/abstract type"), resourcePathsPerClassification.get(ContentClassification.ABSTRACT));
+        assertEquals(Set.of("/libs/granite/ui/components"), resourcePathsPerClassification.get(ContentClassification.FINAL));
+        assertEquals(Set.of("/libs/foundation/components/text"), resourcePathsPerClassification.get(ContentClassification.PUBLIC));
+        assertEquals(List.of(
+                Map.of("jcr:path", "/libs/cq/gui/components/authoring/cq:dialog", "cq:deprecated", "6.5", "cq:deprecatedReason", "Use the Coral 3 based dialog, please."),
+                Map.of("jcr:path", "/libs/foundation/components/text", "cq:deprecated", "6.0", "cq:deprecatedReason", "Use Core Components instead.")),
+                scanner.getDeprecatedResourceTypes());
+    }
+}
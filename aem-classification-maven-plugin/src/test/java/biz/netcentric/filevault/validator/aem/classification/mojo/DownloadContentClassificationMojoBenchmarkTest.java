@@ -0,0 +1,90 @@
+package biz.netcentric.filevault.validator.aem.classification.mojo;
+
+/*-
+ * #%L
+ * AEM Classification Maven Plugin
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+
+/**
+ * Measures the end-to-end harvest time and the peak heap usage of {@link DownloadContentClassificationMojo} against a {@link StubAemServer}
+ * with different numbers of hits.
+ * Only executed when system property {@code benchmark} is set to {@code true} (e.g. via {@code mvn test -Dbenchmark=true}).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DownloadContentClassificationMojoBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DownloadContentClassificationMojoBenchmarkTest.class);
+
+    @Test
+    void benchmark1kHits(@TempDir Path tempDir) throws IOException, MojoExecutionException, MojoFailureException {
+        benchmark(1_000, tempDir);
+    }
+
+    @Test
+    void benchmark100kHits(@TempDir Path tempDir) throws IOException, MojoExecutionException, MojoFailureException {
+        benchmark(100_000, tempDir);
+    }
+
+    @Test
+    void benchmark1MHits(@TempDir Path tempDir) throws IOException, MojoExecutionException, MojoFailureException {
+        benchmark(1_000_000, tempDir);
+    }
+
+    private static void benchmark(int numHits, Path tempDir) throws IOException, MojoExecutionException, MojoFailureException {
+        try (StubAemServer server = new StubAemServer("Adobe Experience Manager (6.5.0)")) {
+            // distribute the hits over the non-public classifications
+            server.addGeneratedClassification(ContentClassification.INTERNAL, numHits / 2)
+                .addGeneratedClassification(ContentClassification.FINAL, numHits / 4)
+                .addGeneratedClassification(ContentClassification.ABSTRACT, numHits - numHits / 2 - numHits / 4)
+                .setLatency(Duration.ofMillis(Long.getLong("benchmark.latency", 5)));
+            DownloadContentClassificationMojo mojo = new DownloadContentClassificationMojo();
+            mojo.baseUrl = server.getBaseUrl();
+            mojo.outputFile = tempDir.resolve("benchmark");
+
+            List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .collect(Collectors.toList());
+            System.gc();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long startTime = System.nanoTime();
+            mojo.execute();
+            long duration = System.nanoTime() - startTime;
+            long peakHeapUsage = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+            Map<String, Long> totals = DownloadContentClassificationMojo.readFingerprint(
+                    DownloadContentClassificationMojo.getFingerprintFile(tempDir.resolve("benchmark.map")));
+            assertEquals(numHits, totals.values().stream().mapToLong(Long::longValue).sum());
+            LOGGER.info("Harvested {} hits in {} ms with peak heap usage of {} MB", numHits, Duration.ofNanos(duration).toMillis(), peakHeapUsage / (1024 * 1024));
+        }
+    }
+}
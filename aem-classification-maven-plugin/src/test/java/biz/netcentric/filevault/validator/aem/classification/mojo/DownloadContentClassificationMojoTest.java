@@ -14,13 +14,39 @@ package biz.netcentric.filevault.validator.aem.classification.mojo;
 */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.MutableContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.map.CompositeContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapImpl;
+import biz.netcentric.filevault.validator.aem.classification.map.MutableContentClassificationMapImpl;
 
 class DownloadContentClassificationMojoTest {
 
@@ -30,9 +56,248 @@ class DownloadContentClassificationMojoTest {
         assertEquals("my/test/path", DownloadContentClassificationMojo.getPathWithUnixSeparators(path));
     }
 
+    @Test
+    void testGetOutputFile(@TempDir Path tempDir) throws IOException {
+        DownloadContentClassificationMojo mojo = new DownloadContentClassificationMojo();
+        // temporary files share the same random directory
+        Path mapFile = mojo.getOutputFile(".map");
+        Path changeLogFile = mojo.getOutputFile(".changes.txt");
+        assertEquals(mapFile.getFileName().toString().replace(".map", ".changes.txt"), changeLogFile.getFileName().toString());
+        assertEquals(mapFile.getParent(), changeLogFile.getParent());
+        // without any placeholder file
+        try (Stream<Path> files = Files.list(mapFile.getParent())) {
+            assertEquals(0, files.count());
+        }
+        Files.delete(mapFile.getParent());
+        mojo.outputFile = tempDir.resolve("test");
+        assertEquals(tempDir.resolve("test.map"), mojo.getOutputFile(".map"));
+        assertEquals(tempDir.resolve("test.map.fingerprint"), DownloadContentClassificationMojo.getFingerprintFile(mojo.getOutputFile(".map")));
+    }
+
     @Test
     void testProductsFromProductInfo() throws IOException {
         assertEquals(List.of("Adobe Experience Manager (2025.11.23482.20251120T200914Z)", "cif (2025.10.15.00)", "forms (2025.10.17.02)"),
            DownloadContentClassificationMojo.extractProductsFromProductInfo(DownloadContentClassificationMojo.class.getResourceAsStream("/productinfo.txt")));
    }
+
+    @Test
+    void testExtractHitsFromQueryBuilderResponse() throws IOException {
+        List<Map<String, String>> hits = new ArrayList<>();
+        try (InputStream input = DownloadContentClassificationMojo.class.getResourceAsStream("/querybuilder-deprecations.json")) {
+            assertEquals(2, DownloadContentClassificationMojo.extractHitsFromQueryBuilderResponse(input, List.of("jcr:path", "cq:deprecated"), hits::add));
+        }
+        // only requested scalar properties are extracted
+        assertEquals(List.of(Map.of("jcr:path", "/libs/cq/gui/components/authoring/dialog", "cq:deprecated", "6.5"), 
+                Map.of("jcr:path", "/libs/foundation/components/text", "cq:deprecated", "6.0")), hits);
+    }
+
+    @Test
+    void testExtractHitsFromUnsuccessfulQueryBuilderResponse() {
+        InputStream input = new ByteArrayInputStream("{\"success\":false,\"errorMessage\":\"some error\"}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, () -> DownloadContentClassificationMojo.extractHitsFromQueryBuilderResponse(input, List.of("jcr:path"), hit -> {}));
+    }
+
+    @Test
+    void testAddClassificationsAndDeprecations() throws IOException {
+        DownloadContentClassificationMojo mojo = new DownloadContentClassificationMojo();
+        MutableContentClassificationMap map = new MutableContentClassificationMapImpl("test");
+        map.put("/", ContentClassification.PUBLIC, null);
+        Collection<String> resourcePaths = new ArrayList<>();
+        try (InputStream input = DownloadContentClassificationMojo.class.getResourceAsStream("/querybuilder-mixin.json")) {
+            DownloadContentClassificationMojo.extractHitsFromQueryBuilderResponse(input, List.of("jcr:path"), hit -> resourcePaths.add(hit.get("jcr:path")));
+        }
+        mojo.addClassification(ContentClassification.FINAL, resourcePaths, map);
+        Collection<Map<String, String>> hits = new ArrayList<>();
+        try (InputStream input = DownloadContentClassificationMojo.class.getResourceAsStream("/querybuilder-deprecations.json")) {
+            DownloadContentClassificationMojo.extractHitsFromQueryBuilderResponse(input, List.of("jcr:path", "cq:deprecated", "cq:deprecatedReason"), hits::add);
+        }
+        mojo.addDeprecations(hits, map);
+        assertEquals(4, map.size());
+        // FINAL is kept as it is already restricting some usages
+        assertEquals(new SimpleEntry<>(ContentClassification.FINAL, "Deprecated since 6.5: Use the Coral 3 based dialog instead."),
+                map.getContentClassificationAndRemarkForResourcePath("/libs/cq/gui/components/authoring/dialog", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 6.0: Use Core Components instead."),
+                map.getContentClassificationAndRemarkForResourcePath("/libs/foundation/components/text", null));
+    }
+
+    @Test
+    void testExtractTotalFromQueryBuilderResponse() throws IOException {
+        try (InputStream input = DownloadContentClassificationMojo.class.getResourceAsStream("/querybuilder-deprecations.json")) {
+            assertEquals(2, DownloadContentClassificationMojo.extractTotalFromQueryBuilderResponse(input));
+        }
+    }
+
+    @Test
+    void testWriteAndReadFingerprint(@TempDir Path tempDir) throws IOException {
+        Map<String, Long> totals = Map.of("granite:InternalArea", 12L, "cq:deprecated", 3L);
+        Path fingerprintFile = DownloadContentClassificationMojo.getFingerprintFile(tempDir.resolve("test.map"));
+        assertEquals(tempDir.resolve("test.map.fingerprint"), fingerprintFile);
+        DownloadContentClassificationMojo.writeFingerprint(totals, fingerprintFile);
+        assertEquals(totals, DownloadContentClassificationMojo.readFingerprint(fingerprintFile));
+    }
+
+    @Test
+    void testJoinUnwrapsIOException() {
+        IOException exception = new IOException("test");
+        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> { throw new UncheckedIOException(exception); });
+        assertSame(exception, assertThrows(IOException.class, () -> DownloadContentClassificationMojo.join(future)));
+    }
+
+    @Test
+    void testMergeMaps() {
+        MutableContentClassificationMapImpl map1 = new MutableContentClassificationMapImpl("1.0");
+        map1.put("/", ContentClassification.PUBLIC, null);
+        map1.put("/libs/final", ContentClassification.FINAL, null);
+        map1.put("/libs/public", ContentClassification.PUBLIC, null);
+        MutableContentClassificationMapImpl map2 = new MutableContentClassificationMapImpl("2.0");
+        map2.put("/", ContentClassification.PUBLIC, null);
+        map2.put("/libs/final/child", ContentClassification.PUBLIC, null);
+        map2.put("/libs/public", ContentClassification.INTERNAL_DEPRECATED, "Deprecated since 2.0: Reason");
+        MutableContentClassificationMapImpl mergedMap = DownloadContentClassificationMojo.mergeMaps("merged", List.of(map1, map2));
+        assertEquals("merged", mergedMap.getLabel());
+        assertEquals(4, mergedMap.size());
+        // inherited classification from the other map is stricter
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, null), mergedMap.getContentClassificationAndRemarkForResourcePath("/libs/final/child", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_DEPRECATED, "Deprecated since 2.0: Reason"), mergedMap.getContentClassificationAndRemarkForResourcePath("/libs/public", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.FINAL, null), mergedMap.getContentClassificationAndRemarkForResourcePath("/libs/final", null));
+    }
+
+    @Test
+    void testMergeMapsWithStricterDescendants() {
+        MutableContentClassificationMapImpl map1 = new MutableContentClassificationMapImpl("map1");
+        map1.put("/", ContentClassification.PUBLIC, null);
+        map1.put("/p", ContentClassification.FINAL, null);
+        MutableContentClassificationMapImpl map2 = new MutableContentClassificationMapImpl("map2");
+        map2.put("/", ContentClassification.PUBLIC, null);
+        map2.put("/p", ContentClassification.INTERNAL_DEPRECATED, "Deprecated since 2.0: Reason");
+        MutableContentClassificationMapImpl mergedMap = DownloadContentClassificationMojo.mergeMaps("merged", List.of(map1, map2));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_DEPRECATED, "Deprecated since 2.0: Reason"), mergedMap.getContentClassificationAndRemarkForResourcePath("/p", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, null), mergedMap.getContentClassificationAndRemarkForResourcePath("/p/q", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, null), mergedMap.getContentClassificationAndRemarkForResourcePath("/p/q/r", null));
+    }
+
+    @Test
+    void testMergeMapsSameAsComposite() {
+        String[] paths = { "/a", "/a/b", "/a/b/c", "/a/d", "/e", "/e/f" };
+        String[] remarks = { null, "Deprecated since 1.0: Reason", "Deprecated since 2.0: Other reason" };
+        ContentClassification[] classifications = ContentClassification.values();
+        for (long seed = 0; seed < 500; seed++) {
+            Random random = new Random(seed);
+            List<ContentClassificationMapImpl> maps = new ArrayList<>();
+            int numMaps = 2 + random.nextInt(2);
+            for (int i = 0; i < numMaps; i++) {
+                MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("map" + i);
+                map.put("/", ContentClassification.PUBLIC, null);
+                for (String path : paths) {
+                    if (random.nextInt(3) == 0) {
+                        map.put(path, classifications[random.nextInt(classifications.length)], remarks[random.nextInt(remarks.length)]);
+                    }
+                }
+                maps.add(map);
+            }
+            ContentClassificationMap compositeMap = new CompositeContentClassificationMap(new ArrayList<ContentClassificationMap>(maps));
+            MutableContentClassificationMapImpl mergedMap = DownloadContentClassificationMojo.mergeMaps("merged", maps);
+            for (String path : paths) {
+                for (String lookupPath : List.of(path, path + "/x", path + "/x/y")) {
+                    assertEquals(compositeMap.getContentClassificationAndRemarkForResourcePath(lookupPath, null),
+                            mergedMap.getContentClassificationAndRemarkForResourcePath(lookupPath, null), "Different result for seed " + seed + " and path " + lookupPath);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testExecuteWithMultipleInstances(@TempDir Path tempDir) throws IOException, MojoExecutionException, MojoFailureException {
+        try (StubAemServer server1 = new StubAemServer("Adobe Experience Manager (6.5.0)");
+             StubAemServer server2 = new StubAemServer("Adobe Experience Manager (6.5.0)", "forms (6.0.0)")) {
+            server1.addClassification(ContentClassification.FINAL, "/libs/a")
+                .addClassification(ContentClassification.PUBLIC, "/libs/b", "/libs/c")
+                .addDeprecation("/libs/c", "6.4", "Use b instead.");
+            server2.addClassification(ContentClassification.INTERNAL, "/libs/a")
+                .addClassification(ContentClassification.PUBLIC, "/libs/b", "/libs/forms/x");
+            DownloadContentClassificationMojo mojo = new DownloadContentClassificationMojo();
+            mojo.baseUrls = List.of(server1.getBaseUrl(), server2.getBaseUrl());
+            // enforce multiple pages
+            mojo.pageSize = 1;
+            mojo.outputFile = tempDir.resolve("merged");
+            mojo.execute();
+
+            Path mapFile = tempDir.resolve("merged.map");
+            ContentClassificationMapImpl map;
+            try (InputStream input = Files.newInputStream(mapFile)) {
+                map = new ContentClassificationMapImpl(input, mapFile.toString());
+            }
+            assertEquals("Adobe Experience Manager (6.5.0), forms (6.0.0)", map.getLabel());
+            // PUBLIC entries below the PUBLIC root are implied and therefore removed
+            assertEquals(3, map.size());
+            assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, null), map.getContentClassificationAndRemarkForResourcePath("/libs/a", null));
+            assertEquals(new SimpleEntry<>(ContentClassification.PUBLIC, null), map.getContentClassificationAndRemarkForResourcePath("/libs/b", null));
+            assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 6.4: Use b instead."), map.getContentClassificationAndRemarkForResourcePath("/libs/c", null));
+            assertEquals(new SimpleEntry<>(ContentClassification.PUBLIC, null), map.getContentClassificationAndRemarkForResourcePath("/libs/forms/x", null));
+            // totals are recorded per instance
+            Map<String, Long> totals = DownloadContentClassificationMojo.readFingerprint(DownloadContentClassificationMojo.getFingerprintFile(mapFile));
+            assertEquals(2L, totals.get("granite:PublicArea@" + server1.getBaseUrl()));
+            assertEquals(0L, totals.get("cq:deprecated@" + server2.getBaseUrl()));
+        }
+    }
+
+    @Test
+    void testExecuteWithGeneratedHitsAndLatency(@TempDir Path tempDir) throws IOException, MojoExecutionException, MojoFailureException {
+        for (boolean keysetPagination : new boolean[] { true, false }) {
+            try (StubAemServer server = new StubAemServer("Adobe Experience Manager (6.5.0)")) {
+                server.addGeneratedClassification(ContentClassification.INTERNAL, 1000)
+                    .addGeneratedClassification(ContentClassification.FINAL, 500)
+                    // explicit paths sorted before and after the generated ones
+                    .addClassification(ContentClassification.FINAL, "/libs/final", "/libs/x/final")
+                    .setLatency(Duration.ofMillis(20));
+                DownloadContentClassificationMojo mojo = new DownloadContentClassificationMojo();
+                mojo.baseUrl = server.getBaseUrl();
+                mojo.pageSize = 100;
+                mojo.keysetPagination = keysetPagination;
+                mojo.outputFile = tempDir.resolve("generated-" + keysetPagination);
+                mojo.execute();
+
+                Path mapFile = tempDir.resolve("generated-" + keysetPagination + ".map");
+                ContentClassificationMapImpl map;
+                try (InputStream input = Files.newInputStream(mapFile)) {
+                    map = new ContentClassificationMapImpl(input, mapFile.toString());
+                }
+                assertEquals(1 + 1000 + 500 + 2, map.size());
+                assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, null), 
+                        map.getContentClassificationAndRemarkForResourcePath(StubAemServer.getGeneratedResourcePath(ContentClassification.INTERNAL, 999), null));
+                assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, null), 
+                        map.getContentClassificationAndRemarkForResourcePath(StubAemServer.getGeneratedResourcePath(ContentClassification.FINAL, 0) + "/child", null));
+                assertEquals(new SimpleEntry<>(ContentClassification.FINAL, null), map.getContentClassificationAndRemarkForResourcePath("/libs/x/final", null));
+                Map<String, Long> totals = DownloadContentClassificationMojo.readFingerprint(DownloadContentClassificationMojo.getFingerprintFile(mapFile));
+                assertEquals(1000L, totals.get(ContentClassification.INTERNAL.getLabel()));
+                if (keysetPagination) {
+                    assertEquals(0, server.getNumSkippedHits());
+                } else {
+                    // 1000 INTERNAL hits: 100 + 200 + ... + 900 (+ 1000 for the empty last page), 502 FINAL hits: 100 + ... + 500
+                    assertEquals(5500 + 1500, server.getNumSkippedHits());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testExecuteWithHitsWithoutPath(@TempDir Path tempDir) throws IOException {
+        try (StubAemServer server = new StubAemServer("Adobe Experience Manager (6.5.0)")) {
+            server.addGeneratedClassification(ContentClassification.INTERNAL, 10)
+                .setOmittingPaths(true);
+            DownloadContentClassificationMojo mojo = new DownloadContentClassificationMojo();
+            mojo.baseUrl = server.getBaseUrl();
+            mojo.pageSize = 5;
+            mojo.outputFile = tempDir.resolve("withoutpath");
+            // must not request the first page over and over again
+            MojoExecutionException exception = assertThrows(MojoExecutionException.class, mojo::execute);
+            assertTrue(exception.getMessage().contains("jcr:path"), exception.getMessage());
+        }
+    }
+
+    @Test
+    void testGetKeysetPredicate() {
+        assertEquals("rangeproperty.property=jcr%3Apath&rangeproperty.lowerBound=%2Flibs%2Fa+b&rangeproperty.lowerOperation=%3E",
+                DownloadContentClassificationMojo.getKeysetPredicate("/libs/a b"));
+    }
 }
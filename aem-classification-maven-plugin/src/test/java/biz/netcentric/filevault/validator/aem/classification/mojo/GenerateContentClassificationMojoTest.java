@@ -0,0 +1,104 @@
+package biz.netcentric.filevault.validator.aem.classification.mojo;
+
+/*-
+ * #%L
+ * AEM Classification Maven Plugin
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapImpl;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapIndex;
+
+class GenerateContentClassificationMojoTest {
+
+    @Test
+    void testExecute(@TempDir Path tempDir) throws IOException, URISyntaxException, MojoExecutionException, MojoFailureException {
+        GenerateContentClassificationMojo mojo = new GenerateContentClassificationMojo();
+        mojo.source = DocViewClassificationScannerTest.getContentPackageDirectory().resolve(DocViewClassificationScanner.JCR_ROOT);
+        mojo.label = "AEM 6.5.0";
+        mojo.outputFile = tempDir.resolve("test");
+        mojo.execute();
+
+        ContentClassificationMapImpl map;
+        try (InputStream input = Files.newInputStream(tempDir.resolve("test.map"))) {
+            map = new ContentClassificationMapImpl(input, "test.map");
+        }
+        assertEquals("AEM 6.5.0", map.getLabel());
+        assertEquals(6, map.size());
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, null), map.getContentClassificationAndRemarkForResourcePath("/libs/granite/ui/components/other", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, "Deprecated since 6.5: Use the Coral 3 based dialog, please."),
+                map.getContentClassificationAndRemarkForResourcePath("/libs/cq/gui/components/authoring/cq:dialog", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 6.0: Use Core Components instead."),
+                map.getContentClassificationAndRemarkForResourcePath("/libs/foundation/components/text", null));
+    }
+
+    @Test
+    void testExecuteWithReproducibleJar(@TempDir Path tempDir) throws IOException, URISyntaxException, MojoExecutionException, MojoFailureException {
+        GenerateContentClassificationMojo mojo = new GenerateContentClassificationMojo();
+        mojo.source = DocViewClassificationScannerTest.getContentPackageDirectory();
+        mojo.label = "AEM 6.5.0";
+        mojo.relativeFileNameInJar = Paths.get("biz", "netcentric", "test.map");
+        mojo.outputFile = tempDir.resolve("first");
+        mojo.execute();
+        mojo.outputFile = tempDir.resolve("second");
+        mojo.execute();
+
+        byte[] jarContent = Files.readAllBytes(tempDir.resolve("first.jar"));
+        assertArrayEquals(jarContent, Files.readAllBytes(tempDir.resolve("second.jar")));
+
+        try (JarFile jarFile = new JarFile(tempDir.resolve("first.jar").toFile())) {
+            assertEquals(List.of(JarFile.MANIFEST_NAME, "biz/netcentric/test.map", "biz/netcentric/test.map.idx"),
+                    jarFile.stream().map(JarEntry::getName).collect(Collectors.toList()));
+            for (JarEntry entry : Collections.list(jarFile.entries())) {
+                assertEquals(LocalDateTime.of(1980, 2, 1, 0, 0), entry.getTimeLocal());
+            }
+            byte[] mapContent;
+            try (InputStream input = jarFile.getInputStream(jarFile.getEntry("biz/netcentric/test.map"))) {
+                mapContent = input.readAllBytes();
+            }
+            assertArrayEquals(Files.readAllBytes(tempDir.resolve("first.map")), mapContent);
+            ContentClassificationMapImpl expectedMap = new ContentClassificationMapImpl(new ByteArrayInputStream(mapContent), "test.map");
+            try (InputStream input = jarFile.getInputStream(jarFile.getEntry("biz/netcentric/test.map.idx"))) {
+                assertEquals(expectedMap, ContentClassificationMapIndex.read(input, ContentClassificationMapIndex.getChecksum(mapContent)));
+            }
+        }
+    }
+
+    @Test
+    void testGetOutputTimestamp() {
+        assertEquals(LocalDateTime.of(1980, 2, 1, 0, 0), AbstractContentClassificationMapMojo.getOutputTimestamp(null));
+        assertEquals(LocalDateTime.of(2023, 1, 1, 10, 0), AbstractContentClassificationMapMojo.getOutputTimestamp("2023-01-01T12:00:00+02:00"));
+        assertEquals(LocalDateTime.of(1970, 1, 1, 0, 1), AbstractContentClassificationMapMojo.getOutputTimestamp("60"));
+    }
+}
@@ -0,0 +1,276 @@
+package biz.netcentric.filevault.validator.aem.classification.mojo;
+
+/*-
+ * #%L
+ * AEM Classification Maven Plugin
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+
+/**
+ * Minimal HTTP server emulating the AEM endpoints used by {@link DownloadContentClassificationMojo}:
+ * <ul>
+ * <li>{@code /system/console/status-productinfo.txt}</li>
+ * <li>{@code /bin/querybuilder.json} for the classification mixin and deprecation queries (supporting {@code p.offset}, {@code p.limit}
+ * and a {@code rangeproperty} predicate on {@code jcr:path} for keyset pagination), the hits are always ordered by path</li>
+ * </ul>
+ * Apart from explicitly given resource paths, an arbitrary number of hits can be generated on the fly per classification
+ * (without keeping them in memory) and each response can be delayed by a fixed latency.
+ * Responses are streamed, i.e. even large pages don't need to be buffered.
+ */
+class StubAemServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<String> products;
+    private final Map<String, SortedMap<String, String>> pathsPerMixin;
+    private final Map<String, Integer> numGeneratedPathsPerMixin;
+    private final SortedMap<String, String[]> deprecations;
+    private volatile Duration latency;
+    private volatile boolean isOmittingPaths;
+    private final AtomicLong numSkippedHits;
+
+    StubAemServer(String... products) throws IOException {
+        this.products = List.of(products);
+        this.pathsPerMixin = new HashMap<>();
+        this.numGeneratedPathsPerMixin = new HashMap<>();
+        this.latency = Duration.ZERO;
+        this.numSkippedHits = new AtomicLong();
+        this.deprecations = new TreeMap<>();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/system/console/status-productinfo.txt", this::handleProductInfo);
+        server.createContext("/bin/querybuilder.json", this::handleQueryBuilder);
+        // handle requests in parallel like AEM does
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    StubAemServer addClassification(ContentClassification classification, String... resourcePaths) {
+        SortedMap<String, String> paths = pathsPerMixin.computeIfAbsent(classification.getLabel(), k -> new TreeMap<>());
+        for (String resourcePath : resourcePaths) {
+            paths.put(resourcePath, resourcePath);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the given number of generated resource paths for the given classification.
+     * The paths are only generated when being requested (below {@code /libs/generated/<classification>}).
+     * @param classification the classification
+     * @param numResourcePaths the number of resource paths to generate
+     * @return this
+     */
+    StubAemServer addGeneratedClassification(ContentClassification classification, int numResourcePaths) {
+        numGeneratedPathsPerMixin.merge(classification.getLabel(), numResourcePaths, Integer::sum);
+        return this;
+    }
+
+    static String getGeneratedResourcePath(ContentClassification classification, int index) {
+        // zero-padded to be sorted by path
+        return String.format("/libs/generated/%s/component%08d", classification.toString().toLowerCase(), index);
+    }
+
+    /**
+     * Sets the latency being applied to every request.
+     * @param latency the time to wait before sending each response
+     * @return this
+     */
+    StubAemServer setLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Makes the server omit the {@code jcr:path} property from all hits (like a misconfigured index or a query without path property).
+     * @param isOmittingPaths {@code true} to omit the paths
+     * @return this
+     */
+    StubAemServer setOmittingPaths(boolean isOmittingPaths) {
+        this.isOmittingPaths = isOmittingPaths;
+        return this;
+    }
+
+    StubAemServer addDeprecation(String resourcePath, String since, String reason) {
+        deprecations.put(resourcePath, new String[] { since, reason });
+        return this;
+    }
+
+    URI getBaseUrl() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    private void handleProductInfo(HttpExchange exchange) throws IOException {
+        StringBuilder body = new StringBuilder("Adobe Experience Manager\n\nInstalled Products\n");
+        for (String product : products) {
+            body.append("  ").append(product).append('\n');
+        }
+        send(exchange, 200, body.toString());
+    }
+
+    private void handleQueryBuilder(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = getParameters(exchange.getRequestURI().getRawQuery());
+        // both explicit and generated hits are sorted by path
+        final NavigableMap<String, String> explicitHits = new TreeMap<>();
+        final IntFunction<String> generatedPaths;
+        final int numGeneratedHits;
+        if (parameters.containsKey("type")) {
+            String mixin = parameters.get("type");
+            for (String resourcePath : pathsPerMixin.getOrDefault(mixin, new TreeMap<>()).keySet()) {
+                explicitHits.put(resourcePath, "{\"jcr:path\":\"" + resourcePath + "\"}");
+            }
+            ContentClassification classification = Arrays.stream(ContentClassification.values()).filter(c -> mixin.equals(c.getLabel())).findFirst().orElse(null);
+            numGeneratedHits = numGeneratedPathsPerMixin.getOrDefault(mixin, 0);
+            generatedPaths = i -> getGeneratedResourcePath(classification, i);
+        } else if ("cq:deprecated".equals(parameters.get("1_property"))) {
+            for (Map.Entry<String, String[]> entry : deprecations.entrySet()) {
+                explicitHits.put(entry.getKey(), "{\"jcr:path\":\"" + entry.getKey() + "\",\"cq:deprecated\":\"" + entry.getValue()[0] + "\",\"cq:deprecatedReason\":\"" + entry.getValue()[1] + "\"}");
+            }
+            numGeneratedHits = 0;
+            generatedPaths = null;
+        } else {
+            send(exchange, 400, "{\"success\":false,\"errorMessage\":\"Unsupported query\"}");
+            return;
+        }
+        // keyset condition
+        NavigableMap<String, String> remainingExplicitHits = explicitHits;
+        int generatedIndex = 0;
+        if (parameters.containsKey("rangeproperty.property")) {
+            if (!"jcr:path".equals(parameters.get("rangeproperty.property")) || !">".equals(parameters.get("rangeproperty.lowerOperation"))) {
+                send(exchange, 400, "{\"success\":false,\"errorMessage\":\"Unsupported range\"}");
+                return;
+            }
+            String lowerBound = parameters.get("rangeproperty.lowerBound");
+            remainingExplicitHits = explicitHits.tailMap(lowerBound, false);
+            generatedIndex = getFirstIndexGreaterThan(generatedPaths, numGeneratedHits, lowerBound);
+        }
+        numSkippedHits.addAndGet(parameters.containsKey("p.offset") ? Long.parseLong(parameters.get("p.offset")) : 0);
+        long total = (long) remainingExplicitHits.size() + numGeneratedHits - generatedIndex;
+        long offset = Long.parseLong(parameters.getOrDefault("p.offset", "0"));
+        long limit = Long.parseLong(parameters.getOrDefault("p.limit", "10"));
+        delay();
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        // chunked encoding
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            long numResults = Math.max(0, Math.min(offset + limit, total) - offset);
+            writer.write("{\"success\":true,\"results\":" + numResults + ",\"total\":" + total + ",\"more\":" + (offset + numResults < total)
+                    + ",\"offset\":" + offset + ",\"hits\":[");
+            // merge both sorted sequences
+            Iterator<Map.Entry<String, String>> explicitIterator = remainingExplicitHits.entrySet().iterator();
+            Map.Entry<String, String> explicitHit = explicitIterator.hasNext() ? explicitIterator.next() : null;
+            String generatedPath = generatedIndex < numGeneratedHits ? generatedPaths.apply(generatedIndex) : null;
+            for (long i = 0; i < offset + numResults; i++) {
+                final String hit;
+                if (generatedPath == null || (explicitHit != null && explicitHit.getKey().compareTo(generatedPath) < 0)) {
+                    hit = explicitHit.getValue();
+                    explicitHit = explicitIterator.hasNext() ? explicitIterator.next() : null;
+                } else {
+                    hit = "{\"jcr:path\":\"" + generatedPath + "\"}";
+                    generatedIndex++;
+                    generatedPath = generatedIndex < numGeneratedHits ? generatedPaths.apply(generatedIndex) : null;
+                }
+                if (i >= offset) {
+                    if (i > offset) {
+                        writer.write(',');
+                    }
+                    writer.write(isOmittingPaths ? hit.replaceFirst("\"jcr:path\":\"[^\"]*\",?", "") : hit);
+                }
+            }
+            writer.write("]}");
+        }
+    }
+
+    private static int getFirstIndexGreaterThan(IntFunction<String> paths, int numPaths, String lowerBound) {
+        int low = 0;
+        int high = numPaths;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (paths.apply(middle).compareTo(lowerBound) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of hits which were skipped due to offset pagination.
+     * @return the sum of all offsets requested so far, i.e. the number of hits the repository would have to skip
+     */
+    long getNumSkippedHits() {
+        return numSkippedHits.get();
+    }
+
+    private void delay() throws IOException {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting", e);
+            }
+        }
+    }
+
+    private static Map<String, String> getParameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                String[] nameAndValue = parameter.split("=", 2);
+                parameters.put(URLDecoder.decode(nameAndValue[0], StandardCharsets.UTF_8),
+                        nameAndValue.length > 1 ? URLDecoder.decode(nameAndValue[1], StandardCharsets.UTF_8) : "");
+            }
+        }
+        return parameters;
+    }
+
+    private void send(HttpExchange exchange, int statusCode, String body) throws IOException {
+        delay();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
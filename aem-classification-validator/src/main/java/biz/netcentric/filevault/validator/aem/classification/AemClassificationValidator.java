@@ -21,45 +21,41 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import org.apache.jackrabbit.spi.commons.name.NameFactoryImpl;
 import org.apache.jackrabbit.vault.util.DocViewNode;
+import org.apache.jackrabbit.vault.util.DocViewProperty;
 import org.apache.jackrabbit.vault.validation.spi.DocumentViewXmlValidator;
 import org.apache.jackrabbit.vault.validation.spi.GenericJcrDataValidator;
 import org.apache.jackrabbit.vault.validation.spi.NodePathValidator;
 import org.apache.jackrabbit.vault.validation.spi.ValidationMessage;
 import org.apache.jackrabbit.vault.validation.spi.ValidationMessageSeverity;
-import org.apache.sling.api.SlingConstants;
-import org.apache.sling.jcr.resource.api.JcrResourceConstants;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import biz.netcentric.filevault.validator.aem.classification.bundle.BundleScanner;
+import biz.netcentric.filevault.validator.aem.classification.bundle.ResourceTypeBinding;
+
 public class AemClassificationValidator implements DocumentViewXmlValidator, GenericJcrDataValidator, NodePathValidator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AemClassificationValidator.class);
 
-    /**
-     * Example HTL code which should be matched by the RegEx:
-     * <br>
-     * <code>&lt;article data-sly-resource="${'path/to/resource' @ resourceType='&lt;some resource type&gt;'}"&gt;</code>
-     * <br>
-     * The first subgroup must contain the value of the resource type.
-     * This pattern only works if the resource type is given as literal!
-     *
-     * @see <a href="https://helpx.adobe.com/experience-manager/htl/using/block-statements.html#resource">data-sly-resource</a>
-     */
-    static final Pattern HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE = Pattern.compile("data-sly-resource\\s*=[^@]*.*?resourceType\\s*=\\s*(?:\"|\')([^'\"]*)(?:\"|\')");
-
     /**
      * Example JSP code which should be matched by the RegEx:
      * <br>
@@ -75,16 +71,27 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
 
     private static final PathMatcher HTL_PATH_MATCHER = FileSystems.getDefault().getPathMatcher("glob:**.html");
     private static final PathMatcher JSP_PATH_MATCHER = FileSystems.getDefault().getPathMatcher("glob:**.jsp");
-
-    private static final String SLING_RESOURCE_TYPE_PROPERTY_NAME = NameFactoryImpl.getInstance().create(JcrResourceConstants.SLING_NAMESPACE_URI,SlingConstants.PROPERTY_RESOURCE_TYPE).toString();
-    private static final String SLING_RESOURCE_SUPER_TYPE_PROPERTY_NAME = NameFactoryImpl.getInstance().create(JcrResourceConstants.SLING_NAMESPACE_URI,SlingConstants.PROPERTY_RESOURCE_SUPER_TYPE).toString();
+    private static final PathMatcher JAR_PATH_MATCHER = FileSystems.getDefault().getPathMatcher("glob:**.jar");
+    private static final PathMatcher JSON_PATH_MATCHER = FileSystems.getDefault().getPathMatcher("glob:**.json");
+    private static final PathMatcher XML_PATH_MATCHER = FileSystems.getDefault().getPathMatcher("glob:**.xml");
 
     public static final String MESSAGE_SUBJECT_NODE = "Element with name \"%s\"";
     public static final String MESSAGE_SUBJECT_FILE = "This file";
+    /** Pattern to be used with {@link String#format(String, Object...)}, used for the overlay checks of repository nodes which are only evaluated in {@link #done()} */
+    public static final String MESSAGE_SUBJECT_NODE_PATH = "Node \"%s\"";
+    /** Pattern to be used with {@link String#format(String, Object...)}, used for the resource types bound by classes of embedded bundles */
+    public static final String MESSAGE_SUBJECT_BUNDLE_CLASS = "Class \"%s\" in bundle \"%s\"";
+
+    /** The search path of the Sling resource resolver used for resolving relative resource types */
+    public static final List<String> DEFAULT_SEARCH_PATH = Collections.unmodifiableList(Arrays.asList("/apps", "/libs"));
+    /** The properties evaluated by default: {@code sling:resourceType} (referencing) and {@code sling:resourceSuperType} (inheriting) */
+    public static final Map<String, ContentUsage> DEFAULT_USAGE_PER_PROPERTY = PropertyUsageTable.DEFAULT_USAGE_PER_PROPERTY;
 
     public static final Pattern JCR_EXPANDED_FORM_PATTERN = Pattern.compile("\\{([^\\}]*)\\}(.*)$");
     /** Pattern to be used with {@link String#format(String, Object...)} */
     static final String VIOLATION_MESSAGE_STRING = "%s %s resource '%s' which is marked as '%s'. It therefore violates the content classification!";
+    /** Pattern to be used with {@link String#format(String, Object...)}, appended to the violation message */
+    static final String REPLACEMENT_SUGGESTION_STRING = "Closest allowed replacement: '%s'.";
 
     private final ContentClassificationMap classificationMap;
     private final Collection<String> whitelistedResourcePaths;
@@ -92,28 +99,149 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
     private final Collection<Pattern> whitelistedResourcePathPatterns;
     private final Collection<Pattern> ignoreViolationsInPropertiesMatchingPathPatterns;
     private final Map<ContentClassification, ValidationMessageSeverity> severityPerClassification;
+    /** key = prefix of the version since which a resource is deprecated */
+    private final Map<String, ValidationMessageSeverity> severityPerDeprecatedSince;
 
     private @NotNull ValidationMessageSeverity defaultSeverity;
     private final Collection<String> overlaidNodePaths;
+    /** the paths of all files below /apps whose overlay check is deferred until {@link #done()} */
+    private final Collection<String> deferredOverlayPaths;
+    /** used for the overlay checks of DocView nodes which are validated in document order */
+    private final ContentClassificationLookupCursor overlayLookupCursor;
+    private final ResourceTypeResolver resourceTypeResolver;
+    private final PropertyUsageTable propertyUsageTable;
+    private final JsonContentScanner jsonContentScanner;
+    private final XmlContentScanner xmlContentScanner;
+    /** the resource type bindings of the embedded bundles (key = bundle file path) which are only evaluated in {@link #done()} */
+    private final Map<Path, Collection<ResourceTypeBinding>> bundleBindings;
+    private final ViolationBudget violationBudget;
+    private final ValidationScope validationScope;
+    /** only created for the first violation of a reference or inheritance */
+    private ReplacementSuggestionIndex replacementSuggestionIndex;
+    private int numViolations;
+    /** {@code true} once the violation budget is exhausted, all further checks are skipped then */
+    private boolean isTruncated;
 
     public AemClassificationValidator(@NotNull ValidationMessageSeverity defaultSeverity, @NotNull ContentClassificationMap classificationMap, @NotNull Collection<String> whitelistedResourcePaths, @NotNull Collection<String> ignoreViolationsInPropertiesMatchingPaths, @NotNull Map<ContentClassification, ValidationMessageSeverity> severityPerClassification) {
+        this(builder(defaultSeverity, classificationMap).withWhitelistedResourcePaths(whitelistedResourcePaths)
+                .withIgnoreViolationsInPropertiesMatchingPaths(ignoreViolationsInPropertiesMatchingPaths).withSeverityPerClassification(severityPerClassification));
+    }
+
+    private AemClassificationValidator(@NotNull Builder builder) {
         super();
-        this.defaultSeverity = defaultSeverity;
-        this.classificationMap = classificationMap;
-        this.whitelistedResourcePaths = whitelistedResourcePaths;
+        this.defaultSeverity = builder.defaultSeverity;
+        this.classificationMap = builder.classificationMap;
+        this.whitelistedResourcePaths = builder.whitelistedResourcePaths;
         this.whitelistedResourcePathPatterns = whitelistedResourcePaths.stream().map(Pattern::compile).collect(Collectors.toList());
-        this.ignoreViolationsInPropertiesMatchingPaths = ignoreViolationsInPropertiesMatchingPaths;
+        this.ignoreViolationsInPropertiesMatchingPaths = builder.ignoreViolationsInPropertiesMatchingPaths;
         this.ignoreViolationsInPropertiesMatchingPathPatterns = ignoreViolationsInPropertiesMatchingPaths.stream().map(Pattern::compile).collect(Collectors.toList());
-        this.severityPerClassification = severityPerClassification;
-        this.overlaidNodePaths = new LinkedList<>();
+        this.severityPerClassification = builder.severityPerClassification;
+        this.severityPerDeprecatedSince = builder.severityPerDeprecatedSince;
+        this.overlaidNodePaths = new HashSet<>();
+        this.deferredOverlayPaths = new LinkedHashSet<>();
+        this.overlayLookupCursor = classificationMap.createLookupCursor(whitelistedResourcePathPatterns);
+        this.resourceTypeResolver = new ResourceTypeResolver(builder.searchPath);
+        this.propertyUsageTable = new PropertyUsageTable(builder.usagePerProperty);
+        this.jsonContentScanner = new JsonContentScanner(propertyUsageTable);
+        this.xmlContentScanner = new XmlContentScanner(propertyUsageTable);
+        this.bundleBindings = new LinkedHashMap<>();
+        this.violationBudget = builder.violationBudget;
+        this.validationScope = builder.validationScope;
+    }
+
+    /**
+     * @param defaultSeverity the severity of violations for which no other severity is configured
+     * @param classificationMap the classification map to validate against
+     * @return a builder for a validator with the given mandatory settings and the defaults for all other settings
+     */
+    public static @NotNull Builder builder(@NotNull ValidationMessageSeverity defaultSeverity, @NotNull ContentClassificationMap classificationMap) {
+        return new Builder(defaultSeverity, classificationMap);
+    }
+
+    /**
+     * Adds all folders of the given package to the index used for resolving relative resource types.
+     * @param packageRootPath the package file or directory (may be {@code null})
+     * @throws IOException in case the package could not be read
+     */
+    void addNodePathsOfPackage(@Nullable Path packageRootPath) throws IOException {
+        resourceTypeResolver.addNodePathsOfPackage(packageRootPath);
     }
 
     public Collection<ValidationMessage> done() {
-        return Collections.singleton(new ValidationMessage(ValidationMessageSeverity.INFO,"Successfully checked against classification maps: " + classificationMap.getLabel() + " (" + classificationMap.size() + " entries)"));
+        Collection<ValidationMessage> messages = new LinkedList<>();
+        validateDeferredOverlays(messages);
+        validateBundleBindings(messages);
+        if (isTruncated) {
+            messages.add(new ValidationMessage(ValidationMessageSeverity.WARN, "Validation stopped after " + numViolations + " violation(s) due to " + violationBudget + ", the remaining content has not been validated!"));
+        }
+        messages.add(new ValidationMessage(ValidationMessageSeverity.INFO,"Successfully checked against classification maps: " + classificationMap.getLabel() + " (" + classificationMap.size() + " entries)"));
+        return messages;
+    }
+
+    /**
+     * Checks the overlay usage of all deferred file paths with one batch lookup.
+     * Paths for which a violation has already been emitted for the according DocView node are skipped.
+     * @param messages the collection to which to add the violation messages
+     */
+    private void validateDeferredOverlays(@NotNull Collection<ValidationMessage> messages) {
+        List<String> paths = new ArrayList<>(deferredOverlayPaths.size());
+        List<String> resourcePaths = new ArrayList<>(deferredOverlayPaths.size());
+        for (String path : deferredOverlayPaths) {
+            if (!overlaidNodePaths.contains(path)) {
+                paths.add(path);
+                resourcePaths.add(getOverlaidResourcePath(path));
+            }
+        }
+        deferredOverlayPaths.clear();
+        if (paths.isEmpty() || isTruncated) {
+            return;
+        }
+        List<Entry<ContentClassification, ContentClassificationRemark>> classificationsAndRemarks = classificationMap.getContentClassificationsAndStructuredRemarksForResourcePaths(resourcePaths, whitelistedResourcePathPatterns);
+        for (int i = 0; i < paths.size() && !isTruncated; i++) {
+            addViolation(messages, createViolationMessage(resourcePaths.get(i), ContentUsage.OVERLAY, String.format(MESSAGE_SUBJECT_NODE_PATH, paths.get(i)), classificationsAndRemarks.get(i)));
+        }
+    }
+
+    /**
+     * Checks the resource types bound by the classes of all scanned bundles.
+     * @param messages the collection to which to add the violation messages
+     */
+    private void validateBundleBindings(@NotNull Collection<ValidationMessage> messages) {
+        for (Entry<Path, Collection<ResourceTypeBinding>> bundle : bundleBindings.entrySet()) {
+            for (ResourceTypeBinding binding : bundle.getValue()) {
+                if (isTruncated) {
+                    break;
+                }
+                addViolation(messages, validateClassification(binding.getResourceType(), ContentUsage.REFERENCE, String.format(MESSAGE_SUBJECT_BUNDLE_CLASS, binding.getClassName(), bundle.getKey())));
+            }
+        }
+        bundleBindings.clear();
+    }
+
+    /**
+     * Adds the given violation message unless the violation budget is already exhausted.
+     * @param messages the collection to which to add the message
+     * @param message the violation message (may be {@code null} in case there is no violation)
+     * @return {@code true} in case the message has been added, otherwise {@code false}
+     */
+    private boolean addViolation(@NotNull Collection<ValidationMessage> messages, @Nullable ValidationMessage message) {
+        if (message == null || isTruncated) {
+            return false;
+        }
+        messages.add(message);
+        numViolations++;
+        if (violationBudget.isExhausted(numViolations, message.getSeverity())) {
+            isTruncated = true;
+        }
+        return true;
     }
 
     @Override
     public Collection<ValidationMessage> validate(@NotNull String path) {
+        resourceTypeResolver.addNodePath(path);
+        if (isTruncated || !validationScope.containsNodePath(path)) {
+            return null;
+        }
         if (isIgnoredViolationBasedOnPathPattern(path, ignoreViolationsInPropertiesMatchingPathPatterns)) {
             LOGGER.debug("Path '{}' is explicitly whitelisted even if it contains violations and therefore has no restrictions!", path);
             return null;
@@ -121,9 +249,14 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
 
         if (!overlaidNodePaths.contains(path)) {
             // check overlay usage in addition for non-docview files
-            ValidationMessage message = validateClassification(path,  ContentUsage.OVERLAY, MESSAGE_SUBJECT_FILE);
-            if (message != null) {
-               return Collections.singleton(message);
+            if (path.startsWith("/apps/") && !path.endsWith("/")) {
+                // all overlays are looked up at once in done()
+                deferredOverlayPaths.add(path);
+                return null;
+            }
+            Collection<ValidationMessage> messages = new LinkedList<>();
+            if (addViolation(messages, validateClassification(path,  ContentUsage.OVERLAY, MESSAGE_SUBJECT_FILE))) {
+               return messages;
             }
         }
         return null;
@@ -131,38 +264,84 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
 
     @Override
     public boolean shouldValidateJcrData(@NotNull Path filePath) {
+        if (isTruncated || !validationScope.containsFile(filePath)) {
+            return false;
+        }
         if (isIgnoredViolationBasedOnPathPattern(filePath.toString(), ignoreViolationsInPropertiesMatchingPathPatterns)) {
             LOGGER.debug("Path '{}' is explicitly whitelisted even if it contains violations and therefore has no restrictions!", filePath);
             return false;
         }
-        return (isHtlFile(filePath) || isJspFile(filePath));
+        return (isHtlFile(filePath) || isJspFile(filePath) || isJarFile(filePath) || isJsonFile(filePath) || isXmlFile(filePath));
     }
 
     @Override
     public Collection<ValidationMessage> validateJcrData(@NotNull InputStream input, @NotNull Path filePath, @NotNull Map<String, Integer> nodePathsAndLineNumbers) throws IOException {
-        final Pattern regex;
-        if (isHtlFile(filePath)) {
-            regex = HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE;
-        } else if (isJspFile(filePath)) {
-            regex = JSP_INCLUDE_OVERWRITING_RESOURCE_TYPE;
-        } else {
-            throw new IllegalStateException("The given file is neither JSP nor HTL (" + filePath + ")");
+        if (isJarFile(filePath)) {
+            // the bundle is scanned while streaming, only the (few) bindings are kept until done()
+            try {
+                bundleBindings.put(filePath, BundleScanner.scan(input));
+            } catch (IOException e) {
+                return Collections.singletonList(new ValidationMessage(ValidationMessageSeverity.WARN, "Could not scan bundle \"" + filePath + "\" for bound resource types: " + e.getMessage(), e));
+            }
+            return null;
         }
+        // the references are validated while the file is scanned, so that they count against the violation budget right away
         Collection<ValidationMessage> messages = new LinkedList<>();
+        scanFile(input, filePath, createReferenceValidator(MESSAGE_SUBJECT_FILE, messages));
+        return messages;
+    }
+
+    /**
+     * Extracts the resources referenced by the given HTL, JSP, JSON or (non-DocView) XML file.
+     * @param input the file content
+     * @param filePath the file path
+     * @param resourceConsumer called with each referenced resource (type) and the according usage
+     * @throws IOException in case the file could not be read
+     */
+    private void scanFile(@NotNull InputStream input, @NotNull Path filePath, @NotNull BiConsumer<String, ContentUsage> resourceConsumer) throws IOException {
+        if (isJsonFile(filePath) || isXmlFile(filePath)) {
+            try {
+                if (isJsonFile(filePath)) {
+                    jsonContentScanner.scan(input, resourceConsumer);
+                } else {
+                    xmlContentScanner.scan(input, resourceConsumer);
+                }
+            } catch (IOException e) {
+                // not necessarily a content file (e.g. a JSON or XML file only used by some client library)
+                LOGGER.debug("Could not parse file {} for referenced resources: {}", filePath, e.getMessage(), e);
+            }
+            return;
+        }
+        if (isHtlFile(filePath)) {
+            // all block statements are extracted in a single pass, relative script paths are looked up next to the script first
+            String scriptFolderPath = getParentNodePath(ValidationScope.getNodePath(ValidationScope.getFilePathBelowJcrRoot(filePath.toString())));
+            HtlScriptScanner.scan(input, scriptPath -> resourceTypeResolver.resolveScript(scriptPath, scriptFolderPath), resourceConsumer);
+            return;
+        } else if (!isJspFile(filePath)) {
+            throw new IllegalStateException("The given file is neither JSP, HTL, JSON, XML nor a bundle (" + filePath + ")");
+        }
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
             String line;
-            while ((line = reader.readLine()) != null) {
-                Matcher matcher = regex.matcher(line);
+            while ((line = reader.readLine()) != null && !isTruncated) {
+                Matcher matcher = JSP_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher(line);
                 while (matcher.find()) {
-                    String resourceType = matcher.group(1);
-                    ValidationMessage message = validateClassification(resourceType, ContentUsage.REFERENCE, MESSAGE_SUBJECT_FILE);
-                    if (message != null) {
-                        messages.add(message);
-                    }
+                    resourceConsumer.accept(matcher.group(1), ContentUsage.REFERENCE);
                 }
             }
         }
-        return messages;
+    }
+
+    /**
+     * @param messageSubject the subject used for the violation messages
+     * @param messages the collection to which to add the violation messages
+     * @return a consumer validating each referenced resource (type) with the given usage
+     */
+    private @NotNull BiConsumer<String, ContentUsage> createReferenceValidator(@NotNull String messageSubject, @NotNull Collection<ValidationMessage> messages) {
+        return (resourceType, usage) -> {
+            if (!isTruncated) {
+                addViolation(messages, validateClassification(resourceType, usage, messageSubject));
+            }
+        };
     }
 
     /**
@@ -184,6 +363,10 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
 
     @Override
     public Collection<ValidationMessage> validate(@NotNull DocViewNode node, @NotNull String nodePath, @NotNull Path filePath, boolean isRoot) {
+        resourceTypeResolver.addNodePath(nodePath);
+        if (isTruncated || !validationScope.containsFile(filePath)) {
+            return null;
+        }
         if (isIgnoredViolationBasedOnPathPattern(nodePath, ignoreViolationsInPropertiesMatchingPathPatterns)) {
             LOGGER.debug("Path '{}' is explicitly whitelisted even if it contains violations and therefore has no restrictions!", nodePath);
             return null;
@@ -192,24 +375,20 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
         Collection<ValidationMessage> messages = new LinkedList<>();
         String subject = String.format(MESSAGE_SUBJECT_NODE, jcrExpandedFormNameToReadableFormat(node.label));
 
-        // attributes resourceType ...
-        String usedResource = node.getValue(SLING_RESOURCE_TYPE_PROPERTY_NAME);
-        ValidationMessage message = validateClassification(usedResource, ContentUsage.REFERENCE, subject);
-        if (message != null) {
-           messages.add(message);
-        }
-
-        // ... and resourceSuperType are considered
-        String superResource = node.getValue(SLING_RESOURCE_SUPER_TYPE_PROPERTY_NAME);
-        message = validateClassification(superResource, ContentUsage.INHERIT, subject);
-        if (message != null) {
-           messages.add(message);
+        // all properties referencing resources (by default resourceType and resourceSuperType) are considered
+        for (DocViewProperty property : node.props.values()) {
+            ContentUsage usage = propertyUsageTable.getUsage(property.name);
+            if (usage != null) {
+                for (String value : property.values) {
+                    if (!isTruncated) {
+                        addViolation(messages, validateClassification(value, usage, subject));
+                    }
+                }
+            }
         }
 
         // check overlays in addition
-        message = validateClassification(nodePath, ContentUsage.OVERLAY, subject);
-        if (message != null) {
-           messages.add(message);
+        if (!isTruncated && addViolation(messages, validateClassification(nodePath, ContentUsage.OVERLAY, subject))) {
            overlaidNodePaths.add(nodePath);
         }
 
@@ -217,7 +396,7 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
         return messages;
     }
 
-    private @Nullable ValidationMessage validateClassification(String resourcePath, ContentUsage usage, String messageSubject) {
+    @Nullable ValidationMessage validateClassification(String resourcePath, ContentUsage usage, String messageSubject) {
         if (resourcePath == null) {
             // skip validation
             return null;
@@ -232,12 +411,54 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
                 return null; // this is not an overlay at all, therefore no violation
             }
             // is this an overlay?
-            resourcePath = "/libs/" + resourcePath.substring("/apps/".length());
+            resourcePath = getOverlaidResourcePath(resourcePath);
+        }
+        final Entry<ContentClassification, ContentClassificationRemark> classificationAndRemark;
+        if (usage == ContentUsage.OVERLAY) {
+            // subsequent node paths share most of their ancestors
+            classificationAndRemark = overlayLookupCursor.getContentClassificationAndStructuredRemarkForResourcePath(resourcePath);
+        } else {
+            String resolvedResourcePath = resourcePath.isEmpty() ? resourcePath : resourceTypeResolver.resolve(resourcePath);
+            if (resourceTypeResolver.isContainedInPackage(resolvedResourcePath)) {
+                LOGGER.debug("Resource type '{}' is resolved to '{}' which is contained in the package itself and therefore has no restrictions!", resourcePath, resolvedResourcePath);
+                return null;
+            }
+            classificationAndRemark = classificationMap.getContentClassificationAndStructuredRemarkForResourcePath(resolvedResourcePath, whitelistedResourcePathPatterns);
+            ValidationMessage message = createViolationMessage(resourcePath, usage, messageSubject, classificationAndRemark);
+            if (message != null) {
+                String replacement = getReplacementSuggestionIndex().suggest(resolvedResourcePath, usage);
+                if (replacement != null) {
+                    return new ValidationMessage(message.getSeverity(), message.getMessage() + " " + String.format(REPLACEMENT_SUGGESTION_STRING, replacement));
+                }
+            }
+            return message;
         }
-        Entry<ContentClassification,String> classificationAndRemark = classificationMap.getContentClassificationAndRemarkForResourcePath(resourcePath, whitelistedResourcePathPatterns);
+        return createViolationMessage(resourcePath, usage, messageSubject, classificationAndRemark);
+    }
+
+    private @NotNull ReplacementSuggestionIndex getReplacementSuggestionIndex() {
+        if (replacementSuggestionIndex == null) {
+            replacementSuggestionIndex = new ReplacementSuggestionIndex(classificationMap);
+            LOGGER.debug("Indexed {} allowed entries for suggesting replacements", replacementSuggestionIndex.size());
+        }
+        return replacementSuggestionIndex;
+    }
+
+    private static @NotNull String getParentNodePath(@NotNull String nodePath) {
+        int parentEnd = nodePath.lastIndexOf('/');
+        return parentEnd > 0 ? nodePath.substring(0, parentEnd) : "/";
+    }
+
+    private static @NotNull String getOverlaidResourcePath(@NotNull String path) {
+        return "/libs/" + path.substring("/apps/".length());
+    }
+
+    private @Nullable ValidationMessage createViolationMessage(@NotNull String resourcePath, @NotNull ContentUsage usage, @NotNull String messageSubject,
+            @NotNull Entry<ContentClassification, ContentClassificationRemark> classificationAndRemark) {
         ContentClassification classification = classificationAndRemark.getKey();
         if (!classificationAndRemark.getKey().isAllowed(usage)) {
-            return new ValidationMessage(getSeverityForClassification(classification), extendMessageWithRemark(String.format(VIOLATION_MESSAGE_STRING, messageSubject, usage.getLabel(), resourcePath, classification.getLabel()), classificationAndRemark.getValue()));
+            // the textual remark is only built here
+            return new ValidationMessage(getSeverity(classification, classificationAndRemark.getValue()), extendMessageWithRemark(String.format(VIOLATION_MESSAGE_STRING, messageSubject, usage.getLabel(), resourcePath, classification.getLabel()), ContentClassificationRemark.toString(classificationAndRemark.getValue())));
         }
         return null;
     }
@@ -250,6 +471,18 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
         return JSP_PATH_MATCHER.matches(file);
     }
 
+    private static boolean isJarFile(Path file) {
+        return JAR_PATH_MATCHER.matches(file);
+    }
+
+    private static boolean isJsonFile(Path file) {
+        return JSON_PATH_MATCHER.matches(file);
+    }
+
+    private static boolean isXmlFile(Path file) {
+        return XML_PATH_MATCHER.matches(file);
+    }
+
     private static boolean isIgnoredViolationBasedOnPathPattern(@NotNull String path, @Nullable Collection<Pattern> ignoreViolationsInPropertiesMatchingPathPatterns) {
         if (ignoreViolationsInPropertiesMatchingPathPatterns == null) {
             return false;
@@ -264,6 +497,30 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
         return message;
     }
 
+    /**
+     * Returns the severity for a violation of the given classification with the given remark.
+     * For deprecation remarks the severity configured for the longest matching prefix of the deprecation version takes precedence over the
+     * severity configured for the classification.
+     * @param classification the classification
+     * @param remark the remark (may be {@code null})
+     * @return the severity
+     */
+    @NotNull ValidationMessageSeverity getSeverity(@NotNull ContentClassification classification, @Nullable ContentClassificationRemark remark) {
+        String deprecatedSince = remark != null ? remark.getDeprecatedSince() : null;
+        if (deprecatedSince != null && !severityPerDeprecatedSince.isEmpty()) {
+            String longestMatchingPrefix = null;
+            for (String prefix : severityPerDeprecatedSince.keySet()) {
+                if (deprecatedSince.startsWith(prefix) && (longestMatchingPrefix == null || prefix.length() > longestMatchingPrefix.length())) {
+                    longestMatchingPrefix = prefix;
+                }
+            }
+            if (longestMatchingPrefix != null) {
+                return severityPerDeprecatedSince.get(longestMatchingPrefix);
+            }
+        }
+        return getSeverityForClassification(classification);
+    }
+
     @NotNull ValidationMessageSeverity getSeverityForClassification(ContentClassification classification) {
         ValidationMessageSeverity severity = severityPerClassification.get(classification);
         return severity != null ? severity : defaultSeverity;
@@ -279,6 +536,7 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
         result = prime * result + ((whitelistedResourcePaths == null) ? 0 : whitelistedResourcePaths.hashCode());
         result = prime * result + ((ignoreViolationsInPropertiesMatchingPaths == null) ? 0 : ignoreViolationsInPropertiesMatchingPaths.hashCode());
         result = prime * result + ((severityPerClassification == null) ? 0 : severityPerClassification.hashCode());
+        result = prime * result + ((severityPerDeprecatedSince == null) ? 0 : severityPerDeprecatedSince.hashCode());
         return result;
     }
 
@@ -313,6 +571,11 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
                 return false;
         } else if (!severityPerClassification.equals(other.severityPerClassification))
             return false;
+        if (severityPerDeprecatedSince == null) {
+            if (other.severityPerDeprecatedSince != null)
+                return false;
+        } else if (!severityPerDeprecatedSince.equals(other.severityPerDeprecatedSince))
+            return false;
         return true;
     }
 
@@ -322,6 +585,111 @@ public class AemClassificationValidator implements DocumentViewXmlValidator, Gen
                 + (whitelistedResourcePaths != null ? "resourceTypeWhitelist=" + whitelistedResourcePaths + ", " : "")
                 + (ignoreViolationsInPropertiesMatchingPaths != null ? "ignoreViolationsInPropertiesMatchingPaths=" + ignoreViolationsInPropertiesMatchingPaths + ", " : "")
                 + (severityPerClassification != null ? "severityPerClassification=" + severityPerClassification + ", " : "")
+                + (severityPerDeprecatedSince != null ? "severityPerDeprecatedSince=" + severityPerDeprecatedSince + ", " : "")
                 + (defaultSeverity != null ? "defaultSeverity=" + defaultSeverity : "") + "]";
     }
+
+    /**
+     * Builder for {@link AemClassificationValidator}s, all settings apart from the ones passed to {@link AemClassificationValidator#builder(ValidationMessageSeverity, ContentClassificationMap)}
+     * are optional.
+     */
+    public static final class Builder {
+        private final @NotNull ValidationMessageSeverity defaultSeverity;
+        private final @NotNull ContentClassificationMap classificationMap;
+        private @NotNull Collection<String> whitelistedResourcePaths = Collections.emptyList();
+        private @NotNull Collection<String> ignoreViolationsInPropertiesMatchingPaths = Collections.emptyList();
+        private @NotNull Map<ContentClassification, ValidationMessageSeverity> severityPerClassification = Collections.emptyMap();
+        private @NotNull Map<String, ValidationMessageSeverity> severityPerDeprecatedSince = Collections.emptyMap();
+        private @NotNull List<String> searchPath = DEFAULT_SEARCH_PATH;
+        private @NotNull Map<String, ContentUsage> usagePerProperty = DEFAULT_USAGE_PER_PROPERTY;
+        private @NotNull ViolationBudget violationBudget = ViolationBudget.UNLIMITED;
+        private @NotNull ValidationScope validationScope = ValidationScope.ALL;
+
+        private Builder(@NotNull ValidationMessageSeverity defaultSeverity, @NotNull ContentClassificationMap classificationMap) {
+            this.defaultSeverity = defaultSeverity;
+            this.classificationMap = classificationMap;
+        }
+
+        /**
+         * @param whitelistedResourcePaths the regular expressions of resource paths which are never reported
+         * @return this builder
+         */
+        public @NotNull Builder withWhitelistedResourcePaths(@NotNull Collection<String> whitelistedResourcePaths) {
+            this.whitelistedResourcePaths = whitelistedResourcePaths;
+            return this;
+        }
+
+        /**
+         * @param ignoreViolationsInPropertiesMatchingPaths the regular expressions of node and file paths whose violations are never reported
+         * @return this builder
+         */
+        public @NotNull Builder withIgnoreViolationsInPropertiesMatchingPaths(@NotNull Collection<String> ignoreViolationsInPropertiesMatchingPaths) {
+            this.ignoreViolationsInPropertiesMatchingPaths = ignoreViolationsInPropertiesMatchingPaths;
+            return this;
+        }
+
+        /**
+         * @param severityPerClassification the severity of violations of the given classifications (overriding the default severity)
+         * @return this builder
+         */
+        public @NotNull Builder withSeverityPerClassification(@NotNull Map<ContentClassification, ValidationMessageSeverity> severityPerClassification) {
+            this.severityPerClassification = severityPerClassification;
+            return this;
+        }
+
+        /**
+         * @param severityPerDeprecatedSince the severity of violations of resources deprecated since a version starting with the given prefix
+         * (overriding the severity per classification)
+         * @return this builder
+         */
+        public @NotNull Builder withSeverityPerDeprecatedSince(@NotNull Map<String, ValidationMessageSeverity> severityPerDeprecatedSince) {
+            this.severityPerDeprecatedSince = severityPerDeprecatedSince;
+            return this;
+        }
+
+        /**
+         * @param searchPath the absolute search path entries against which relative resource types are resolved (default is {@link AemClassificationValidator#DEFAULT_SEARCH_PATH})
+         * @return this builder
+         */
+        public @NotNull Builder withSearchPath(@NotNull List<String> searchPath) {
+            this.searchPath = searchPath;
+            return this;
+        }
+
+        /**
+         * @param usagePerProperty the usage of the resources referenced by each evaluated DocView property, the property names are either given in expanded form
+         * or with one of the prefixes {@code jcr}, {@code sling}, {@code cq} or {@code granite} (default is {@link AemClassificationValidator#DEFAULT_USAGE_PER_PROPERTY})
+         * @return this builder
+         */
+        public @NotNull Builder withUsagePerProperty(@NotNull Map<String, ContentUsage> usagePerProperty) {
+            this.usagePerProperty = usagePerProperty;
+            return this;
+        }
+
+        /**
+         * @param violationBudget the budget after whose exhaustion the validation is stopped. The files are validated in the order in which FileVault passes them to the validator,
+         * which cannot be influenced, therefore the violations emitted until then are not necessarily those of the cheapest checks
+         * @return this builder
+         */
+        public @NotNull Builder withViolationBudget(@NotNull ViolationBudget violationBudget) {
+            this.violationBudget = violationBudget;
+            return this;
+        }
+
+        /**
+         * @param validationScope the files and nodes to validate, all others are skipped before being parsed (they are still considered for resolving relative resource types)
+         * @return this builder
+         */
+        public @NotNull Builder withValidationScope(@NotNull ValidationScope validationScope) {
+            this.validationScope = validationScope;
+            return this;
+        }
+
+        /**
+         * @return a new validator with the settings of this builder
+         */
+        public @NotNull AemClassificationValidator build() {
+            return new AemClassificationValidator(this);
+        }
+    }
 }
@@ -16,13 +16,22 @@ package biz.netcentric.filevault.validator.aem.classification;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.jar.JarEntry;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -38,9 +47,13 @@ import org.kohsuke.MetaInfServices;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import biz.netcentric.filevault.validator.aem.classification.classpathurl.ClassLoaderUrlConnection;
 import biz.netcentric.filevault.validator.aem.classification.classpathurl.URLFactory;
+import biz.netcentric.filevault.validator.aem.classification.map.CompactContentClassificationMap;
 import biz.netcentric.filevault.validator.aem.classification.map.CompositeContentClassificationMap;
 import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapImpl;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapIndex;
+import biz.netcentric.filevault.validator.aem.classification.map.SectionedContentClassificationMap;
 
 @MetaInfServices
 public class AemClassificationValidatorFactory implements ValidatorFactory {
@@ -57,6 +70,27 @@ public class AemClassificationValidatorFactory implements ValidatorFactory {
 
     private static final Object OPTION_SEVERITIES_PER_CLASSIFICATION = "severitiesPerClassification";
 
+    /** optional list of comma-separated {@code <deprecated since version prefix>=<severity>} pairs */
+    private static final Object OPTION_SEVERITIES_PER_DEPRECATED_SINCE = "severitiesPerDeprecatedSince";
+
+    /** optional list of comma-separated absolute paths used for resolving relative resource types (in the given order) */
+    private static final String OPTION_SEARCH_PATH = "searchPath";
+
+    /** optional list of comma-separated {@code <property name>=<usage>} pairs which are evaluated in addition to the default properties */
+    private static final String OPTION_USAGES_PER_PROPERTY = "usagesPerProperty";
+
+    /** optional severity, the validation is stopped after the first violation with at least this severity */
+    private static final String OPTION_FAIL_FAST_SEVERITY = "failFastSeverity";
+
+    /** optional number of violations after which the validation is stopped */
+    private static final String OPTION_MAX_VIOLATIONS = "maxViolations";
+
+    /** optional file listing the changed paths (one per line), only those are validated */
+    private static final String OPTION_CHANGED_PATHS_FILE = "changedPathsFile";
+
+    /** optional git revisions (e.g. {@code origin/main...HEAD}) passed to {@code git diff}, only the paths changed between those are validated */
+    private static final String OPTION_CHANGED_PATHS_GIT_REVISIONS = "changedPathsGitRevisions";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(AemClassificationValidatorFactory.class);
 
     @Override
@@ -86,21 +120,100 @@ public class AemClassificationValidatorFactory implements ValidatorFactory {
         try {
             Collection<ContentClassificationMap> maps = new LinkedList<>();
             for (String mapUrl : mapUrls.split("\\s*,\\s*")) {
-                try (InputStream input = URLFactory.createURL(mapUrl).openStream()) {
-                    LOGGER.debug("Load map {}", mapUrl);
-                    maps.add(new ContentClassificationMapImpl(input, mapUrl));
-                }
+                maps.add(loadMap(mapUrl));
             }
             if (maps.isEmpty()) {
                 throw new IllegalArgumentException("At least one valid map must be given!");
             }
-            return new AemClassificationValidator(settings.getDefaultSeverity(), new CompositeContentClassificationMap(maps), whitelistedResourcePaths,
-                    ignoreViolationsInPropertiesMatchingPaths, getSeverityPerClassification(settings.getOptions().get(OPTION_SEVERITIES_PER_CLASSIFICATION)));
+            AemClassificationValidator validator = AemClassificationValidator.builder(settings.getDefaultSeverity(), new CompositeContentClassificationMap(maps))
+                    .withWhitelistedResourcePaths(whitelistedResourcePaths)
+                    .withIgnoreViolationsInPropertiesMatchingPaths(ignoreViolationsInPropertiesMatchingPaths)
+                    .withSeverityPerClassification(getSeverityPerClassification(settings.getOptions().get(OPTION_SEVERITIES_PER_CLASSIFICATION)))
+                    .withSeverityPerDeprecatedSince(getSeverityPerDeprecatedSince(settings.getOptions().get(OPTION_SEVERITIES_PER_DEPRECATED_SINCE)))
+                    .withSearchPath(getSearchPath(settings.getOptions().get(OPTION_SEARCH_PATH)))
+                    .withUsagePerProperty(getUsagePerProperty(settings.getOptions().get(OPTION_USAGES_PER_PROPERTY)))
+                    .withViolationBudget(getViolationBudget(settings.getOptions().get(OPTION_FAIL_FAST_SEVERITY), settings.getOptions().get(OPTION_MAX_VIOLATIONS)))
+                    .withValidationScope(getValidationScope(settings.getOptions().get(OPTION_CHANGED_PATHS_FILE), settings.getOptions().get(OPTION_CHANGED_PATHS_GIT_REVISIONS), context.getPackageRootPath()))
+                    .build();
+            try {
+                validator.addNodePathsOfPackage(context.getPackageRootPath());
+            } catch (IOException e) {
+                // nodes are still added while being validated
+                LOGGER.warn("Could not index the package {}, relative resource types are only resolved against the nodes validated so far: {}", context.getPackageRootPath(), e.getMessage());
+            }
+            return validator;
         } catch (IOException e) {
             throw new IllegalStateException("Could not read from  " + mapUrls, e);
         }
     }
 
+    /**
+     * Loads the map from the given URL. In case there is an index (with extension {@link ContentClassificationMapIndex#EXTENSION}) next to the map
+     * which belongs to the current map content, the map is loaded from the index instead of parsing the map. In that case only the section directory
+     * is read upfront and each section is only parsed once it is accessed.
+     * Whether the index belongs to the map is checked against the CRC-32 checksum stored in the JAR entry of the map (for maps from JAR files),
+     * only otherwise the map needs to be read for calculating its checksum.
+     * In case there is no (matching) index the whole map is parsed and only its compact representation is kept in memory.
+     * @param mapUrl the URL of the map
+     * @return the map
+     * @throws IOException in case the map could not be loaded
+     */
+    static ContentClassificationMap loadMap(String mapUrl) throws IOException {
+        final InputStream indexInput;
+        try {
+            indexInput = URLFactory.createURL(mapUrl + ContentClassificationMapIndex.EXTENSION).openStream();
+        } catch (IOException e) {
+            LOGGER.debug("Load map {} (no index found)", mapUrl);
+            return parseMap(mapUrl);
+        }
+        try (InputStream input = indexInput) {
+            long mapChecksum = getStoredChecksum(URLFactory.createURL(mapUrl));
+            if (mapChecksum < 0) {
+                try (InputStream mapInput = URLFactory.createURL(mapUrl).openStream()) {
+                    mapChecksum = ContentClassificationMapIndex.getChecksum(mapInput);
+                }
+            }
+            SectionedContentClassificationMap map = ContentClassificationMapIndex.readSectioned(input, mapChecksum);
+            if (map != null) {
+                LOGGER.debug("Load map {} from index", mapUrl);
+                return map;
+            }
+            LOGGER.warn("Ignoring outdated index for map {}", mapUrl);
+        } catch (IOException e) {
+            // e.g. an index written in an older format
+            LOGGER.warn("Ignoring unreadable index for map {}: {}", mapUrl, e.getMessage());
+        }
+        return parseMap(mapUrl);
+    }
+
+    private static ContentClassificationMap parseMap(String mapUrl) throws IOException {
+        try (InputStream input = URLFactory.createURL(mapUrl).openStream()) {
+            return new CompactContentClassificationMap(new ContentClassificationMapImpl(input, mapUrl));
+        }
+    }
+
+    /**
+     * Returns the CRC-32 checksum of the given map as stored in the central directory of the JAR file containing it (without reading the map itself).
+     * @param mapUrl the URL of the map
+     * @return the checksum or -1 in case the map is not contained in a JAR file or the checksum is not known
+     * @throws IOException in case the JAR file could not be opened
+     */
+    static long getStoredChecksum(URL mapUrl) throws IOException {
+        URLConnection connection = mapUrl.openConnection();
+        if (connection instanceof ClassLoaderUrlConnection) {
+            URL resourceUrl = ((ClassLoaderUrlConnection) connection).getResourceUrl();
+            if (resourceUrl == null) {
+                return -1;
+            }
+            connection = resourceUrl.openConnection();
+        }
+        if (connection instanceof JarURLConnection) {
+            JarEntry jarEntry = ((JarURLConnection) connection).getJarEntry();
+            return jarEntry != null ? jarEntry.getCrc() : -1;
+        }
+        return -1;
+    }
+
     @Override
     public boolean shouldValidateSubpackages() {
         return false;
@@ -140,6 +253,121 @@ public class AemClassificationValidatorFactory implements ValidatorFactory {
         return result;
     }
 
+    static Map<String, ValidationMessageSeverity> getSeverityPerDeprecatedSince(@Nullable String option) {
+        if (option == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, ValidationMessageSeverity> result = new HashMap<>();
+        for (String pair : option.split(",")) {
+            int separatorIndex = pair.lastIndexOf('=');
+            String deprecatedSince = separatorIndex > 0 ? pair.substring(0, separatorIndex).trim() : "";
+            String severity = separatorIndex > 0 ? pair.substring(separatorIndex + 1).trim() : "";
+            if (deprecatedSince.isEmpty() || severity.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "severitiesPerDeprecatedSince must be given as comma-separated 'version=severity' pairs, but is '" + option + "'");
+            }
+            result.put(deprecatedSince, ValidationMessageSeverity.valueOf(severity));
+        }
+        return result;
+    }
+
+    static List<String> getSearchPath(@Nullable String option) {
+        if (option == null) {
+            return AemClassificationValidator.DEFAULT_SEARCH_PATH;
+        }
+        List<String> searchPath = Arrays.stream(option.split(",")).map(String::trim).filter(path -> !path.isEmpty()).collect(Collectors.toList());
+        if (searchPath.isEmpty() || searchPath.stream().anyMatch(path -> !path.startsWith("/"))) {
+            throw new IllegalArgumentException(OPTION_SEARCH_PATH + " must be given as comma-separated absolute paths, but is '" + option + "'");
+        }
+        return searchPath;
+    }
+
+    static Map<String, ContentUsage> getUsagePerProperty(@Nullable String option) {
+        if (option == null) {
+            return AemClassificationValidator.DEFAULT_USAGE_PER_PROPERTY;
+        }
+        // the configured properties may overwrite the default ones
+        Map<String, ContentUsage> result = new LinkedHashMap<>(AemClassificationValidator.DEFAULT_USAGE_PER_PROPERTY);
+        for (String pair : option.split(",")) {
+            int separatorIndex = pair.lastIndexOf('=');
+            String propertyName = separatorIndex > 0 ? pair.substring(0, separatorIndex).trim() : "";
+            String usage = separatorIndex > 0 ? pair.substring(separatorIndex + 1).trim() : "";
+            if (propertyName.isEmpty() || usage.isEmpty()) {
+                throw new IllegalArgumentException(
+                        OPTION_USAGES_PER_PROPERTY + " must be given as comma-separated 'property name=usage' pairs, but is '" + option + "'");
+            }
+            result.put(propertyName, ContentUsage.valueOf(usage));
+        }
+        return result;
+    }
+
+    static ViolationBudget getViolationBudget(@Nullable String failFastSeverityOption, @Nullable String maxViolationsOption) {
+        if (failFastSeverityOption == null && maxViolationsOption == null) {
+            return ViolationBudget.UNLIMITED;
+        }
+        ValidationMessageSeverity failFastSeverity = null;
+        if (failFastSeverityOption != null) {
+            try {
+                failFastSeverity = ValidationMessageSeverity.valueOf(failFastSeverityOption.trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(OPTION_FAIL_FAST_SEVERITY + " must be given as one of " + Arrays.toString(ValidationMessageSeverity.values()) + ", but is '" + failFastSeverityOption + "'", e);
+            }
+        }
+        int maxViolations = 0;
+        if (maxViolationsOption != null) {
+            try {
+                maxViolations = Integer.parseInt(maxViolationsOption.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(OPTION_MAX_VIOLATIONS + " must be given as non-negative integer, but is '" + maxViolationsOption + "'", e);
+            }
+            if (maxViolations < 0) {
+                throw new IllegalArgumentException(OPTION_MAX_VIOLATIONS + " must be given as non-negative integer, but is '" + maxViolationsOption + "'");
+            }
+        }
+        return new ViolationBudget(failFastSeverity, maxViolations);
+    }
+
+    /**
+     * Determines the scope of the validation from the changed paths listed in a file and/or the changed paths determined via git.
+     * @param changedPathsFileOption the path of the file listing the changed paths (may be {@code null})
+     * @param gitRevisionsOption the revisions passed to {@code git diff} (may be {@code null})
+     * @param packageRootPath the package file or directory, git is called in that directory (or in the module directory of the package file, see {@link #getModuleDirectory(Path)})
+     * @return the scope, {@link ValidationScope#ALL} in case no option is given
+     */
+    static ValidationScope getValidationScope(@Nullable String changedPathsFileOption, @Nullable String gitRevisionsOption, @Nullable Path packageRootPath) {
+        if (changedPathsFileOption == null && gitRevisionsOption == null) {
+            return ValidationScope.ALL;
+        }
+        Collection<String> changedPaths = new LinkedList<>();
+        try {
+            if (changedPathsFileOption != null) {
+                changedPaths.addAll(ValidationScope.readChangedPaths(Paths.get(changedPathsFileOption.trim())));
+            }
+            if (gitRevisionsOption != null) {
+                Path workingDirectory = packageRootPath != null && !Files.isDirectory(packageRootPath) ? getModuleDirectory(packageRootPath) : packageRootPath;
+                changedPaths.addAll(ValidationScope.readChangedPathsFromGit(workingDirectory, gitRevisionsOption.trim()));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not determine the changed paths: " + e.getMessage(), e);
+        }
+        LOGGER.debug("Only validating the {} changed paths", changedPaths.size());
+        return ValidationScope.ofChangedPaths(changedPaths);
+    }
+
+    /**
+     * @param packageFile the package file (usually built into the {@code target} directory of its Maven module)
+     * @return the closest ancestor directory of the package file containing a {@code pom.xml} or the directory containing the package file in case there is none
+     */
+    static @NotNull Path getModuleDirectory(@NotNull Path packageFile) {
+        Path packageDirectory = packageFile.toAbsolutePath().getParent();
+        for (Path directory = packageDirectory; directory != null; directory = directory.getParent()) {
+            if (Files.isRegularFile(directory.resolve("pom.xml"))) {
+                return directory;
+            }
+        }
+        return packageDirectory;
+    }
+
     private static Collection<String> getPathsFromOption(String optionPaths) {
         Collection<String> result =
                 Optional.ofNullable(optionPaths)
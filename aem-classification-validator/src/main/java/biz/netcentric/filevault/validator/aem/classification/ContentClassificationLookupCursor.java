@@ -0,0 +1,37 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.Map.Entry;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Stateful cursor for looking up resource paths of one {@link ContentClassificationMap} one after the other.
+ * Implementations may keep the resolved ancestors of the previous resource path, so that subsequent lookups of paths in document order
+ * (i.e. sharing long prefixes with the previous path) only need to resolve the segments which differ.
+ * <p>
+ * Cursors are not thread-safe and must not be used after the underlying map has been modified.
+ * @see ContentClassificationMap#createLookupCursor(java.util.Collection)
+ */
+public interface ContentClassificationLookupCursor {
+
+    /**
+     * Same as {@link ContentClassificationMap#getContentClassificationAndStructuredRemarkForResourcePath(String, java.util.Collection)}
+     * with the whitelisted resource paths given when creating this cursor.
+     * @param resourcePath the absolute resource path
+     * @return the classification and the optional remark belonging to the given resource type
+     */
+    @NotNull Entry<ContentClassification, ContentClassificationRemark> getContentClassificationAndStructuredRemarkForResourcePath(@NotNull String resourcePath);
+}
@@ -13,13 +13,19 @@ package biz.netcentric.filevault.validator.aem.classification;
  * #L%
  */
 
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.regex.Pattern;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+
 /**
  * A content classification map consists out of classifications per resource type (i.e. repository paths)
  * accompanied by an optional remark.
@@ -36,6 +42,54 @@ public interface ContentClassificationMap {
      */
     @NotNull Entry<ContentClassification, String> getContentClassificationAndRemarkForResourcePath(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths);
 
+    /**
+     * Same as {@link #getContentClassificationAndRemarkForResourcePath(String, Collection)} but returns the structured remark.
+     * The textual remark is only built when calling {@link ContentClassificationRemark#toString()}.
+     * The default implementation parses the textual remark, implementations should override it to avoid building and parsing the textual remark for every lookup.
+     * @param resourcePath the absolute resource path
+     * @param whitelistedResourcePaths the whitelisted resource paths as regular expression patterns.
+     * @return the classification and the optional remark belonging to the given resource type
+     */
+    default @NotNull Entry<ContentClassification, ContentClassificationRemark> getContentClassificationAndStructuredRemarkForResourcePath(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        Entry<ContentClassification, String> entry = getContentClassificationAndRemarkForResourcePath(resourcePath, whitelistedResourcePaths);
+        return new SimpleEntry<>(entry.getKey(), ContentClassificationRemark.parse(entry.getValue()));
+    }
+
+    /**
+     * Same as {@link #getContentClassificationAndStructuredRemarkForResourcePath(String, Collection)} but for multiple resource paths at once.
+     * Implementations may sort the given resource paths to resolve them in one pass and share the lookups of common ancestors.
+     * @param resourcePaths the absolute resource paths
+     * @param whitelistedResourcePaths the whitelisted resource paths as regular expression patterns.
+     * @return the classification and the optional remark for each given resource path (in the order of {@code resourcePaths})
+     */
+    default @NotNull List<Entry<ContentClassification, ContentClassificationRemark>> getContentClassificationsAndStructuredRemarksForResourcePaths(@NotNull List<String> resourcePaths, @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        List<Entry<ContentClassification, ContentClassificationRemark>> entries = new ArrayList<>(resourcePaths.size());
+        for (String resourcePath : resourcePaths) {
+            entries.add(getContentClassificationAndStructuredRemarkForResourcePath(resourcePath, whitelistedResourcePaths));
+        }
+        return entries;
+    }
+
+    /**
+     * Creates a cursor for looking up multiple resource paths one after the other, e.g. the node paths of a DocView file in document order.
+     * Implementations may reuse the resolved ancestors of the previous lookup.
+     * @param whitelistedResourcePaths the whitelisted resource paths as regular expression patterns.
+     * @return a new cursor
+     */
+    default @NotNull ContentClassificationLookupCursor createLookupCursor(@Nullable Collection<Pattern> whitelistedResourcePaths) {
+        return resourcePath -> getContentClassificationAndStructuredRemarkForResourcePath(resourcePath, whitelistedResourcePaths);
+    }
+
+    /**
+     * Returns an iterator over all entries of this map (in an implementation specific order).
+     * Implementations should not keep the entries in memory which have not been accessed so far via a lookup.
+     * The default implementation returns no entries.
+     * @return the iterator
+     */
+    default @NotNull Iterator<ContentClassificationMapEntry> entryIterator() {
+        return Collections.emptyIterator();
+    }
+
     /**
      * Returns the number of entries in this map.
      * @return the number of entries
@@ -0,0 +1,84 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A single (immutable) entry of a {@link ContentClassificationMap}.
+ */
+public final class ContentClassificationMapEntry {
+
+    private final @NotNull String resourcePath;
+    private final @NotNull ContentClassification classification;
+    private final @Nullable ContentClassificationRemark remark;
+
+    public ContentClassificationMapEntry(@NotNull String resourcePath, @NotNull ContentClassification classification, @Nullable String remark) {
+        this(resourcePath, classification, ContentClassificationRemark.parse(remark));
+    }
+
+    private ContentClassificationMapEntry(@NotNull String resourcePath, @NotNull ContentClassification classification, @Nullable ContentClassificationRemark remark) {
+        this.resourcePath = resourcePath;
+        this.classification = classification;
+        this.remark = remark;
+    }
+
+    public static @NotNull ContentClassificationMapEntry withStructuredRemark(@NotNull String resourcePath, @NotNull ContentClassification classification, @Nullable ContentClassificationRemark remark) {
+        return new ContentClassificationMapEntry(resourcePath, classification, remark);
+    }
+
+    public @NotNull String getResourcePath() {
+        return resourcePath;
+    }
+
+    public @NotNull ContentClassification getClassification() {
+        return classification;
+    }
+
+    /**
+     * 
+     * @return the textual remark (built from the structured remark on every call)
+     */
+    public @Nullable String getRemark() {
+        return ContentClassificationRemark.toString(remark);
+    }
+
+    public @Nullable ContentClassificationRemark getStructuredRemark() {
+        return remark;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classification, remark, resourcePath);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ContentClassificationMapEntry))
+            return false;
+        ContentClassificationMapEntry other = (ContentClassificationMapEntry) obj;
+        return classification == other.classification && Objects.equals(remark, other.remark)
+                && Objects.equals(resourcePath, other.resourcePath);
+    }
+
+    @Override
+    public String toString() {
+        return "ContentClassificationMapEntry [resourcePath=" + resourcePath + ", classification=" + classification + ", remark=" + remark + "]";
+    }
+}
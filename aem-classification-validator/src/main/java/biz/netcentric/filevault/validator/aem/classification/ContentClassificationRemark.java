@@ -0,0 +1,128 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The remark of an entry in a {@link ContentClassificationMap}.
+ * Deprecation remarks are kept as structured values (the version since which the resource is deprecated and the reason)
+ * and the textual remark is only built on demand via {@link #toString()}.
+ * All other remarks are kept as plain text.
+ */
+public final class ContentClassificationRemark {
+
+    private static final String DEPRECATION_PREFIX = "Deprecated since ";
+    private static final String DEPRECATION_SEPARATOR = ": ";
+
+    private final @Nullable String deprecatedSince;
+    private final @NotNull String text;
+
+    private ContentClassificationRemark(@Nullable String deprecatedSince, @NotNull String text) {
+        this.deprecatedSince = deprecatedSince;
+        this.text = text;
+    }
+
+    /**
+     * Creates a deprecation remark.
+     * @param deprecatedSince the version since which the resource is deprecated, must not contain {@code ": "}
+     * @param reason the reason for the deprecation
+     * @return the remark
+     */
+    public static @NotNull ContentClassificationRemark deprecation(@NotNull String deprecatedSince, @NotNull String reason) {
+        if (deprecatedSince.isEmpty() || deprecatedSince.contains(DEPRECATION_SEPARATOR)) {
+            throw new IllegalArgumentException("Invalid deprecation version '" + deprecatedSince + "'");
+        }
+        return new ContentClassificationRemark(deprecatedSince, reason);
+    }
+
+    /**
+     * Creates a remark from its textual representation.
+     * Remarks in the format {@code Deprecated since <version>: <reason>} are parsed into a deprecation remark.
+     * @param remark the textual remark (may be {@code null})
+     * @return the remark or {@code null} in case the given remark is {@code null} or empty
+     */
+    public static @Nullable ContentClassificationRemark parse(@Nullable String remark) {
+        if (remark == null || remark.isEmpty()) {
+            return null;
+        }
+        if (remark.startsWith(DEPRECATION_PREFIX)) {
+            int separatorIndex = remark.indexOf(DEPRECATION_SEPARATOR, DEPRECATION_PREFIX.length());
+            if (separatorIndex > DEPRECATION_PREFIX.length()) {
+                return new ContentClassificationRemark(remark.substring(DEPRECATION_PREFIX.length(), separatorIndex),
+                        remark.substring(separatorIndex + DEPRECATION_SEPARATOR.length()));
+            }
+        }
+        return new ContentClassificationRemark(null, remark);
+    }
+
+    /**
+     * Returns the textual representation of the given remark.
+     * @param remark the remark (may be {@code null})
+     * @return the textual remark or {@code null} in case the given remark is {@code null}
+     */
+    public static @Nullable String toString(@Nullable ContentClassificationRemark remark) {
+        return remark != null ? remark.toString() : null;
+    }
+
+    public boolean isDeprecation() {
+        return deprecatedSince != null;
+    }
+
+    /**
+     *
+     * @return the version since which the resource is deprecated or {@code null} in case this is not a deprecation remark
+     */
+    public @Nullable String getDeprecatedSince() {
+        return deprecatedSince;
+    }
+
+    /**
+     *
+     * @return the reason for deprecation remarks, otherwise the full remark
+     */
+    public @NotNull String getText() {
+        return text;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(deprecatedSince, text);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ContentClassificationRemark))
+            return false;
+        ContentClassificationRemark other = (ContentClassificationRemark) obj;
+        return Objects.equals(deprecatedSince, other.deprecatedSince) && text.equals(other.text);
+    }
+
+    /**
+     * Builds the textual remark.
+     * For deprecation remarks this is {@code Deprecated since <version>: <reason>}.
+     */
+    @Override
+    public String toString() {
+        if (deprecatedSince != null) {
+            return DEPRECATION_PREFIX + deprecatedSince + DEPRECATION_SEPARATOR + text;
+        }
+        return text;
+    }
+}
@@ -0,0 +1,507 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Extracts the resources referenced by an HTL script in a single pass over its characters.
+ * The scanner tokenizes the markup into tags and attributes (skipping comments) and only materializes the values of {@code data-sly-*} attributes.
+ * The following block statements are evaluated:
+ * <ul>
+ * <li>{@code data-sly-resource}: the literal value of option {@code resourceType}</li>
+ * <li>{@code data-sly-include}: the literal script path</li>
+ * <li>{@code data-sly-use}: the literal path of a script (e.g. JavaScript Use-API), templates ({@code .html}) are only evaluated once called</li>
+ * <li>{@code data-sly-call}: the path of the template file loaded via {@code data-sly-use} under the identifier of the call expression</li>
+ * </ul>
+ * All of them are references. The script paths are passed through a resolver which may resolve relative paths against the folder of the current script
+ * or skip them by returning {@code null}.
+ * Paths without a slash (i.e. siblings of the current script or class names) are not evaluated.
+ *
+ * @see <a href="https://github.com/adobe/htl-spec/blob/master/SPECIFICATION.md#22-block-statements">HTL Block Statements</a>
+ */
+final class HtlScriptScanner {
+
+    private static final String BLOCK_STATEMENT_PREFIX = "data-sly-";
+    private static final String RESOURCE_BLOCK = "resource";
+    private static final String INCLUDE_BLOCK = "include";
+    private static final String USE_BLOCK = "use";
+    private static final String CALL_BLOCK = "call";
+    private static final String RESOURCE_TYPE_OPTION = "resourceType";
+    private static final String TEMPLATE_SUFFIX = ".html";
+
+    private static final int NO_PUSHBACK = -2;
+
+    private final Reader reader;
+    private final UnaryOperator<String> scriptPathResolver;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private int pushback;
+    /** the attribute name and value of the current attribute (the latter only for block statements) */
+    private final StringBuilder attributeName;
+    private final StringBuilder attributeValue;
+    /** key = lower case identifier of data-sly-use, value = template path */
+    private final Map<String, String> templatePerIdentifier;
+    /** the distinct lower case identifiers used in data-sly-call, only resolved at the end as data-sly-use may follow on the same element */
+    private final Set<String> calledIdentifiers;
+
+    private HtlScriptScanner(@NotNull Reader reader, @NotNull UnaryOperator<String> scriptPathResolver) {
+        this.reader = reader;
+        this.scriptPathResolver = scriptPathResolver;
+        this.buffer = new char[8192];
+        this.pushback = NO_PUSHBACK;
+        this.attributeName = new StringBuilder();
+        this.attributeValue = new StringBuilder();
+        this.templatePerIdentifier = new HashMap<>();
+        this.calledIdentifiers = new LinkedHashSet<>();
+    }
+
+    /**
+     * Scans the given HTL script.
+     * @param input the script in UTF-8 (is closed afterwards)
+     * @param resourceConsumer called with each referenced resource (type) and the according usage
+     * @throws IOException in case the input could not be read
+     */
+    static void scan(@NotNull InputStream input, @NotNull BiConsumer<String, ContentUsage> resourceConsumer) throws IOException {
+        scan(input, UnaryOperator.identity(), resourceConsumer);
+    }
+
+    /**
+     * Scans the given HTL script.
+     * @param input the script in UTF-8 (is closed afterwards)
+     * @param scriptPathResolver called with each literal path of {@code data-sly-include} and {@code data-sly-use}, returns the path to report or {@code null} to skip it
+     * @param resourceConsumer called with each referenced resource (type) and the according usage
+     * @throws IOException in case the input could not be read
+     */
+    static void scan(@NotNull InputStream input, @NotNull UnaryOperator<String> scriptPathResolver, @NotNull BiConsumer<String, ContentUsage> resourceConsumer) throws IOException {
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            new HtlScriptScanner(reader, scriptPathResolver).scan(resourceConsumer);
+        }
+    }
+
+    private void scan(@NotNull BiConsumer<String, ContentUsage> resourceConsumer) throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '<') {
+                c = read();
+                if (c == '!') {
+                    skipCommentOrDeclaration();
+                } else if (isLetter(c)) {
+                    scanTag(resourceConsumer);
+                } else {
+                    unread(c);
+                }
+            }
+        }
+        // each template file is only reported once, even if called multiple times (also via different identifiers)
+        Set<String> calledTemplatePaths = new LinkedHashSet<>();
+        for (String identifier : calledIdentifiers) {
+            String templatePath = templatePerIdentifier.get(identifier);
+            if (templatePath != null && calledTemplatePaths.add(templatePath)) {
+                resourceConsumer.accept(templatePath, ContentUsage.REFERENCE);
+            }
+        }
+    }
+
+    /**
+     * Skips an HTML comment (which includes HTL comments) or a declaration like {@code <!DOCTYPE html>}.
+     * @throws IOException
+     */
+    private void skipCommentOrDeclaration() throws IOException {
+        int c = read();
+        if (c == '-' && (c = read()) == '-') {
+            int dashes = 0;
+            while ((c = read()) != -1) {
+                if (c == '-') {
+                    dashes++;
+                } else if (c == '>' && dashes >= 2) {
+                    return;
+                } else {
+                    dashes = 0;
+                }
+            }
+        } else {
+            while (c != -1 && c != '>') {
+                c = read();
+            }
+        }
+    }
+
+    /**
+     * Scans the attributes of a start tag whose first character has already been read.
+     * @throws IOException
+     */
+    private void scanTag(@NotNull BiConsumer<String, ContentUsage> resourceConsumer) throws IOException {
+        int c = read();
+        // tag name
+        while (c != -1 && !isWhitespace(c) && c != '>' && c != '/') {
+            c = read();
+        }
+        while (true) {
+            c = skipWhitespace(c);
+            if (c == -1 || c == '>') {
+                return;
+            }
+            if (c == '/') {
+                c = read();
+                continue;
+            }
+            attributeName.setLength(0);
+            while (c != -1 && !isWhitespace(c) && c != '=' && c != '>' && c != '/') {
+                attributeName.append((char) c);
+                c = read();
+            }
+            c = skipWhitespace(c);
+            if (c != '=') {
+                // attribute without value
+                continue;
+            }
+            boolean isBlockStatement = isBlockStatement();
+            attributeValue.setLength(0);
+            c = readAttributeValue(skipWhitespace(read()), isBlockStatement);
+            if (isBlockStatement) {
+                evaluateBlockStatement(resourceConsumer);
+            }
+        }
+    }
+
+    /**
+     * Reads a quoted or unquoted attribute value.
+     * @param c the first character of the value
+     * @param keepValue whether to append the value to {@link #attributeValue}
+     * @return the next character after the value
+     * @throws IOException
+     */
+    private int readAttributeValue(int c, boolean keepValue) throws IOException {
+        if (c == '"' || c == '\'') {
+            int quote = c;
+            while ((c = read()) != -1 && c != quote) {
+                if (keepValue) {
+                    attributeValue.append((char) c);
+                }
+            }
+            return read();
+        }
+        // unquoted values may contain whitespace within expressions
+        int expressionDepth = 0;
+        int stringQuote = 0;
+        while (c != -1) {
+            if (stringQuote != 0) {
+                if (c == stringQuote) {
+                    stringQuote = 0;
+                }
+            } else if (expressionDepth > 0 && (c == '"' || c == '\'')) {
+                stringQuote = c;
+            } else if (c == '{') {
+                expressionDepth++;
+            } else if (c == '}') {
+                expressionDepth--;
+            } else if (expressionDepth <= 0 && (isWhitespace(c) || c == '>')) {
+                break;
+            }
+            if (keepValue) {
+                attributeValue.append((char) c);
+            }
+            c = read();
+        }
+        return c;
+    }
+
+    private boolean isBlockStatement() {
+        if (attributeName.length() <= BLOCK_STATEMENT_PREFIX.length()) {
+            return false;
+        }
+        for (int i = 0; i < BLOCK_STATEMENT_PREFIX.length(); i++) {
+            if (Character.toLowerCase(attributeName.charAt(i)) != BLOCK_STATEMENT_PREFIX.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void evaluateBlockStatement(@NotNull BiConsumer<String, ContentUsage> resourceConsumer) {
+        // attribute names and therefore also identifiers are case-insensitive
+        String blockStatement = attributeName.substring(BLOCK_STATEMENT_PREFIX.length()).toLowerCase(Locale.ROOT);
+        String identifier = null;
+        int identifierSeparatorIndex = blockStatement.indexOf('.');
+        if (identifierSeparatorIndex >= 0) {
+            identifier = blockStatement.substring(identifierSeparatorIndex + 1);
+            blockStatement = blockStatement.substring(0, identifierSeparatorIndex);
+        }
+        String value = attributeValue.toString();
+        switch (blockStatement) {
+            case RESOURCE_BLOCK:
+                HtlExpression expression = HtlExpression.parse(value);
+                String resourceType = expression != null ? expression.getOption(RESOURCE_TYPE_OPTION) : null;
+                if (resourceType != null) {
+                    resourceConsumer.accept(resourceType, ContentUsage.REFERENCE);
+                }
+                break;
+            case INCLUDE_BLOCK:
+                String scriptPath = getPath(value);
+                if (scriptPath != null) {
+                    resourceConsumer.accept(scriptPath, ContentUsage.REFERENCE);
+                }
+                break;
+            case USE_BLOCK:
+                String usePath = getPath(value);
+                if (usePath != null) {
+                    if (!usePath.endsWith(TEMPLATE_SUFFIX)) {
+                        resourceConsumer.accept(usePath, ContentUsage.REFERENCE);
+                    } else if (identifier != null) {
+                        templatePerIdentifier.put(identifier, usePath);
+                    }
+                }
+                break;
+            case CALL_BLOCK:
+                HtlExpression callExpression = HtlExpression.parse(value);
+                String templateIdentifier = callExpression != null ? callExpression.getIdentifier() : null;
+                if (templateIdentifier != null && templateIdentifier.indexOf('.') > 0) {
+                    calledIdentifiers.add(templateIdentifier.substring(0, templateIdentifier.indexOf('.')).toLowerCase(Locale.ROOT));
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @param value the attribute value, either a plain path or an expression with a string literal
+     * @return the resolved literal path or {@code null} in case the value does not contain a literal path with a slash or it could not be resolved
+     */
+    private @Nullable String getPath(@NotNull String value) {
+        String path;
+        if (value.contains("${")) {
+            HtlExpression expression = HtlExpression.parse(value);
+            path = expression != null ? expression.getLiteral() : null;
+        } else {
+            path = value.trim();
+        }
+        return path != null && path.indexOf('/') >= 0 ? scriptPathResolver.apply(path) : null;
+    }
+
+    private int skipWhitespace(int c) throws IOException {
+        while (isWhitespace(c)) {
+            c = read();
+        }
+        return c;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+
+    private static boolean isLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private int read() throws IOException {
+        if (pushback != NO_PUSHBACK) {
+            int c = pushback;
+            pushback = NO_PUSHBACK;
+            return c;
+        }
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+
+    /**
+     * The parts of an HTL expression relevant for references, i.e. its main literal or identifier and the options with literal values.
+     *
+     * @see <a href="https://github.com/adobe/htl-spec/blob/master/SPECIFICATION.md#12-available-expression-syntax">HTL Expression Syntax</a>
+     */
+    static final class HtlExpression {
+
+        private final @Nullable String literal;
+        private final @Nullable String identifier;
+        private final @NotNull Map<String, String> literalOptions;
+
+        private HtlExpression(@Nullable String literal, @Nullable String identifier, @NotNull Map<String, String> literalOptions) {
+            this.literal = literal;
+            this.identifier = identifier;
+            this.literalOptions = literalOptions;
+        }
+
+        /**
+         * Parses the first expression contained in the given text.
+         * @param text the text
+         * @return the expression or {@code null} in case the text does not contain an expression
+         */
+        static @Nullable HtlExpression parse(@NotNull String text) {
+            int start = text.indexOf("${");
+            if (start < 0) {
+                return null;
+            }
+            Cursor cursor = new Cursor(text, start + 2);
+            cursor.skipWhitespace();
+            String literal = null;
+            String identifier = null;
+            if (cursor.isQuote()) {
+                literal = cursor.readLiteral();
+            } else {
+                identifier = cursor.readIdentifier();
+            }
+            cursor.skipWhitespace();
+            if (!cursor.isAt('@') && !cursor.isAt('}')) {
+                // the main part is no plain literal or identifier
+                literal = null;
+                identifier = null;
+                cursor.skipOperand();
+            }
+            Map<String, String> literalOptions = new HashMap<>();
+            if (cursor.isAt('@')) {
+                cursor.next();
+                do {
+                    cursor.skipWhitespace();
+                    String optionName = cursor.readIdentifier();
+                    cursor.skipWhitespace();
+                    if (cursor.isAt('=')) {
+                        cursor.next();
+                        cursor.skipWhitespace();
+                        if (cursor.isQuote()) {
+                            String optionValue = cursor.readLiteral();
+                            cursor.skipWhitespace();
+                            if (optionName != null && (cursor.isAt(',') || cursor.isAt('}'))) {
+                                literalOptions.put(optionName, optionValue);
+                            }
+                        }
+                        cursor.skipOperand();
+                    }
+                } while (cursor.isAt(',') && cursor.next());
+            }
+            return new HtlExpression(literal, identifier, literalOptions);
+        }
+
+        /**
+         * @return the string literal in case the expression (apart from its options) only consists of it, otherwise {@code null}
+         */
+        @Nullable String getLiteral() {
+            return literal;
+        }
+
+        /**
+         * @return the identifier (including property accesses with dots) in case the expression (apart from its options) only consists of it, otherwise {@code null}
+         */
+        @Nullable String getIdentifier() {
+            return identifier;
+        }
+
+        /**
+         * @param name the option name
+         * @return the value of the given option in case it is a string literal, otherwise {@code null}
+         */
+        @Nullable String getOption(@NotNull String name) {
+            return literalOptions.get(name);
+        }
+    }
+
+    /** Position within an expression */
+    private static final class Cursor {
+        private final String text;
+        private int index;
+
+        Cursor(@NotNull String text, int index) {
+            this.text = text;
+            this.index = index;
+        }
+
+        boolean isAt(char c) {
+            return index < text.length() && text.charAt(index) == c;
+        }
+
+        boolean isQuote() {
+            return isAt('\'') || isAt('"');
+        }
+
+        boolean next() {
+            index++;
+            return index < text.length();
+        }
+
+        void skipWhitespace() {
+            while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+                index++;
+            }
+        }
+
+        @NotNull String readLiteral() {
+            char quote = text.charAt(index++);
+            StringBuilder literal = new StringBuilder();
+            while (index < text.length() && text.charAt(index) != quote) {
+                char c = text.charAt(index++);
+                if (c == '\\' && index < text.length()) {
+                    c = text.charAt(index++);
+                }
+                literal.append(c);
+            }
+            index++;
+            return literal.toString();
+        }
+
+        @Nullable String readIdentifier() {
+            int start = index;
+            while (index < text.length() && (Character.isLetterOrDigit(text.charAt(index)) || text.charAt(index) == '_' || text.charAt(index) == '.' || text.charAt(index) == ':')) {
+                index++;
+            }
+            return index > start ? text.substring(start, index) : null;
+        }
+
+        /**
+         * Skips to the next top-level {@code @}, {@code ,} or the end of the expression.
+         */
+        void skipOperand() {
+            int depth = 0;
+            while (index < text.length()) {
+                char c = text.charAt(index);
+                if (c == '\'' || c == '"') {
+                    readLiteral();
+                    continue;
+                } else if (c == '(' || c == '[') {
+                    depth++;
+                } else if (c == ')' || c == ']') {
+                    depth--;
+                } else if (depth <= 0 && (c == '@' || c == ',' || c == '}')) {
+                    return;
+                }
+                index++;
+            }
+        }
+    }
+}
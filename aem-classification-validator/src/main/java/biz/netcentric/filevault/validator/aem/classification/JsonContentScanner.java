@@ -0,0 +1,95 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import biz.netcentric.filevault.validator.aem.classification.json.JsonPullParser;
+import biz.netcentric.filevault.validator.aem.classification.json.JsonPullParser.Token;
+
+/**
+ * Extracts the values of the evaluated properties from JSON content files (e.g. Sling initial content or JSON presets) in a single streaming pass.
+ * The keys (at any depth) are compared with the qualified property names (e.g. {@code sling:resourceType}) without materializing them,
+ * so only the values of matching properties are converted to strings.
+ */
+final class JsonContentScanner {
+
+    private final String[] propertyNames;
+    private final ContentUsage[] usages;
+
+    JsonContentScanner(@NotNull PropertyUsageTable propertyUsageTable) {
+        Map<String, ContentUsage> usagePerQualifiedPropertyName = propertyUsageTable.getUsagePerQualifiedPropertyName();
+        propertyNames = new String[usagePerQualifiedPropertyName.size()];
+        usages = new ContentUsage[usagePerQualifiedPropertyName.size()];
+        int i = 0;
+        for (Map.Entry<String, ContentUsage> entry : usagePerQualifiedPropertyName.entrySet()) {
+            propertyNames[i] = entry.getKey();
+            usages[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * Scans the given JSON.
+     * @param input the JSON in UTF-8 (is not closed)
+     * @param resourceConsumer called with each string value (also from arrays) of an evaluated property and the according usage
+     * @throws IOException in case the input could not be read or is malformed
+     */
+    void scan(@NotNull InputStream input, @NotNull BiConsumer<String, ContentUsage> resourceConsumer) throws IOException {
+        // the parser is deliberately not closed as that would close the given input
+        JsonPullParser parser = new JsonPullParser(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Token token;
+        while ((token = parser.next()) != Token.END_DOCUMENT) {
+            if (token != Token.NAME) {
+                continue;
+            }
+            ContentUsage usage = getUsage(parser);
+            if (usage == null) {
+                continue;
+            }
+            token = parser.next();
+            if (token == Token.STRING) {
+                resourceConsumer.accept(parser.getText(), usage);
+            } else if (token == Token.BEGIN_ARRAY) {
+                while ((token = parser.next()) != Token.END_ARRAY) {
+                    if (token == Token.STRING) {
+                        resourceConsumer.accept(parser.getText(), usage);
+                    } else if (token == Token.END_DOCUMENT) {
+                        throw new IOException("Unexpected end of document in line " + parser.getLineNumber());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            // nested objects are evaluated in the next iterations
+        }
+    }
+
+    private @Nullable ContentUsage getUsage(@NotNull JsonPullParser parser) {
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (parser.textEquals(propertyNames[i])) {
+                return usages[i];
+            }
+        }
+        return null;
+    }
+}
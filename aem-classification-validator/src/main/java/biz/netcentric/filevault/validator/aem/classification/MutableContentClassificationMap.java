@@ -43,4 +43,29 @@ public interface MutableContentClassificationMap extends ContentClassificationMa
      */
     void put(@NotNull String resourcePath, @NotNull ContentClassification classification, @Nullable String remark);
 
+    /**
+     * Adds a new entry with a structured remark to the classification map.
+     * The default implementation adds the textual representation of the remark via {@link #put(String, ContentClassification, String)}.
+     * @param resourcePath the absolute resource path
+     * @param classification the classification
+     * @param remark the optional remark (may be null)
+     */
+    default void putWithStructuredRemark(@NotNull String resourcePath, @NotNull ContentClassification classification, @Nullable ContentClassificationRemark remark) {
+        put(resourcePath, classification, ContentClassificationRemark.toString(remark));
+    }
+
+    /**
+     * Removes all entries which are implied by their nearest ancestor entry, i.e. whose classification is equal to the ancestor's child node classification
+     * and whose remark is equal to the ancestor's remark.
+     * The result of {@link #getContentClassificationAndRemarkForResourcePath(String, java.util.Collection)} is the same for every resource path afterwards.
+     * Maps containing entries with wildcard segments are left unchanged.
+     * 
+     * The default implementation does not remove any entry.
+     * 
+     * @return the number of removed entries
+     */
+    default int minimize() {
+        return 0;
+    }
+
 }
\ No newline at end of file
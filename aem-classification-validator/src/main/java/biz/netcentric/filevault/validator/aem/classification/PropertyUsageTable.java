@@ -0,0 +1,135 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.sling.jcr.resource.api.JcrResourceConstants;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Dispatch table from DocView property names to the {@link ContentUsage} of the resources referenced by the property values.
+ * The property names are converted once to the JCR expanded form (i.e. {@code {namespace uri}local name}) used as keys of {@code DocViewNode#props},
+ * so each property of a node can be dispatched with a single hash lookup.
+ */
+final class PropertyUsageTable {
+
+    /** the usages of the properties evaluated by default */
+    static final Map<String, ContentUsage> DEFAULT_USAGE_PER_PROPERTY;
+    static {
+        Map<String, ContentUsage> defaultUsagePerProperty = new LinkedHashMap<>();
+        defaultUsagePerProperty.put("sling:resourceType", ContentUsage.REFERENCE);
+        defaultUsagePerProperty.put("sling:resourceSuperType", ContentUsage.INHERIT);
+        DEFAULT_USAGE_PER_PROPERTY = Collections.unmodifiableMap(defaultUsagePerProperty);
+    }
+
+    /** the namespaces which may be used as prefixes in property names, all others need to be given in expanded form */
+    private static final Map<String, String> NAMESPACE_URI_PER_PREFIX;
+    static {
+        Map<String, String> namespaceUriPerPrefix = new HashMap<>();
+        namespaceUriPerPrefix.put("jcr", "http://www.jcp.org/jcr/1.0");
+        namespaceUriPerPrefix.put("sling", JcrResourceConstants.SLING_NAMESPACE_URI);
+        namespaceUriPerPrefix.put("cq", "http://www.day.com/jcr/cq/1.0");
+        namespaceUriPerPrefix.put("granite", "http://www.adobe.com/jcr/granite/1.0");
+        NAMESPACE_URI_PER_PREFIX = Collections.unmodifiableMap(namespaceUriPerPrefix);
+    }
+
+    /** key = property name in expanded form */
+    private final Map<String, ContentUsage> usagePerExpandedPropertyName;
+    /** key = namespace uri, value = usage per local property name, used for XML attributes */
+    private final Map<String, Map<String, ContentUsage>> usagePerLocalPropertyNamePerNamespace;
+    /** key = property name with its well-known prefix (or unprefixed for the empty namespace), used for JSON keys */
+    private final Map<String, ContentUsage> usagePerQualifiedPropertyName;
+
+    /**
+     * @param usagePerProperty the usage per property name, each name either in expanded form or with one of the prefixes {@code jcr}, {@code sling}, {@code cq} or {@code granite}
+     * @throws IllegalArgumentException in case a property name has an unknown prefix or a usage is {@link ContentUsage#OVERLAY}
+     */
+    PropertyUsageTable(@NotNull Map<String, ContentUsage> usagePerProperty) {
+        usagePerExpandedPropertyName = new HashMap<>();
+        usagePerLocalPropertyNamePerNamespace = new HashMap<>();
+        usagePerQualifiedPropertyName = new LinkedHashMap<>();
+        for (Map.Entry<String, ContentUsage> entry : usagePerProperty.entrySet()) {
+            if (entry.getValue() == ContentUsage.OVERLAY) {
+                throw new IllegalArgumentException("Usage " + ContentUsage.OVERLAY + " is only evaluated for node paths, not for property '" + entry.getKey() + "'");
+            }
+            String expandedName = toExpandedName(entry.getKey());
+            usagePerExpandedPropertyName.put(expandedName, entry.getValue());
+            int namespaceEnd = expandedName.indexOf('}');
+            String namespaceUri = expandedName.substring(1, namespaceEnd);
+            String localName = expandedName.substring(namespaceEnd + 1);
+            usagePerLocalPropertyNamePerNamespace.computeIfAbsent(namespaceUri, k -> new HashMap<>()).put(localName, entry.getValue());
+            if (namespaceUri.isEmpty()) {
+                usagePerQualifiedPropertyName.put(localName, entry.getValue());
+            } else {
+                for (Map.Entry<String, String> namespace : NAMESPACE_URI_PER_PREFIX.entrySet()) {
+                    if (namespace.getValue().equals(namespaceUri)) {
+                        usagePerQualifiedPropertyName.put(namespace.getKey() + ":" + localName, entry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the given property name to its expanded form.
+     * @param propertyName the property name, either in expanded form, unprefixed or with one of the known prefixes
+     * @return the property name in expanded form
+     * @throws IllegalArgumentException in case the prefix is unknown
+     */
+    static @NotNull String toExpandedName(@NotNull String propertyName) {
+        if (propertyName.startsWith("{")) {
+            return propertyName;
+        }
+        int separatorIndex = propertyName.indexOf(':');
+        if (separatorIndex < 0) {
+            return "{}" + propertyName;
+        }
+        String namespaceUri = NAMESPACE_URI_PER_PREFIX.get(propertyName.substring(0, separatorIndex));
+        if (namespaceUri == null) {
+            throw new IllegalArgumentException("Unknown namespace prefix in property name '" + propertyName + "', use the expanded form '{<namespace uri>}<local name>' instead");
+        }
+        return "{" + namespaceUri + "}" + propertyName.substring(separatorIndex + 1);
+    }
+
+    /**
+     * @param expandedPropertyName the property name in expanded form
+     * @return the usage of the resources referenced by the given property or {@code null} in case the property is not evaluated
+     */
+    @Nullable ContentUsage getUsage(@NotNull String expandedPropertyName) {
+        return usagePerExpandedPropertyName.get(expandedPropertyName);
+    }
+
+    /**
+     * @param namespaceUri the namespace uri of the property name (empty for no namespace)
+     * @param localName the local property name
+     * @return the usage of the resources referenced by the given property or {@code null} in case the property is not evaluated
+     */
+    @Nullable ContentUsage getUsage(@NotNull String namespaceUri, @NotNull String localName) {
+        Map<String, ContentUsage> usagePerLocalPropertyName = usagePerLocalPropertyNamePerNamespace.get(namespaceUri);
+        return usagePerLocalPropertyName != null ? usagePerLocalPropertyName.get(localName) : null;
+    }
+
+    /**
+     * Properties in namespaces without one of the well-known prefixes are not contained.
+     * @return the usage per property name in qualified form (i.e. with one of the prefixes {@code jcr}, {@code sling}, {@code cq} or {@code granite})
+     */
+    @NotNull Map<String, ContentUsage> getUsagePerQualifiedPropertyName() {
+        return Collections.unmodifiableMap(usagePerQualifiedPropertyName);
+    }
+}
@@ -0,0 +1,230 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Index over the entries of a classification map which allow references or inheritances (i.e. {@link ContentClassification#FINAL},
+ * {@link ContentClassification#ABSTRACT} and {@link ContentClassification#PUBLIC}) for suggesting the closest allowed replacement of a resource type violating the content classification,
+ * e.g. {@code /libs/granite/ui/components/coral/foundation/form/textfield} for {@code /libs/granite/ui/components/foundation/form/textfield}.
+ * <p>
+ * Each entry is indexed by its leaf name and its last two segment bigrams (i.e. {@code parent/leaf} and {@code grandparent/parent}).
+ * The candidates sharing any of those tokens with the violating resource type are ranked by the Dice coefficient of all their segment bigrams
+ * plus the Dice coefficient of the character trigrams of their leaf names (so that e.g. {@code pathfield} is preferred over {@code textarea} as replacement of {@code pathbrowser}).
+ * <p>
+ * The memory is bounded by indexing at most {@link #MAX_ENTRIES} entries. Tokens shared by more than {@link #MAX_CANDIDATES_PER_TOKEN} entries
+ * (like {@code clientlibs}) are dropped as they are not selective anyhow.
+ */
+final class ReplacementSuggestionIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplacementSuggestionIndex.class);
+
+    static final int MAX_ENTRIES = 100000;
+    static final int MAX_CANDIDATES_PER_TOKEN = 256;
+    /** the minimum Dice coefficient of candidates with a different leaf name (candidates with the same leaf name only need to share one bigram) */
+    private static final double MIN_SIMILARITY = 0.5;
+    /** marks a token shared by too many entries */
+    private static final int[] DROPPED_TOKEN = new int[0];
+    private static final ContentClassification[] CLASSIFICATIONS = ContentClassification.values();
+
+    private final List<String> resourcePaths;
+    private final byte[] classifications;
+    /** key = token, value = the indices of the according entries (the first element is the number of indices) */
+    private final Map<String, int[]> candidatesPerToken;
+
+    /**
+     * Indexes the allowed entries of the given map (at most {@link #MAX_ENTRIES}).
+     * @param map the classification map
+     */
+    ReplacementSuggestionIndex(@NotNull ContentClassificationMap map) {
+        this(map.entryIterator());
+    }
+
+    ReplacementSuggestionIndex(@NotNull Iterator<ContentClassificationMapEntry> entries) {
+        resourcePaths = new ArrayList<>();
+        candidatesPerToken = new HashMap<>();
+        List<ContentClassification> entryClassifications = new ArrayList<>();
+        Set<String> indexedResourcePaths = new HashSet<>();
+        while (entries.hasNext()) {
+            ContentClassificationMapEntry entry = entries.next();
+            ContentClassification classification = entry.getClassification();
+            String resourcePath = entry.getResourcePath();
+            if (!isSuggestible(classification) || !isIndexable(resourcePath)
+                    || !indexedResourcePaths.add(resourcePath)) {
+                continue;
+            }
+            if (resourcePaths.size() >= MAX_ENTRIES) {
+                LOGGER.debug("Only the first {} allowed entries of the classification map are used for suggesting replacements", MAX_ENTRIES);
+                break;
+            }
+            String[] segments = getSegments(resourcePath);
+            int index = resourcePaths.size();
+            resourcePaths.add(resourcePath);
+            entryClassifications.add(classification);
+            for (String token : getTokens(segments)) {
+                addCandidate(token, index);
+            }
+        }
+        classifications = new byte[entryClassifications.size()];
+        for (int i = 0; i < classifications.length; i++) {
+            classifications[i] = (byte) entryClassifications.get(i).ordinal();
+        }
+    }
+
+    private void addCandidate(@NotNull String token, int index) {
+        int[] candidates = candidatesPerToken.get(token);
+        if (candidates == DROPPED_TOKEN) {
+            return;
+        }
+        if (candidates == null) {
+            candidates = new int[5];
+        } else if (candidates[0] == MAX_CANDIDATES_PER_TOKEN) {
+            candidatesPerToken.put(token, DROPPED_TOKEN);
+            return;
+        } else if (candidates[0] + 1 == candidates.length) {
+            candidates = Arrays.copyOf(candidates, Math.min(candidates.length * 2, MAX_CANDIDATES_PER_TOKEN + 1));
+        }
+        candidates[++candidates[0]] = index;
+        candidatesPerToken.put(token, candidates);
+    }
+
+    /**
+     * @param resourcePath the absolute resource path violating the content classification
+     * @param usage the usage of the resource
+     * @return the resource path of the closest entry allowing the given usage or {@code null} in case there is no similar one
+     */
+    @Nullable String suggest(@NotNull String resourcePath, @NotNull ContentUsage usage) {
+        if (!isIndexable(resourcePath)) {
+            return null;
+        }
+        String[] segments = getSegments(resourcePath);
+        String leafName = segments[segments.length - 1];
+        Set<String> bigrams = getBigrams(segments);
+        Set<String> leafNameTrigrams = getTrigrams(leafName);
+        Set<Integer> candidates = new HashSet<>();
+        for (String token : getTokens(segments)) {
+            int[] tokenCandidates = candidatesPerToken.get(token);
+            if (tokenCandidates != null && tokenCandidates != DROPPED_TOKEN) {
+                for (int i = 1; i <= tokenCandidates[0]; i++) {
+                    candidates.add(tokenCandidates[i]);
+                }
+            }
+        }
+        String bestResourcePath = null;
+        double bestScore = 0;
+        for (int candidate : candidates) {
+            String candidateResourcePath = resourcePaths.get(candidate);
+            if (candidateResourcePath.equals(resourcePath) || !CLASSIFICATIONS[classifications[candidate]].isAllowed(usage)) {
+                continue;
+            }
+            String[] candidateSegments = getSegments(candidateResourcePath);
+            double similarity = getSimilarity(bigrams, getBigrams(candidateSegments));
+            boolean isSameLeafName = leafName.equals(candidateSegments[candidateSegments.length - 1]);
+            if (similarity == 0 || (!isSameLeafName && similarity < MIN_SIMILARITY)) {
+                continue;
+            }
+            double score = similarity + (isSameLeafName ? 1 : getSimilarity(leafNameTrigrams, getTrigrams(candidateSegments[candidateSegments.length - 1])));
+            if (score > bestScore || (score == bestScore && isBetterTieBreaker(candidateResourcePath, bestResourcePath))) {
+                bestScore = score;
+                bestResourcePath = candidateResourcePath;
+            }
+        }
+        return bestResourcePath;
+    }
+
+    /**
+     * @return the number of indexed entries
+     */
+    int size() {
+        return resourcePaths.size();
+    }
+
+    private static boolean isBetterTieBreaker(@NotNull String resourcePath, @Nullable String otherResourcePath) {
+        return otherResourcePath == null || resourcePath.length() < otherResourcePath.length()
+                || (resourcePath.length() == otherResourcePath.length() && resourcePath.compareTo(otherResourcePath) < 0);
+    }
+
+    /**
+     * @return the Dice coefficient of the given sets
+     */
+    private static double getSimilarity(@NotNull Set<String> bigrams, @NotNull Set<String> otherBigrams) {
+        if (bigrams.isEmpty() && otherBigrams.isEmpty()) {
+            return 0;
+        }
+        int numSharedBigrams = 0;
+        for (String bigram : bigrams) {
+            if (otherBigrams.contains(bigram)) {
+                numSharedBigrams++;
+            }
+        }
+        return 2.0 * numSharedBigrams / (bigrams.size() + otherBigrams.size());
+    }
+
+    /**
+     * @return {@code true} in case the given classification allows any of the usages for which replacements are suggested
+     */
+    private static boolean isSuggestible(@NotNull ContentClassification classification) {
+        return classification.isAllowed(ContentUsage.REFERENCE) || classification.isAllowed(ContentUsage.INHERIT);
+    }
+
+    private static boolean isIndexable(@NotNull String resourcePath) {
+        return resourcePath.startsWith("/") && resourcePath.length() > 1 && !resourcePath.endsWith("/") && resourcePath.indexOf('*') < 0;
+    }
+
+    private static @NotNull String[] getSegments(@NotNull String resourcePath) {
+        return resourcePath.substring(1).split("/");
+    }
+
+    /**
+     * @return the leaf name and the last two segment bigrams (prefixed to distinguish them from leaf names)
+     */
+    private static @NotNull List<String> getTokens(@NotNull String[] segments) {
+        List<String> tokens = new ArrayList<>(3);
+        tokens.add(segments[segments.length - 1]);
+        for (int i = Math.max(segments.length - 3, 0); i < segments.length - 1; i++) {
+            tokens.add("/" + segments[i] + "/" + segments[i + 1]);
+        }
+        return tokens;
+    }
+
+    private static @NotNull Set<String> getTrigrams(@NotNull String name) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= name.length(); i++) {
+            trigrams.add(name.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static @NotNull Set<String> getBigrams(@NotNull String[] segments) {
+        Set<String> bigrams = new HashSet<>();
+        for (int i = 0; i < segments.length - 1; i++) {
+            bigrams.add(segments[i] + "/" + segments[i + 1]);
+        }
+        return bigrams;
+    }
+}
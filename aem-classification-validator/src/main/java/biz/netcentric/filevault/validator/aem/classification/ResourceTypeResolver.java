@@ -0,0 +1,239 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.jackrabbit.vault.util.PlatformNameFormat;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resolves relative resource types against a search path like the Sling resource resolver.
+ * <p>
+ * As the validator operates offline only the resources contained in the validated package are known. Therefore a relative resource type
+ * is resolved against the first search path entry below which the package contains it. If none contains it, it is resolved against the last entry of the search path
+ * (usually {@code /libs}, which is covered by the classification maps).
+ * The node paths of the package below all other search path entries are kept in a hash set, so resolving one resource type needs
+ * one hash lookup per search path entry.
+ * <p>
+ * Relative script paths are first resolved against the folder of the referencing script and are only evaluated if the package contains them (see {@link #resolveScript(String, String)}).
+ */
+final class ResourceTypeResolver {
+
+    private static final String JCR_ROOT = "jcr_root";
+    private static final String DIR_SUFFIX = ".dir";
+    private static final String DOCVIEW_FILE_NAME = ".content.xml";
+
+    /** all search path entries apart from the last one, each ending with a slash */
+    private final String[] packageSearchPath;
+    /** the last search path entry ending with a slash */
+    private final String fallbackSearchPath;
+    /** the node paths contained in the package below any of the {@link #packageSearchPath} entries */
+    private final Collection<String> packageNodePaths;
+
+    /**
+     * @param searchPath the absolute search path entries in the order in which they are evaluated (must not be empty)
+     */
+    ResourceTypeResolver(@NotNull List<String> searchPath) {
+        if (searchPath.isEmpty()) {
+            throw new IllegalArgumentException("The search path must contain at least one entry");
+        }
+        this.packageSearchPath = new String[searchPath.size() - 1];
+        for (int i = 0; i < packageSearchPath.length; i++) {
+            packageSearchPath[i] = toSearchPathEntry(searchPath.get(i));
+        }
+        this.fallbackSearchPath = toSearchPathEntry(searchPath.get(searchPath.size() - 1));
+        this.packageNodePaths = new HashSet<>();
+    }
+
+    private static @NotNull String toSearchPathEntry(@NotNull String path) {
+        if (!path.startsWith("/")) {
+            throw new IllegalArgumentException("Search path entries must be absolute but '" + path + "' is not");
+        }
+        return path.endsWith("/") ? path : path + "/";
+    }
+
+    /**
+     * Resolves the given resource type.
+     * @param resourceType the resource type
+     * @return the absolute resource type, for relative resource types the path below the first search path entry containing it (or below the last entry)
+     */
+    @NotNull String resolve(@NotNull String resourceType) {
+        if (resourceType.startsWith("/")) {
+            return resourceType;
+        }
+        for (String searchPathEntry : packageSearchPath) {
+            String resourcePath = searchPathEntry + resourceType;
+            if (packageNodePaths.contains(resourcePath)) {
+                return resourcePath;
+            }
+        }
+        return fallbackSearchPath + resourceType;
+    }
+
+    /**
+     * Resolves the given script path referenced from a script in the given folder.
+     * Like Sling a relative path is first looked up below the folder of the referencing script, afterwards below the search path entries apart from the last one.
+     * As the validator cannot tell whether a relative script not contained in the package exists below the last search path entry (and
+     * paths with {@code .} or {@code ..} segments are only meaningful next to the referencing script), those are not resolved at all.
+     * @param scriptPath the referenced script path
+     * @param scriptFolderPath the absolute node path of the folder containing the referencing script
+     * @return the normalized absolute path of the script or {@code null} in case it could not be resolved
+     */
+    @Nullable String resolveScript(@NotNull String scriptPath, @NotNull String scriptFolderPath) {
+        if (scriptPath.startsWith("/")) {
+            return normalize(scriptPath);
+        }
+        String siblingPath = normalize(scriptFolderPath + "/" + scriptPath);
+        if (siblingPath != null && packageNodePaths.contains(siblingPath)) {
+            return siblingPath;
+        }
+        if (hasDotSegment(scriptPath)) {
+            return null;
+        }
+        for (String searchPathEntry : packageSearchPath) {
+            String resourcePath = searchPathEntry + scriptPath;
+            if (packageNodePaths.contains(resourcePath)) {
+                return resourcePath;
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasDotSegment(@NotNull String path) {
+        for (String segment : path.split("/")) {
+            if (segment.equals(".") || segment.equals("..")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param path the absolute path which may contain {@code .} and {@code ..} segments
+     * @return the path without those segments or {@code null} in case it points above the root
+     */
+    private static @Nullable String normalize(@NotNull String path) {
+        Deque<String> segments = new ArrayDeque<>();
+        for (String segment : path.split("/")) {
+            if (segment.equals("..")) {
+                if (segments.pollLast() == null) {
+                    return null;
+                }
+            } else if (!segment.isEmpty() && !segment.equals(".")) {
+                segments.addLast(segment);
+            }
+        }
+        return "/" + String.join("/", segments);
+    }
+
+    /**
+     * @param resourcePath the absolute resource path
+     * @return {@code true} in case the resource path is known to be contained in the package
+     */
+    boolean isContainedInPackage(@NotNull String resourcePath) {
+        return packageNodePaths.contains(resourcePath);
+    }
+
+    /**
+     * Adds the given node path of the package, in case it is below one of the search path entries apart from the last one.
+     * @param nodePath the absolute node path
+     */
+    void addNodePath(@NotNull String nodePath) {
+        for (String searchPathEntry : packageSearchPath) {
+            if (nodePath.startsWith(searchPathEntry)) {
+                packageNodePaths.add(nodePath);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds the node paths of all folders and files (apart from {@code .content.xml}) below {@code jcr_root} of the given package.
+     * The files are added upfront so that scripts can be resolved against their siblings independent of the validation order.
+     * Nodes which are only defined within DocView files are added via {@link #addNodePath(String)} once they are validated.
+     * @param packageRootPath either the package file or the directory containing {@code jcr_root} (or {@code jcr_root} itself)
+     * @throws IOException in case the package could not be read
+     */
+    void addNodePathsOfPackage(@Nullable Path packageRootPath) throws IOException {
+        if (packageRootPath == null || packageSearchPath.length == 0) {
+            return;
+        }
+        if (Files.isRegularFile(packageRootPath)) {
+            try (ZipFile zipFile = new ZipFile(packageRootPath.toFile())) {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    if (name.startsWith(JCR_ROOT + "/")) {
+                        // folders are not necessarily listed as separate entries, but they are added as ancestors of the files
+                        addPlatformPath(getPlatformPath(name.substring(JCR_ROOT.length())));
+                    }
+                }
+            }
+        } else if (Files.isDirectory(packageRootPath)) {
+            Path jcrRoot = packageRootPath.getFileName() != null && packageRootPath.getFileName().toString().equals(JCR_ROOT) ? packageRootPath
+                    : packageRootPath.resolve(JCR_ROOT);
+            if (Files.isDirectory(jcrRoot)) {
+                try (Stream<Path> paths = Files.walk(jcrRoot)) {
+                    paths.forEach(path -> addPlatformPath(getPlatformPath("/" + jcrRoot.relativize(path).toString().replace('\\', '/'))));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param path the file or folder path below {@code jcr_root} (with a leading slash)
+     * @return the given path or the path of the parent folder for {@code .content.xml} files and folder entries ending with a slash
+     */
+    private static @NotNull String getPlatformPath(@NotNull String path) {
+        if (path.endsWith("/" + DOCVIEW_FILE_NAME)) {
+            path = path.substring(0, path.length() - DOCVIEW_FILE_NAME.length());
+        }
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    /**
+     * Adds the given file or folder path below {@code jcr_root} together with all its ancestors.
+     * @param platformPath the platform path (with a leading slash)
+     */
+    private void addPlatformPath(@NotNull String platformPath) {
+        String nodePath = stripDirSuffixes(PlatformNameFormat.getRepositoryPath(platformPath));
+        while (nodePath.length() > 1 && !packageNodePaths.contains(nodePath)) {
+            addNodePath(nodePath);
+            nodePath = nodePath.substring(0, nodePath.lastIndexOf('/'));
+        }
+    }
+
+    /**
+     * Folders with suffix {@code .dir} contain the children of the according file.
+     * @param nodePath the node path
+     * @return the node path without the {@code .dir} suffixes
+     */
+    static @NotNull String stripDirSuffixes(@NotNull String nodePath) {
+        nodePath = nodePath.replace(DIR_SUFFIX + "/", "/");
+        return nodePath.endsWith(DIR_SUFFIX) ? nodePath.substring(0, nodePath.length() - DIR_SUFFIX.length()) : nodePath;
+    }
+}
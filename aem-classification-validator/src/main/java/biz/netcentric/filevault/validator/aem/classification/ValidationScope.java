@@ -0,0 +1,220 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.jackrabbit.vault.util.PlatformNameFormat;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The files and nodes of a package which are validated, either all of them or only the changed ones (e.g. the ones changed in a pull request).
+ * The changed paths are file paths either relative to the {@code jcr_root} directory or containing a {@code jcr_root} segment
+ * (like the paths relative to the repository root emitted by {@code git diff --name-only}), everything up to and including that segment is stripped.
+ * Nodes are in scope if they are defined by a changed file, i.e. the node path derived from the file path (without {@code .content.xml} and
+ * {@code .dir} suffixes) is in scope, as well as all nodes contained in changed DocView files.
+ */
+public final class ValidationScope {
+
+    /** validates all files and nodes of the package */
+    public static final @NotNull ValidationScope ALL = new ValidationScope(null);
+
+    private static final String JCR_ROOT_SEGMENT = "jcr_root/";
+    private static final String DOCVIEW_FILE_SUFFIX = "/.content.xml";
+
+    /** the file paths relative to {@code jcr_root} (without leading slash), {@code null} in case all files are in scope */
+    private final @Nullable Set<String> changedFilePaths;
+    private final @NotNull Set<String> changedNodePaths;
+
+    private ValidationScope(@Nullable Set<String> changedFilePaths) {
+        this.changedFilePaths = changedFilePaths;
+        this.changedNodePaths = new HashSet<>();
+        if (changedFilePaths != null) {
+            for (String changedFilePath : changedFilePaths) {
+                changedNodePaths.add(getNodePath(changedFilePath));
+            }
+        }
+    }
+
+    /**
+     * @param changedPaths the changed file paths
+     * @return the scope only containing the given changed files and the nodes defined by them
+     */
+    public static @NotNull ValidationScope ofChangedPaths(@NotNull Collection<String> changedPaths) {
+        Set<String> changedFilePaths = new HashSet<>();
+        for (String changedPath : changedPaths) {
+            String filePath = getFilePathBelowJcrRoot(changedPath);
+            if (!filePath.isEmpty()) {
+                changedFilePaths.add(filePath);
+            }
+        }
+        return new ValidationScope(changedFilePaths);
+    }
+
+    /**
+     * Reads the changed paths from the given UTF-8 encoded file containing one path per line.
+     * @param file the file
+     * @return the changed paths
+     * @throws IOException in case the file could not be read
+     */
+    public static @NotNull List<String> readChangedPaths(@NotNull Path file) throws IOException {
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Determines the changed paths by calling {@code git diff --name-only --relative <revisions> --}.
+     * Only the changes below the working directory are considered, so that in a multi-module project a change in one content package module
+     * is not attributed to the other modules.
+     * @param workingDirectory a directory within the git working tree or {@code null} to use the current working directory
+     * @param revisions the revisions to compare, e.g. {@code origin/main...HEAD} (changes since the merge base) or {@code origin/main} (changes compared to the working tree)
+     * @return the changed paths below the working directory relative to it
+     * @throws IOException in case git could not be called or failed
+     */
+    public static @NotNull List<String> readChangedPathsFromGit(@Nullable Path workingDirectory, @NotNull String revisions) throws IOException {
+        if (revisions.isEmpty() || revisions.startsWith("-")) {
+            throw new IllegalArgumentException("Invalid git revisions '" + revisions + "'");
+        }
+        ProcessBuilder processBuilder = new ProcessBuilder("git", "-c", "core.quotePath=false", "diff", "--name-only", "--relative", revisions, "--");
+        if (workingDirectory != null) {
+            processBuilder.directory(workingDirectory.toFile());
+        }
+        Process process = processBuilder.start();
+        // stderr is drained concurrently, otherwise git blocks once the pipe buffer of stderr is full while stdout is still being read
+        StringBuilder error = new StringBuilder();
+        Thread errorReader = new Thread(() -> {
+            try {
+                error.append(readFully(process.getErrorStream()));
+            } catch (IOException e) {
+                error.append(e.getMessage());
+            }
+        }, "git-diff-stderr-reader");
+        errorReader.setDaemon(true);
+        errorReader.start();
+        List<String> changedPaths = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                changedPaths.add(line);
+            }
+        }
+        try {
+            int exitCode = process.waitFor();
+            errorReader.join();
+            if (exitCode != 0) {
+                throw new IOException("git diff " + revisions + " failed with exit code " + exitCode + ": " + error.toString().trim());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for git diff " + revisions, e);
+        }
+        return changedPaths;
+    }
+
+    private static @NotNull String readFully(@NotNull InputStream input) throws IOException {
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            char[] buffer = new char[1024];
+            int length;
+            while ((length = reader.read(buffer)) != -1) {
+                output.append(buffer, 0, length);
+            }
+        }
+        return output.toString();
+    }
+
+    /**
+     * @return {@code true} in case all files and nodes are in scope
+     */
+    public boolean isAll() {
+        return changedFilePaths == null;
+    }
+
+    /**
+     * @param filePath the file path relative to {@code jcr_root}
+     * @return {@code true} in case the given file should be validated
+     */
+    boolean containsFile(@NotNull Path filePath) {
+        return changedFilePaths == null || changedFilePaths.contains(getFilePathBelowJcrRoot(filePath.toString()));
+    }
+
+    /**
+     * @param nodePath the absolute node path
+     * @return {@code true} in case the given node is defined by a changed file
+     */
+    boolean containsNodePath(@NotNull String nodePath) {
+        return changedFilePaths == null || changedNodePaths.contains(nodePath);
+    }
+
+    /**
+     * @param path a file path, either relative to {@code jcr_root} or containing a {@code jcr_root} segment
+     * @return the path relative to {@code jcr_root} with forward slashes and without leading slash
+     */
+    static @NotNull String getFilePathBelowJcrRoot(@NotNull String path) {
+        String filePath = path.trim().replace('\\', '/');
+        int jcrRootIndex = filePath.startsWith(JCR_ROOT_SEGMENT) ? 0 : filePath.indexOf("/" + JCR_ROOT_SEGMENT);
+        if (jcrRootIndex >= 0) {
+            filePath = filePath.substring(filePath.indexOf(JCR_ROOT_SEGMENT, jcrRootIndex) + JCR_ROOT_SEGMENT.length());
+        }
+        while (filePath.startsWith("/")) {
+            filePath = filePath.substring(1);
+        }
+        return filePath;
+    }
+
+    /**
+     * @param filePath the file path relative to {@code jcr_root}
+     * @return the path of the node defined by the given file
+     */
+    static @NotNull String getNodePath(@NotNull String filePath) {
+        String platformPath = "/" + filePath;
+        if (platformPath.endsWith(DOCVIEW_FILE_SUFFIX)) {
+            platformPath = platformPath.substring(0, platformPath.length() - DOCVIEW_FILE_SUFFIX.length());
+        }
+        String nodePath = ResourceTypeResolver.stripDirSuffixes(PlatformNameFormat.getRepositoryPath(platformPath));
+        return nodePath.isEmpty() ? "/" : nodePath;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(changedFilePaths);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        ValidationScope other = (ValidationScope) obj;
+        return Objects.equals(changedFilePaths, other.changedFilePaths);
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationScope [" + (changedFilePaths != null ? "changedFilePaths=" + changedFilePaths : "all") + "]";
+    }
+}
@@ -0,0 +1,82 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.Objects;
+
+import org.apache.jackrabbit.vault.validation.spi.ValidationMessageSeverity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Limits the number of violations after which the validation of a package is stopped.
+ * The validation is stopped after the first violation with at least the fail-fast severity or once the maximum number of violations has been reached,
+ * whatever comes first.
+ */
+public final class ViolationBudget {
+
+    /** never stops the validation */
+    public static final @NotNull ViolationBudget UNLIMITED = new ViolationBudget(null, 0);
+
+    private final @Nullable ValidationMessageSeverity failFastSeverity;
+    private final int maxViolations;
+
+    /**
+     * @param failFastSeverity the minimum severity of a violation after which to stop or {@code null} to not stop because of a single violation
+     * @param maxViolations the number of violations after which to stop, {@code 0} means unlimited
+     */
+    public ViolationBudget(@Nullable ValidationMessageSeverity failFastSeverity, int maxViolations) {
+        if (maxViolations < 0) {
+            throw new IllegalArgumentException("The maximum number of violations must not be negative but is " + maxViolations);
+        }
+        this.failFastSeverity = failFastSeverity;
+        this.maxViolations = maxViolations;
+    }
+
+    /**
+     * @return {@code true} in case the validation is never stopped
+     */
+    public boolean isUnlimited() {
+        return failFastSeverity == null && maxViolations == 0;
+    }
+
+    /**
+     * @param numViolations the number of violations reported so far (including the given one)
+     * @param severity the severity of the last reported violation
+     * @return {@code true} in case no further violations should be reported
+     */
+    boolean isExhausted(int numViolations, @NotNull ValidationMessageSeverity severity) {
+        return (maxViolations > 0 && numViolations >= maxViolations) || (failFastSeverity != null && severity.ordinal() >= failFastSeverity.ordinal());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(failFastSeverity, maxViolations);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        ViolationBudget other = (ViolationBudget) obj;
+        return failFastSeverity == other.failFastSeverity && maxViolations == other.maxViolations;
+    }
+
+    @Override
+    public String toString() {
+        return "ViolationBudget [failFastSeverity=" + failFastSeverity + ", maxViolations=" + maxViolations + "]";
+    }
+}
@@ -0,0 +1,127 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Extracts the values of the evaluated properties from XML files which are not in DocView format in a single streaming pass (via StAX).
+ * The following representations are supported:
+ * <ul>
+ * <li>namespaced attributes at any element, e.g. {@code sling:resourceType="..."}</li>
+ * <li>properties in the <a href="https://sling.apache.org/documentation/bundles/content-loading-jcr-contentloader.html#xml-descriptor-files">Sling initial content XML format</a>,
+ * i.e. {@code <property><name>sling:resourceType</name><value>...</value></property>}</li>
+ * </ul>
+ * DocView files (with root element {@code jcr:root}) are skipped as they are validated node by node.
+ */
+final class XmlContentScanner {
+
+    private static final String JCR_NAMESPACE_URI = "http://www.jcp.org/jcr/1.0";
+    private static final String DOCVIEW_ROOT_ELEMENT = "root";
+
+    private static final String INITIAL_CONTENT_NODE_ELEMENT = "node";
+    private static final String INITIAL_CONTENT_PROPERTY_ELEMENT = "property";
+    private static final String INITIAL_CONTENT_NAME_ELEMENT = "name";
+    private static final String INITIAL_CONTENT_VALUE_ELEMENT = "value";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY;
+    static {
+        XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final PropertyUsageTable propertyUsageTable;
+    private final Map<String, ContentUsage> usagePerQualifiedPropertyName;
+
+    XmlContentScanner(@NotNull PropertyUsageTable propertyUsageTable) {
+        this.propertyUsageTable = propertyUsageTable;
+        this.usagePerQualifiedPropertyName = propertyUsageTable.getUsagePerQualifiedPropertyName();
+    }
+
+    /**
+     * Scans the given XML.
+     * @param input the XML (is not closed)
+     * @param resourceConsumer called with each value of an evaluated property and the according usage
+     * @return {@code false} in case the XML is a DocView file and therefore has not been scanned, otherwise {@code true}
+     * @throws IOException in case the input could not be read or is malformed
+     */
+    boolean scan(@NotNull InputStream input, @NotNull BiConsumer<String, ContentUsage> resourceConsumer) throws IOException {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+            try {
+                return scan(reader, resourceConsumer);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid XML: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean scan(@NotNull XMLStreamReader reader, @NotNull BiConsumer<String, ContentUsage> resourceConsumer) throws XMLStreamException {
+        boolean isRootElement = true;
+        boolean isInitialContent = false;
+        boolean isInProperty = false;
+        ContentUsage propertyUsage = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String localName = reader.getLocalName();
+                if (isRootElement) {
+                    if (DOCVIEW_ROOT_ELEMENT.equals(localName) && JCR_NAMESPACE_URI.equals(reader.getNamespaceURI())) {
+                        return false;
+                    }
+                    isInitialContent = INITIAL_CONTENT_NODE_ELEMENT.equals(localName) && isEmpty(reader.getNamespaceURI());
+                    isRootElement = false;
+                }
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    String namespaceUri = reader.getAttributeNamespace(i);
+                    ContentUsage usage = propertyUsageTable.getUsage(namespaceUri != null ? namespaceUri : "", reader.getAttributeLocalName(i));
+                    if (usage != null) {
+                        resourceConsumer.accept(reader.getAttributeValue(i), usage);
+                    }
+                }
+                if (isInitialContent) {
+                    if (INITIAL_CONTENT_PROPERTY_ELEMENT.equals(localName)) {
+                        isInProperty = true;
+                        propertyUsage = null;
+                    } else if (isInProperty && INITIAL_CONTENT_NAME_ELEMENT.equals(localName)) {
+                        propertyUsage = usagePerQualifiedPropertyName.get(reader.getElementText().trim());
+                    } else if (propertyUsage != null && INITIAL_CONTENT_VALUE_ELEMENT.equals(localName)) {
+                        resourceConsumer.accept(reader.getElementText().trim(), propertyUsage);
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && isInitialContent && INITIAL_CONTENT_PROPERTY_ELEMENT.equals(reader.getLocalName())) {
+                isInProperty = false;
+                propertyUsage = null;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(String namespaceUri) {
+        return namespaceUri == null || namespaceUri.isEmpty();
+    }
+}
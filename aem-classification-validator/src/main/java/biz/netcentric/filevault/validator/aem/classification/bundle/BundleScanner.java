@@ -0,0 +1,165 @@
+package biz.netcentric.filevault.validator.aem.classification.bundle;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Streams the entries of an OSGi bundle and collects the resource types bound by its classes.
+ * The bindings are extracted from
+ * <ul>
+ * <li>the class files via {@link ClassFileScanner},</li>
+ * <li>the Declarative Services component descriptions below {@code OSGI-INF} (property {@code sling.servlet.resourceTypes}) and</li>
+ * <li>the embedded jars (recursively).</li>
+ * </ul>
+ * Neither the classes are loaded nor the bundle is extracted.
+ */
+public final class BundleScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String JAR_SUFFIX = ".jar";
+    private static final String COMPONENT_DESCRIPTION_FOLDER = "OSGI-INF/";
+    private static final String XML_SUFFIX = ".xml";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY;
+    static {
+        XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private BundleScanner() {
+        // static methods only
+    }
+
+    /**
+     * Scans the given bundle.
+     * @param input the bundle (is not closed)
+     * @return the distinct resource type bindings in the order in which they appear in the bundle
+     * @throws IOException in case the bundle could not be read or contains invalid class files or component descriptions
+     */
+    public static @NotNull Collection<ResourceTypeBinding> scan(@NotNull InputStream input) throws IOException {
+        Collection<ResourceTypeBinding> bindings = new LinkedHashSet<>();
+        // the outer stream is not closed, the nested streams must not be closed as this would close the outer stream
+        scanEntries(new ZipInputStream(input), bindings);
+        return bindings;
+    }
+
+    private static void scanEntries(@NotNull ZipInputStream zipInput, @NotNull Collection<ResourceTypeBinding> bindings) throws IOException {
+        ZipEntry entry;
+        while ((entry = zipInput.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+            String name = entry.getName();
+            try {
+                if (name.endsWith(CLASS_SUFFIX)) {
+                    bindings.addAll(ClassFileScanner.scan(zipInput));
+                } else if (name.startsWith(COMPONENT_DESCRIPTION_FOLDER) && name.endsWith(XML_SUFFIX)) {
+                    bindings.addAll(scanComponentDescriptions(zipInput));
+                } else if (name.endsWith(JAR_SUFFIX)) {
+                    scanEntries(new ZipInputStream(zipInput), bindings);
+                }
+            } catch (IOException e) {
+                throw new IOException("Could not scan entry '" + name + "': " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Extracts the bindings from the given Declarative Services component description.
+     * The element namespaces are not evaluated, as older descriptions often lack them.
+     * @param input the XML component description (is not closed)
+     * @return the resource types bound by the components
+     * @throws IOException in case the XML could not be parsed
+     * @see <a href="https://docs.osgi.org/specification/osgi.cmpn/8.0.0/service.component.html#service.component-component.description">Component Description</a>
+     */
+    static @NotNull List<ResourceTypeBinding> scanComponentDescriptions(@NotNull InputStream input) throws IOException {
+        List<ResourceTypeBinding> bindings = new ArrayList<>();
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+            try {
+                String className = null;
+                List<String> resourceTypes = new ArrayList<>();
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (reader.getLocalName()) {
+                            case "component":
+                                className = null;
+                                resourceTypes.clear();
+                                break;
+                            case "implementation":
+                                className = reader.getAttributeValue(null, "class");
+                                break;
+                            case "property":
+                                if (ClassFileScanner.SERVLET_RESOURCE_TYPES_PROPERTY.equals(reader.getAttributeValue(null, "name"))) {
+                                    addPropertyValues(reader, resourceTypes);
+                                }
+                                break;
+                            default:
+                                break;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && "component".equals(reader.getLocalName()) && className != null) {
+                        for (String resourceType : resourceTypes) {
+                            bindings.add(new ResourceTypeBinding(className, resourceType));
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid component description: " + e.getMessage(), e);
+        }
+        return bindings;
+    }
+
+    /**
+     * Adds the values of the current {@code property} element, either given in attribute {@code value} or as text with one value per line.
+     * @throws XMLStreamException
+     */
+    private static void addPropertyValues(@NotNull XMLStreamReader reader, @NotNull List<String> values) throws XMLStreamException {
+        String value = reader.getAttributeValue(null, "value");
+        if (value != null) {
+            addValue(value, values);
+        } else {
+            for (String line : reader.getElementText().split("\\r?\\n")) {
+                addValue(line, values);
+            }
+        }
+    }
+
+    private static void addValue(@Nullable String value, @NotNull List<String> values) {
+        String trimmedValue = value != null ? value.trim() : "";
+        if (!trimmedValue.isEmpty()) {
+            values.add(trimmedValue);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package biz.netcentric.filevault.validator.aem.classification.bundle;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Extracts the resource types bound via class level annotations from a class file
+ * (<a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html">JVMS, Chapter 4</a>) without loading the class.
+ * <p>
+ * Only the constant pool is parsed for all classes. Fields, methods and the annotations are only evaluated in case the constant pool contains
+ * the descriptor of one of the supported annotations:
+ * <ul>
+ * <li>{@code @org.apache.sling.models.annotations.Model(resourceType=...)}</li>
+ * <li>{@code @org.apache.sling.servlets.annotations.SlingServletResourceTypes(resourceTypes=...)}</li>
+ * <li>{@code @org.osgi.service.component.annotations.Component(property="sling.servlet.resourceTypes=...")}</li>
+ * <li>{@code @org.apache.felix.scr.annotations.sling.SlingServlet(resourceTypes=...)}</li>
+ * </ul>
+ * Both runtime visible and invisible (i.e. with retention {@code CLASS}) annotations are considered.
+ */
+public final class ClassFileScanner {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final String COMPONENT_DESCRIPTOR = "Lorg/osgi/service/component/annotations/Component;";
+    static final String SERVLET_RESOURCE_TYPES_PROPERTY = "sling.servlet.resourceTypes";
+
+    /** key = annotation descriptor, value = name of the annotation element containing the resource types */
+    private static final Map<String, String> RESOURCE_TYPE_ELEMENT_PER_ANNOTATION;
+    static {
+        Map<String, String> resourceTypeElementPerAnnotation = new HashMap<>();
+        resourceTypeElementPerAnnotation.put("Lorg/apache/sling/models/annotations/Model;", "resourceType");
+        resourceTypeElementPerAnnotation.put("Lorg/apache/sling/servlets/annotations/SlingServletResourceTypes;", "resourceTypes");
+        resourceTypeElementPerAnnotation.put(COMPONENT_DESCRIPTOR, "property");
+        resourceTypeElementPerAnnotation.put("Lorg/apache/felix/scr/annotations/sling/SlingServlet;", "resourceTypes");
+        RESOURCE_TYPE_ELEMENT_PER_ANNOTATION = Collections.unmodifiableMap(resourceTypeElementPerAnnotation);
+    }
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final String RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+
+    private ClassFileScanner() {
+        // static methods only
+    }
+
+    /**
+     * Reads the resource types bound by the given class file.
+     * The input stream is neither closed nor necessarily read until its end.
+     * @param input the class file
+     * @return the resource types bound to the class (in the order in which they appear in the annotations)
+     * @throws IOException in case the input could not be read or is no valid class file
+     */
+    public static @NotNull List<ResourceTypeBinding> scan(@NotNull InputStream input) throws IOException {
+        try {
+            return readClassFile(new DataInputStream(input));
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Invalid class file, invalid constant pool index", e);
+        }
+    }
+
+    private static @NotNull List<ResourceTypeBinding> readClassFile(@NotNull DataInputStream dataInput) throws IOException {
+        if (dataInput.readInt() != MAGIC) {
+            throw new IOException("Invalid class file, magic number is missing");
+        }
+        dataInput.readUnsignedShort(); // minor version
+        dataInput.readUnsignedShort(); // major version
+        int constantPoolCount = dataInput.readUnsignedShort();
+        String[] utf8Constants = new String[constantPoolCount];
+        int[] classNameIndices = new int[constantPoolCount];
+        readConstantPool(dataInput, utf8Constants, classNameIndices);
+        if (!containsAnyAnnotationDescriptor(utf8Constants)) {
+            return Collections.emptyList();
+        }
+        dataInput.readUnsignedShort(); // access flags
+        String className = getClassName(utf8Constants, classNameIndices, dataInput.readUnsignedShort());
+        dataInput.readUnsignedShort(); // super class
+        skipFully(dataInput, 2L * dataInput.readUnsignedShort()); // interfaces
+        skipMembers(dataInput); // fields
+        skipMembers(dataInput); // methods
+        List<ResourceTypeBinding> bindings = new ArrayList<>();
+        int attributesCount = dataInput.readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            String attributeName = utf8Constants[dataInput.readUnsignedShort()];
+            long attributeLength = dataInput.readInt() & 0xFFFFFFFFL;
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName) || RUNTIME_INVISIBLE_ANNOTATIONS.equals(attributeName)) {
+                int annotationsCount = dataInput.readUnsignedShort();
+                for (int j = 0; j < annotationsCount; j++) {
+                    readAnnotation(dataInput, utf8Constants, className, bindings);
+                }
+            } else {
+                skipFully(dataInput, attributeLength);
+            }
+        }
+        return bindings;
+    }
+
+    /**
+     * Reads the constant pool and only keeps the values of the {@code CONSTANT_Utf8} entries and the name indices of the {@code CONSTANT_Class} entries.
+     * @param input the class file positioned after the constant pool count
+     * @param utf8Constants the array to which to add the Utf8 constants at their constant pool index
+     * @param classNameIndices the array to which to add the name indices of the class constants at their constant pool index
+     * @throws IOException in case the input could not be read or contains an unknown constant
+     */
+    private static void readConstantPool(@NotNull DataInputStream input, @NotNull String[] utf8Constants, @NotNull int[] classNameIndices) throws IOException {
+        for (int i = 1; i < utf8Constants.length; i++) {
+            int tag = input.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8Constants[i] = input.readUTF();
+                    break;
+                case 7: // Class
+                    classNameIndices[i] = input.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skipFully(input, 2);
+                    break;
+                case 15: // MethodHandle
+                    skipFully(input, 3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    skipFully(input, 4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    skipFully(input, 8);
+                    i++; // occupies two entries
+                    break;
+                default:
+                    throw new IOException("Invalid class file, unknown constant pool tag " + tag + " at index " + i);
+            }
+        }
+    }
+
+    private static boolean containsAnyAnnotationDescriptor(@NotNull String[] utf8Constants) {
+        for (String constant : utf8Constants) {
+            if (constant != null && RESOURCE_TYPE_ELEMENT_PER_ANNOTATION.containsKey(constant)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static @NotNull String getClassName(@NotNull String[] utf8Constants, @NotNull int[] classNameIndices, int classIndex) throws IOException {
+        String className = classIndex < classNameIndices.length ? utf8Constants[classNameIndices[classIndex]] : null;
+        if (className == null) {
+            throw new IOException("Invalid class file, this_class does not reference a class constant");
+        }
+        return className.replace('/', '.');
+    }
+
+    private static void skipMembers(@NotNull DataInputStream input) throws IOException {
+        int membersCount = input.readUnsignedShort();
+        for (int i = 0; i < membersCount; i++) {
+            skipFully(input, 6); // access flags, name index, descriptor index
+            int attributesCount = input.readUnsignedShort();
+            for (int j = 0; j < attributesCount; j++) {
+                input.readUnsignedShort(); // name index
+                skipFully(input, input.readInt() & 0xFFFFFFFFL);
+            }
+        }
+    }
+
+    private static void readAnnotation(@NotNull DataInputStream input, @NotNull String[] utf8Constants, @NotNull String className, @NotNull List<ResourceTypeBinding> bindings) throws IOException {
+        String descriptor = utf8Constants[input.readUnsignedShort()];
+        String resourceTypeElement = descriptor != null ? RESOURCE_TYPE_ELEMENT_PER_ANNOTATION.get(descriptor) : null;
+        int elementValuePairsCount = input.readUnsignedShort();
+        for (int i = 0; i < elementValuePairsCount; i++) {
+            String elementName = utf8Constants[input.readUnsignedShort()];
+            if (resourceTypeElement != null && resourceTypeElement.equals(elementName)) {
+                List<String> values = new ArrayList<>();
+                readElementValue(input, utf8Constants, className, bindings, values);
+                for (String value : values) {
+                    String resourceType = COMPONENT_DESCRIPTOR.equals(descriptor) ? getServletResourceType(value) : value;
+                    if (resourceType != null && !resourceType.isEmpty()) {
+                        bindings.add(new ResourceTypeBinding(className, resourceType));
+                    }
+                }
+            } else {
+                readElementValue(input, utf8Constants, className, bindings, null);
+            }
+        }
+    }
+
+    /**
+     * Reads one element value.
+     * @param stringValues the list to which to add the string values (also from arrays) or {@code null} in case the values should be skipped
+     * @throws IOException
+     */
+    private static void readElementValue(@NotNull DataInputStream input, @NotNull String[] utf8Constants, @NotNull String className, @NotNull List<ResourceTypeBinding> bindings, @Nullable List<String> stringValues) throws IOException {
+        int tag = input.readUnsignedByte();
+        switch (tag) {
+            case 's':
+                String value = utf8Constants[input.readUnsignedShort()];
+                if (stringValues != null && value != null) {
+                    stringValues.add(value);
+                }
+                break;
+            case 'B':
+            case 'C':
+            case 'D':
+            case 'F':
+            case 'I':
+            case 'J':
+            case 'S':
+            case 'Z':
+            case 'c':
+                skipFully(input, 2);
+                break;
+            case 'e':
+                skipFully(input, 4);
+                break;
+            case '@':
+                readAnnotation(input, utf8Constants, className, bindings);
+                break;
+            case '[':
+                int valuesCount = input.readUnsignedShort();
+                for (int i = 0; i < valuesCount; i++) {
+                    readElementValue(input, utf8Constants, className, bindings, stringValues);
+                }
+                break;
+            default:
+                throw new IOException("Invalid class file, unknown element value tag '" + (char) tag + "'");
+        }
+    }
+
+    /**
+     * @param property a component property in the format {@code <name>[:<type>]=<value>}
+     * @return the value in case the property is {@link #SERVLET_RESOURCE_TYPES_PROPERTY}, otherwise {@code null}
+     */
+    static @Nullable String getServletResourceType(@NotNull String property) {
+        int separatorIndex = property.indexOf('=');
+        if (separatorIndex < 0) {
+            return null;
+        }
+        String name = property.substring(0, separatorIndex);
+        int typeSeparatorIndex = name.indexOf(':');
+        if (typeSeparatorIndex >= 0) {
+            name = name.substring(0, typeSeparatorIndex);
+        }
+        return SERVLET_RESOURCE_TYPES_PROPERTY.equals(name.trim()) ? property.substring(separatorIndex + 1).trim() : null;
+    }
+
+    private static void skipFully(@NotNull DataInputStream input, long length) throws IOException {
+        while (length > 0) {
+            int skipped = input.skipBytes((int) Math.min(length, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                if (input.read() < 0) {
+                    throw new IOException("Invalid class file, unexpected end of input");
+                }
+                skipped = 1;
+            }
+            length -= skipped;
+        }
+    }
+}
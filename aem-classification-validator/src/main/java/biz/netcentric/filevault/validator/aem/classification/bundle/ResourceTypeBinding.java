@@ -0,0 +1,64 @@
+package biz.netcentric.filevault.validator.aem.classification.bundle;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A resource type to which a class of a bundle is bound, either as Sling Model or as Sling Servlet.
+ */
+public final class ResourceTypeBinding {
+
+    private final @NotNull String className;
+    private final @NotNull String resourceType;
+
+    public ResourceTypeBinding(@NotNull String className, @NotNull String resourceType) {
+        this.className = className;
+        this.resourceType = resourceType;
+    }
+
+    /**
+     * @return the fully qualified name of the bound class
+     */
+    public @NotNull String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return the resource type as given in the bundle (may be relative)
+     */
+    public @NotNull String getResourceType() {
+        return resourceType;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * className.hashCode() + resourceType.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        ResourceTypeBinding other = (ResourceTypeBinding) obj;
+        return className.equals(other.className) && resourceType.equals(other.resourceType);
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceTypeBinding [className=" + className + ", resourceType=" + resourceType + "]";
+    }
+}
@@ -32,6 +32,13 @@ public class ClassLoaderUrlConnection extends URLConnection {
         
     }
 
+    /**
+     * @return the URL of the resource as returned by the class loader or {@code null} in case the resource could not be found
+     */
+    public URL getResourceUrl() {
+        return classLoader.getResource(url.getFile());
+    }
+
     @Override
     public InputStream getInputStream() throws IOException {
         InputStream input = classLoader.getResourceAsStream(url.getFile());
@@ -0,0 +1,312 @@
+package biz.netcentric.filevault.validator.aem.classification.json;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Minimal streaming JSON parser which emits one {@link Token} at a time and never builds a tree.
+ * It is lenient regarding separators (i.e. does not validate the position of {@code ,} and {@code :}),
+ * but fails on any other unexpected character.
+ * <p>
+ * The text of the current token is kept in a reusable buffer and only materialized as {@link String}
+ * when calling {@link #getText()}.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class JsonPullParser implements Closeable {
+
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END_DOCUMENT
+    }
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private final StringBuilder text;
+    private Token currentToken;
+    private int lineNumber;
+
+    public JsonPullParser(@NotNull Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[8192];
+        this.text = new StringBuilder();
+        this.lineNumber = 1;
+    }
+
+    /**
+     * Advances to the next token.
+     * @return the next token, {@link Token#END_DOCUMENT} once the end of the input has been reached
+     * @throws IOException in case the input could not be read or is malformed
+     */
+    public @NotNull Token next() throws IOException {
+        text.setLength(0);
+        int c = nextNonSeparator();
+        switch (c) {
+            case -1:
+                currentToken = Token.END_DOCUMENT;
+                break;
+            case '{':
+                currentToken = Token.BEGIN_OBJECT;
+                break;
+            case '}':
+                currentToken = Token.END_OBJECT;
+                break;
+            case '[':
+                currentToken = Token.BEGIN_ARRAY;
+                break;
+            case ']':
+                currentToken = Token.END_ARRAY;
+                break;
+            case '"':
+                readString();
+                // a string directly followed by ':' is a name
+                c = nextNonWhitespace();
+                if (c == ':') {
+                    currentToken = Token.NAME;
+                } else {
+                    if (c != -1) {
+                        unread(c);
+                    }
+                    currentToken = Token.STRING;
+                }
+                break;
+            case 't':
+                readLiteral("true");
+                currentToken = Token.TRUE;
+                break;
+            case 'f':
+                readLiteral("false");
+                currentToken = Token.FALSE;
+                break;
+            case 'n':
+                readLiteral("null");
+                currentToken = Token.NULL;
+                break;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    text.append((char) c);
+                    readNumber();
+                    currentToken = Token.NUMBER;
+                } else {
+                    throw newMalformedException("Unexpected character '" + (char) c + "'");
+                }
+        }
+        return currentToken;
+    }
+
+    /**
+     *
+     * @return the token returned by the last call to {@link #next()} or {@code null} if it has not been called yet
+     */
+    public Token getCurrentToken() {
+        return currentToken;
+    }
+
+    /**
+     *
+     * @return the text of the current token for {@link Token#NAME}, {@link Token#STRING} and {@link Token#NUMBER}, otherwise the empty string
+     */
+    public @NotNull String getText() {
+        return text.toString();
+    }
+
+    /**
+     * Compares the text of the current token without materializing it.
+     * @param value the value to compare with
+     * @return {@code true} in case the current token's text is equal to the given value
+     */
+    public boolean textEquals(@NotNull CharSequence value) {
+        if (text.length() != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * In case the current token is {@link Token#BEGIN_OBJECT} or {@link Token#BEGIN_ARRAY} skips all tokens until the matching end token,
+     * otherwise does nothing.
+     * @throws IOException in case the input could not be read or is malformed
+     */
+    public void skipChildren() throws IOException {
+        if (currentToken != Token.BEGIN_OBJECT && currentToken != Token.BEGIN_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            switch (next()) {
+                case BEGIN_OBJECT:
+                case BEGIN_ARRAY:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+                case END_DOCUMENT:
+                    throw newMalformedException("Unexpected end of document");
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Advances to the next token which is supposed to be a value and skips it completely (including all its children).
+     * @throws IOException in case the input could not be read or is malformed
+     */
+    public void skipValue() throws IOException {
+        next();
+        skipChildren();
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        char c = buffer[position++];
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+        return c;
+    }
+
+    private int nextNonSeparator() throws IOException {
+        int c;
+        do {
+            c = nextNonWhitespace();
+        } while (c == ',' || c == ':');
+        return c;
+    }
+
+    private void readString() throws IOException {
+        while (true) {
+            int c = read();
+            switch (c) {
+                case -1:
+                    throw newMalformedException("Unterminated string");
+                case '"':
+                    return;
+                case '\\':
+                    readEscapeSequence();
+                    break;
+                default:
+                    text.append((char) c);
+            }
+        }
+    }
+
+    private void readEscapeSequence() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'b':
+                text.append('\b');
+                break;
+            case 'f':
+                text.append('\f');
+                break;
+            case 'n':
+                text.append('\n');
+                break;
+            case 'r':
+                text.append('\r');
+                break;
+            case 't':
+                text.append('\t');
+                break;
+            case 'u':
+                int codePoint = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw newMalformedException("Invalid unicode escape sequence");
+                    }
+                    codePoint = (codePoint << 4) + digit;
+                }
+                text.append((char) codePoint);
+                break;
+            case -1:
+                throw newMalformedException("Unterminated escape sequence");
+            default:
+                // covers '"', '\' and '/'
+                text.append((char) c);
+        }
+    }
+
+    private void readNumber() throws IOException {
+        while (true) {
+            int c = read();
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                text.append((char) c);
+            } else {
+                if (c != -1) {
+                    unread(c);
+                }
+                return;
+            }
+        }
+    }
+
+    private void readLiteral(String literal) throws IOException {
+        // first character has already been consumed
+        for (int i = 1; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) {
+                throw newMalformedException("Expected literal '" + literal + "'");
+            }
+        }
+    }
+
+    private void unread(int c) {
+        position--;
+        if (c == '\n') {
+            lineNumber--;
+        }
+    }
+
+    private IOException newMalformedException(String message) {
+        return new IOException("Malformed JSON in line " + lineNumber + ": " + message);
+    }
+}
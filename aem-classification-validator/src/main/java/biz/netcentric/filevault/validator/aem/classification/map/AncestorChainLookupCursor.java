@@ -0,0 +1,137 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationLookupCursor;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+/**
+ * Lookup cursor for maps with only literal entries which keeps the chain of ancestors of the previously looked up resource path
+ * together with their nearest entry. A lookup only drops the ancestors which are not shared with the new resource path
+ * and looks up the entries for the remaining segments, therefore paths in document order need near-constant work per lookup.
+ */
+final class AncestorChainLookupCursor implements ContentClassificationLookupCursor {
+
+    private final @Nullable Collection<Pattern> whitelistedResourcePaths;
+    private final @NotNull Function<String, Entry<ContentClassification, ContentClassificationRemark>> entryLookup;
+    /** the chain of ancestors of the previous resource path (including the path itself), starting with the root */
+    private final List<Ancestor> ancestors;
+
+    /**
+     * One element in the chain of ancestors.
+     */
+    private static final class Ancestor {
+        private final @NotNull String path;
+        /** the entry at this path or the nearest ancestor entry, {@code null} in case there is none */
+        private final @Nullable Entry<ContentClassification, ContentClassificationRemark> nearestEntry;
+        private final boolean hasOwnEntry;
+
+        Ancestor(@NotNull String path, @Nullable Entry<ContentClassification, ContentClassificationRemark> ownEntry, @Nullable Ancestor parent) {
+            this.path = path;
+            this.hasOwnEntry = ownEntry != null;
+            this.nearestEntry = ownEntry != null ? ownEntry : (parent != null ? parent.nearestEntry : null);
+        }
+
+        boolean isAncestorOrSelf(@NotNull String otherPath) {
+            return path.equals("/") || (otherPath.startsWith(path) && (otherPath.length() == path.length() || otherPath.charAt(path.length()) == '/'));
+        }
+    }
+
+    /**
+     * @param whitelistedResourcePaths the whitelisted resource paths as regular expression patterns
+     * @param entryLookup returns the classification and remark of the entry for exactly the given absolute path or {@code null} in case there is none
+     */
+    AncestorChainLookupCursor(@Nullable Collection<Pattern> whitelistedResourcePaths,
+            @NotNull Function<String, Entry<ContentClassification, ContentClassificationRemark>> entryLookup) {
+        this.whitelistedResourcePaths = whitelistedResourcePaths;
+        this.entryLookup = entryLookup;
+        this.ancestors = new ArrayList<>();
+    }
+
+    @Override
+    public @NotNull Entry<ContentClassification, ContentClassificationRemark> getContentClassificationAndStructuredRemarkForResourcePath(@NotNull String resourcePath) {
+        String absoluteResourcePath = getAbsoluteResourcePath(resourcePath, whitelistedResourcePaths);
+        if (absoluteResourcePath == null) {
+            return new SimpleEntry<>(ContentClassification.PUBLIC, null);
+        }
+        return getContentClassificationAndStructuredRemarkForAbsoluteResourcePath(absoluteResourcePath);
+    }
+
+    /**
+     * Resolves relative resource paths against {@code /libs}.
+     * @param resourcePath the resource path
+     * @param whitelistedResourcePaths the whitelisted resource paths as regular expression patterns
+     * @return the absolute resource path or {@code null} in case the resource path is empty or whitelisted (i.e. has no restrictions)
+     * @throws IllegalStateException in case the resource path ends with a slash
+     */
+    static @Nullable String getAbsoluteResourcePath(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        // ignore empty resourceTypes
+        if (resourcePath.isEmpty()) {
+            return null;
+        }
+        // make resourceType absolute!
+        if (!resourcePath.startsWith("/")) {
+            // always assume "/libs" to be on the resource resolver's search path
+            resourcePath = "/libs/" + resourcePath;
+        }
+        if (resourcePath.endsWith("/") && !resourcePath.equals("/")) {
+            throw new IllegalStateException("Resource path must not end with '/' but is '" + resourcePath + "'");
+        }
+        if (ContentClassificationMapImpl.isResourcePathWhitelisted(resourcePath, whitelistedResourcePaths)) {
+            return null;
+        }
+        return resourcePath;
+    }
+
+    /**
+     * Looks up the given absolute resource path, reusing the ancestors shared with the previous resource path.
+     * @param resourcePath the absolute resource path (without trailing slash)
+     * @return the classification and the optional remark belonging to the given resource path
+     * @throws IllegalStateException in case no classification can be found for the resource path
+     */
+    @NotNull Entry<ContentClassification, ContentClassificationRemark> getContentClassificationAndStructuredRemarkForAbsoluteResourcePath(@NotNull String resourcePath) {
+        // drop the ancestors of the previous path which are not ancestors of this path
+        while (!ancestors.isEmpty() && !ancestors.get(ancestors.size() - 1).isAncestorOrSelf(resourcePath)) {
+            ancestors.remove(ancestors.size() - 1);
+        }
+        // add the missing ancestors down to the path itself
+        if (ancestors.isEmpty()) {
+            ancestors.add(new Ancestor("/", entryLookup.apply("/"), null));
+        }
+        Ancestor ancestor = ancestors.get(ancestors.size() - 1);
+        while (ancestor.path.length() < resourcePath.length()) {
+            int segmentEnd = resourcePath.indexOf('/', ancestor.path.length() + 1);
+            String path = segmentEnd < 0 ? resourcePath : resourcePath.substring(0, segmentEnd);
+            ancestor = new Ancestor(path, entryLookup.apply(path), ancestor);
+            ancestors.add(ancestor);
+        }
+        Entry<ContentClassification, ContentClassificationRemark> entry = ancestor.nearestEntry;
+        if (entry == null) {
+            throw new IllegalStateException("Could not find a classification for resource path '" + resourcePath + "'");
+        }
+        return ancestor.hasOwnEntry ? entry : new SimpleEntry<>(entry.getKey().getChildNodeClassification(), entry.getValue());
+    }
+}
@@ -0,0 +1,94 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+/**
+ * Looks up multiple resource paths at once with the same semantics as the single lookups of the literal maps.
+ * <p>
+ * The resource paths are sorted so that all descendants of a path directly follow it (i.e. {@code /} is ordered before all other characters).
+ * Then they are resolved in one pass with an {@link AncestorChainLookupCursor}.
+ * Consecutive paths share the ancestors of their common prefix, therefore each distinct ancestor path is only looked up once per batch
+ * instead of once per path.
+ */
+final class BatchLookup {
+
+    /** orders paths depth-first, i.e. all descendants of a path directly follow it */
+    static final Comparator<String> PATH_ORDER = (path1, path2) -> {
+        int length = Math.min(path1.length(), path2.length());
+        for (int i = 0; i < length; i++) {
+            char c1 = path1.charAt(i);
+            char c2 = path2.charAt(i);
+            if (c1 != c2) {
+                if (c1 == '/') {
+                    return -1;
+                } else if (c2 == '/') {
+                    return 1;
+                }
+                return c1 - c2;
+            }
+        }
+        return path1.length() - path2.length();
+    };
+
+    private BatchLookup() {
+        // static methods only
+    }
+
+    /**
+     * Looks up the given resource paths.
+     * @param resourcePaths the resource paths (relative ones are resolved against {@code /libs})
+     * @param whitelistedResourcePaths the whitelisted resource paths as regular expression patterns
+     * @param entryLookup returns the classification and remark of the entry for exactly the given absolute path or {@code null} in case there is none
+     * @return the classification and the optional remark for each given resource path (in the same order)
+     * @throws IllegalStateException in case one of the resource paths ends with a slash or no classification can be found for it
+     */
+    static @NotNull List<Entry<ContentClassification, ContentClassificationRemark>> lookup(@NotNull List<String> resourcePaths,
+            @Nullable Collection<Pattern> whitelistedResourcePaths, @NotNull Function<String, Entry<ContentClassification, ContentClassificationRemark>> entryLookup) {
+        @SuppressWarnings("unchecked")
+        Entry<ContentClassification, ContentClassificationRemark>[] results = new Entry[resourcePaths.size()];
+        String[] absoluteResourcePaths = new String[resourcePaths.size()];
+        List<Integer> indicesToLookUp = new ArrayList<>(resourcePaths.size());
+        for (int i = 0; i < resourcePaths.size(); i++) {
+            String absoluteResourcePath = AncestorChainLookupCursor.getAbsoluteResourcePath(resourcePaths.get(i), whitelistedResourcePaths);
+            if (absoluteResourcePath == null) {
+                results[i] = new SimpleEntry<>(ContentClassification.PUBLIC, null);
+            } else {
+                absoluteResourcePaths[i] = absoluteResourcePath;
+                indicesToLookUp.add(i);
+            }
+        }
+        indicesToLookUp.sort((index1, index2) -> PATH_ORDER.compare(absoluteResourcePaths[index1], absoluteResourcePaths[index2]));
+        AncestorChainLookupCursor cursor = new AncestorChainLookupCursor(whitelistedResourcePaths, entryLookup);
+        for (int index : indicesToLookUp) {
+            results[index] = cursor.getContentClassificationAndStructuredRemarkForAbsoluteResourcePath(absoluteResourcePaths[index]);
+        }
+        return Arrays.asList(results);
+    }
+}
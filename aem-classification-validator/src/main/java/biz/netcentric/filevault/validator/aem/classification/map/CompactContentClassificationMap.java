@@ -0,0 +1,452 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationLookupCursor;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+/**
+ * Immutable and memory efficient variant of {@link ContentClassificationMapImpl} with the same lookup semantics.
+ * <p>
+ * The resource paths are stored UTF-8 encoded and sorted by their bytes in one single byte array. They are front-coded (i.e. each path only stores
+ * the suffix which differs from the previous path) in blocks of {@value #BLOCK_SIZE} paths. The first path of each block is stored completely
+ * so that a lookup only needs a binary search over the blocks and a sequential scan within one block.
+ * The classifications are stored as ordinals in a parallel byte array and the remarks as indices into a table of distinct remarks.
+ * In case the map contains entries with wildcard segments, lookups are done with an additional {@link ResourcePathTrie} instead.
+ */
+public final class CompactContentClassificationMap implements ContentClassificationMap {
+
+    static final int BLOCK_SIZE = 16;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompactContentClassificationMap.class);
+    private static final ContentClassification[] CLASSIFICATIONS = ContentClassification.values();
+
+    private final String label;
+    /** front-coded resource paths, each block starts with: varint length, bytes. Each subsequent path in the block: varint shared prefix length, varint suffix length, suffix bytes */
+    private final byte[] resourcePaths;
+    /** offset of the first resource path of each block in {@link #resourcePaths} */
+    private final int[] blockOffsets;
+    private final int maxResourcePathLength;
+    private final byte[] classifications;
+    /** index into {@link #remarks} or -1 */
+    private final int[] remarkIds;
+    private final ContentClassificationRemark[] remarks;
+    /** only set in case there are entries with wildcards, then used for all lookups */
+    private final @Nullable ResourcePathTrie resourcePathTrie;
+
+    /**
+     * Creates a compact copy of the given map.
+     * @param map the map to copy
+     */
+    public CompactContentClassificationMap(@NotNull ContentClassificationMapImpl map) {
+        this.label = map.getLabel();
+        int size = map.size();
+        List<byte[]> encodedResourcePaths = new ArrayList<>(size);
+        List<ContentClassificationMapEntry> entries = new ArrayList<>(size);
+        boolean containsWildcardEntries = false;
+        Iterator<ContentClassificationMapEntry> entryIterator = map.entryIterator();
+        while (entryIterator.hasNext()) {
+            ContentClassificationMapEntry entry = entryIterator.next();
+            entries.add(entry);
+            containsWildcardEntries |= ResourcePathTrie.containsWildcard(entry.getResourcePath());
+            encodedResourcePaths.add(entry.getResourcePath().getBytes(StandardCharsets.UTF_8));
+        }
+        // the natural string order (by UTF-16 code units) differs from the UTF-8 byte order for supplementary characters
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> compare(encodedResourcePaths.get(i1), encodedResourcePaths.get(i2)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        this.blockOffsets = new int[(size + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        this.classifications = new byte[size];
+        this.remarkIds = new int[size];
+        Map<ContentClassificationRemark, Integer> remarkIdsByRemark = new HashMap<>();
+        List<ContentClassificationRemark> distinctRemarks = new ArrayList<>();
+        int maxLength = 0;
+        byte[] previous = null;
+        for (int i = 0; i < size; i++) {
+            byte[] encodedResourcePath = encodedResourcePaths.get(order[i]);
+            ContentClassificationMapEntry entry = entries.get(order[i]);
+            if (i % BLOCK_SIZE == 0) {
+                blockOffsets[i / BLOCK_SIZE] = output.size();
+                writeVarInt(encodedResourcePath.length, output);
+                output.write(encodedResourcePath, 0, encodedResourcePath.length);
+            } else {
+                int sharedPrefixLength = getSharedPrefixLength(previous, encodedResourcePath);
+                writeVarInt(sharedPrefixLength, output);
+                writeVarInt(encodedResourcePath.length - sharedPrefixLength, output);
+                output.write(encodedResourcePath, sharedPrefixLength, encodedResourcePath.length - sharedPrefixLength);
+            }
+            maxLength = Math.max(maxLength, encodedResourcePath.length);
+            previous = encodedResourcePath;
+            classifications[i] = (byte) entry.getClassification().ordinal();
+            ContentClassificationRemark remark = entry.getStructuredRemark();
+            if (remark == null) {
+                remarkIds[i] = -1;
+            } else {
+                Integer remarkId = remarkIdsByRemark.get(remark);
+                if (remarkId == null) {
+                    remarkId = distinctRemarks.size();
+                    remarkIdsByRemark.put(remark, remarkId);
+                    distinctRemarks.add(remark);
+                }
+                remarkIds[i] = remarkId;
+            }
+        }
+        this.resourcePaths = output.toByteArray();
+        this.maxResourcePathLength = maxLength;
+        this.remarks = distinctRemarks.toArray(new ContentClassificationRemark[0]);
+        this.resourcePathTrie = containsWildcardEntries ? new ResourcePathTrie(entries.iterator()) : null;
+    }
+
+    @Override
+    public @NotNull Entry<ContentClassification, String> getContentClassificationAndRemarkForResourcePath(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        Entry<ContentClassification, ContentClassificationRemark> entry = getContentClassificationAndStructuredRemarkForResourcePath(resourcePath, whitelistedResourcePaths);
+        return new SimpleEntry<>(entry.getKey(), ContentClassificationRemark.toString(entry.getValue()));
+    }
+
+    @Override
+    public @NotNull Entry<ContentClassification, ContentClassificationRemark> getContentClassificationAndStructuredRemarkForResourcePath(@NotNull String resourcePath,
+            @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        // ignore empty resourceTypes
+        if (resourcePath.isEmpty()) {
+            return new SimpleEntry<>(ContentClassification.PUBLIC, null);
+        }
+        // make resourceType absolute!
+        if (!resourcePath.startsWith("/")) {
+            // always assume "/libs" to be on the resource resolver's search path
+            resourcePath = "/libs/" + resourcePath;
+        }
+        if (resourcePath.endsWith("/") && !resourcePath.equals("/")) {
+            throw new IllegalStateException("Resource path must not end with '/' but is '" + resourcePath + "'");
+        }
+        // is the resource type whitelisted?
+        if (ContentClassificationMapImpl.isResourcePathWhitelisted(resourcePath, whitelistedResourcePaths)) {
+            LOGGER.debug("Resource path '{}' is explicitly whitelisted and therefore has no restrictions!", resourcePath);
+            return new SimpleEntry<>(ContentClassification.PUBLIC, null);
+        }
+        Entry<ContentClassification, ContentClassificationRemark> entry = getContentClassificationAndStructuredRemarkForExactOrAncestorPath(resourcePath);
+        if (entry == null) {
+            throw new IllegalStateException("Could not find a classification for resource path '" + resourcePath + "'");
+        }
+        return entry;
+    }
+
+    @Override
+    public @NotNull List<Entry<ContentClassification, ContentClassificationRemark>> getContentClassificationsAndStructuredRemarksForResourcePaths(@NotNull List<String> resourcePaths,
+            @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        if (resourcePathTrie != null) {
+            return ContentClassificationMap.super.getContentClassificationsAndStructuredRemarksForResourcePaths(resourcePaths, whitelistedResourcePaths);
+        }
+        byte[] buffer = new byte[maxResourcePathLength];
+        return BatchLookup.lookup(resourcePaths, whitelistedResourcePaths, resourcePath -> getEntry(resourcePath, buffer));
+    }
+
+    @Override
+    public @NotNull ContentClassificationLookupCursor createLookupCursor(@Nullable Collection<Pattern> whitelistedResourcePaths) {
+        if (resourcePathTrie != null) {
+            return ContentClassificationMap.super.createLookupCursor(whitelistedResourcePaths);
+        }
+        byte[] buffer = new byte[maxResourcePathLength];
+        return new AncestorChainLookupCursor(whitelistedResourcePaths, resourcePath -> getEntry(resourcePath, buffer));
+    }
+
+    /**
+     * Looks up the entry for exactly the given resource path (i.e. without evaluating wildcards).
+     * @param resourcePath the absolute resource path
+     * @param buffer a buffer with at least the length of the longest resource path in this map
+     * @return the classification and remark of the entry or {@code null} in case there is no entry for the given resource path
+     */
+    @Nullable Entry<ContentClassification, ContentClassificationRemark> getEntry(@NotNull String resourcePath, byte[] buffer) {
+        byte[] encodedResourcePath = resourcePath.getBytes(StandardCharsets.UTF_8);
+        int index = indexOf(encodedResourcePath, encodedResourcePath.length, buffer);
+        return index >= 0 ? new SimpleEntry<>(CLASSIFICATIONS[classifications[index]], getRemark(index)) : null;
+    }
+
+    /**
+     *
+     * @return {@code true} in case at least one entry contains a wildcard segment
+     */
+    boolean containsWildcardEntries() {
+        return resourcePathTrie != null;
+    }
+
+    /**
+     * @return the length of the longest (UTF-8 encoded) resource path in this map
+     */
+    int getMaxResourcePathLength() {
+        return maxResourcePathLength;
+    }
+
+    /**
+     * Looks up the entry for the given resource path or its nearest ancestor with an entry.
+     * @param resourcePath the absolute resource path (without trailing slash)
+     * @return the classification and remark of the entry or the child node classification and remark of the nearest ancestor entry
+     *  or {@code null} in case neither the resource path nor any ancestor has an entry
+     */
+    @Nullable Entry<ContentClassification, ContentClassificationRemark> getContentClassificationAndStructuredRemarkForExactOrAncestorPath(@NotNull String resourcePath) {
+        if (resourcePathTrie != null) {
+            return resourcePathTrie.lookup(resourcePath);
+        }
+        byte[] encodedResourcePath = resourcePath.getBytes(StandardCharsets.UTF_8);
+        byte[] buffer = new byte[maxResourcePathLength];
+        // check for direct match first
+        int index = indexOf(encodedResourcePath, encodedResourcePath.length, buffer);
+        if (index >= 0) {
+            LOGGER.debug("Found exact match for classification of '{}': {}", resourcePath, CLASSIFICATIONS[classifications[index]].getLabel());
+            return new SimpleEntry<>(CLASSIFICATIONS[classifications[index]], getRemark(index));
+        }
+        // the UTF-8 encoding of each ancestor is a prefix of the encoded resource path (as '/' is encoded as single byte)
+        int length = encodedResourcePath.length;
+        while (length > 1) {
+            length = getParentLength(encodedResourcePath, length);
+            index = indexOf(encodedResourcePath, length, buffer);
+            if (index >= 0) {
+                ContentClassification classification = CLASSIFICATIONS[classifications[index]].getChildNodeClassification();
+                LOGGER.debug("Found inexact match for classification of '{}' at '{}': {}", resourcePath,
+                        new String(encodedResourcePath, 0, length, StandardCharsets.UTF_8), classification.getLabel());
+                return new SimpleEntry<>(classification, getRemark(index));
+            }
+        }
+        return null;
+    }
+
+    private @Nullable ContentClassificationRemark getRemark(int index) {
+        return remarkIds[index] >= 0 ? remarks[remarkIds[index]] : null;
+    }
+
+    /**
+     *
+     * @param encodedPath the UTF-8 encoded path
+     * @param length the length of the path
+     * @return the length of the parent path (1 for the root path)
+     */
+    private static int getParentLength(byte[] encodedPath, int length) {
+        int position = length - 1;
+        while (position > 0 && encodedPath[position] != '/') {
+            position--;
+        }
+        return Math.max(position, 1);
+    }
+
+    /**
+     * Looks up the given path.
+     * @param key the UTF-8 encoded path
+     * @param keyLength the length of the path within {@code key}
+     * @param buffer the buffer to use for decoding the front-coded paths (at least {@link #maxResourcePathLength} long)
+     * @return the index of the entry or -1 if there is no entry for the given path
+     */
+    int indexOf(byte[] key, int keyLength, byte[] buffer) {
+        // binary search for the last block whose first path is less or equal than the key
+        int low = 0;
+        int high = blockOffsets.length - 1;
+        int block = -1;
+        int[] position = new int[1];
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            position[0] = blockOffsets[middle];
+            int length = readVarInt(resourcePaths, position);
+            int comparison = compare(resourcePaths, position[0], length, key, 0, keyLength);
+            if (comparison == 0) {
+                return middle * BLOCK_SIZE;
+            } else if (comparison < 0) {
+                block = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (block < 0) {
+            return -1;
+        }
+        // sequential scan within the block
+        position[0] = blockOffsets[block];
+        int length = readVarInt(resourcePaths, position);
+        System.arraycopy(resourcePaths, position[0], buffer, 0, length);
+        position[0] += length;
+        int end = Math.min((block + 1) * BLOCK_SIZE, classifications.length);
+        for (int index = block * BLOCK_SIZE + 1; index < end; index++) {
+            int sharedPrefixLength = readVarInt(resourcePaths, position);
+            int suffixLength = readVarInt(resourcePaths, position);
+            System.arraycopy(resourcePaths, position[0], buffer, sharedPrefixLength, suffixLength);
+            position[0] += suffixLength;
+            length = sharedPrefixLength + suffixLength;
+            int comparison = compare(buffer, 0, length, key, 0, keyLength);
+            if (comparison == 0) {
+                return index;
+            } else if (comparison > 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return classifications.length;
+    }
+
+    @Override
+    public @NotNull String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns an iterator over all entries of this map.
+     * The entries are ordered by the UTF-8 encoding of their resource path (which only differs from the natural {@link String} order for supplementary characters).
+     * @return the iterator
+     */
+    @Override
+    public @NotNull Iterator<ContentClassificationMapEntry> entryIterator() {
+        return new Iterator<ContentClassificationMapEntry>() {
+            private final byte[] buffer = new byte[maxResourcePathLength];
+            private final int[] position = new int[1];
+            private int index = 0;
+            private int length = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < classifications.length;
+            }
+
+            @Override
+            public ContentClassificationMapEntry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (index % BLOCK_SIZE == 0) {
+                    position[0] = blockOffsets[index / BLOCK_SIZE];
+                    length = readVarInt(resourcePaths, position);
+                    System.arraycopy(resourcePaths, position[0], buffer, 0, length);
+                    position[0] += length;
+                } else {
+                    int sharedPrefixLength = readVarInt(resourcePaths, position);
+                    int suffixLength = readVarInt(resourcePaths, position);
+                    System.arraycopy(resourcePaths, position[0], buffer, sharedPrefixLength, suffixLength);
+                    position[0] += suffixLength;
+                    length = sharedPrefixLength + suffixLength;
+                }
+                ContentClassificationMapEntry entry = ContentClassificationMapEntry.withStructuredRemark(new String(buffer, 0, length, StandardCharsets.UTF_8),
+                        CLASSIFICATIONS[classifications[index]], getRemark(index));
+                index++;
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Returns the approximate number of bytes retained by the arrays of this map (excluding the object headers and the remark strings).
+     * @return the number of bytes
+     */
+    long getArraysSize() {
+        return resourcePaths.length + (long) blockOffsets.length * Integer.BYTES + classifications.length + (long) remarkIds.length * Integer.BYTES;
+    }
+
+    static int compare(byte[] bytes1, byte[] bytes2) {
+        return compare(bytes1, 0, bytes1.length, bytes2, 0, bytes2.length);
+    }
+
+    private static int compare(byte[] bytes1, int offset1, int length1, byte[] bytes2, int offset2, int length2) {
+        int length = Math.min(length1, length2);
+        for (int i = 0; i < length; i++) {
+            int comparison = (bytes1[offset1 + i] & 0xFF) - (bytes2[offset2 + i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return length1 - length2;
+    }
+
+    private static int getSharedPrefixLength(byte[] bytes1, byte[] bytes2) {
+        int length = Math.min(bytes1.length, bytes2.length);
+        int i = 0;
+        while (i < length && bytes1[i] == bytes2[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void writeVarInt(int value, ByteArrayOutputStream output) {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static int readVarInt(byte[] bytes, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = Objects.hash(label);
+        result = prime * result + Arrays.hashCode(resourcePaths);
+        result = prime * result + Arrays.hashCode(classifications);
+        result = prime * result + Arrays.hashCode(remarkIds);
+        result = prime * result + Arrays.hashCode(remarks);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof CompactContentClassificationMap))
+            return false;
+        CompactContentClassificationMap other = (CompactContentClassificationMap) obj;
+        return Objects.equals(label, other.label) && Arrays.equals(resourcePaths, other.resourcePaths)
+                && Arrays.equals(classifications, other.classifications) && Arrays.equals(remarkIds, other.remarkIds)
+                && Arrays.equals(remarks, other.remarks);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactContentClassificationMap [label=" + label + ", size=" + size() + ", remarks=" + remarks.length + "]";
+    }
+}
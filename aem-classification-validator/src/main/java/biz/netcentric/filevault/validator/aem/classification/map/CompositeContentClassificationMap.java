@@ -13,14 +13,20 @@ package biz.netcentric.filevault.validator.aem.classification.map;
  * #L%
  */
 
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -28,12 +34,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationLookupCursor;
 import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
 
 /** 
  * Composite classification map backed by multiple {@link ContentClassificationMap}s.
  * It returns the strictest {@link ContentClassification} returned by any of the underlying maps (irrespective of
- * prefix length matching the given resource path) for {@link #getContentClassificationAndRemarkForResourcePath(String, Collection)}.
+ * prefix length matching the given resource path) for {@link #getContentClassificationAndStructuredRemarkForResourcePath(String, Collection)}.
  */
 public class CompositeContentClassificationMap implements ContentClassificationMap {
 
@@ -52,14 +61,20 @@ public class CompositeContentClassificationMap implements ContentClassificationM
     }
 
     @Override
-    public @NotNull Entry<ContentClassification, String> getContentClassificationAndRemarkForResourcePath(
+    public @NotNull Entry<ContentClassification, String> getContentClassificationAndRemarkForResourcePath(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        Entry<ContentClassification, ContentClassificationRemark> entry = getContentClassificationAndStructuredRemarkForResourcePath(resourcePath, whitelistedResourcePaths);
+        return new SimpleEntry<>(entry.getKey(), ContentClassificationRemark.toString(entry.getValue()));
+    }
+
+    @Override
+    public @NotNull Entry<ContentClassification, ContentClassificationRemark> getContentClassificationAndStructuredRemarkForResourcePath(
             @NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths) {
         Iterator<ContentClassificationMap> mapIterator = maps.iterator();
         ContentClassificationMap map = mapIterator.next();
-        @NotNull Entry<ContentClassification, String> resultingEntry = map.getContentClassificationAndRemarkForResourcePath(resourcePath, whitelistedResourcePaths);
+        @NotNull Entry<ContentClassification, ContentClassificationRemark> resultingEntry = map.getContentClassificationAndStructuredRemarkForResourcePath(resourcePath, whitelistedResourcePaths);
         String mapLabel = map.getLabel();
         while (mapIterator.hasNext()) {
-            Entry<ContentClassification, String> entry = mapIterator.next().getContentClassificationAndRemarkForResourcePath(resourcePath, whitelistedResourcePaths);
+            Entry<ContentClassification, ContentClassificationRemark> entry = mapIterator.next().getContentClassificationAndStructuredRemarkForResourcePath(resourcePath, whitelistedResourcePaths);
             if (entry.getKey().ordinal() <  resultingEntry.getKey().ordinal()) {
                 resultingEntry = entry;
                 mapLabel = map.getLabel();
@@ -69,6 +84,50 @@ public class CompositeContentClassificationMap implements ContentClassificationM
         return resultingEntry;
     }
 
+    @Override
+    public @NotNull List<Entry<ContentClassification, ContentClassificationRemark>> getContentClassificationsAndStructuredRemarksForResourcePaths(
+            @NotNull List<String> resourcePaths, @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        Iterator<ContentClassificationMap> mapIterator = maps.iterator();
+        List<Entry<ContentClassification, ContentClassificationRemark>> resultingEntries = new ArrayList<>(
+                mapIterator.next().getContentClassificationsAndStructuredRemarksForResourcePaths(resourcePaths, whitelistedResourcePaths));
+        while (mapIterator.hasNext()) {
+            List<Entry<ContentClassification, ContentClassificationRemark>> entries = mapIterator.next().getContentClassificationsAndStructuredRemarksForResourcePaths(resourcePaths, whitelistedResourcePaths);
+            for (int i = 0; i < resultingEntries.size(); i++) {
+                if (entries.get(i).getKey().ordinal() < resultingEntries.get(i).getKey().ordinal()) {
+                    resultingEntries.set(i, entries.get(i));
+                }
+            }
+        }
+        return resultingEntries;
+    }
+
+    @Override
+    public @NotNull ContentClassificationLookupCursor createLookupCursor(@Nullable Collection<Pattern> whitelistedResourcePaths) {
+        List<ContentClassificationLookupCursor> cursors = maps.stream().map(map -> map.createLookupCursor(whitelistedResourcePaths)).collect(Collectors.toList());
+        return resourcePath -> {
+            Iterator<ContentClassificationLookupCursor> cursorIterator = cursors.iterator();
+            Entry<ContentClassification, ContentClassificationRemark> resultingEntry = cursorIterator.next().getContentClassificationAndStructuredRemarkForResourcePath(resourcePath);
+            while (cursorIterator.hasNext()) {
+                Entry<ContentClassification, ContentClassificationRemark> entry = cursorIterator.next().getContentClassificationAndStructuredRemarkForResourcePath(resourcePath);
+                if (entry.getKey().ordinal() < resultingEntry.getKey().ordinal()) {
+                    resultingEntry = entry;
+                }
+            }
+            return resultingEntry;
+        };
+    }
+
+    /**
+     * Returns the entries of all underlying maps one after the other (i.e. the same resource path may be returned multiple times).
+     * @return the iterator
+     */
+    @Override
+    public @NotNull Iterator<ContentClassificationMapEntry> entryIterator() {
+        return maps.stream()
+                .flatMap(map -> StreamSupport.stream(Spliterators.spliteratorUnknownSize(map.entryIterator(), Spliterator.ORDERED), false))
+                .iterator();
+    }
+
     @Override
     public int size() {
         return maps.stream().mapToInt(ContentClassificationMap::size).sum();
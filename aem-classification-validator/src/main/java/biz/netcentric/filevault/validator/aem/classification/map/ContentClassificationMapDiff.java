@@ -0,0 +1,237 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+
+/**
+ * Calculates the differences between two {@link ContentClassificationMapImpl}s.
+ * <p>
+ * As the entries of both maps are sorted by resource path the differences are determined with a single merge pass over both entry iterators,
+ * i.e. the time is linear in the number of entries. Only for the changed entries the effective classification is additionally looked up in both maps
+ * (which takes into account the inheritance from ancestor entries).
+ */
+public final class ContentClassificationMapDiff {
+
+    /** The type of a {@link Change}. One change may have multiple types. */
+    public enum ChangeType {
+        /** the entry only exists in the new map */
+        ADDED,
+        /** the entry only exists in the old map */
+        REMOVED,
+        /** the entry exists in both maps but with different classifications */
+        RECLASSIFIED,
+        /** the entry exists in both maps but with different remarks */
+        REMARK_CHANGED
+    }
+
+    /**
+     * A single change of an entry between the old and the new map.
+     */
+    public static final class Change {
+        private final @NotNull String resourcePath;
+        private final @Nullable ContentClassificationMapEntry oldEntry;
+        private final @Nullable ContentClassificationMapEntry newEntry;
+        private final @Nullable ContentClassificationMapEntry oldEffectiveEntry;
+        private final @Nullable ContentClassificationMapEntry newEffectiveEntry;
+
+        public Change(@NotNull String resourcePath, @Nullable ContentClassificationMapEntry oldEntry, @Nullable ContentClassificationMapEntry newEntry,
+                @Nullable ContentClassificationMapEntry oldEffectiveEntry, @Nullable ContentClassificationMapEntry newEffectiveEntry) {
+            this.resourcePath = resourcePath;
+            this.oldEntry = oldEntry;
+            this.newEntry = newEntry;
+            this.oldEffectiveEntry = oldEffectiveEntry;
+            this.newEffectiveEntry = newEffectiveEntry;
+        }
+
+        public @NotNull String getResourcePath() {
+            return resourcePath;
+        }
+
+        /**
+         *
+         * @return the entry in the old map or {@code null} in case the entry was added
+         */
+        public @Nullable ContentClassificationMapEntry getOldEntry() {
+            return oldEntry;
+        }
+
+        /**
+         *
+         * @return the entry in the new map or {@code null} in case the entry was removed
+         */
+        public @Nullable ContentClassificationMapEntry getNewEntry() {
+            return newEntry;
+        }
+
+        /**
+         * The effective classification and remark of the resource path in the old map (i.e. the one returned by a lookup in the old map).
+         * This also applies to all descendants (as child nodes) which don't have their own entry in the old map.
+         * @return the effective entry in the old map or {@code null} in case no classification applies to the resource path in the old map
+         */
+        public @Nullable ContentClassificationMapEntry getOldEffectiveEntry() {
+            return oldEffectiveEntry;
+        }
+
+        /**
+         * The effective classification and remark of the resource path in the new map (i.e. the one returned by a lookup in the new map).
+         * This also applies to all descendants (as child nodes) which don't have their own entry in the new map.
+         * @return the effective entry in the new map or {@code null} in case no classification applies to the resource path in the new map
+         */
+        public @Nullable ContentClassificationMapEntry getNewEffectiveEntry() {
+            return newEffectiveEntry;
+        }
+
+        public @NotNull Set<ChangeType> getTypes() {
+            Set<ChangeType> types = EnumSet.noneOf(ChangeType.class);
+            if (oldEntry == null) {
+                types.add(ChangeType.ADDED);
+            } else if (newEntry == null) {
+                types.add(ChangeType.REMOVED);
+            } else {
+                if (oldEntry.getClassification() != newEntry.getClassification()) {
+                    types.add(ChangeType.RECLASSIFIED);
+                }
+                if (!Objects.equals(oldEntry.getRemark(), newEntry.getRemark())) {
+                    types.add(ChangeType.REMARK_CHANGED);
+                }
+            }
+            return types;
+        }
+
+        /**
+         *
+         * @return {@code true} in case the effective classification of the resource path (and its subtree) has changed, otherwise {@code false}
+         * (e.g. when a redundant entry has been added or removed)
+         */
+        public boolean isEffectiveClassificationChanged() {
+            return getClassification(oldEffectiveEntry) != getClassification(newEffectiveEntry);
+        }
+
+        private static @Nullable ContentClassification getClassification(@Nullable ContentClassificationMapEntry entry) {
+            return entry != null ? entry.getClassification() : null;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(newEffectiveEntry, newEntry, oldEffectiveEntry, oldEntry, resourcePath);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Change))
+                return false;
+            Change other = (Change) obj;
+            return Objects.equals(newEffectiveEntry, other.newEffectiveEntry) && Objects.equals(newEntry, other.newEntry)
+                    && Objects.equals(oldEffectiveEntry, other.oldEffectiveEntry) && Objects.equals(oldEntry, other.oldEntry)
+                    && Objects.equals(resourcePath, other.resourcePath);
+        }
+
+        @Override
+        public String toString() {
+            return "Change [resourcePath=" + resourcePath + ", oldEntry=" + oldEntry + ", newEntry=" + newEntry + ", oldEffectiveEntry="
+                    + oldEffectiveEntry + ", newEffectiveEntry=" + newEffectiveEntry + "]";
+        }
+    }
+
+    private ContentClassificationMapDiff() {
+        // static methods only
+    }
+
+    /**
+     * Calculates all changes between the given maps.
+     * @param oldMap the old map
+     * @param newMap the new map
+     * @return the list of changes ordered by resource path
+     */
+    public static @NotNull List<Change> diff(@NotNull ContentClassificationMapImpl oldMap, @NotNull ContentClassificationMapImpl newMap) {
+        List<Change> changes = new ArrayList<>();
+        diff(oldMap, newMap, changes::add);
+        return changes;
+    }
+
+    /**
+     * Calculates all changes between the given maps and passes them to the given consumer (ordered by resource path) without keeping them in memory.
+     * @param oldMap the old map
+     * @param newMap the new map
+     * @param changeConsumer the consumer being called for each change
+     * @return the number of changes
+     */
+    public static int diff(@NotNull ContentClassificationMapImpl oldMap, @NotNull ContentClassificationMapImpl newMap, @NotNull Consumer<Change> changeConsumer) {
+        int numChanges = 0;
+        // both iterators are sorted by path, therefore a single merge pass is sufficient
+        Iterator<ContentClassificationMapEntry> oldIterator = oldMap.entryIterator();
+        Iterator<ContentClassificationMapEntry> newIterator = newMap.entryIterator();
+        ContentClassificationMapEntry oldEntry = oldIterator.hasNext() ? oldIterator.next() : null;
+        ContentClassificationMapEntry newEntry = newIterator.hasNext() ? newIterator.next() : null;
+        while (oldEntry != null || newEntry != null) {
+            final int comparison;
+            if (oldEntry == null) {
+                comparison = 1;
+            } else if (newEntry == null) {
+                comparison = -1;
+            } else {
+                comparison = oldEntry.getResourcePath().compareTo(newEntry.getResourcePath());
+            }
+            if (comparison < 0) {
+                String resourcePath = oldEntry.getResourcePath();
+                changeConsumer.accept(new Change(resourcePath, oldEntry, null, oldEntry, getInheritedEntry(newMap, resourcePath)));
+                numChanges++;
+                oldEntry = oldIterator.hasNext() ? oldIterator.next() : null;
+            } else if (comparison > 0) {
+                String resourcePath = newEntry.getResourcePath();
+                changeConsumer.accept(new Change(resourcePath, null, newEntry, getInheritedEntry(oldMap, resourcePath), newEntry));
+                numChanges++;
+                newEntry = newIterator.hasNext() ? newIterator.next() : null;
+            } else {
+                if (!oldEntry.equals(newEntry)) {
+                    changeConsumer.accept(new Change(oldEntry.getResourcePath(), oldEntry, newEntry, oldEntry, newEntry));
+                    numChanges++;
+                }
+                oldEntry = oldIterator.hasNext() ? oldIterator.next() : null;
+                newEntry = newIterator.hasNext() ? newIterator.next() : null;
+            }
+        }
+        return numChanges;
+    }
+
+    /**
+     *
+     * @param map the map
+     * @param resourcePath the resource path which does not have an entry in the given map
+     * @return the entry inherited from the nearest ancestor entry (with the child node classification) or {@code null} if there is no ancestor entry
+     */
+    static @Nullable ContentClassificationMapEntry getInheritedEntry(@NotNull ContentClassificationMapImpl map, @NotNull String resourcePath) {
+        String ancestorResourcePath = map.getNearestAncestorWithEntry(resourcePath);
+        if (ancestorResourcePath == null) {
+            return null;
+        }
+        return ContentClassificationMapEntry.withStructuredRemark(resourcePath, map.classificationMap.get(ancestorResourcePath).getChildNodeClassification(),
+                map.remarkMap.get(ancestorResourcePath));
+    }
+}
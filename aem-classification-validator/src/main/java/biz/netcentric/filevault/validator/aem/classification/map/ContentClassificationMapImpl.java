@@ -15,11 +15,11 @@ package biz.netcentric.filevault.validator.aem.classification.map;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.Map.Entry;
@@ -27,7 +27,6 @@ import java.util.Objects;
 import java.util.regex.Pattern;
 
 import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVRecord;
 import org.apache.jackrabbit.util.Text;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -35,7 +34,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationLookupCursor;
 import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
 
 /** 
  * A map containing content classifications for repository node paths.
@@ -50,13 +52,20 @@ import biz.netcentric.filevault.validator.aem.classification.ContentClassificati
  * where {@code classification} is one of {@link ContentClassification}. The CSV format is
  * based on <a href="https://tools.ietf.org/html/rfc4180">RFC-4180</a>
  * In addition a comment starting with {@code #} on the first line is supposed to contain the AEM version. 
+ * <p>
+ * The path may contain wildcard segments {@code *} (matching exactly one segment) and {@code **} (matching zero or more segments).
+ * In case the map contains such entries, lookups are done with a {@link ResourcePathTrie} containing all entries.
  * @see MutableContentClassificationMapImpl
  */
 public class ContentClassificationMapImpl implements ContentClassificationMap {
 
     protected final Map<String, ContentClassification> classificationMap; // key = absolute repository path
-    protected final Map<String, String> remarkMap; // key = absolute repository path
+    protected final Map<String, ContentClassificationRemark> remarkMap; // key = absolute repository path
+    private final RemarkPool remarkPool;
     private String label;
+    private int numWildcardEntries;
+    /** only used in case there are entries with wildcards, {@code null} until the first lookup after a modification */
+    private volatile ResourcePathTrie resourcePathTrie;
 
     static final CSVFormat CSV_FORMAT = CSVFormat.Builder.create(CSVFormat.RFC4180).setCommentMarker('#').build();
     private static final Logger LOGGER = LoggerFactory.getLogger(ContentClassificationMapImpl.class);
@@ -64,50 +73,42 @@ public class ContentClassificationMapImpl implements ContentClassificationMap {
     public ContentClassificationMapImpl(String label) {
         this.classificationMap = new TreeMap<>(); // this is sorted by key
         this.remarkMap = new HashMap<>();
+        this.remarkPool = new RemarkPool();
         this.label = label;
     }
 
     public ContentClassificationMapImpl(@NotNull InputStream input, String fileName) throws IOException {
         this("");
-        Iterable<CSVRecord> records = CSV_FORMAT.parse(new InputStreamReader(input, StandardCharsets.US_ASCII));
-        for (CSVRecord record : records) {
-            if (record.getRecordNumber() == 1) {
-                label = record.getComment();
-            }
-            if (record.size() < 2) {
-                throw new IllegalArgumentException("Error in line " + record.getRecordNumber()
-                        + ": Missing ',' character. At least 2 values have to be given per line!");
-            }
-            String resourcePath = record.get(0);
-            ContentClassification classification = Enum.valueOf(ContentClassification.class, record.get(1));
-            final String remark;
-            // a third part may contain hints (separated from second part with ":")
-            if (record.size() == 3) {
-                remark = record.get(2);
-            } else {
-                if (record.size() > 3) {
-                    LOGGER.warn("More than 3 columns in line {} in file {} given, ignoring the ones exceeding the 3rd column.", record.getRecordNumber(), fileName);
-                }
-                remark = null;
-            }
-            put(resourcePath, classification, remark);
-        }
+        label = ContentClassificationMapReader.read(input, fileName, this, label);
     }
 
     protected void put(@NotNull String resourcePath, @NotNull ContentClassification classification, @Nullable String remark) {
+        putWithStructuredRemark(resourcePath, classification, ContentClassificationRemark.parse(remark));
+    }
+
+    protected void putWithStructuredRemark(@NotNull String resourcePath, @NotNull ContentClassification classification, @Nullable ContentClassificationRemark remark) {
         // validate that only absolute resource types are given
         if (!resourcePath.startsWith("/")) {
             throw new IllegalArgumentException("Only absolute resource paths are supported, but resource path given is '" + resourcePath + "'.");
         }
-        classificationMap.put(resourcePath, classification);
-        if (remark != null && !remark.isEmpty()) {
-            remarkMap.put(resourcePath, remark);
+        if (classificationMap.put(resourcePath, classification) == null && ResourcePathTrie.containsWildcard(resourcePath)) {
+            numWildcardEntries++;
+        }
+        resourcePathTrie = null;
+        if (remark != null) {
+            remarkMap.put(resourcePath, remarkPool.intern(remark));
         }
     }
 
+    @Override
+    public @NotNull Entry<ContentClassification, String> getContentClassificationAndRemarkForResourcePath(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        Entry<ContentClassification, ContentClassificationRemark> entry = getContentClassificationAndStructuredRemarkForResourcePath(resourcePath, whitelistedResourcePaths);
+        return new SimpleEntry<>(entry.getKey(), ContentClassificationRemark.toString(entry.getValue()));
+    }
+
     @Override
     @NotNull
-    public Entry<ContentClassification, String> getContentClassificationAndRemarkForResourcePath(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths) {
+    public Entry<ContentClassification, ContentClassificationRemark> getContentClassificationAndStructuredRemarkForResourcePath(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths) {
         // ignore empty resourceTypes
         if (resourcePath.isEmpty()) {
             return new SimpleEntry<>(ContentClassification.PUBLIC, null);
@@ -127,6 +128,13 @@ public class ContentClassificationMapImpl implements ContentClassificationMap {
             LOGGER.debug("Resource path '{}' is explicitly whitelisted and therefore has no restrictions!", resourcePath);
             return new SimpleEntry<>(ContentClassification.PUBLIC, null);
         }
+        if (numWildcardEntries > 0) {
+            Entry<ContentClassification, ContentClassificationRemark> entry = getResourcePathTrie().lookup(resourcePath);
+            if (entry == null) {
+                throw new IllegalStateException("Could not find a classification for resource path '" + resourcePath + "'");
+            }
+            return entry;
+        }
         // check for direct match first
         ContentClassification classification = classificationMap.get(resourcePath);
         if (classification != null) {
@@ -142,14 +150,69 @@ public class ContentClassificationMapImpl implements ContentClassificationMap {
             classification = classificationMap.get(parentResourceType);
             if (classification != null) {
                 LOGGER.debug("Found inexact match for classification of '{}' at '{}': {}", resourcePath, parentResourceType, classification.getChildNodeClassification().getLabel());
-                return new SimpleEntry<ContentClassification, String>(classification.getChildNodeClassification(),
+                return new SimpleEntry<ContentClassification, ContentClassificationRemark>(classification.getChildNodeClassification(),
                         remarkMap.get(parentResourceType));
             }
         }
         throw new IllegalStateException("Could not find a classification for resource path '" + resourcePath + "'");
     }
 
-    private boolean isResourcePathWhitelisted(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourceTypes) {
+    @Override
+    public @NotNull List<Entry<ContentClassification, ContentClassificationRemark>> getContentClassificationsAndStructuredRemarksForResourcePaths(@NotNull List<String> resourcePaths,
+            @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        if (numWildcardEntries > 0) {
+            return ContentClassificationMap.super.getContentClassificationsAndStructuredRemarksForResourcePaths(resourcePaths, whitelistedResourcePaths);
+        }
+        return BatchLookup.lookup(resourcePaths, whitelistedResourcePaths, this::getEntry);
+    }
+
+    @Override
+    public @NotNull ContentClassificationLookupCursor createLookupCursor(@Nullable Collection<Pattern> whitelistedResourcePaths) {
+        if (numWildcardEntries > 0) {
+            return ContentClassificationMap.super.createLookupCursor(whitelistedResourcePaths);
+        }
+        return new AncestorChainLookupCursor(whitelistedResourcePaths, this::getEntry);
+    }
+
+    private @Nullable Entry<ContentClassification, ContentClassificationRemark> getEntry(@NotNull String resourcePath) {
+        ContentClassification classification = classificationMap.get(resourcePath);
+        return classification != null ? new SimpleEntry<>(classification, remarkMap.get(resourcePath)) : null;
+    }
+
+    private @NotNull ResourcePathTrie getResourcePathTrie() {
+        ResourcePathTrie trie = resourcePathTrie;
+        if (trie == null) {
+            trie = new ResourcePathTrie(entryIterator());
+            resourcePathTrie = trie;
+        }
+        return trie;
+    }
+
+    /**
+     *
+     * @return {@code true} in case at least one entry contains a wildcard segment
+     */
+    boolean containsWildcardEntries() {
+        return numWildcardEntries > 0;
+    }
+
+    /**
+     * Returns the nearest ancestor with an entry.
+     * @param resourcePath an absolute resource path
+     * @return the resource path of the nearest ancestor which has an entry in this map or {@code null} if no ancestor has an entry
+     */
+    @Nullable String getNearestAncestorWithEntry(@NotNull String resourcePath) {
+        String ancestorResourcePath = resourcePath;
+        while (!ancestorResourcePath.equals("/")) {
+            ancestorResourcePath = Text.getRelativeParent(ancestorResourcePath, 1);
+            if (classificationMap.containsKey(ancestorResourcePath)) {
+                return ancestorResourcePath;
+            }
+        }
+        return null;
+    }
+
+    static boolean isResourcePathWhitelisted(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourceTypes) {
         if (whitelistedResourceTypes == null) {
             return false;
         }
@@ -161,6 +224,28 @@ public class ContentClassificationMapImpl implements ContentClassificationMap {
         return classificationMap.size();
     }
 
+    /**
+     * Returns an iterator over all entries of this map.
+     * The entries are ordered by their resource path (in natural {@link String} order).
+     * @return the iterator
+     */
+    @Override
+    public @NotNull Iterator<ContentClassificationMapEntry> entryIterator() {
+        final Iterator<Entry<String, ContentClassification>> iterator = classificationMap.entrySet().iterator();
+        return new Iterator<ContentClassificationMapEntry>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public ContentClassificationMapEntry next() {
+                Entry<String, ContentClassification> entry = iterator.next();
+                return ContentClassificationMapEntry.withStructuredRemark(entry.getKey(), entry.getValue(), remarkMap.get(entry.getKey()));
+            }
+        };
+    }
+
     @Override
     @NotNull
     public String getLabel() {
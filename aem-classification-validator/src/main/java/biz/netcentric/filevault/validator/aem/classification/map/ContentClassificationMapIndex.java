@@ -0,0 +1,281 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+/**
+ * Binary representation of a {@link ContentClassificationMapImpl} which can be loaded without parsing the textual map format.
+ * It is stored next to the map file (with the additional extension {@link #EXTENSION}) and is bound to the exact content of the map file
+ * via its CRC-32 checksum, i.e. an index is ignored as soon as the map file has been modified.
+ * <p>
+ * Format (all numbers big-endian, strings in modified UTF-8 as written by {@link DataOutputStream#writeUTF(String)}):
+ * <pre>
+ * int    magic number
+ * byte   version
+ * long   CRC-32 checksum of the map file
+ * bool   whether a label is given, followed by the label as string
+ * int    number of distinct strings used by the remarks, followed by each string
+ * int    number of distinct remarks, followed by each remark as int string index of the deprecation version (-1 for none), int string index of the reason/text
+ * int    total number of entries
+ * int    number of sections, followed by the section directory (in section key order), each section as string section key, int number of entries, int length in bytes
+ * the entries of each section (in the order of the section directory), each entry (in resource path order) as string resource path relative to the section key,
+ *        byte classification ordinal, int remark index (-1 for none)
+ * </pre>
+ * The entries are split into sections by the first two segments of their resource path (e.g. {@code /libs/granite}), entries with less than two segments
+ * are contained in the root section with the empty section key and entries with a wildcard in their first two segments in the wildcard section with key {@code /}.
+ * This allows to only read the section directory upfront and parse the sections on first access (via {@link #readSectioned(InputStream, long)}).
+ */
+public final class ContentClassificationMapIndex {
+
+    /** the extension of the index file which is appended to the file name of the map */
+    public static final String EXTENSION = ".idx";
+
+    private static final int MAGIC_NUMBER = 0x41434D49; // "ACMI"
+    private static final byte VERSION = 3;
+
+    private ContentClassificationMapIndex() {
+        // static methods only
+    }
+
+    /**
+     * Calculates the checksum of the given map file content.
+     * @param mapContent the binary content of the map file
+     * @return the checksum to use with {@link #write(ContentClassificationMapImpl, long, OutputStream)} and {@link #read(InputStream, long)}
+     */
+    public static long getChecksum(@NotNull byte[] mapContent) {
+        CRC32 crc = new CRC32();
+        crc.update(mapContent, 0, mapContent.length);
+        return crc.getValue();
+    }
+
+    /**
+     * Calculates the checksum of the given map file content in a streaming fashion.
+     * @param mapInput the binary content of the map file (not closed by this method)
+     * @return the checksum to use with {@link #write(ContentClassificationMapImpl, long, OutputStream)} and {@link #read(InputStream, long)}
+     * @throws IOException in case reading failed
+     */
+    public static long getChecksum(@NotNull InputStream mapInput) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = mapInput.read(buffer)) != -1) {
+            crc.update(buffer, 0, length);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Writes the index for the given map. The given stream is flushed but not closed.
+     * @param map the map
+     * @param mapChecksum the checksum of the serialized map (either calculated via {@link #getChecksum(byte[])} or with a {@link CRC32} while writing the map)
+     * @param output the stream to write the index to
+     * @throws IOException in case writing failed
+     */
+    public static void write(@NotNull ContentClassificationMapImpl map, long mapChecksum, @NotNull OutputStream output) throws IOException {
+        // the remarks are stored as (deprecated since, text) pairs referencing a table of distinct strings
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> stringIndices = new HashMap<>();
+        List<ContentClassificationRemark> remarks = new ArrayList<>();
+        Map<ContentClassificationRemark, Integer> remarkIndices = new HashMap<>();
+        // assign indices in resource path order to get a reproducible index
+        Iterator<ContentClassificationMapEntry> entryIterator = map.entryIterator();
+        while (entryIterator.hasNext()) {
+            ContentClassificationRemark remark = entryIterator.next().getStructuredRemark();
+            if (remark != null && !remarkIndices.containsKey(remark)) {
+                remarkIndices.put(remark, remarks.size());
+                remarks.add(remark);
+                if (remark.isDeprecation()) {
+                    addString(remark.getDeprecatedSince(), strings, stringIndices);
+                }
+                addString(remark.getText(), strings, stringIndices);
+            }
+        }
+        DataOutputStream dataOutput = new DataOutputStream(new BufferedOutputStream(output));
+        dataOutput.writeInt(MAGIC_NUMBER);
+        dataOutput.writeByte(VERSION);
+        dataOutput.writeLong(mapChecksum);
+        String label = map.getLabel();
+        dataOutput.writeBoolean(label != null);
+        if (label != null) {
+            dataOutput.writeUTF(label);
+        }
+        dataOutput.writeInt(strings.size());
+        for (String string : strings) {
+            dataOutput.writeUTF(string);
+        }
+        dataOutput.writeInt(remarks.size());
+        for (ContentClassificationRemark remark : remarks) {
+            dataOutput.writeInt(remark.isDeprecation() ? stringIndices.get(remark.getDeprecatedSince()) : -1);
+            dataOutput.writeInt(stringIndices.get(remark.getText()));
+        }
+        // serialize each section separately to be able to write the directory upfront
+        Map<String, ByteArrayOutputStream> sections = new TreeMap<>();
+        Map<String, Integer> numEntriesPerSection = new HashMap<>();
+        entryIterator = map.entryIterator();
+        while (entryIterator.hasNext()) {
+            ContentClassificationMapEntry entry = entryIterator.next();
+            String sectionKey = SectionedContentClassificationMap.getSectionKey(entry.getResourcePath());
+            DataOutputStream sectionOutput = new DataOutputStream(sections.computeIfAbsent(sectionKey, k -> new ByteArrayOutputStream()));
+            sectionOutput.writeUTF(entry.getResourcePath().substring(sectionKey.length()));
+            sectionOutput.writeByte(entry.getClassification().ordinal());
+            ContentClassificationRemark remark = entry.getStructuredRemark();
+            sectionOutput.writeInt(remark != null ? remarkIndices.get(remark) : -1);
+            numEntriesPerSection.merge(sectionKey, 1, Integer::sum);
+        }
+        dataOutput.writeInt(map.size());
+        dataOutput.writeInt(sections.size());
+        for (Map.Entry<String, ByteArrayOutputStream> section : sections.entrySet()) {
+            dataOutput.writeUTF(section.getKey());
+            dataOutput.writeInt(numEntriesPerSection.get(section.getKey()));
+            dataOutput.writeInt(section.getValue().size());
+        }
+        for (ByteArrayOutputStream section : sections.values()) {
+            section.writeTo(dataOutput);
+        }
+        dataOutput.flush();
+    }
+
+    private static void addString(String string, List<String> strings, Map<String, Integer> stringIndices) {
+        if (!stringIndices.containsKey(string)) {
+            stringIndices.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+
+    /**
+     * Reads the map from the given index. All sections are parsed.
+     * @param input the index (is not closed by this method)
+     * @param mapChecksum the checksum of the map file the index is supposed to belong to
+     * @return the map or {@code null} in case the index does not belong to the map file with the given checksum
+     * @throws IOException in case the index could not be read or is invalid
+     */
+    public static @Nullable ContentClassificationMapImpl read(@NotNull InputStream input, long mapChecksum) throws IOException {
+        SectionedContentClassificationMap sectionedMap = readSectioned(input, mapChecksum);
+        if (sectionedMap == null) {
+            return null;
+        }
+        ContentClassificationMapImpl map = new ContentClassificationMapImpl(sectionedMap.getLabel());
+        sectionedMap.readAllSections(map);
+        return map;
+    }
+
+    /**
+     * Reads the section directory from the given index. The sections are only parsed on first access.
+     * @param input the index (is not closed by this method)
+     * @param mapChecksum the checksum of the map file the index is supposed to belong to
+     * @return the map or {@code null} in case the index does not belong to the map file with the given checksum
+     * @throws IOException in case the index could not be read or is invalid
+     */
+    public static @Nullable SectionedContentClassificationMap readSectioned(@NotNull InputStream input, long mapChecksum) throws IOException {
+        DataInputStream dataInput = new DataInputStream(new BufferedInputStream(input));
+        if (dataInput.readInt() != MAGIC_NUMBER) {
+            throw new IOException("Invalid index: wrong magic number");
+        }
+        byte version = dataInput.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported index version " + version);
+        }
+        if (dataInput.readLong() != mapChecksum) {
+            return null;
+        }
+        String label = dataInput.readBoolean() ? dataInput.readUTF() : null;
+        String[] strings = new String[dataInput.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = dataInput.readUTF();
+        }
+        ContentClassificationRemark[] remarks = new ContentClassificationRemark[dataInput.readInt()];
+        for (int i = 0; i < remarks.length; i++) {
+            int deprecatedSinceIndex = dataInput.readInt();
+            int textIndex = dataInput.readInt();
+            if (deprecatedSinceIndex < -1 || deprecatedSinceIndex >= strings.length || textIndex < 0 || textIndex >= strings.length) {
+                throw new IOException("Invalid index: corrupt remark " + i);
+            }
+            remarks[i] = deprecatedSinceIndex >= 0 ? ContentClassificationRemark.deprecation(strings[deprecatedSinceIndex], strings[textIndex])
+                    : ContentClassificationRemark.parse(strings[textIndex]);
+        }
+        int numEntries = dataInput.readInt();
+        String[] sectionKeys = new String[dataInput.readInt()];
+        int[] numEntriesPerSection = new int[sectionKeys.length];
+        byte[][] sectionData = new byte[sectionKeys.length][];
+        long totalNumEntries = 0;
+        for (int i = 0; i < sectionKeys.length; i++) {
+            sectionKeys[i] = dataInput.readUTF();
+            numEntriesPerSection[i] = dataInput.readInt();
+            int length = dataInput.readInt();
+            if (numEntriesPerSection[i] < 0 || length < 0 || (i > 0 && sectionKeys[i].compareTo(sectionKeys[i - 1]) <= 0)) {
+                throw new IOException("Invalid index: corrupt directory entry for section " + sectionKeys[i]);
+            }
+            sectionData[i] = new byte[length];
+            totalNumEntries += numEntriesPerSection[i];
+        }
+        if (totalNumEntries != numEntries) {
+            throw new IOException("Invalid index: the sections contain " + totalNumEntries + " entries instead of " + numEntries);
+        }
+        // only copy the section data without parsing it
+        for (byte[] data : sectionData) {
+            dataInput.readFully(data);
+        }
+        return new SectionedContentClassificationMap(label, numEntries, remarks, sectionKeys, numEntriesPerSection, sectionData);
+    }
+
+    /**
+     * Parses the entries of one section.
+     * @param sectionKey the key of the section
+     * @param numEntries the number of entries in the section
+     * @param data the serialized entries of the section
+     * @param remarks the remarks referenced by the entries
+     * @param map the map to which to add the entries
+     * @throws IOException in case the section is invalid
+     */
+    static void readSection(@NotNull String sectionKey, int numEntries, @NotNull byte[] data, @NotNull ContentClassificationRemark[] remarks, @NotNull ContentClassificationMapImpl map) throws IOException {
+        DataInputStream dataInput = new DataInputStream(new ByteArrayInputStream(data));
+        ContentClassification[] classifications = ContentClassification.values();
+        for (int i = 0; i < numEntries; i++) {
+            String resourcePath = sectionKey + dataInput.readUTF();
+            int ordinal = dataInput.readByte();
+            int remarkIndex = dataInput.readInt();
+            if (ordinal < 0 || ordinal >= classifications.length || remarkIndex < -1 || remarkIndex >= remarks.length
+                    || !sectionKey.equals(SectionedContentClassificationMap.getSectionKey(resourcePath))) {
+                throw new IOException("Invalid index: corrupt entry for resource path " + resourcePath);
+            }
+            map.putWithStructuredRemark(resourcePath, classifications[ordinal], remarkIndex >= 0 ? remarks[remarkIndex] : null);
+        }
+        if (dataInput.available() > 0) {
+            throw new IOException("Invalid index: unexpected data at the end of section " + sectionKey);
+        }
+    }
+}
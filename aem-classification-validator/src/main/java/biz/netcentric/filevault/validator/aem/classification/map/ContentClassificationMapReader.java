@@ -0,0 +1,244 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.csv.CSVRecord;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+
+/**
+ * Reads the textual map format (see {@link ContentClassificationMapImpl}) directly from its ASCII bytes.
+ * <p>
+ * Each line without a quote character is parsed directly: it is split at the delimiters, the classification is resolved by comparing the bytes
+ * with the enum names and only the resource path and the remark are converted to strings.
+ * As soon as a line contains a quote character the remaining input (starting with that line) is parsed with {@link ContentClassificationMapImpl#CSV_FORMAT}
+ * as quoted values may span multiple lines and require the full RFC 4180 rules.
+ * The result (including labels, record numbers in error messages and the decoding of non-ASCII bytes) is the same as when parsing everything with
+ * {@link ContentClassificationMapImpl#CSV_FORMAT}.
+ */
+final class ContentClassificationMapReader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentClassificationMapReader.class);
+
+    private static final byte DELIMITER = ',';
+    private static final byte QUOTE = '"';
+    private static final byte COMMENT_MARKER = '#';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private static final ContentClassification[] CLASSIFICATIONS = ContentClassification.values();
+    private static final byte[][] CLASSIFICATION_NAMES = new byte[CLASSIFICATIONS.length][];
+    static {
+        for (int i = 0; i < CLASSIFICATIONS.length; i++) {
+            CLASSIFICATION_NAMES[i] = CLASSIFICATIONS[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final @NotNull ContentClassificationMapImpl map;
+    private final String fileName;
+    private String label;
+    private long recordNumber;
+
+    private ContentClassificationMapReader(@NotNull ContentClassificationMapImpl map, String fileName, String defaultLabel) {
+        this.map = map;
+        this.fileName = fileName;
+        this.label = defaultLabel;
+    }
+
+    /**
+     * Reads all entries from the given input and adds them to the given map.
+     * @param input the input stream containing the textual map (is not closed by this method)
+     * @param fileName the file name used in log messages
+     * @param map the map to add the entries to
+     * @param defaultLabel the label to return in case the input does not contain any record
+     * @return the label (i.e. the comment preceding the first record) or {@code null} in case the first record is not preceded by a comment
+     * @throws IOException in case the input could not be read
+     * @throws IllegalArgumentException in case the input contains an invalid record
+     */
+    static @Nullable String read(@NotNull InputStream input, String fileName, @NotNull ContentClassificationMapImpl map, String defaultLabel) throws IOException {
+        ContentClassificationMapReader reader = new ContentClassificationMapReader(map, fileName, defaultLabel);
+        reader.read(toByteArray(input));
+        return reader.label;
+    }
+
+    /**
+     * Reads all entries only with {@link ContentClassificationMapImpl#CSV_FORMAT}.
+     * @param input the input stream containing the textual map (is not closed by this method)
+     * @param fileName the file name used in log messages
+     * @param map the map to add the entries to
+     * @param defaultLabel the label to return in case the input does not contain any record
+     * @return the label (i.e. the comment preceding the first record) or {@code null} in case the first record is not preceded by a comment
+     * @throws IOException in case the input could not be read
+     * @throws IllegalArgumentException in case the input contains an invalid record
+     */
+    static @Nullable String readRfc4180(@NotNull InputStream input, String fileName, @NotNull ContentClassificationMapImpl map, String defaultLabel) throws IOException {
+        ContentClassificationMapReader reader = new ContentClassificationMapReader(map, fileName, defaultLabel);
+        reader.readRfc4180(new InputStreamReader(input, StandardCharsets.US_ASCII));
+        return reader.label;
+    }
+
+    private void read(byte[] data) throws IOException {
+        StringBuilder comment = null;
+        int lineStart = 0;
+        while (lineStart < data.length) {
+            // find end of line and the delimiters, a quote requires the full RFC 4180 rules
+            int firstDelimiter = -1;
+            int secondDelimiter = -1;
+            int numValues = 1;
+            int lineEnd = lineStart;
+            boolean isComment = data[lineStart] == COMMENT_MARKER;
+            while (lineEnd < data.length && data[lineEnd] != LF && data[lineEnd] != CR) {
+                byte b = data[lineEnd];
+                if (!isComment) {
+                    if (b == QUOTE) {
+                        readRfc4180FromLine(data, lineStart);
+                        return;
+                    } else if (b == DELIMITER) {
+                        if (numValues == 1) {
+                            firstDelimiter = lineEnd;
+                        } else if (numValues == 2) {
+                            secondDelimiter = lineEnd;
+                        }
+                        numValues++;
+                    }
+                }
+                lineEnd++;
+            }
+            if (isComment) {
+                // comments are trimmed and multiple comment lines joined by a line feed
+                String line = new String(data, lineStart + 1, lineEnd - lineStart - 1, StandardCharsets.US_ASCII).trim();
+                if (comment == null) {
+                    comment = new StringBuilder(line);
+                } else {
+                    comment.append('\n').append(line);
+                }
+            } else {
+                recordNumber++;
+                if (recordNumber == 1) {
+                    label = comment != null ? comment.toString() : null;
+                }
+                comment = null;
+                if (numValues < 2) {
+                    throw newMissingDelimiterException();
+                }
+                int classificationEnd = numValues == 2 ? lineEnd : secondDelimiter;
+                ContentClassification classification = getClassification(data, firstDelimiter + 1, classificationEnd);
+                final String remark;
+                if (numValues == 3) {
+                    remark = new String(data, secondDelimiter + 1, lineEnd - secondDelimiter - 1, StandardCharsets.US_ASCII);
+                } else {
+                    if (numValues > 3) {
+                        logIgnoredColumns();
+                    }
+                    remark = null;
+                }
+                String resourcePath = new String(data, lineStart, firstDelimiter - lineStart, StandardCharsets.US_ASCII);
+                map.put(resourcePath, classification, remark);
+            }
+            // CR LF is a single line break
+            if (lineEnd < data.length && data[lineEnd] == CR && lineEnd + 1 < data.length && data[lineEnd + 1] == LF) {
+                lineEnd++;
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private void readRfc4180FromLine(byte[] data, int lineStart) throws IOException {
+        if (recordNumber == 0) {
+            // start from the beginning to get the same label
+            lineStart = 0;
+        }
+        LOGGER.debug("Found quote in record {} of file {}, parsing the remaining input with RFC 4180 rules", recordNumber + 1, fileName);
+        readRfc4180(new InputStreamReader(new ByteArrayInputStream(data, lineStart, data.length - lineStart), StandardCharsets.US_ASCII));
+    }
+
+    private void readRfc4180(Reader input) throws IOException {
+        long previousRecordNumber = recordNumber;
+        Iterable<CSVRecord> records = ContentClassificationMapImpl.CSV_FORMAT.parse(input);
+        for (CSVRecord record : records) {
+            recordNumber = previousRecordNumber + record.getRecordNumber();
+            if (recordNumber == 1) {
+                label = record.getComment();
+            }
+            if (record.size() < 2) {
+                throw newMissingDelimiterException();
+            }
+            String resourcePath = record.get(0);
+            ContentClassification classification = Enum.valueOf(ContentClassification.class, record.get(1));
+            final String remark;
+            // a third part may contain hints
+            if (record.size() == 3) {
+                remark = record.get(2);
+            } else {
+                if (record.size() > 3) {
+                    logIgnoredColumns();
+                }
+                remark = null;
+            }
+            map.put(resourcePath, classification, remark);
+        }
+    }
+
+    private static @NotNull ContentClassification getClassification(byte[] data, int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < CLASSIFICATION_NAMES.length; i++) {
+            byte[] name = CLASSIFICATION_NAMES[i];
+            if (name.length == length && regionMatches(data, start, name)) {
+                return CLASSIFICATIONS[i];
+            }
+        }
+        // throws the same exception as the RFC 4180 parsing
+        return Enum.valueOf(ContentClassification.class, new String(data, start, length, StandardCharsets.US_ASCII));
+    }
+
+    private static boolean regionMatches(byte[] data, int start, byte[] name) {
+        for (int i = 0; i < name.length; i++) {
+            if (data[start + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private IllegalArgumentException newMissingDelimiterException() {
+        return new IllegalArgumentException("Error in line " + recordNumber
+                + ": Missing ',' character. At least 2 values have to be given per line!");
+    }
+
+    private void logIgnoredColumns() {
+        LOGGER.warn("More than 3 columns in line {} in file {} given, ignoring the ones exceeding the 3rd column.", recordNumber, fileName);
+    }
+
+    private static byte[] toByteArray(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = input.read(buffer)) != -1) {
+            output.write(buffer, 0, length);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,166 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.csv.CSVPrinter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+
+/**
+ * Writes the textual map format (see {@link ContentClassificationMapImpl}) directly as ASCII bytes.
+ * <p>
+ * Values which don't need to be quoted are written as is, all other values are formatted with {@link ContentClassificationMapImpl#CSV_FORMAT}.
+ * The output is byte-identical to the one of a {@link CSVPrinter} with that format writing to a US-ASCII encoded writer.
+ */
+final class ContentClassificationMapWriter implements Closeable {
+
+    private static final byte[] RECORD_SEPARATOR = ContentClassificationMapImpl.CSV_FORMAT.getRecordSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final char DELIMITER = ContentClassificationMapImpl.CSV_FORMAT.getDelimiterString().charAt(0);
+    private static final char QUOTE = ContentClassificationMapImpl.CSV_FORMAT.getQuoteCharacter();
+    private static final char COMMENT_MARKER = ContentClassificationMapImpl.CSV_FORMAT.getCommentMarker();
+
+    private static final byte[][] CLASSIFICATION_NAMES = new byte[ContentClassification.values().length][];
+    static {
+        for (ContentClassification classification : ContentClassification.values()) {
+            CLASSIFICATION_NAMES[classification.ordinal()] = classification.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final @NotNull OutputStream output;
+    private final byte[] buffer;
+    private int position;
+
+    ContentClassificationMapWriter(@NotNull OutputStream output) {
+        this.output = output;
+        this.buffer = new byte[8192];
+    }
+
+    /**
+     * Writes the given comment (as {@link CSVPrinter#printComment(String)}).
+     * @param comment the comment
+     * @throws IOException in case writing failed
+     */
+    void writeComment(String comment) throws IOException {
+        StringBuilder formattedComment = new StringBuilder();
+        try (CSVPrinter printer = new CSVPrinter(formattedComment, ContentClassificationMapImpl.CSV_FORMAT)) {
+            printer.printComment(comment);
+        }
+        write(formattedComment.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Writes one record.
+     * @param resourcePath the resource path
+     * @param classification the classification
+     * @param remark the optional remark (omitted in case it is {@code null})
+     * @throws IOException in case writing failed
+     */
+    void writeRecord(@NotNull String resourcePath, @NotNull ContentClassification classification, @Nullable String remark) throws IOException {
+        writeValue(resourcePath, true);
+        write((byte) DELIMITER);
+        write(CLASSIFICATION_NAMES[classification.ordinal()]);
+        if (remark != null) {
+            writeValue(remark, false);
+        }
+        write(RECORD_SEPARATOR);
+    }
+
+    private void writeValue(@NotNull String value, boolean isFirstValueInRecord) throws IOException {
+        if (!isPlainAscii(value)) {
+            // also emits the leading delimiter for all but the first value
+            StringBuilder formattedValue = new StringBuilder();
+            ContentClassificationMapImpl.CSV_FORMAT.print(value, formattedValue, isFirstValueInRecord);
+            write(formattedValue.toString().getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (!isFirstValueInRecord) {
+            write((byte) DELIMITER);
+        }
+        int length = value.length();
+        if (buffer.length - position < length) {
+            flushBuffer();
+        }
+        if (length > buffer.length) {
+            output.write(value.getBytes(StandardCharsets.US_ASCII));
+        } else {
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the value consists only of printable ASCII characters and does not need to be quoted according to the minimal quote mode.
+     * @param value the value
+     * @return {@code true} in case it can be written as is
+     */
+    static boolean isPlainAscii(@NotNull String value) {
+        int length = value.length();
+        // empty values, values starting with a character up to the comment marker and values ending with whitespace are quoted
+        if (length == 0 || value.charAt(0) <= COMMENT_MARKER || value.charAt(length - 1) <= ' ') {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < ' ' || c > '~' || c == DELIMITER || c == QUOTE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(byte b) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = b;
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (buffer.length - position < bytes.length) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                output.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void flushBuffer() throws IOException {
+        output.write(buffer, 0, position);
+        position = 0;
+    }
+
+    /**
+     * Flushes the buffered bytes and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+            output.flush();
+        } finally {
+            output.close();
+        }
+    }
+}
@@ -14,18 +14,18 @@ package biz.netcentric.filevault.validator.aem.classification.map;
  */
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.Map.Entry;
+import java.util.Objects;
 
-import org.apache.commons.csv.CSVPrinter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
 import biz.netcentric.filevault.validator.aem.classification.MutableContentClassificationMap;
 
 /** 
@@ -37,24 +37,54 @@ public class MutableContentClassificationMapImpl extends ContentClassificationMa
         super(label);
     }
 
+    public MutableContentClassificationMapImpl(@NotNull InputStream input, String fileName) throws IOException {
+        super(input, fileName);
+    }
+
     @Override
     public void put(@NotNull String resourcePath, @NotNull ContentClassification classification, @Nullable String remark) {
         super.put(resourcePath, classification, remark);
     }
 
+    @Override
+    public void putWithStructuredRemark(@NotNull String resourcePath, @NotNull ContentClassification classification, @Nullable ContentClassificationRemark remark) {
+        super.putWithStructuredRemark(resourcePath, classification, remark);
+    }
+
+    @Override
+    public int minimize() {
+        // entries with wildcards may match in between an entry and its nearest ancestor entry
+        if (containsWildcardEntries()) {
+            return 0;
+        }
+        Collection<String> redundantResourcePaths = new ArrayList<>();
+        for (Entry<String, ContentClassification> entry : classificationMap.entrySet()) {
+            String resourcePath = entry.getKey();
+            String ancestorResourcePath = getNearestAncestorWithEntry(resourcePath);
+            // without any ancestor entry the lookup would fail after removal
+            if (ancestorResourcePath == null) {
+                continue;
+            }
+            // as the child node classification is idempotent, the decision for one entry does not depend on whether an ancestor entry is removed as well
+            if (entry.getValue() == classificationMap.get(ancestorResourcePath).getChildNodeClassification()
+                    && Objects.equals(remarkMap.get(resourcePath), remarkMap.get(ancestorResourcePath))) {
+                redundantResourcePaths.add(resourcePath);
+            }
+        }
+        for (String resourcePath : redundantResourcePaths) {
+            classificationMap.remove(resourcePath);
+            remarkMap.remove(resourcePath);
+        }
+        return redundantResourcePaths.size();
+    }
+
     @Override
     public void write(@NotNull OutputStream output) throws IOException {
-        try (CSVPrinter csvPrinter = new CSVPrinter(new OutputStreamWriter(output, StandardCharsets.US_ASCII), CSV_FORMAT)) {
-            csvPrinter.printComment(getLabel());
+        try (ContentClassificationMapWriter writer = new ContentClassificationMapWriter(output)) {
+            writer.writeComment(getLabel());
             for (Entry<String, ContentClassification> entry : classificationMap.entrySet()) {
-                Collection<String> values = new LinkedList<>();
-                values.add(entry.getKey()); // resource type
-                values.add(entry.getValue().toString());
-                String remark = remarkMap.get(entry.getKey());
-                if (remark != null && !remark.isEmpty()) {
-                    values.add(remark);
-                }
-                csvPrinter.printRecord(values);
+                ContentClassificationRemark remark = remarkMap.get(entry.getKey());
+                writer.writeRecord(entry.getKey(), entry.getValue(), remark != null ? remark.toString() : null);
             }
         }
     }
@@ -0,0 +1,60 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+/**
+ * Deduplicates {@link ContentClassificationRemark}s and their strings within one map.
+ * Usually many entries share the same deprecation reason and only few different deprecation versions exist,
+ * therefore only one instance per distinct remark and distinct string is retained.
+ */
+final class RemarkPool {
+
+    private final Map<ContentClassificationRemark, ContentClassificationRemark> remarks = new HashMap<>();
+    private final Map<String, String> strings = new HashMap<>();
+
+    /**
+     * Returns the pooled instance which is equal to the given remark.
+     * @param remark the remark (may be {@code null})
+     * @return the pooled remark or {@code null} in case the given remark is {@code null}
+     */
+    @Nullable ContentClassificationRemark intern(@Nullable ContentClassificationRemark remark) {
+        if (remark == null) {
+            return null;
+        }
+        ContentClassificationRemark pooledRemark = remarks.get(remark);
+        if (pooledRemark == null) {
+            String deprecatedSince = remark.getDeprecatedSince();
+            if (deprecatedSince != null) {
+                pooledRemark = ContentClassificationRemark.deprecation(intern(deprecatedSince), intern(remark.getText()));
+            } else {
+                pooledRemark = ContentClassificationRemark.parse(intern(remark.getText()));
+            }
+            remarks.put(pooledRemark, pooledRemark);
+        }
+        return pooledRemark;
+    }
+
+    private @NotNull String intern(@NotNull String string) {
+        String pooledString = strings.putIfAbsent(string, string);
+        return pooledString != null ? pooledString : string;
+    }
+}
@@ -0,0 +1,243 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+/**
+ * Trie over the segments of the resource paths of map entries which may contain wildcard segments.
+ * A segment {@value #WILDCARD_SEGMENT} matches exactly one arbitrary segment, a segment {@value #RECURSIVE_WILDCARD_SEGMENT} matches zero or more arbitrary segments.
+ * All other segments (also the ones only containing a {@code *}) are matched literally.
+ * <p>
+ * A lookup walks the segments of the resource path once and tracks all trie nodes matching the path so far, therefore no regular expressions are evaluated.
+ * Like for literal entries the entry matching the longest ancestor-or-self path wins. In case multiple entries match the same path
+ * the first segment of the path which is matched differently decides: a literal segment takes precedence over {@value #WILDCARD_SEGMENT} which takes precedence
+ * over {@value #RECURSIVE_WILDCARD_SEGMENT}. If all segments are matched in the same way (e.g. by {@code /a} and {@code /a/**}) the entry with the lowest resource path
+ * (in natural {@link String} order) wins.
+ * <p>
+ * This class is immutable and therefore thread-safe.
+ */
+final class ResourcePathTrie {
+
+    static final String WILDCARD_SEGMENT = "*";
+    static final String RECURSIVE_WILDCARD_SEGMENT = "**";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourcePathTrie.class);
+
+    private final Node root = new Node(false);
+
+    private static final class Node {
+        private @Nullable Map<String, Node> children;
+        private @Nullable Node wildcardChild;
+        private @Nullable Node recursiveWildcardChild;
+        private final boolean isRecursiveWildcard;
+        /** {@code null} in case this node does not terminate an entry */
+        private @Nullable ContentClassificationMapEntry entry;
+
+        private Node(boolean isRecursiveWildcard) {
+            this.isRecursiveWildcard = isRecursiveWildcard;
+        }
+    }
+
+    /**
+     * Creates a trie containing the given entries.
+     * @param entries the entries (with literal or wildcard resource paths)
+     */
+    ResourcePathTrie(@NotNull Iterator<ContentClassificationMapEntry> entries) {
+        while (entries.hasNext()) {
+            ContentClassificationMapEntry entry = entries.next();
+            Node node = root;
+            for (String segment : getSegments(entry.getResourcePath())) {
+                node = getOrCreateChild(node, segment);
+            }
+            node.entry = entry;
+        }
+    }
+
+    private static @NotNull Node getOrCreateChild(@NotNull Node node, @NotNull String segment) {
+        if (segment.equals(WILDCARD_SEGMENT)) {
+            if (node.wildcardChild == null) {
+                node.wildcardChild = new Node(false);
+            }
+            return node.wildcardChild;
+        } else if (segment.equals(RECURSIVE_WILDCARD_SEGMENT)) {
+            if (node.recursiveWildcardChild == null) {
+                node.recursiveWildcardChild = new Node(true);
+            }
+            return node.recursiveWildcardChild;
+        } else {
+            if (node.children == null) {
+                node.children = new HashMap<>();
+            }
+            return node.children.computeIfAbsent(segment, s -> new Node(false));
+        }
+    }
+
+    /**
+     * Checks whether the given resource path contains at least one wildcard segment.
+     * @param resourcePath the absolute resource path
+     * @return {@code true} in case it contains a wildcard segment, otherwise {@code false}
+     */
+    static boolean containsWildcard(@NotNull String resourcePath) {
+        int segmentStart = 1;
+        while (segmentStart < resourcePath.length()) {
+            int segmentEnd = resourcePath.indexOf('/', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = resourcePath.length();
+            }
+            int segmentLength = segmentEnd - segmentStart;
+            if ((segmentLength == 1 || segmentLength == 2) && resourcePath.startsWith(segmentLength == 1 ? WILDCARD_SEGMENT : RECURSIVE_WILDCARD_SEGMENT, segmentStart)) {
+                return true;
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Looks up the entry for the given resource path or its nearest ancestor matched by an entry.
+     * @param resourcePath the absolute resource path (without trailing slash)
+     * @return the classification and remark of the entry matching the resource path or the child node classification and remark of the entry matching the nearest ancestor
+     *  or {@code null} in case neither the resource path nor any ancestor is matched by an entry
+     */
+    @Nullable Entry<ContentClassification, ContentClassificationRemark> lookup(@NotNull String resourcePath) {
+        // the matching nodes grouped by how they matched the segments so far, most specific group first
+        List<List<Node>> stateGroups = new ArrayList<>();
+        List<Node> rootGroup = new ArrayList<>();
+        addWithRecursiveWildcards(root, rootGroup, new IdentityHashMap<>());
+        stateGroups.add(rootGroup);
+        ContentClassificationMapEntry bestEntry = getMostSpecificEntry(stateGroups);
+        int bestDepth = 0;
+        int depth = 0;
+        int segmentStart = 1;
+        while (segmentStart < resourcePath.length() && !stateGroups.isEmpty()) {
+            int segmentEnd = resourcePath.indexOf('/', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = resourcePath.length();
+            }
+            String segment = resourcePath.substring(segmentStart, segmentEnd);
+            List<List<Node>> nextStateGroups = new ArrayList<>();
+            Map<Node, Boolean> visited = new IdentityHashMap<>();
+            for (List<Node> stateGroup : stateGroups) {
+                // within each group the literal match takes precedence over the wildcard match over the recursive wildcard match
+                List<Node> literalGroup = new ArrayList<>();
+                List<Node> wildcardGroup = new ArrayList<>();
+                List<Node> recursiveWildcardGroup = new ArrayList<>();
+                for (Node state : stateGroup) {
+                    Node child = state.children != null ? state.children.get(segment) : null;
+                    if (child != null) {
+                        addWithRecursiveWildcards(child, literalGroup, visited);
+                    }
+                }
+                for (Node state : stateGroup) {
+                    if (state.wildcardChild != null) {
+                        addWithRecursiveWildcards(state.wildcardChild, wildcardGroup, visited);
+                    }
+                }
+                for (Node state : stateGroup) {
+                    // a recursive wildcard may consume an arbitrary number of segments
+                    if (state.isRecursiveWildcard) {
+                        addWithRecursiveWildcards(state, recursiveWildcardGroup, visited);
+                    }
+                }
+                addIfNotEmpty(literalGroup, nextStateGroups);
+                addIfNotEmpty(wildcardGroup, nextStateGroups);
+                addIfNotEmpty(recursiveWildcardGroup, nextStateGroups);
+            }
+            stateGroups = nextStateGroups;
+            depth++;
+            ContentClassificationMapEntry entry = getMostSpecificEntry(stateGroups);
+            if (entry != null) {
+                bestEntry = entry;
+                bestDepth = depth;
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        if (bestEntry == null) {
+            return null;
+        }
+        // an entry at the last depth can only be found if all segments have been consumed
+        if (bestDepth == depth) {
+            LOGGER.debug("Found exact match for classification of '{}' at '{}': {}", resourcePath, bestEntry.getResourcePath(), bestEntry.getClassification().getLabel());
+            return new SimpleEntry<>(bestEntry.getClassification(), bestEntry.getStructuredRemark());
+        }
+        ContentClassification classification = bestEntry.getClassification().getChildNodeClassification();
+        LOGGER.debug("Found inexact match for classification of '{}' at '{}': {}", resourcePath, bestEntry.getResourcePath(), classification.getLabel());
+        return new SimpleEntry<>(classification, bestEntry.getStructuredRemark());
+    }
+
+    private static void addWithRecursiveWildcards(@NotNull Node node, @NotNull List<Node> states, @NotNull Map<Node, Boolean> visited) {
+        // a recursive wildcard also matches zero segments
+        while (node != null && visited.put(node, Boolean.TRUE) == null) {
+            states.add(node);
+            node = node.recursiveWildcardChild;
+        }
+    }
+
+    private static void addIfNotEmpty(@NotNull List<Node> stateGroup, @NotNull List<List<Node>> stateGroups) {
+        if (!stateGroup.isEmpty()) {
+            stateGroups.add(stateGroup);
+        }
+    }
+
+    /**
+     * Returns the entry of the first group containing an entry. Within one group the entry with the lowest resource path (in natural {@link String} order) is returned.
+     * @param stateGroups the groups of matching nodes
+     * @return the entry or {@code null} in case no node terminates an entry
+     */
+    private static @Nullable ContentClassificationMapEntry getMostSpecificEntry(@NotNull List<List<Node>> stateGroups) {
+        for (List<Node> stateGroup : stateGroups) {
+            ContentClassificationMapEntry mostSpecificEntry = null;
+            for (Node state : stateGroup) {
+                if (state.entry != null && (mostSpecificEntry == null || state.entry.getResourcePath().compareTo(mostSpecificEntry.getResourcePath()) < 0)) {
+                    mostSpecificEntry = state.entry;
+                }
+            }
+            if (mostSpecificEntry != null) {
+                return mostSpecificEntry;
+            }
+        }
+        return null;
+    }
+
+    private static @NotNull List<String> getSegments(@NotNull String resourcePath) {
+        List<String> segments = new ArrayList<>();
+        int segmentStart = 1;
+        while (segmentStart < resourcePath.length()) {
+            int segmentEnd = resourcePath.indexOf('/', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = resourcePath.length();
+            }
+            segments.add(resourcePath.substring(segmentStart, segmentEnd));
+            segmentStart = segmentEnd + 1;
+        }
+        return segments;
+    }
+}
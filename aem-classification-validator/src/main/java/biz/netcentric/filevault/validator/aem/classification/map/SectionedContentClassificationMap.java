@@ -0,0 +1,310 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationLookupCursor;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+/**
+ * Classification map read from a {@link ContentClassificationMapIndex} whose sections are only parsed on first access.
+ * Each section contains the entries sharing the same first two path segments (e.g. {@code /libs/granite}), the entries with less than two segments
+ * are contained in the root section. A lookup therefore parses at most the section of the given resource path and the root section.
+ * Entries having a wildcard within their first two segments are contained in a separate wildcard section. If it exists, its entries are additionally
+ * added to every other parsed section, as they may match resource paths in any section.
+ * Each parsed section is kept as {@link CompactContentClassificationMap}.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class SectionedContentClassificationMap implements ContentClassificationMap {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SectionedContentClassificationMap.class);
+    private static final String ROOT_SECTION_KEY = "";
+    /** the key of the section containing the entries with a wildcard in their first two segments (a prefix of all their resource paths as the other section keys) */
+    private static final String WILDCARD_SECTION_KEY = "/";
+
+    private final String label;
+    private final int size;
+    private final ContentClassificationRemark[] remarks;
+    /** sorted section keys */
+    private final String[] sectionKeys;
+    private final int[] numEntriesPerSection;
+    /** the serialized entries of each section, {@code null} once the section has been parsed */
+    private final byte[][] sectionData;
+    /** guarded by this */
+    private final CompactContentClassificationMap[] sections;
+
+    SectionedContentClassificationMap(String label, int size, @NotNull ContentClassificationRemark[] remarks, @NotNull String[] sectionKeys,
+            @NotNull int[] numEntriesPerSection, @NotNull byte[][] sectionData) {
+        this.label = label;
+        this.size = size;
+        this.remarks = remarks;
+        this.sectionKeys = sectionKeys;
+        this.numEntriesPerSection = numEntriesPerSection;
+        this.sectionData = sectionData;
+        this.sections = new CompactContentClassificationMap[sectionKeys.length];
+    }
+
+    /**
+     * Returns the key of the section containing the given resource path.
+     * @param resourcePath the absolute resource path
+     * @return the first two segments of the resource path, the empty string for the root section (in case the resource path has less than two segments)
+     * or {@code /} for the wildcard section (in case one of the first two segments is a wildcard)
+     */
+    static @NotNull String getSectionKey(@NotNull String resourcePath) {
+        int secondSlash = resourcePath.indexOf('/', 1);
+        int thirdSlash = secondSlash < 0 ? -1 : resourcePath.indexOf('/', secondSlash + 1);
+        String sectionPath = thirdSlash < 0 ? resourcePath : resourcePath.substring(0, thirdSlash);
+        if (ResourcePathTrie.containsWildcard(sectionPath)) {
+            return WILDCARD_SECTION_KEY;
+        }
+        return secondSlash < 0 ? ROOT_SECTION_KEY : sectionPath;
+    }
+
+    @Override
+    public @NotNull Entry<ContentClassification, String> getContentClassificationAndRemarkForResourcePath(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        Entry<ContentClassification, ContentClassificationRemark> entry = getContentClassificationAndStructuredRemarkForResourcePath(resourcePath, whitelistedResourcePaths);
+        return new SimpleEntry<>(entry.getKey(), ContentClassificationRemark.toString(entry.getValue()));
+    }
+
+    @Override
+    public @NotNull Entry<ContentClassification, ContentClassificationRemark> getContentClassificationAndStructuredRemarkForResourcePath(@NotNull String resourcePath,
+            @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        // ignore empty resourceTypes
+        if (resourcePath.isEmpty()) {
+            return new SimpleEntry<>(ContentClassification.PUBLIC, null);
+        }
+        // make resourceType absolute!
+        if (!resourcePath.startsWith("/")) {
+            // always assume "/libs" to be on the resource resolver's search path
+            resourcePath = "/libs/" + resourcePath;
+        }
+        if (resourcePath.endsWith("/") && !resourcePath.equals("/")) {
+            throw new IllegalStateException("Resource path must not end with '/' but is '" + resourcePath + "'");
+        }
+        // is the resource type whitelisted?
+        if (ContentClassificationMapImpl.isResourcePathWhitelisted(resourcePath, whitelistedResourcePaths)) {
+            LOGGER.debug("Resource path '{}' is explicitly whitelisted and therefore has no restrictions!", resourcePath);
+            return new SimpleEntry<>(ContentClassification.PUBLIC, null);
+        }
+        // all entries being more specific than the ones from the root section are contained in the resource path's section
+        String sectionKey = getSectionKey(resourcePath);
+        Entry<ContentClassification, ContentClassificationRemark> entry = null;
+        if (!sectionKey.equals(ROOT_SECTION_KEY) && !sectionKey.equals(WILDCARD_SECTION_KEY)) {
+            entry = lookupInSection(Arrays.binarySearch(sectionKeys, sectionKey), resourcePath);
+        }
+        if (entry == null) {
+            entry = lookupInSection(getRootSectionIndex(), resourcePath);
+        }
+        if (entry != null) {
+            return entry;
+        }
+        throw new IllegalStateException("Could not find a classification for resource path '" + resourcePath + "'");
+    }
+
+    @Override
+    public @NotNull List<Entry<ContentClassification, ContentClassificationRemark>> getContentClassificationsAndStructuredRemarksForResourcePaths(@NotNull List<String> resourcePaths,
+            @Nullable Collection<Pattern> whitelistedResourcePaths) {
+        if (Arrays.binarySearch(sectionKeys, WILDCARD_SECTION_KEY) >= 0) {
+            return ContentClassificationMap.super.getContentClassificationsAndStructuredRemarksForResourcePaths(resourcePaths, whitelistedResourcePaths);
+        }
+        return BatchLookup.lookup(resourcePaths, whitelistedResourcePaths, createEntryLookup());
+    }
+
+    @Override
+    public @NotNull ContentClassificationLookupCursor createLookupCursor(@Nullable Collection<Pattern> whitelistedResourcePaths) {
+        if (Arrays.binarySearch(sectionKeys, WILDCARD_SECTION_KEY) >= 0) {
+            return ContentClassificationMap.super.createLookupCursor(whitelistedResourcePaths);
+        }
+        return new AncestorChainLookupCursor(whitelistedResourcePaths, createEntryLookup());
+    }
+
+    /**
+     * Only valid in case there is no wildcard section, because then each entry is only contained in the section given by its own resource path.
+     * @return a function returning the entry for exactly the given resource path
+     */
+    private @NotNull Function<String, Entry<ContentClassification, ContentClassificationRemark>> createEntryLookup() {
+        byte[][] buffers = new byte[sectionKeys.length][];
+        return resourcePath -> {
+            int sectionIndex = Arrays.binarySearch(sectionKeys, getSectionKey(resourcePath));
+            if (sectionIndex < 0) {
+                return null;
+            }
+            CompactContentClassificationMap section = getSection(sectionIndex);
+            if (buffers[sectionIndex] == null) {
+                buffers[sectionIndex] = new byte[section.getMaxResourcePathLength()];
+            }
+            return section.getEntry(resourcePath, buffers[sectionIndex]);
+        };
+    }
+
+    private @Nullable Entry<ContentClassification, ContentClassificationRemark> lookupInSection(int sectionIndex, @NotNull String resourcePath) {
+        if (sectionIndex < 0) {
+            return null;
+        }
+        return getSection(sectionIndex).getContentClassificationAndStructuredRemarkForExactOrAncestorPath(resourcePath);
+    }
+
+    /**
+     *
+     * @return the index of the root section or the one of the wildcard section (if there is no root section) or a negative number if neither exists
+     */
+    private int getRootSectionIndex() {
+        int sectionIndex = Arrays.binarySearch(sectionKeys, ROOT_SECTION_KEY);
+        return sectionIndex >= 0 ? sectionIndex : Arrays.binarySearch(sectionKeys, WILDCARD_SECTION_KEY);
+    }
+
+    private synchronized @NotNull CompactContentClassificationMap getSection(int sectionIndex) {
+        CompactContentClassificationMap section = sections[sectionIndex];
+        if (section == null) {
+            LOGGER.debug("Parsing section {} with {} entries of map {}", sectionKeys[sectionIndex], numEntriesPerSection[sectionIndex], label);
+            ContentClassificationMapImpl map = new ContentClassificationMapImpl(label);
+            try {
+                ContentClassificationMapIndex.readSection(sectionKeys[sectionIndex], numEntriesPerSection[sectionIndex], sectionData[sectionIndex], remarks, map);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not parse section " + sectionKeys[sectionIndex] + " of map " + label, e);
+            }
+            // entries with wildcards in the first two segments may match paths in every section, therefore they are added to all other sections (via the root section)
+            int wildcardSectionIndex = Arrays.binarySearch(sectionKeys, WILDCARD_SECTION_KEY);
+            if (wildcardSectionIndex >= 0 && sectionIndex != wildcardSectionIndex) {
+                int rootSectionIndex = getRootSectionIndex();
+                CompactContentClassificationMap inheritedSection = getSection(sectionIndex == rootSectionIndex ? wildcardSectionIndex : rootSectionIndex);
+                inheritedSection.entryIterator().forEachRemaining(entry -> map.putWithStructuredRemark(entry.getResourcePath(), entry.getClassification(), entry.getStructuredRemark()));
+            }
+            section = new CompactContentClassificationMap(map);
+            sections[sectionIndex] = section;
+            sectionData[sectionIndex] = null;
+        }
+        return section;
+    }
+
+    /**
+     * Adds the entries of all sections to the given map.
+     * @param map the map to add the entries to
+     * @throws IOException in case a section is invalid
+     */
+    synchronized void readAllSections(@NotNull ContentClassificationMapImpl map) throws IOException {
+        for (int i = 0; i < sectionKeys.length; i++) {
+            if (sections[i] != null) {
+                String sectionKey = sectionKeys[i];
+                // skip the entries added from the root and wildcard section
+                sections[i].entryIterator().forEachRemaining(entry -> {
+                    if (sectionKey.equals(getSectionKey(entry.getResourcePath()))) {
+                        map.putWithStructuredRemark(entry.getResourcePath(), entry.getClassification(), entry.getStructuredRemark());
+                    }
+                });
+            } else {
+                ContentClassificationMapIndex.readSection(sectionKeys[i], numEntriesPerSection[i], sectionData[i], remarks, map);
+            }
+        }
+    }
+
+    /**
+     * Returns the entries section by section. Sections which have not been parsed so far are only parsed temporarily, i.e. they are not kept in memory
+     * after their entries have been iterated.
+     * @return the iterator
+     */
+    @Override
+    public @NotNull Iterator<ContentClassificationMapEntry> entryIterator() {
+        return new Iterator<ContentClassificationMapEntry>() {
+            private int sectionIndex = 0;
+            private Iterator<ContentClassificationMapEntry> sectionIterator = Collections.emptyIterator();
+            private ContentClassificationMapEntry nextEntry;
+
+            @Override
+            public boolean hasNext() {
+                while (nextEntry == null) {
+                    if (sectionIterator.hasNext()) {
+                        ContentClassificationMapEntry entry = sectionIterator.next();
+                        // skip the entries added from the root and wildcard section
+                        if (sectionKeys[sectionIndex - 1].equals(getSectionKey(entry.getResourcePath()))) {
+                            nextEntry = entry;
+                        }
+                    } else if (sectionIndex < sectionKeys.length) {
+                        sectionIterator = getSectionEntryIterator(sectionIndex++);
+                    } else {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public ContentClassificationMapEntry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ContentClassificationMapEntry entry = nextEntry;
+                nextEntry = null;
+                return entry;
+            }
+        };
+    }
+
+    private synchronized @NotNull Iterator<ContentClassificationMapEntry> getSectionEntryIterator(int sectionIndex) {
+        if (sections[sectionIndex] != null) {
+            return sections[sectionIndex].entryIterator();
+        }
+        ContentClassificationMapImpl map = new ContentClassificationMapImpl(label);
+        try {
+            ContentClassificationMapIndex.readSection(sectionKeys[sectionIndex], numEntriesPerSection[sectionIndex], sectionData[sectionIndex], remarks, map);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not parse section " + sectionKeys[sectionIndex] + " of map " + label, e);
+        }
+        return map.entryIterator();
+    }
+
+    /**
+     *
+     * @return the number of sections which have already been parsed
+     */
+    synchronized int getNumParsedSections() {
+        return (int) Arrays.stream(sections).filter(Objects::nonNull).count();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public @NotNull String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return "SectionedContentClassificationMap [label=" + label + ", size=" + size + ", sections=" + sectionKeys.length + "]";
+    }
+}
@@ -14,12 +14,25 @@ package biz.netcentric.filevault.validator.aem.classification;
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import org.apache.jackrabbit.vault.validation.spi.ValidationContext;
 import org.apache.jackrabbit.vault.validation.spi.ValidationMessageSeverity;
@@ -27,10 +40,15 @@ import org.apache.jackrabbit.vault.validation.spi.ValidatorSettings;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import biz.netcentric.filevault.validator.aem.classification.classpathurl.URLFactory;
+import biz.netcentric.filevault.validator.aem.classification.map.CompactContentClassificationMap;
 import biz.netcentric.filevault.validator.aem.classification.map.CompositeContentClassificationMap;
 import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapImpl;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapIndex;
 import biz.netcentric.filevault.validator.aem.classification.map.MutableContentClassificationMapImpl;
+import biz.netcentric.filevault.validator.aem.classification.map.SectionedContentClassificationMap;
 
 class AemClassificationValidatorFactoryTest {
 
@@ -69,6 +87,55 @@ class AemClassificationValidatorFactoryTest {
         Assertions.assertThrows(IllegalArgumentException.class, () -> { AemClassificationValidatorFactory.getSeverityPerClassification(" =ERROR,FINAL=WARN"); });
     }
 
+    @Test
+    void testGetSearchPath() {
+        assertEquals(AemClassificationValidator.DEFAULT_SEARCH_PATH, AemClassificationValidatorFactory.getSearchPath(null));
+        assertEquals(Arrays.asList("/apps", "/mnt/overlay", "/libs"), AemClassificationValidatorFactory.getSearchPath("/apps, /mnt/overlay ,/libs"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AemClassificationValidatorFactory.getSearchPath(""));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AemClassificationValidatorFactory.getSearchPath("/apps,libs"));
+    }
+
+    @Test
+    void testGetUsagePerProperty() {
+        assertEquals(AemClassificationValidator.DEFAULT_USAGE_PER_PROPERTY, AemClassificationValidatorFactory.getUsagePerProperty(null));
+        Map<String, ContentUsage> expectedUsagePerProperty = new HashMap<>(AemClassificationValidator.DEFAULT_USAGE_PER_PROPERTY);
+        expectedUsagePerProperty.put("cq:template", ContentUsage.REFERENCE);
+        expectedUsagePerProperty.put("{http://example.com/ns}base", ContentUsage.INHERIT);
+        assertEquals(expectedUsagePerProperty, AemClassificationValidatorFactory.getUsagePerProperty("cq:template=REFERENCE, {http://example.com/ns}base = INHERIT"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AemClassificationValidatorFactory.getUsagePerProperty("cq:template"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AemClassificationValidatorFactory.getUsagePerProperty("cq:template=USES"));
+    }
+
+    @Test
+    void testGetViolationBudget() {
+        assertEquals(ViolationBudget.UNLIMITED, AemClassificationValidatorFactory.getViolationBudget(null, null));
+        assertEquals(new ViolationBudget(ValidationMessageSeverity.ERROR, 0), AemClassificationValidatorFactory.getViolationBudget("ERROR", null));
+        assertEquals(new ViolationBudget(null, 10), AemClassificationValidatorFactory.getViolationBudget(null, " 10 "));
+        assertEquals(new ViolationBudget(ValidationMessageSeverity.WARN, 5), AemClassificationValidatorFactory.getViolationBudget("WARN", "5"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AemClassificationValidatorFactory.getViolationBudget("FATAL", null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AemClassificationValidatorFactory.getViolationBudget(null, "many"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AemClassificationValidatorFactory.getViolationBudget(null, "-1"));
+    }
+
+    @Test
+    void testGetValidationScope(@TempDir Path tempDir) throws IOException {
+        assertEquals(ValidationScope.ALL, AemClassificationValidatorFactory.getValidationScope(null, null, null));
+        Path changedPathsFile = tempDir.resolve("changed-paths.txt");
+        Files.write(changedPathsFile, Arrays.asList("ui.apps/src/main/content/jcr_root/apps/my/component.html", "README.md"));
+        assertEquals(ValidationScope.ofChangedPaths(Arrays.asList("apps/my/component.html", "README.md")),
+                AemClassificationValidatorFactory.getValidationScope(changedPathsFile.toString(), null, null));
+        Assertions.assertThrows(IllegalStateException.class, () -> AemClassificationValidatorFactory.getValidationScope(tempDir.resolve("missing.txt").toString(), null, null));
+    }
+
+    @Test
+    void testGetModuleDirectory(@TempDir Path tempDir) throws IOException {
+        Path module = tempDir.resolve("ui.apps");
+        Files.createDirectories(module.resolve("target"));
+        assertEquals(module.resolve("target"), AemClassificationValidatorFactory.getModuleDirectory(module.resolve("target/package.zip")));
+        Files.createFile(module.resolve("pom.xml"));
+        assertEquals(module, AemClassificationValidatorFactory.getModuleDirectory(module.resolve("target/package.zip")));
+    }
+
     @Test
     void testValidateResourcePathPatternWithValidPatterns() {
         AemClassificationValidatorFactory.validateResourcePathPattern("/libs");
@@ -93,8 +160,9 @@ class AemClassificationValidatorFactoryTest {
         options.put("ignoreViolationsInPropertiesMatchingPathPatterns", "/apps/mysite/components/reference,\n/apps/mysite/components/old-components/.*");
         options.put("severitiesPerClassification", "INTERNAL=DEBUG,\nINTERNAL_DEPRECATED=INFO");
         ValidatorSettings settings = new ValidatorSettingsImpl(false, ValidationMessageSeverity.WARN, options);
-        MutableContentClassificationMap map = new MutableContentClassificationMapImpl("Simple");
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("Simple");
         map.put("/test", ContentClassification.INTERNAL_DEPRECATED, "Deprecated");
+        ContentClassificationMap compactMap = new CompactContentClassificationMap(map);
         Collection<String> whiteListedResourceTypes = new LinkedList<>();
         whiteListedResourceTypes.add("/resourceType1/.*");
         whiteListedResourceTypes.add("/resourceType2");
@@ -105,7 +173,7 @@ class AemClassificationValidatorFactoryTest {
         Map<ContentClassification, ValidationMessageSeverity> severitiesPerClassification = new HashMap<>();
         severitiesPerClassification.put(ContentClassification.INTERNAL, ValidationMessageSeverity.DEBUG);
         severitiesPerClassification.put(ContentClassification.INTERNAL_DEPRECATED, ValidationMessageSeverity.INFO);
-        AemClassificationValidator expectedValidator = new AemClassificationValidator(ValidationMessageSeverity.WARN, new CompositeContentClassificationMap(map), whiteListedResourceTypes, ignoreViolationsInPropertiesMatchingPathPatterns, severitiesPerClassification);
+        AemClassificationValidator expectedValidator = new AemClassificationValidator(ValidationMessageSeverity.WARN, new CompositeContentClassificationMap(compactMap), whiteListedResourceTypes, ignoreViolationsInPropertiesMatchingPathPatterns, severitiesPerClassification);
         Assertions.assertEquals(expectedValidator, factory.createValidator(mock(ValidationContext.class), settings));
 
         options = new HashMap<>();
@@ -124,8 +192,8 @@ class AemClassificationValidatorFactoryTest {
         options.put("ignoreViolationsInPropertiesMatchingPathPatterns", "/apps/mysite/components/reference,\n/apps/mysite/components/old-components/.*");
         options.put("severitiesPerClassification", "INTERNAL=DEBUG,\nINTERNAL_DEPRECATED=INFO");
         settings = new ValidatorSettingsImpl(false, ValidationMessageSeverity.WARN, options);
-        ContentClassificationMap emptyMap = new ContentClassificationMapImpl("");
-        expectedValidator = new AemClassificationValidator(ValidationMessageSeverity.WARN, new CompositeContentClassificationMap(map, emptyMap, emptyMap), whiteListedResourceTypes, ignoreViolationsInPropertiesMatchingPathPatterns, severitiesPerClassification);
+        ContentClassificationMap emptyMap = new CompactContentClassificationMap(new ContentClassificationMapImpl(""));
+        expectedValidator = new AemClassificationValidator(ValidationMessageSeverity.WARN, new CompositeContentClassificationMap(compactMap, emptyMap, emptyMap), whiteListedResourceTypes, ignoreViolationsInPropertiesMatchingPathPatterns, severitiesPerClassification);
         Assertions.assertEquals(expectedValidator, factory.createValidator(mock(ValidationContext.class), settings));
     }
 
@@ -161,4 +229,90 @@ class AemClassificationValidatorFactoryTest {
         }
 
     }
+
+    @Test
+    void testLoadMapFromIndex(@TempDir Path tempDir) throws IOException {
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("from map");
+        map.put("/", ContentClassification.PUBLIC, null);
+        Path mapFile = tempDir.resolve("test.map");
+        try (OutputStream output = Files.newOutputStream(mapFile)) {
+            map.write(output);
+        }
+        String mapUrl = mapFile.toUri().toString();
+        // without index
+        assertEquals(new CompactContentClassificationMap(map), AemClassificationValidatorFactory.loadMap(mapUrl));
+
+        // index belonging to the map content is preferred (deliberately with different content to tell them apart)
+        MutableContentClassificationMapImpl indexedMap = new MutableContentClassificationMapImpl("from index");
+        indexedMap.put("/", ContentClassification.PUBLIC, null);
+        indexedMap.put("/libs", ContentClassification.INTERNAL, "some remark");
+        Path indexFile = tempDir.resolve("test.map" + ContentClassificationMapIndex.EXTENSION);
+        try (OutputStream output = Files.newOutputStream(indexFile)) {
+            ContentClassificationMapIndex.write(indexedMap, ContentClassificationMapIndex.getChecksum(Files.readAllBytes(mapFile)), output);
+        }
+        ContentClassificationMap loadedMap = AemClassificationValidatorFactory.loadMap(mapUrl);
+        assertTrue(loadedMap instanceof SectionedContentClassificationMap);
+        assertEquals("from index", loadedMap.getLabel());
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, "some remark"), loadedMap.getContentClassificationAndRemarkForResourcePath("/libs", null));
+
+        // outdated index is ignored
+        try (OutputStream output = Files.newOutputStream(indexFile)) {
+            ContentClassificationMapIndex.write(indexedMap, 0, output);
+        }
+        assertEquals(new CompactContentClassificationMap(map), AemClassificationValidatorFactory.loadMap(mapUrl));
+
+        // unreadable index (e.g. from an older format) is ignored
+        Files.write(indexFile, new byte[] { 0x41, 0x43, 0x4D, 0x49, 1 });
+        assertEquals(new CompactContentClassificationMap(map), AemClassificationValidatorFactory.loadMap(mapUrl));
+    }
+
+    @Test
+    void testLoadMapFromIndexInJar(@TempDir Path tempDir) throws IOException {
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("from map");
+        map.put("/", ContentClassification.PUBLIC, null);
+        ByteArrayOutputStream mapOutput = new ByteArrayOutputStream();
+        map.write(mapOutput);
+        byte[] mapContent = mapOutput.toByteArray();
+        MutableContentClassificationMapImpl indexedMap = new MutableContentClassificationMapImpl("from index");
+        indexedMap.put("/", ContentClassification.PUBLIC, null);
+        Path jarFile = tempDir.resolve("test.jar");
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            output.putNextEntry(new JarEntry("maps/test.map"));
+            output.write(mapContent);
+            output.closeEntry();
+            output.putNextEntry(new JarEntry("maps/test.map" + ContentClassificationMapIndex.EXTENSION));
+            ContentClassificationMapIndex.write(indexedMap, ContentClassificationMapIndex.getChecksum(mapContent), output);
+            output.closeEntry();
+        }
+        // the checksum is taken from the central directory of the JAR file
+        String mapUrl = "jar:" + jarFile.toUri() + "!/maps/test.map";
+        assertEquals(ContentClassificationMapIndex.getChecksum(mapContent), AemClassificationValidatorFactory.getStoredChecksum(URLFactory.createURL(mapUrl)));
+        assertEquals("from index", AemClassificationValidatorFactory.loadMap(mapUrl).getLabel());
+
+        // also for maps loaded via the thread context class loader
+        ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { jarFile.toUri().toURL() }, null)) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            assertEquals(ContentClassificationMapIndex.getChecksum(mapContent), AemClassificationValidatorFactory.getStoredChecksum(URLFactory.createURL("tccl:maps/test.map")));
+            assertEquals("from index", AemClassificationValidatorFactory.loadMap("tccl:maps/test.map").getLabel());
+            assertEquals(-1, AemClassificationValidatorFactory.getStoredChecksum(URLFactory.createURL("tccl:maps/nonexisting.map")));
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldClassLoader);
+        }
+
+        // maps outside JAR files don't have a stored checksum
+        assertEquals(-1, AemClassificationValidatorFactory.getStoredChecksum(jarFile.toUri().toURL()));
+    }
+
+    @Test
+    void testGetSeverityPerDeprecatedSince() {
+        Map<String, ValidationMessageSeverity> severityPerDeprecatedSince = new HashMap<>();
+        severityPerDeprecatedSince.put("6.4", ValidationMessageSeverity.ERROR);
+        severityPerDeprecatedSince.put("Core Components", ValidationMessageSeverity.INFO);
+        assertEquals(severityPerDeprecatedSince, AemClassificationValidatorFactory.getSeverityPerDeprecatedSince("6.4=ERROR, Core Components = INFO"));
+        assertEquals(Collections.emptyMap(), AemClassificationValidatorFactory.getSeverityPerDeprecatedSince(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AemClassificationValidatorFactory.getSeverityPerDeprecatedSince("6.4:ERROR"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AemClassificationValidatorFactory.getSeverityPerDeprecatedSince("=ERROR"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AemClassificationValidatorFactory.getSeverityPerDeprecatedSince("6.4=INVALID"));
+    }
 }
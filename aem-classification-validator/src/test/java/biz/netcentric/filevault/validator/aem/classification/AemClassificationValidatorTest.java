@@ -15,21 +15,31 @@ package biz.netcentric.filevault.validator.aem.classification;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystemException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import javax.jcr.PropertyType;
 import javax.xml.parsers.ParserConfigurationException;
 
+import org.apache.jackrabbit.vault.util.DocViewNode;
+import org.apache.jackrabbit.vault.util.DocViewProperty;
 import org.apache.jackrabbit.vault.util.Text;
 import org.apache.jackrabbit.vault.validation.ValidationViolation;
 import org.apache.jackrabbit.vault.validation.impl.util.ValidatorSettingsImpl;
@@ -38,15 +48,21 @@ import org.apache.jackrabbit.vault.validation.spi.ValidationMessageSeverity;
 import org.apache.jackrabbit.vault.validation.spi.ValidatorSettings;
 import org.apache.jackrabbit.vault.validation.spi.impl.DocumentViewParserValidator;
 import org.apache.jackrabbit.vault.validation.spi.impl.DocumentViewParserValidatorFactory;
+import org.apache.sling.models.annotations.Model;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.xml.sax.SAXException;
 
 import biz.netcentric.filevault.validator.aem.classification.map.MutableContentClassificationMapImpl;
 
 class AemClassificationValidatorTest {
+
+    @Model(adaptables = Object.class, resourceType = { "/libs/internal/model", "public/model" })
+    static class SlingModel {
+    }
     private MutableContentClassificationMap classificationMap;
 
     private AemClassificationValidator validator;
@@ -73,38 +89,70 @@ class AemClassificationValidatorTest {
     }
 
     @Test
-    void testHtlIncludePattern() {
-        // use single quotes in expression string literals
-        assertFalse(AemClassificationValidator.HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher("<article data-sly-resource=\"${ @ path='path/to/resource'}\"></article>").find());
-        assertFalse(AemClassificationValidator.HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher("<article data-sly-resource=\"${ @ path='path/to/resource',removeSelectors}\"></article>").find());
-        Matcher matcher = AemClassificationValidator.HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher("<article data-sly-resource=\"${'resource' @ resourceType='resourceType'}\">");
-        assertTrue(matcher.find());
-        assertEquals("resourceType", matcher.group(1));
-        matcher = AemClassificationValidator.HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher("<article data-sly-resource=\"${ @ path='path/to/resource',removeSelectors, resourceType  =  'resourceType'}\"></article>");
-        assertTrue(matcher.find());
-        assertEquals("resourceType", matcher.group(1));
-        matcher = AemClassificationValidator.HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher("<article data-sly-resource=\"${ @ path='path/to/resource',removeSelectors, resourceType= 'resourceType', someOtherOption}\">");
-        assertTrue(matcher.find());
-        assertEquals("resourceType", matcher.group(1));
-
-        // use double quotes in expression string literals
-        matcher = AemClassificationValidator.HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher("<article data-sly-resource=\'${\"resource\" @ resourceType=\"resourceType\"}'>");
-        assertTrue(matcher.find());
-        assertEquals("resourceType", matcher.group(1));
-        matcher = AemClassificationValidator.HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher("<article data-sly-resource=\'${ @ path=\"path/to/resource\",removeSelectors, resourceType  =  \"resourceType\"}\'></article>");
-        assertTrue(matcher.find());
-        assertEquals("resourceType", matcher.group(1));
-        matcher = AemClassificationValidator.HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher("<article data-sly-resource=\'${ @ path=\"path/to/resource\",removeSelectors, resourceType= \"resourceType\", someOtherOption}\'>");
-        assertTrue(matcher.find());
-        assertEquals("resourceType", matcher.group(1));
-
-        // use attributes without quotes
-        matcher = AemClassificationValidator.HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher("<article data-sly-resource=${\'resource\'@resourceType=\'resourceType\'}>");
-        assertTrue(matcher.find());
-        assertEquals("resourceType", matcher.group(1));
-        matcher = AemClassificationValidator.HTL_INCLUDE_OVERWRITING_RESOURCE_TYPE.matcher("<article data-sly-resource=${ @ path=\"path/to/resource\",removeSelectors,resourceType=\"resourceType\"}></article>");
-        assertTrue(matcher.find());
-        assertEquals("resourceType", matcher.group(1));
+    void testSeverityPerDeprecatedSince() {
+        classificationMap.put("/libs/deprecated64", ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 6.4: Reason");
+        classificationMap.put("/libs/deprecated65", ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 6.5.1: Reason");
+        classificationMap.put("/libs/deprecatedcc", ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since Core Components 2.18.0: Reason");
+        Map<String, ValidationMessageSeverity> severityPerDeprecatedSince = new HashMap<>();
+        severityPerDeprecatedSince.put("6", ValidationMessageSeverity.ERROR);
+        severityPerDeprecatedSince.put("6.5", ValidationMessageSeverity.WARN);
+        validator = AemClassificationValidator.builder(ValidationMessageSeverity.INFO, classificationMap)
+                .withSeverityPerClassification(Collections.singletonMap(ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, ValidationMessageSeverity.DEBUG))
+                .withSeverityPerDeprecatedSince(severityPerDeprecatedSince).build();
+        assertEquals(ValidationMessageSeverity.ERROR, validator.validateClassification("/libs/deprecated64", ContentUsage.REFERENCE, "Subject").getSeverity());
+        // longest prefix wins
+        assertEquals(ValidationMessageSeverity.WARN, validator.validateClassification("/libs/deprecated65", ContentUsage.REFERENCE, "Subject").getSeverity());
+        // falls back to the severity per classification
+        ValidationMessage message = validator.validateClassification("/libs/deprecatedcc/child", ContentUsage.REFERENCE, "Subject");
+        assertEquals(ValidationMessageSeverity.DEBUG, message.getSeverity());
+        assertTrue(message.getMessage().endsWith(" Remark: Deprecated since Core Components 2.18.0: Reason"), message.getMessage());
+        assertEquals(ValidationMessageSeverity.INFO, validator.validateClassification("/libs/internal", ContentUsage.REFERENCE, "Subject").getSeverity());
+    }
+
+    @Test
+    void testReplacementSuggestion() {
+        classificationMap.put("/libs/granite/ui/components/foundation/form/textfield", ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 6.2: Use Coral 3");
+        classificationMap.put("/libs/granite/ui/components/coral/foundation/form/textfield", ContentClassification.PUBLIC, null);
+        ValidationMessage message = validator.validateClassification("granite/ui/components/foundation/form/textfield", ContentUsage.REFERENCE, "Subject");
+        assertEquals(AemClassificationValidator.extendMessageWithRemark(String.format(AemClassificationValidator.VIOLATION_MESSAGE_STRING, "Subject", ContentUsage.REFERENCE.getLabel(),
+                "granite/ui/components/foundation/form/textfield", ContentClassification.INTERNAL_DEPRECATED_ANNOTATION.getLabel()), "Deprecated since 6.2: Use Coral 3")
+                + " " + String.format(AemClassificationValidator.REPLACEMENT_SUGGESTION_STRING, "/libs/granite/ui/components/coral/foundation/form/textfield"), message.getMessage());
+        // no suggestion for overlays
+        message = validator.validateClassification("/apps/granite/ui/components/foundation/form/textfield", ContentUsage.OVERLAY, "Subject");
+        assertFalse(message.getMessage().contains("replacement"), message.getMessage());
+    }
+
+    @Test
+    void testRelativeResourceTypesContainedInPackage() {
+        assertNotNull(validator.validateClassification("abstract/test", ContentUsage.REFERENCE, "Subject"));
+        // the package itself contains the resource type below /apps
+        assertNull(validator.validate("/apps/abstract/test"));
+        assertNull(validator.validateClassification("abstract/test", ContentUsage.REFERENCE, "Subject"));
+        assertNull(validator.validateClassification("abstract/test", ContentUsage.INHERIT, "Subject"));
+        assertNotNull(validator.validateClassification("abstract/test2", ContentUsage.REFERENCE, "Subject"));
+        assertNotNull(validator.validateClassification("/libs/abstract/test", ContentUsage.REFERENCE, "Subject"));
+
+        // only /libs on the search path
+        validator = AemClassificationValidator.builder(ValidationMessageSeverity.ERROR, classificationMap).withSearchPath(Collections.singletonList("/libs")).build();
+        assertNull(validator.validate("/apps/abstract/test"));
+        assertNotNull(validator.validateClassification("abstract/test", ContentUsage.REFERENCE, "Subject"));
+    }
+
+    @Test
+    void testAdditionalReferenceProperties() {
+        Map<String, ContentUsage> usagePerProperty = new HashMap<>(AemClassificationValidator.DEFAULT_USAGE_PER_PROPERTY);
+        usagePerProperty.put("cq:template", ContentUsage.REFERENCE);
+        usagePerProperty.put("cq:allowedTemplates", ContentUsage.REFERENCE);
+        validator = AemClassificationValidator.builder(ValidationMessageSeverity.ERROR, classificationMap).withUsagePerProperty(usagePerProperty).build();
+        Map<String, DocViewProperty> properties = new LinkedHashMap<>();
+        properties.put("{http://www.day.com/jcr/cq/1.0}template", new DocViewProperty("{http://www.day.com/jcr/cq/1.0}template", new String[] { "/libs/final/template" }, false, PropertyType.STRING));
+        properties.put("{http://www.day.com/jcr/cq/1.0}allowedTemplates", new DocViewProperty("{http://www.day.com/jcr/cq/1.0}allowedTemplates", new String[] { "/libs/public/template", "/libs/internal/template" }, true, PropertyType.STRING));
+        properties.put("{}template", new DocViewProperty("{}template", new String[] { "/libs/internal/template" }, false, PropertyType.STRING));
+        DocViewNode node = new DocViewNode("{}page", "page", null, properties, new String[0], "nt:unstructured");
+        String subject = String.format(AemClassificationValidator.MESSAGE_SUBJECT_NODE, "page");
+        assertEquals(Arrays.asList(validator.validateClassification("/libs/final/template", ContentUsage.REFERENCE, subject),
+                validator.validateClassification("/libs/internal/template", ContentUsage.REFERENCE, subject)),
+                new ArrayList<>(validator.validate(node, "/content/page", Paths.get("/content/page/.content.xml"), false)));
     }
 
     @Test
@@ -116,7 +164,7 @@ class AemClassificationValidatorTest {
                 new ClassificationViolation("/apps/example/test1/test11", 5, 94, usage, "/libs/abstract/test", ContentClassification.ABSTRACT, "abstractremark"),
                 new ClassificationViolation("/apps/example/test1/test12", 6, 88, usage, "abstract/test", ContentClassification.ABSTRACT, "abstractremark"),
                 //new ClassificationViolation("/apps/example/test2", 8, 84,  usage, "/libs/final", ContentClassification.FINAL, "finalremark"),
-                new ClassificationViolation("/apps/example/test2/test21", 9, 91, usage, "/libs/final/test", ContentClassification.INTERNAL_CHILD, "finalremark"),
+                new ClassificationViolation("/apps/example/test2/test21", 9, 91, usage, "/libs/final/test", ContentClassification.INTERNAL_CHILD, "finalremark", "/libs/final"),
                 new ClassificationViolation("/apps/example/test3", 11, 82, usage, "/libs/internal", ContentClassification.INTERNAL, "internalremark"),
                 new ClassificationViolation("/apps/example/test3/test31", 12, 94, usage, "/libs/internal/test", ContentClassification.INTERNAL, "internalremark")
                 //new ClassificationViolation("/apps/example/test4", 14, 1, usage, "/libs/public", ContentClassification.PUBLIC, "publicremark"),
@@ -171,16 +219,44 @@ class AemClassificationValidatorTest {
     @Test
     void testOverlayingViolationsInSimpleFiles()
             throws SAXException, IOException, ParserConfigurationException, URISyntaxException, FileSystemException {
+        // overlays of files are only checked at the end
         assertNull(validator.validate("/apps/abstract"));
         assertNull(validator.validate("/apps/abstract/test11"));
         assertNull(validator.validate("/apps/abstract/test12"));
-        assertEquals(Collections.singleton(getSimpleFileViolationMessage(ValidationMessageSeverity.ERROR, ContentUsage.OVERLAY, "/libs/final", ContentClassification.FINAL, "finalremark")), validator.validate("/apps/final"));
-        assertEquals(Collections.singleton(getSimpleFileViolationMessage(ValidationMessageSeverity.ERROR, ContentUsage.OVERLAY, "/libs/final/test21", ContentClassification.INTERNAL_CHILD, "finalremark")), validator.validate("/apps/final/test21"));
-        assertEquals(Collections.singleton(getSimpleFileViolationMessage(ValidationMessageSeverity.ERROR, ContentUsage.OVERLAY, "/libs/internal", ContentClassification.INTERNAL, "internalremark")), validator.validate("/apps/internal"));
-        assertEquals(Collections.singleton(getSimpleFileViolationMessage(ValidationMessageSeverity.ERROR, ContentUsage.OVERLAY, "/libs/internal/test21",ContentClassification.INTERNAL,  "internalremark")), validator.validate("/apps/internal/test21"));
+        assertNull(validator.validate("/apps/final"));
+        assertNull(validator.validate("/apps/final/test21"));
+        assertNull(validator.validate("/apps/internal"));
+        assertNull(validator.validate("/apps/internal/test21"));
         assertNull(validator.validate("/apps/internal/whitelisted"));
         assertNull(validator.validate("/apps/public"));
         assertNull(validator.validate("/apps/public/test41"));
+        assertNull(validator.validate("/apps/final"));
+        assertNull(validator.validate("/content/final"));
+        List<ValidationMessage> expectedMessages = new ArrayList<>();
+        expectedMessages.add(getDeferredOverlayViolationMessage(ValidationMessageSeverity.ERROR, "/apps/final", "/libs/final", ContentClassification.FINAL, "finalremark"));
+        expectedMessages.add(getDeferredOverlayViolationMessage(ValidationMessageSeverity.ERROR, "/apps/final/test21", "/libs/final/test21", ContentClassification.INTERNAL_CHILD, "finalremark"));
+        expectedMessages.add(getDeferredOverlayViolationMessage(ValidationMessageSeverity.ERROR, "/apps/internal", "/libs/internal", ContentClassification.INTERNAL, "internalremark"));
+        expectedMessages.add(getDeferredOverlayViolationMessage(ValidationMessageSeverity.ERROR, "/apps/internal/test21", "/libs/internal/test21", ContentClassification.INTERNAL, "internalremark"));
+        expectedMessages.add(new ValidationMessage(ValidationMessageSeverity.INFO, "Successfully checked against classification maps: 1.0.0 (5 entries)"));
+        assertEquals(expectedMessages, new ArrayList<>(validator.done()));
+        // deferred paths are only checked once
+        assertEquals(expectedMessages.subList(4, 5), new ArrayList<>(validator.done()));
+    }
+
+    @Test
+    void testOverlayingViolationsInSimpleFilesAlreadyReportedForDocviewNode() throws IOException, ParserConfigurationException, SAXException {
+        assertJcrDocViewValidationMessages(validator, OVERLAY_DOCVIEW_PATH, "/overlaying.xml",
+                new ClassificationViolation("/apps/final", 8, 46, ContentUsage.OVERLAY, "/libs/final", ContentClassification.FINAL, "finalremark"),
+                new ClassificationViolation("/apps/final/test21", 9, 53, ContentUsage.OVERLAY, "/libs/final/test21", ContentClassification.INTERNAL_CHILD, "finalremark"),
+                new ClassificationViolation("/apps/internal", 11, 49, ContentUsage.OVERLAY, "/libs/internal", ContentClassification.INTERNAL, "internalremark"),
+                new ClassificationViolation("/apps/internal/test31", 12, 53, ContentUsage.OVERLAY, "/libs/internal/test31", ContentClassification.INTERNAL, "internalremark")
+           );
+        assertNull(validator.validate("/apps/final"));
+        assertNull(validator.validate("/apps/internal/test32"));
+        assertEquals(Arrays.asList(
+                getDeferredOverlayViolationMessage(ValidationMessageSeverity.ERROR, "/apps/internal/test32", "/libs/internal/test32", ContentClassification.INTERNAL, "internalremark"),
+                new ValidationMessage(ValidationMessageSeverity.INFO, "Successfully checked against classification maps: 1.0.0 (5 entries)")),
+                new ArrayList<>(validator.done()));
     }
 
     @Test
@@ -206,6 +282,164 @@ class AemClassificationValidatorTest {
         }
     }
 
+    @Test
+    void testRelativeIncludeNextToHtlScript(@TempDir Path tempDir) throws IOException {
+        Path packageFile = tempDir.resolve("package.zip");
+        try (OutputStream output = Files.newOutputStream(packageFile);
+             ZipOutputStream zipOutput = new ZipOutputStream(output)) {
+            zipOutput.putNextEntry(new ZipEntry("jcr_root/apps/mytest/components/comp/comp.html"));
+            zipOutput.putNextEntry(new ZipEntry("jcr_root/apps/mytest/components/comp/internal/item.html"));
+            zipOutput.putNextEntry(new ZipEntry("jcr_root/apps/mytest/components/other/other.html"));
+        }
+        validator.addNodePathsOfPackage(packageFile);
+        String htl = "<div data-sly-include=\"internal/item.html\"></div><div data-sly-use.lib=\"./internal/../internal/item.html\" data-sly-call=\"${lib.item}\"></div>";
+        // resolved against the folder of the script
+        assertEquals(Collections.emptyList(), validator.validateJcrData(new ByteArrayInputStream(htl.getBytes(StandardCharsets.UTF_8)),
+                Paths.get("apps/mytest/components/comp/comp.html"), new HashMap<>()));
+        htl = "<div data-sly-include=\"../comp/internal/item.html\"></div>";
+        assertEquals(Collections.emptyList(), validator.validateJcrData(new ByteArrayInputStream(htl.getBytes(StandardCharsets.UTF_8)),
+                Paths.get("apps/mytest/components/other/other.html"), new HashMap<>()));
+        // not contained in the package, therefore not evaluated (instead of being resolved against /libs)
+        htl = "<div data-sly-include=\"internal/item.html\"></div><div data-sly-include=\"../../../../internal/item.html\"></div>";
+        assertEquals(Collections.emptyList(), validator.validateJcrData(new ByteArrayInputStream(htl.getBytes(StandardCharsets.UTF_8)),
+                Paths.get("apps/mytest/components/other/other.html"), new HashMap<>()));
+        // absolute paths are normalized
+        htl = "<div data-sly-include=\"/libs/final/../internal/./item.html\"></div>";
+        assertEquals(Collections.singletonList(getSimpleFileViolationMessage(ValidationMessageSeverity.ERROR, ContentUsage.REFERENCE, "/libs/internal/item.html", ContentClassification.INTERNAL, "internalremark")),
+                validator.validateJcrData(new ByteArrayInputStream(htl.getBytes(StandardCharsets.UTF_8)), Paths.get("apps/mytest/components/other/other.html"), new HashMap<>()));
+    }
+
+    @Test
+    void testReferencingViolationsInJsonAndXml() throws IOException {
+        assertTrue(validator.shouldValidateJcrData(Paths.get("/apps/mytest/component/componentA/preset.json")));
+        assertTrue(validator.shouldValidateJcrData(Paths.get("/apps/mytest/component/componentA/_cq_dialog/.content.xml")));
+        assertFalse(validator.shouldValidateJcrData(Paths.get("/apps/mytest/component/whitelisted/whitelisted.jsp")));
+
+        String json = "{\"sling:resourceType\":\"/libs/internal/a\", \"child\":{\"sling:resourceSuperType\":\"public/b\"}}";
+        assertEquals(Collections.singletonList(getSimpleFileViolationMessage(ValidationMessageSeverity.ERROR, ContentUsage.REFERENCE, "/libs/internal/a", ContentClassification.INTERNAL, "internalremark")),
+                validator.validateJcrData(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), Paths.get("/apps/mytest/preset.json"), new HashMap<>()));
+
+        String xml = "<config xmlns:sling=\"http://sling.apache.org/jcr/sling/1.0\"><item sling:resourceSuperType=\"final\"/></config>";
+        assertEquals(Collections.singletonList(getSimpleFileViolationMessage(ValidationMessageSeverity.ERROR, ContentUsage.INHERIT, "final", ContentClassification.FINAL, "finalremark")),
+                validator.validateJcrData(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), Paths.get("/apps/mytest/config.xml"), new HashMap<>()));
+
+        // DocView files are validated node by node
+        String docView = "<jcr:root xmlns:jcr=\"http://www.jcp.org/jcr/1.0\" xmlns:sling=\"http://sling.apache.org/jcr/sling/1.0\" sling:resourceType=\"/libs/internal/a\"/>";
+        assertEquals(Collections.emptyList(), validator.validateJcrData(new ByteArrayInputStream(docView.getBytes(StandardCharsets.UTF_8)), Paths.get("/apps/mytest/.content.xml"), new HashMap<>()));
+
+        // malformed files are only logged as they are not necessarily content files
+        assertEquals(Collections.emptyList(), validator.validateJcrData(new ByteArrayInputStream("{\"sling:resourceType\":invalid}".getBytes(StandardCharsets.UTF_8)),
+                Paths.get("/apps/mytest/invalid.json"), new HashMap<>()));
+        assertEquals(Collections.emptyList(), validator.validateJcrData(new ByteArrayInputStream("<config><unclosed></config>".getBytes(StandardCharsets.UTF_8)),
+                Paths.get("/apps/mytest/invalid.xml"), new HashMap<>()));
+    }
+
+    @Test
+    void testReferencingViolationsInBundles() throws IOException {
+        assertTrue(validator.shouldValidateJcrData(Paths.get("/apps/mytest/install/bundle.jar")));
+        byte[] classFile;
+        try (InputStream input = SlingModel.class.getClassLoader().getResourceAsStream(SlingModel.class.getName().replace('.', '/') + ".class");
+             ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = input.read(buffer)) != -1) {
+                output.write(buffer, 0, length);
+            }
+            classFile = output.toByteArray();
+        }
+        // bundles are scanned while being streamed, their bindings are evaluated in done()
+        assertNull(validator.validateJcrData(new ByteArrayInputStream(createJar("com/example/Model.class", classFile)), Paths.get("/apps/mytest/install/bundle.jar"), new HashMap<>()));
+        List<ValidationMessage> messages = new ArrayList<>(validator.validateJcrData(new ByteArrayInputStream(createJar("com/example/Invalid.class", new byte[] { 1, 2, 3, 4 })),
+                Paths.get("/apps/mytest/install/invalid.jar"), new HashMap<>()));
+        assertEquals(1, messages.size());
+        assertEquals(ValidationMessageSeverity.WARN, messages.get(0).getSeverity());
+        assertTrue(messages.get(0).getMessage().startsWith("Could not scan bundle"), messages.get(0).getMessage());
+        messages = new ArrayList<>(validator.done());
+        assertEquals(2, messages.size());
+        String subject = String.format(AemClassificationValidator.MESSAGE_SUBJECT_BUNDLE_CLASS, SlingModel.class.getName(), Paths.get("/apps/mytest/install/bundle.jar"));
+        assertEquals(new ValidationMessage(ValidationMessageSeverity.ERROR, AemClassificationValidator.extendMessageWithRemark(String.format(AemClassificationValidator.VIOLATION_MESSAGE_STRING, subject,
+                ContentUsage.REFERENCE.getLabel(), "/libs/internal/model", ContentClassification.INTERNAL.getLabel()), "internalremark")), messages.get(0));
+    }
+
+    @Test
+    void testMaxViolations() throws IOException, ParserConfigurationException, SAXException {
+        validator = AemClassificationValidator.builder(ValidationMessageSeverity.ERROR, classificationMap).withViolationBudget(new ViolationBudget(null, 2)).build();
+        // the references of scripts count against the budget right away
+        try (InputStream input = this.getClass().getClassLoader().getResourceAsStream("htl-example.html")) {
+            assertEquals(Collections.singletonList(getSimpleFileViolationMessage(ValidationMessageSeverity.ERROR, ContentUsage.REFERENCE, "/libs/abstract/test",  ContentClassification.ABSTRACT, "abstractremark")),
+                    validator.validateJcrData(input, SIMPLEFILE_HTL_PATH, new HashMap<String, Integer>()));
+        }
+        // therefore the first DocView node exhausts the budget
+        assertJcrDocViewValidationMessages(validator, EXAMPLE_DOCVIEW_PATH, "/referencing.xml",
+                new ClassificationViolation("/apps/example/test1", 4, 82,  ContentUsage.REFERENCE, "/libs/abstract", ContentClassification.ABSTRACT, "abstractremark"));
+        assertFalse(validator.shouldValidateJcrData(SIMPLEFILE_JSP_PATH));
+        assertNull(validator.validate("/apps/internal"));
+        List<ValidationMessage> messages = new ArrayList<>(validator.done());
+        assertEquals(2, messages.size());
+        assertEquals(ValidationMessageSeverity.WARN, messages.get(0).getSeverity());
+        assertTrue(messages.get(0).getMessage().startsWith("Validation stopped after 2 violation(s)"), messages.get(0).getMessage());
+    }
+
+    @Test
+    void testMaxViolationsExhaustedByReferences() throws IOException {
+        validator = AemClassificationValidator.builder(ValidationMessageSeverity.ERROR, classificationMap).withViolationBudget(new ViolationBudget(null, 1)).build();
+        String json = "{\"sling:resourceType\":\"/libs/internal/a\", \"child\":{\"sling:resourceType\":\"/libs/internal/b\"}}";
+        assertEquals(Collections.singletonList(getSimpleFileViolationMessage(ValidationMessageSeverity.ERROR, ContentUsage.REFERENCE, "/libs/internal/a", ContentClassification.INTERNAL, "internalremark")),
+                validator.validateJcrData(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), Paths.get("/apps/mytest/preset.json"), new HashMap<>()));
+        // all further files are skipped
+        assertFalse(validator.shouldValidateJcrData(SIMPLEFILE_HTL_PATH));
+        assertNull(validator.validate("/apps/internal"));
+        List<ValidationMessage> messages = new ArrayList<>(validator.done());
+        assertEquals(2, messages.size());
+        assertTrue(messages.get(0).getMessage().startsWith("Validation stopped after 1 violation(s)"), messages.get(0).getMessage());
+    }
+
+    @Test
+    void testFailFastSeverity() throws IOException {
+        validator = AemClassificationValidator.builder(ValidationMessageSeverity.ERROR, classificationMap)
+                .withSeverityPerClassification(Collections.singletonMap(ContentClassification.FINAL, ValidationMessageSeverity.WARN))
+                .withViolationBudget(new ViolationBudget(ValidationMessageSeverity.ERROR, 0)).build();
+        String xml = "<config xmlns:sling=\"http://sling.apache.org/jcr/sling/1.0\"><item sling:resourceSuperType=\"/libs/final\"/></config>";
+        // the warning does not stop the validation, the first error does
+        assertEquals(Collections.singletonList(getSimpleFileViolationMessage(ValidationMessageSeverity.WARN, ContentUsage.INHERIT, "/libs/final", ContentClassification.FINAL, "finalremark")),
+                validator.validateJcrData(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), Paths.get("/apps/mytest/config.xml"), new HashMap<>()));
+        try (InputStream input = this.getClass().getClassLoader().getResourceAsStream("htl-example.html")) {
+            assertEquals(Collections.singletonList(getSimpleFileViolationMessage(ValidationMessageSeverity.ERROR, ContentUsage.REFERENCE, "/libs/abstract/test",  ContentClassification.ABSTRACT, "abstractremark")),
+                    validator.validateJcrData(input, SIMPLEFILE_HTL_PATH, new HashMap<String, Integer>()));
+        }
+        assertFalse(validator.shouldValidateJcrData(SIMPLEFILE_JSP_PATH));
+        List<ValidationMessage> messages = new ArrayList<>(validator.done());
+        assertEquals(2, messages.size());
+        assertTrue(messages.get(0).getMessage().startsWith("Validation stopped after 2 violation(s)"), messages.get(0).getMessage());
+    }
+
+    @Test
+    void testValidationScope() throws IOException, ParserConfigurationException, SAXException {
+        ValidationScope scope = ValidationScope.ofChangedPaths(Arrays.asList("ui.apps/src/main/content/jcr_root/apps/example/.content.xml",
+                "ui.apps/src/main/content/jcr_root/apps/internal/test21"));
+        validator = AemClassificationValidator.builder(ValidationMessageSeverity.ERROR, classificationMap).withValidationScope(scope).build();
+        // unchanged files are skipped
+        assertFalse(validator.shouldValidateJcrData(SIMPLEFILE_HTL_PATH));
+        assertEquals(0, validateJcrDocView(validator, "myid", "/referencing.xml", Paths.get("/apps/other/.content.xml")).size());
+        assertEquals(6, validateJcrDocView(validator, "myid", "/referencing.xml", EXAMPLE_DOCVIEW_PATH).size());
+        assertNull(validator.validate("/apps/final"));
+        assertNull(validator.validate("/apps/internal/test21"));
+        assertEquals(Arrays.asList(
+                getDeferredOverlayViolationMessage(ValidationMessageSeverity.ERROR, "/apps/internal/test21", "/libs/internal/test21", ContentClassification.INTERNAL, "internalremark"),
+                new ValidationMessage(ValidationMessageSeverity.INFO, "Successfully checked against classification maps: 1.0.0 (5 entries)")),
+                new ArrayList<>(validator.done()));
+    }
+
+    private static byte[] createJar(String entryName, byte[] content) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutput = new ZipOutputStream(output)) {
+            zipOutput.putNextEntry(new ZipEntry(entryName));
+            zipOutput.write(content);
+            zipOutput.closeEntry();
+        }
+        return output.toByteArray();
+    }
+
     @Test
     void testJcrExpandedFormNameToReadableFormat() {
         assertEquals("test", AemClassificationValidator.jcrExpandedFormNameToReadableFormat("test"));
@@ -222,9 +456,15 @@ class AemClassificationValidatorTest {
         private final String targetResourceType;
         private final ContentClassification classification;
         private final String remark;
+        private final String replacement;
 
         ClassificationViolation(String nodePath, int line, int column, ContentUsage usage, String targetResourceType, ContentClassification classification,
                 String remark) {
+            this(nodePath, line, column, usage, targetResourceType, classification, remark, null);
+        }
+
+        ClassificationViolation(String nodePath, int line, int column, ContentUsage usage, String targetResourceType, ContentClassification classification,
+                String remark, String replacement) {
             super();
             this.nodePath = nodePath;
             this.line = line;
@@ -233,6 +473,7 @@ class AemClassificationValidatorTest {
             this.targetResourceType = targetResourceType;
             this.classification = classification;
             this.remark = remark;
+            this.replacement = replacement;
             this.name = Text.getName(nodePath);
         }
     }
@@ -241,7 +482,7 @@ class AemClassificationValidatorTest {
         Collection<ValidationMessage> actualMessages = validateJcrDocView(validator, "myid", name, path);
         Collection<ValidationViolation> expectedMessages = Arrays.stream(violations).map(a ->
             ValidationViolation.wrapMessage("myid",
-                    getDocviewViolationMessage(ValidationMessageSeverity.ERROR, a.name, a.usage, a.targetResourceType, a.classification, a.remark),
+                    getDocviewViolationMessage(ValidationMessageSeverity.ERROR, a.name, a.usage, a.targetResourceType, a.classification, a.remark, a.replacement),
                     path, Paths.get(""), a.nodePath, a.line, a.column)).collect(Collectors.toList());
 
         assertEquals(expectedMessages, actualMessages);
@@ -262,10 +503,22 @@ class AemClassificationValidatorTest {
     static final String DOCVIEW_VIOLATION_MESSAGE_STRING = "Element with name \"%s\" %s resource '%s' which is marked as '%s'. It therefore violates the content classification!";
     static final String SIMPLEFILE_VIOLATION_MESSAGE_STRING = "This file %s resource '%s' which is marked as '%s'. It therefore violates the content classification!";
     static @NotNull ValidationMessage getDocviewViolationMessage(ValidationMessageSeverity severity, String label, ContentUsage usage, String targetResourceType, ContentClassification classification, String remark) {
+        return getDocviewViolationMessage(severity, label, usage, targetResourceType, classification, remark, null);
+    }
+
+    static @NotNull ValidationMessage getDocviewViolationMessage(ValidationMessageSeverity severity, String label, ContentUsage usage, String targetResourceType, ContentClassification classification, String remark, String replacement) {
         String message = AemClassificationValidator.extendMessageWithRemark(String.format(DOCVIEW_VIOLATION_MESSAGE_STRING, label, usage.getLabel(), targetResourceType, classification.getLabel()), remark);
+        if (replacement != null) {
+            message += " " + String.format(AemClassificationValidator.REPLACEMENT_SUGGESTION_STRING, replacement);
+        }
         return new ValidationMessage(severity, message);
     }
 
+    static @NotNull ValidationMessage getDeferredOverlayViolationMessage(ValidationMessageSeverity severity, String path, String resourceType, ContentClassification classification, String remark) {
+        String subject = String.format(AemClassificationValidator.MESSAGE_SUBJECT_NODE_PATH, path);
+        return new ValidationMessage(severity, AemClassificationValidator.extendMessageWithRemark(String.format(AemClassificationValidator.VIOLATION_MESSAGE_STRING, subject, ContentUsage.OVERLAY.getLabel(), resourceType, classification.getLabel()), remark));
+    }
+
     static @NotNull ValidationMessage  getSimpleFileViolationMessage(ValidationMessageSeverity severity, ContentUsage usage, String resourceType, ContentClassification classification, String remark) {
         return new ValidationMessage(severity, AemClassificationValidator.extendMessageWithRemark(String.format(SIMPLEFILE_VIOLATION_MESSAGE_STRING, usage.getLabel(), resourceType, classification.getLabel()), remark));
     }
@@ -0,0 +1,118 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import biz.netcentric.filevault.validator.aem.classification.HtlScriptScanner.HtlExpression;
+
+class HtlScriptScannerTest {
+
+    @Test
+    void testResourceType() throws IOException {
+        // use single quotes in expression string literals
+        assertEquals(Collections.emptyList(), scan("<article data-sly-resource=\"${ @ path='path/to/resource'}\"></article>"));
+        assertEquals(Collections.emptyList(), scan("<article data-sly-resource=\"${ @ path='path/to/resource',removeSelectors}\"></article>"));
+        assertEquals(Collections.singletonList("resourceType"), scan("<article data-sly-resource=\"${'resource' @ resourceType='resourceType'}\">"));
+        assertEquals(Collections.singletonList("resourceType"), scan("<article data-sly-resource=\"${ @ path='path/to/resource',removeSelectors, resourceType  =  'resourceType'}\"></article>"));
+        assertEquals(Collections.singletonList("resourceType"), scan("<article data-sly-resource=\"${ @ path='path/to/resource',removeSelectors, resourceType= 'resourceType', someOtherOption}\">"));
+
+        // use double quotes in expression string literals
+        assertEquals(Collections.singletonList("resourceType"), scan("<article data-sly-resource='${\"resource\" @ resourceType=\"resourceType\"}'>"));
+        assertEquals(Collections.singletonList("resourceType"), scan("<article data-sly-resource='${ @ path=\"path/to/resource\",removeSelectors, resourceType  =  \"resourceType\"}'></article>"));
+        assertEquals(Collections.singletonList("resourceType"), scan("<article data-sly-resource='${ @ path=\"path/to/resource\",removeSelectors, resourceType= \"resourceType\", someOtherOption}'>"));
+
+        // no quotes around attribute value
+        assertEquals(Collections.singletonList("resourceType"), scan("<article data-sly-resource=${'resource'@resourceType='resourceType'}>"));
+        assertEquals(Collections.singletonList("resourceType"), scan("<article data-sly-resource=${ @ path=\"path/to/resource\",removeSelectors,resourceType=\"resourceType\"}></article>"));
+
+        // non-literal resource types are not evaluated
+        assertEquals(Collections.emptyList(), scan("<article data-sly-resource=\"${'resource' @ resourceType=properties.type}\"></article>"));
+        assertEquals(Collections.emptyList(), scan("<article data-sly-resource=\"${'resource' @ resourceType='/libs/' + properties.type}\"></article>"));
+    }
+
+    @Test
+    void testIncludeUseAndCall() throws IOException {
+        String htl = "<!DOCTYPE html>\n"
+                + "<div data-sly-include=\"/libs/include/script.html\" class=\"a\"></div>\n"
+                + "<div data-sly-include=\"${'include/script2.html' @ wcmmode='disabled'}\"></div>\n"
+                + "<div data-sly-include=\"partial.html\" data-sly-include=\"${properties.script}\"></div>\n"
+                + "<!--/* <div data-sly-include=\"/libs/commented.html\"></div> -- > */-->\n"
+                + "<sly data-sly-call=\"${Templates.render @ title='a'}\" data-sly-use.templates=\"/libs/use/templates.html\"/>\n"
+                + "<sly data-sly-use.unused=\"/libs/use/unused.html\" data-sly-use.model=\"com.example.Model\" data-sly-use.logic=\"/libs/use/logic.js\"/>\n"
+                + "<sly data-sly-call=\"${unknown.render}\"/>\n"
+                + "<sly\n  DATA-SLY-INCLUDE = '/libs/include/multiline.html'\n/>";
+        assertEquals(Arrays.asList("/libs/include/script.html", "include/script2.html", "/libs/use/logic.js", "/libs/include/multiline.html", "/libs/use/templates.html"), scan(htl));
+    }
+
+    @Test
+    void testRepeatedCalls() throws IOException {
+        String htl = "<sly data-sly-use.templates=\"/libs/use/templates.html\" data-sly-use.other=\"/libs/use/templates.html\"/>\n"
+                + "<sly data-sly-call=\"${templates.render @ title='a'}\"/>\n"
+                + "<sly data-sly-call=\"${templates.render @ title='b'}\"/>\n"
+                + "<sly data-sly-call=\"${Templates.footer}\"/>\n"
+                + "<sly data-sly-call=\"${other.render}\"/>";
+        assertEquals(Collections.singletonList("/libs/use/templates.html"), scan(htl));
+    }
+
+    @Test
+    void testExpression() {
+        HtlExpression expression = HtlExpression.parse("${'literal' @ a='b', c=d, e='f' + g, flag}");
+        assertEquals("literal", expression.getLiteral());
+        assertNull(expression.getIdentifier());
+        assertEquals("b", expression.getOption("a"));
+        assertNull(expression.getOption("c"));
+        assertNull(expression.getOption("e"));
+        expression = HtlExpression.parse("prefix ${lib.template @ a=[1, 'x'], b = 'it\\'s'}");
+        assertNull(expression.getLiteral());
+        assertEquals("lib.template", expression.getIdentifier());
+        assertEquals("it's", expression.getOption("b"));
+        expression = HtlExpression.parse("${a ? 'x' : 'y'}");
+        assertNull(expression.getLiteral());
+        assertNull(expression.getIdentifier());
+        assertNull(HtlExpression.parse("no expression"));
+    }
+
+    @Test
+    void testScriptPathResolver() throws IOException {
+        String htl = "<div data-sly-include=\"partials/item.html\"></div>\n"
+                + "<div data-sly-use.lib=\"partials/lib.html\" data-sly-call=\"${lib.item}\"></div>\n"
+                + "<div data-sly-resource=\"${'child' @ resourceType='my/component'}\"></div>";
+        List<String> resourceTypes = new ArrayList<>();
+        HtlScriptScanner.scan(new ByteArrayInputStream(htl.getBytes(StandardCharsets.UTF_8)), scriptPath -> "/apps/my/component/" + scriptPath,
+                (resourceType, usage) -> resourceTypes.add(resourceType));
+        // resource types are not resolved as scripts
+        assertEquals(Arrays.asList("/apps/my/component/partials/item.html", "my/component", "/apps/my/component/partials/lib.html"), resourceTypes);
+    }
+
+    private static List<String> scan(String htl) throws IOException {
+        List<String> resourceTypes = new ArrayList<>();
+        HtlScriptScanner.scan(new ByteArrayInputStream(htl.getBytes(StandardCharsets.UTF_8)), (resourceType, usage) -> {
+            assertEquals(ContentUsage.REFERENCE, usage);
+            resourceTypes.add(resourceType);
+        });
+        return resourceTypes;
+    }
+}
@@ -0,0 +1,77 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class JsonContentScannerTest {
+
+    @Test
+    void testScan() throws IOException {
+        Map<String, ContentUsage> usagePerProperty = new LinkedHashMap<>(PropertyUsageTable.DEFAULT_USAGE_PER_PROPERTY);
+        usagePerProperty.put("cq:template", ContentUsage.REFERENCE);
+        JsonContentScanner scanner = new JsonContentScanner(new PropertyUsageTable(usagePerProperty));
+        String json = "{\"jcr:primaryType\":\"nt:unstructured\", \"sling:resourceType\":\"/libs/a\", \"sling:resourceSuperType\":\"b\",\n"
+                + " \"child\":{\"sling:resourceType\":[\"/libs/c\", 1, {\"sling:resourceType\":\"/libs/ignored\"}, \"/libs/d\"], \"cq:template\":\"/libs/e\", \"cq:templates\":\"/libs/ignored\"},\n"
+                + " \"array\":[{\"sling:resourceType\":\"/libs/f\"}], \"sling:resourceType2\":\"/libs/ignored\", \"value\":\"sling:resourceType\"}";
+        assertEquals(Arrays.asList(new SimpleEntry<>("/libs/a", ContentUsage.REFERENCE), new SimpleEntry<>("b", ContentUsage.INHERIT),
+                new SimpleEntry<>("/libs/c", ContentUsage.REFERENCE), new SimpleEntry<>("/libs/d", ContentUsage.REFERENCE), new SimpleEntry<>("/libs/e", ContentUsage.REFERENCE),
+                new SimpleEntry<>("/libs/f", ContentUsage.REFERENCE)), scan(scanner, json));
+    }
+
+    @Test
+    void testScanMalformed() {
+        JsonContentScanner scanner = new JsonContentScanner(new PropertyUsageTable(PropertyUsageTable.DEFAULT_USAGE_PER_PROPERTY));
+        assertThrows(IOException.class, () -> scan(scanner, "{\"sling:resourceType\":[\"/libs/a\""));
+        assertThrows(IOException.class, () -> scan(scanner, "{\"sling:resourceType\":invalid}"));
+    }
+
+    @Test
+    void testScanDoesNotCloseInput() throws IOException {
+        JsonContentScanner scanner = new JsonContentScanner(new PropertyUsageTable(PropertyUsageTable.DEFAULT_USAGE_PER_PROPERTY));
+        AtomicBoolean isClosed = new AtomicBoolean();
+        InputStream input = new ByteArrayInputStream("{\"sling:resourceType\":\"/libs/a\"}".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() throws IOException {
+                isClosed.set(true);
+                super.close();
+            }
+        };
+        scanner.scan(input, (resourceType, usage) -> {});
+        assertFalse(isClosed.get());
+    }
+
+    private static List<Entry<String, ContentUsage>> scan(JsonContentScanner scanner, String json) throws IOException {
+        List<Entry<String, ContentUsage>> resources = new ArrayList<>();
+        scanner.scan(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), (resourceType, usage) -> resources.add(new SimpleEntry<>(resourceType, usage)));
+        return resources;
+    }
+}
@@ -0,0 +1,66 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.jackrabbit.spi.commons.name.NameFactoryImpl;
+import org.junit.jupiter.api.Test;
+
+class PropertyUsageTableTest {
+
+    private static final String CQ_NAMESPACE_URI = "http://www.day.com/jcr/cq/1.0";
+
+    @Test
+    void testToExpandedName() {
+        assertEquals(NameFactoryImpl.getInstance().create("http://sling.apache.org/jcr/sling/1.0", "resourceType").toString(), PropertyUsageTable.toExpandedName("sling:resourceType"));
+        assertEquals(NameFactoryImpl.getInstance().create(CQ_NAMESPACE_URI, "template").toString(), PropertyUsageTable.toExpandedName("cq:template"));
+        assertEquals(NameFactoryImpl.getInstance().create("", "path").toString(), PropertyUsageTable.toExpandedName("path"));
+        assertEquals("{http://example.com/ns}name", PropertyUsageTable.toExpandedName("{http://example.com/ns}name"));
+        assertThrows(IllegalArgumentException.class, () -> PropertyUsageTable.toExpandedName("unknown:name"));
+    }
+
+    @Test
+    void testGetUsage() {
+        Map<String, ContentUsage> usagePerProperty = new HashMap<>(PropertyUsageTable.DEFAULT_USAGE_PER_PROPERTY);
+        usagePerProperty.put("cq:template", ContentUsage.REFERENCE);
+        PropertyUsageTable table = new PropertyUsageTable(usagePerProperty);
+        assertEquals(ContentUsage.REFERENCE, table.getUsage("{http://sling.apache.org/jcr/sling/1.0}resourceType"));
+        assertEquals(ContentUsage.INHERIT, table.getUsage("{http://sling.apache.org/jcr/sling/1.0}resourceSuperType"));
+        assertEquals(ContentUsage.REFERENCE, table.getUsage("{" + CQ_NAMESPACE_URI + "}template"));
+        assertNull(table.getUsage("{}template"));
+        assertEquals(ContentUsage.REFERENCE, table.getUsage("http://sling.apache.org/jcr/sling/1.0", "resourceType"));
+        assertNull(table.getUsage("", "resourceType"));
+        assertThrows(IllegalArgumentException.class, () -> new PropertyUsageTable(Collections.singletonMap("cq:template", ContentUsage.OVERLAY)));
+    }
+
+    @Test
+    void testGetUsagePerQualifiedPropertyName() {
+        Map<String, ContentUsage> usagePerProperty = new LinkedHashMap<>(PropertyUsageTable.DEFAULT_USAGE_PER_PROPERTY);
+        usagePerProperty.put("{" + CQ_NAMESPACE_URI + "}template", ContentUsage.REFERENCE);
+        usagePerProperty.put("path", ContentUsage.REFERENCE);
+        usagePerProperty.put("{http://example.com/ns}name", ContentUsage.REFERENCE);
+        Map<String, ContentUsage> expectedUsagePerQualifiedPropertyName = new LinkedHashMap<>(PropertyUsageTable.DEFAULT_USAGE_PER_PROPERTY);
+        expectedUsagePerQualifiedPropertyName.put("cq:template", ContentUsage.REFERENCE);
+        expectedUsagePerQualifiedPropertyName.put("path", ContentUsage.REFERENCE);
+        assertEquals(expectedUsagePerQualifiedPropertyName, new PropertyUsageTable(usagePerProperty).getUsagePerQualifiedPropertyName());
+    }
+}
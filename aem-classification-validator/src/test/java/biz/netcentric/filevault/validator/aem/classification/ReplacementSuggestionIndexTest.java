@@ -0,0 +1,116 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import biz.netcentric.filevault.validator.aem.classification.map.MutableContentClassificationMapImpl;
+
+class ReplacementSuggestionIndexTest {
+
+    private static final Path SHIPPED_MAP = Paths.get("../aem-classification-maps/aem-classification-map-repo-annotations/src/main/resources/biz/netcentric/filevault/validator/maps/aem-classification-map-repo-annotations.map");
+
+    @Test
+    void testSuggest() {
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("1.0");
+        map.put("/", ContentClassification.PUBLIC, null);
+        map.put("/libs/granite/ui/components/foundation/form/textfield", ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 6.2");
+        map.put("/libs/granite/ui/components/foundation/form/pathbrowser", ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 6.2");
+        map.put("/libs/granite/ui/components/coral/foundation/form/textfield", ContentClassification.PUBLIC, null);
+        map.put("/libs/granite/ui/components/coral/foundation/form/textarea", ContentClassification.PUBLIC, null);
+        map.put("/libs/granite/ui/components/coral/foundation/form/pathfield", ContentClassification.PUBLIC, null);
+        map.put("/libs/wcm/foundation/components/basicpage/v1/basicpage", ContentClassification.ABSTRACT, null);
+        map.put("/libs/wcm/foundation/components/page", ContentClassification.ABSTRACT, null);
+        map.put("/libs/other/form/textfield", ContentClassification.INTERNAL, null);
+        map.put("/libs/unrelated/textfield", ContentClassification.PUBLIC, null);
+        map.put("/libs/granite/ui/components/coral/foundation/form/select", ContentClassification.FINAL, null);
+        ReplacementSuggestionIndex index = new ReplacementSuggestionIndex(map);
+        assertEquals(7, index.size());
+
+        // same leaf name with the most shared bigrams
+        assertEquals("/libs/granite/ui/components/coral/foundation/form/textfield",
+                index.suggest("/libs/granite/ui/components/foundation/form/textfield", ContentUsage.REFERENCE));
+        assertEquals("/libs/granite/ui/components/coral/foundation/form/textfield", index.suggest("/libs/other/form/textfield", ContentUsage.REFERENCE));
+        // similar path with a different leaf name
+        assertEquals("/libs/granite/ui/components/coral/foundation/form/pathfield",
+                index.suggest("/libs/granite/ui/components/coral/foundation/form/pathbrowser", ContentUsage.REFERENCE));
+        // final entries may only be referenced
+        assertEquals("/libs/granite/ui/components/coral/foundation/form/select", index.suggest("/libs/granite/ui/components/foundation/form/select", ContentUsage.REFERENCE));
+        assertEquals("/libs/granite/ui/components/coral/foundation/form/textarea", index.suggest("/libs/granite/ui/components/foundation/form/select", ContentUsage.INHERIT));
+        // abstract entries may only be inherited
+        assertEquals("/libs/wcm/foundation/components/basicpage/v1/basicpage", index.suggest("/libs/wcm/foundation/components/basicpage/v1/internal", ContentUsage.INHERIT));
+        assertNull(index.suggest("/libs/wcm/foundation/components/basicpage/v1/internal", ContentUsage.REFERENCE));
+        assertNull(index.suggest("/libs/cq/gui/components/unknown", ContentUsage.REFERENCE));
+        assertNull(index.suggest("/", ContentUsage.REFERENCE));
+    }
+
+    @Test
+    void testSuggestWithShippedMap() throws IOException {
+        MutableContentClassificationMapImpl map = loadShippedMap();
+        assertSuggestionsOfShippedMap(new ReplacementSuggestionIndex(map));
+    }
+
+    @Test
+    void testSuggestWithMinimizedShippedMap() throws IOException {
+        MutableContentClassificationMapImpl map = loadShippedMap();
+        // redundant with the final parent entry
+        map.put("/libs/granite/ui/components/coral/foundation/form/textfield/child", ContentClassification.INTERNAL_CHILD, null);
+        assertTrue(map.minimize() > 0);
+        assertSuggestionsOfShippedMap(new ReplacementSuggestionIndex(map));
+    }
+
+    private static MutableContentClassificationMapImpl loadShippedMap() throws IOException {
+        assumeTrue(Files.isRegularFile(SHIPPED_MAP), "The shipped map is not available at " + SHIPPED_MAP.toAbsolutePath());
+        try (InputStream input = Files.newInputStream(SHIPPED_MAP)) {
+            return new MutableContentClassificationMapImpl(input, SHIPPED_MAP.getFileName().toString());
+        }
+    }
+
+    private static void assertSuggestionsOfShippedMap(ReplacementSuggestionIndex index) {
+        // the replacement is final there, i.e. it may be referenced but not inherited from
+        assertEquals("/libs/granite/ui/components/coral/foundation/form/textfield",
+                index.suggest("/libs/granite/ui/components/foundation/form/textfield", ContentUsage.REFERENCE));
+        assertEquals("/libs/granite/ui/components/coral/foundation/form/textfield",
+                index.suggest("/libs/granite/ui/components/coral/foundation/form/textfield/readonly", ContentUsage.REFERENCE));
+        assertNotEquals("/libs/granite/ui/components/coral/foundation/form/textfield",
+                index.suggest("/libs/granite/ui/components/foundation/form/textfield", ContentUsage.INHERIT));
+    }
+
+    @Test
+    void testFrequentTokensAreDropped() {
+        List<ContentClassificationMapEntry> entries = new ArrayList<>();
+        for (int i = 0; i <= ReplacementSuggestionIndex.MAX_CANDIDATES_PER_TOKEN; i++) {
+            entries.add(new ContentClassificationMapEntry("/libs/component" + i + "/clientlibs", ContentClassification.PUBLIC, null));
+        }
+        ReplacementSuggestionIndex index = new ReplacementSuggestionIndex(entries.iterator());
+        assertEquals(ReplacementSuggestionIndex.MAX_CANDIDATES_PER_TOKEN + 1, index.size());
+        // only found via the bigram
+        assertEquals("/libs/component1/clientlibs", index.suggest("/apps/component1/clientlibs", ContentUsage.REFERENCE));
+        assertNull(index.suggest("/apps/other/clientlibs", ContentUsage.REFERENCE));
+    }
+}
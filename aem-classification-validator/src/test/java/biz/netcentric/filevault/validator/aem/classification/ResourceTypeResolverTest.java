@@ -0,0 +1,114 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResourceTypeResolverTest {
+
+    @Test
+    void testResolve() {
+        ResourceTypeResolver resolver = new ResourceTypeResolver(Arrays.asList("/apps", "/mnt/overlay/", "/libs"));
+        assertEquals("/libs/my/component", resolver.resolve("my/component"));
+        assertEquals("/content/my/component", resolver.resolve("/content/my/component"));
+        resolver.addNodePath("/mnt/overlay/my/component");
+        assertEquals("/mnt/overlay/my/component", resolver.resolve("my/component"));
+        resolver.addNodePath("/apps/my/component");
+        assertEquals("/apps/my/component", resolver.resolve("my/component"));
+        assertTrue(resolver.isContainedInPackage("/apps/my/component"));
+        // paths below the last search path entry are not indexed
+        resolver.addNodePath("/libs/other/component");
+        assertEquals("/libs/other/component", resolver.resolve("other/component"));
+        assertFalse(resolver.isContainedInPackage("/libs/other/component"));
+
+        assertThrows(IllegalArgumentException.class, () -> new ResourceTypeResolver(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> new ResourceTypeResolver(Arrays.asList("apps", "/libs")));
+    }
+
+    @Test
+    void testResolveScript() {
+        ResourceTypeResolver resolver = new ResourceTypeResolver(AemClassificationValidator.DEFAULT_SEARCH_PATH);
+        resolver.addNodePath("/apps/my/component/partials/item.html");
+        assertEquals("/apps/my/component/partials/item.html", resolver.resolveScript("partials/item.html", "/apps/my/component"));
+        assertEquals("/apps/my/component/partials/item.html", resolver.resolveScript("../component/./partials/item.html", "/apps/my/component"));
+        assertEquals("/apps/my/component/partials/item.html", resolver.resolveScript("../../my/component/partials/item.html", "/apps/my/other"));
+        // not contained next to the referencing script but below a search path entry
+        assertEquals("/apps/my/component/partials/item.html", resolver.resolveScript("my/component/partials/item.html", "/apps/my/other"));
+        // not contained in the package
+        assertNull(resolver.resolveScript("partials/item.html", "/apps/my/other"));
+        assertNull(resolver.resolveScript("../component/partials/item.html", "/apps/my/other/sub"));
+        assertNull(resolver.resolveScript("../../../../partials/item.html", "/apps/my/component"));
+        assertNull(resolver.resolveScript("./my/component/partials/item.html", "/apps/other"));
+        // absolute paths are only normalized
+        assertEquals("/libs/partials/item.html", resolver.resolveScript("/libs/partials/item.html", "/apps/my/component"));
+        assertEquals("/libs/partials/item.html", resolver.resolveScript("/libs/other/../partials/./item.html", "/apps/my/component"));
+        assertNull(resolver.resolveScript("/../item.html", "/apps/my/component"));
+    }
+
+    @Test
+    void testAddNodePathsOfPackageDirectory(@TempDir Path packageRoot) throws IOException {
+        Files.createDirectories(packageRoot.resolve("jcr_root/apps/my/components/_cq_dialog"));
+        Files.createDirectories(packageRoot.resolve("jcr_root/apps/my/components/script.html.dir/child"));
+        Files.createDirectories(packageRoot.resolve("jcr_root/content/my"));
+        Files.createFile(packageRoot.resolve("jcr_root/apps/my/components/script.html"));
+        Files.createFile(packageRoot.resolve("jcr_root/apps/my/components/_cq_dialog/.content.xml"));
+        ResourceTypeResolver resolver = new ResourceTypeResolver(AemClassificationValidator.DEFAULT_SEARCH_PATH);
+        resolver.addNodePathsOfPackage(packageRoot);
+        assertTrue(resolver.isContainedInPackage("/apps/my/components"));
+        assertTrue(resolver.isContainedInPackage("/apps/my/components/cq:dialog"));
+        assertTrue(resolver.isContainedInPackage("/apps/my/components/script.html/child"));
+        assertTrue(resolver.isContainedInPackage("/apps/my/components/script.html"));
+        assertFalse(resolver.isContainedInPackage("/apps/my/components/cq:dialog/.content.xml"));
+        assertFalse(resolver.isContainedInPackage("/content/my"));
+
+        resolver = new ResourceTypeResolver(AemClassificationValidator.DEFAULT_SEARCH_PATH);
+        resolver.addNodePathsOfPackage(packageRoot.resolve("jcr_root"));
+        assertTrue(resolver.isContainedInPackage("/apps/my/components/cq:dialog"));
+    }
+
+    @Test
+    void testAddNodePathsOfPackageFile(@TempDir Path tempDir) throws IOException {
+        Path packageFile = tempDir.resolve("package.zip");
+        try (OutputStream output = Files.newOutputStream(packageFile);
+             ZipOutputStream zipOutput = new ZipOutputStream(output)) {
+            // no separate entries for the folders
+            zipOutput.putNextEntry(new ZipEntry("META-INF/vault/filter.xml"));
+            zipOutput.putNextEntry(new ZipEntry("jcr_root/apps/my/components/text/_cq_dialog/.content.xml"));
+            zipOutput.putNextEntry(new ZipEntry("jcr_root/apps/my/components/text/text.html"));
+        }
+        ResourceTypeResolver resolver = new ResourceTypeResolver(AemClassificationValidator.DEFAULT_SEARCH_PATH);
+        resolver.addNodePathsOfPackage(packageFile);
+        assertTrue(resolver.isContainedInPackage("/apps/my/components/text"));
+        assertTrue(resolver.isContainedInPackage("/apps/my/components/text/cq:dialog"));
+        assertTrue(resolver.isContainedInPackage("/apps/my/components/text/text.html"));
+        assertFalse(resolver.isContainedInPackage("/apps/my/components/text/cq:dialog/.content.xml"));
+        assertEquals("/apps/my/components/text", resolver.resolve("my/components/text"));
+    }
+}
@@ -0,0 +1,117 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ValidationScopeTest {
+
+    @Test
+    void testGetFilePathBelowJcrRoot() {
+        assertEquals("apps/my/component/component.html", ValidationScope.getFilePathBelowJcrRoot("ui.apps/src/main/content/jcr_root/apps/my/component/component.html"));
+        assertEquals("apps/my/.content.xml", ValidationScope.getFilePathBelowJcrRoot("jcr_root/apps/my/.content.xml"));
+        assertEquals("apps/my/.content.xml", ValidationScope.getFilePathBelowJcrRoot("/apps/my/.content.xml"));
+        assertEquals("apps/my/.content.xml", ValidationScope.getFilePathBelowJcrRoot(" ui.apps\\jcr_root\\apps\\my\\.content.xml "));
+        assertEquals("apps/my_jcr_root/test.html", ValidationScope.getFilePathBelowJcrRoot("apps/my_jcr_root/test.html"));
+    }
+
+    @Test
+    void testGetNodePath() {
+        assertEquals("/apps/my/component/component.html", ValidationScope.getNodePath("apps/my/component/component.html"));
+        assertEquals("/apps/my/component/cq:dialog", ValidationScope.getNodePath("apps/my/component/_cq_dialog/.content.xml"));
+        assertEquals("/apps/my/file.html", ValidationScope.getNodePath("apps/my/file.html.dir/.content.xml"));
+        assertEquals("/", ValidationScope.getNodePath(".content.xml"));
+    }
+
+    @Test
+    void testContains() {
+        assertTrue(ValidationScope.ALL.isAll());
+        assertTrue(ValidationScope.ALL.containsFile(Paths.get("apps/my/component/component.html")));
+        assertTrue(ValidationScope.ALL.containsNodePath("/apps/my/component"));
+
+        ValidationScope scope = ValidationScope.ofChangedPaths(Arrays.asList("ui.apps/src/main/content/jcr_root/apps/my/component/component.html",
+                "ui.apps/src/main/content/jcr_root/apps/my/component/_cq_dialog/.content.xml", "core/src/main/java/Model.java", ""));
+        assertFalse(scope.isAll());
+        assertTrue(scope.containsFile(Paths.get("apps/my/component/component.html")));
+        assertTrue(scope.containsFile(Paths.get("/apps/my/component/_cq_dialog/.content.xml")));
+        assertFalse(scope.containsFile(Paths.get("apps/my/component/other.html")));
+        assertTrue(scope.containsNodePath("/apps/my/component/component.html"));
+        assertTrue(scope.containsNodePath("/apps/my/component/cq:dialog"));
+        assertFalse(scope.containsNodePath("/apps/my/component"));
+        assertFalse(scope.containsNodePath("/apps/my/component/cq:dialog/content"));
+    }
+
+    @Test
+    void testReadChangedPathsFromGit(@TempDir Path tempDir) throws IOException, InterruptedException {
+        Assumptions.assumeTrue(git(tempDir, "init", "-q") == 0, "git is not available");
+        Path file1 = tempDir.resolve("jcr_root/apps/my/file1.html");
+        Files.createDirectories(file1.getParent());
+        Files.write(file1, "1".getBytes(StandardCharsets.UTF_8));
+        Files.write(tempDir.resolve("jcr_root/apps/my/file2.html"), "2".getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, git(tempDir, "add", "."));
+        assertEquals(0, git(tempDir, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "initial"));
+        Files.write(file1, "changed".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(Collections.singletonList("jcr_root/apps/my/file1.html"), ValidationScope.readChangedPathsFromGit(tempDir, "HEAD"));
+        // relative to the working directory
+        assertEquals(Collections.singletonList("file1.html"), ValidationScope.readChangedPathsFromGit(file1.getParent(), "HEAD"));
+        assertThrows(IOException.class, () -> ValidationScope.readChangedPathsFromGit(tempDir, "unknown-ref"));
+        assertThrows(IllegalArgumentException.class, () -> ValidationScope.readChangedPathsFromGit(tempDir, "--output=test"));
+    }
+
+    @Test
+    void testReadChangedPathsFromGitWithMultipleModules(@TempDir Path tempDir) throws IOException, InterruptedException {
+        Assumptions.assumeTrue(git(tempDir, "init", "-q") == 0, "git is not available");
+        Path module1 = tempDir.resolve("module1/src/main/content");
+        Path module2 = tempDir.resolve("module2/src/main/content");
+        for (Path module : Arrays.asList(module1, module2)) {
+            Files.createDirectories(module.resolve("jcr_root/apps/my"));
+            Files.write(module.resolve("jcr_root/apps/my/file.html"), "1".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(0, git(tempDir, "add", "."));
+        assertEquals(0, git(tempDir, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "initial"));
+        Files.write(module1.resolve("jcr_root/apps/my/file.html"), "changed".getBytes(StandardCharsets.UTF_8));
+
+        // the same path below jcr_root is only changed in the first module
+        assertEquals(Collections.singletonList("jcr_root/apps/my/file.html"), ValidationScope.readChangedPathsFromGit(module1, "HEAD"));
+        assertEquals(Collections.emptyList(), ValidationScope.readChangedPathsFromGit(module2, "HEAD"));
+        assertFalse(ValidationScope.ofChangedPaths(ValidationScope.readChangedPathsFromGit(module2, "HEAD")).containsFile(Paths.get("apps/my/file.html")));
+    }
+
+    private static int git(Path workingDirectory, String... arguments) throws InterruptedException {
+        String[] command = new String[arguments.length + 1];
+        command[0] = "git";
+        System.arraycopy(arguments, 0, command, 1, arguments.length);
+        try {
+            return new ProcessBuilder(command).directory(workingDirectory.toFile()).inheritIO().start().waitFor();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package biz.netcentric.filevault.validator.aem.classification;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.junit.jupiter.api.Test;
+
+class XmlContentScannerTest {
+
+    private final XmlContentScanner scanner = new XmlContentScanner(new PropertyUsageTable(PropertyUsageTable.DEFAULT_USAGE_PER_PROPERTY));
+
+    @Test
+    void testScanAttributes() throws IOException {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<config xmlns:sling=\"http://sling.apache.org/jcr/sling/1.0\" xmlns:other=\"http://example.com/other\" sling:resourceType=\"/libs/a\">\n"
+                + "  <item sling:resourceSuperType=\"b\" other:resourceType=\"/libs/ignored\" resourceType=\"/libs/ignored\"/>\n"
+                + "</config>";
+        List<Entry<String, ContentUsage>> resources = new ArrayList<>();
+        assertTrue(scan(xml, resources));
+        assertEquals(Arrays.asList(new SimpleEntry<>("/libs/a", ContentUsage.REFERENCE), new SimpleEntry<>("b", ContentUsage.INHERIT)), resources);
+    }
+
+    @Test
+    void testScanInitialContent() throws IOException {
+        String xml = "<node>\n"
+                + "  <name>content</name>\n"
+                + "  <property><name>sling:resourceType</name><value> /libs/a </value><type>String</type></property>\n"
+                + "  <property><name>title</name><value>/libs/ignored</value></property>\n"
+                + "  <node>\n"
+                + "    <name>child</name>\n"
+                + "    <property><name>sling:resourceSuperType</name><values><value>b</value><value>c</value></values></property>\n"
+                + "    <value>/libs/ignored</value>\n"
+                + "  </node>\n"
+                + "</node>";
+        List<Entry<String, ContentUsage>> resources = new ArrayList<>();
+        assertTrue(scan(xml, resources));
+        assertEquals(Arrays.asList(new SimpleEntry<>("/libs/a", ContentUsage.REFERENCE), new SimpleEntry<>("b", ContentUsage.INHERIT), new SimpleEntry<>("c", ContentUsage.INHERIT)), resources);
+    }
+
+    @Test
+    void testDocViewIsSkipped() throws IOException {
+        String xml = "<jcr:root xmlns:jcr=\"http://www.jcp.org/jcr/1.0\" xmlns:sling=\"http://sling.apache.org/jcr/sling/1.0\" sling:resourceType=\"/libs/a\"/>";
+        List<Entry<String, ContentUsage>> resources = new ArrayList<>();
+        assertFalse(scan(xml, resources));
+        assertEquals(Collections.emptyList(), resources);
+    }
+
+    @Test
+    void testScanMalformed() {
+        assertThrows(IOException.class, () -> scan("<config><item></config>", new ArrayList<>()));
+    }
+
+    private boolean scan(String xml, List<Entry<String, ContentUsage>> resources) throws IOException {
+        return scanner.scan(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), (resourceType, usage) -> resources.add(new SimpleEntry<>(resourceType, usage)));
+    }
+}
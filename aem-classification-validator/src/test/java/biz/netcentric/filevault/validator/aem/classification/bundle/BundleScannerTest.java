@@ -0,0 +1,101 @@
+package biz.netcentric.filevault.validator.aem.classification.bundle;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+class BundleScannerTest {
+
+    private static final String COMPONENT_DESCRIPTION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<scr:component xmlns:scr=\"http://www.osgi.org/xmlns/scr/v1.3.0\" name=\"servlet\">\n"
+            + "  <property name=\"sling.servlet.resourceTypes\" type=\"String\">/libs/internal/servlet1\n"
+            + "    /libs/internal/servlet4\n"
+            + "  </property>\n"
+            + "  <property name=\"sling.servlet.methods\" value=\"GET\"/>\n"
+            + "  <implementation class=\"" + ClassFileScannerTest.SlingServlet.class.getName() + "\"/>\n"
+            + "</scr:component>";
+
+    private static final String LEGACY_COMPONENT_DESCRIPTION = "<components>\n"
+            + "  <component name=\"legacy\">\n"
+            + "    <implementation class=\"com.example.LegacyServlet\"/>\n"
+            + "    <property name=\"sling.servlet.resourceTypes\" value=\"relative/servlet\"/>\n"
+            + "  </component>\n"
+            + "  <component name=\"other\">\n"
+            + "    <implementation class=\"com.example.Other\"/>\n"
+            + "  </component>\n"
+            + "</components>";
+
+    @Test
+    void testScan() throws IOException {
+        Map<String, byte[]> embeddedJarEntries = new LinkedHashMap<>();
+        embeddedJarEntries.put("com/example/Model.class", ClassFileScannerTest.getClassFile(ClassFileScannerTest.SlingModel.class));
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+        entries.put("com/example/", new byte[0]);
+        entries.put("com/example/Servlet.class", ClassFileScannerTest.getClassFile(ClassFileScannerTest.SlingServlet.class));
+        entries.put("com/example/Other.class", ClassFileScannerTest.getClassFile(ClassFileScannerTest.OtherComponent.class));
+        entries.put("OSGI-INF/servlet.xml", COMPONENT_DESCRIPTION.getBytes(StandardCharsets.UTF_8));
+        entries.put("OSGI-INF/legacy.xml", LEGACY_COMPONENT_DESCRIPTION.getBytes(StandardCharsets.UTF_8));
+        entries.put("lib/embedded.jar", createJar(embeddedJarEntries));
+
+        String servletClassName = ClassFileScannerTest.SlingServlet.class.getName();
+        String modelClassName = ClassFileScannerTest.SlingModel.class.getName();
+        assertEquals(Arrays.asList(
+                new ResourceTypeBinding(servletClassName, "/libs/internal/servlet1"),
+                new ResourceTypeBinding(servletClassName, "/libs/internal/servlet2"),
+                new ResourceTypeBinding(servletClassName, "/libs/internal/servlet3"),
+                new ResourceTypeBinding(servletClassName, "/libs/internal/servlet4"),
+                new ResourceTypeBinding("com.example.LegacyServlet", "relative/servlet"),
+                new ResourceTypeBinding(modelClassName, "/libs/internal/model"),
+                new ResourceTypeBinding(modelClassName, "relative/model")),
+                new ArrayList<>(BundleScanner.scan(new ByteArrayInputStream(createJar(entries)))));
+    }
+
+    @Test
+    void testInvalidEntries() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("com/example/Invalid.class", new byte[] { 1, 2, 3, 4 });
+        IOException e = assertThrows(IOException.class, () -> BundleScanner.scan(new ByteArrayInputStream(createJar(entries))));
+        assertEquals("Could not scan entry 'com/example/Invalid.class': Invalid class file, magic number is missing", e.getMessage());
+        entries.clear();
+        entries.put("OSGI-INF/invalid.xml", "<component><implementation".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> BundleScanner.scan(new ByteArrayInputStream(createJar(entries))));
+    }
+
+    static byte[] createJar(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutput = new ZipOutputStream(output)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zipOutput.putNextEntry(new ZipEntry(entry.getKey()));
+                zipOutput.write(entry.getValue());
+                zipOutput.closeEntry();
+            }
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,106 @@
+package biz.netcentric.filevault.validator.aem.classification.bundle;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.sling.models.annotations.Model;
+import org.apache.sling.servlets.annotations.SlingServletResourceTypes;
+import org.junit.jupiter.api.Test;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+
+class ClassFileScannerTest {
+
+    @Model(adaptables = { Object.class, String.class }, resourceType = { "/libs/internal/model", "relative/model" }, cache = true)
+    static class SlingModel {
+        // constants occupying two constant pool entries
+        static final long LONG_CONSTANT = 42424242424242L;
+        static final double DOUBLE_CONSTANT = 4.2;
+
+        @Deprecated
+        public long getValue() {
+            return LONG_CONSTANT + (long) DOUBLE_CONSTANT;
+        }
+    }
+
+    @Component(service = Object.class, configurationPolicy = ConfigurationPolicy.REQUIRE, property = { "sling.servlet.resourceTypes=/libs/internal/servlet1",
+            "sling.servlet.resourceTypes:String=/libs/internal/servlet2", "sling.servlet.methods=GET" })
+    @SlingServletResourceTypes(resourceTypes = "/libs/internal/servlet3", methods = "POST")
+    static class SlingServlet {
+    }
+
+    @Component(property = "service.ranking:Integer=100")
+    static class OtherComponent {
+    }
+
+    @Test
+    void testSlingModel() throws IOException {
+        assertEquals(Arrays.asList(new ResourceTypeBinding(SlingModel.class.getName(), "/libs/internal/model"), new ResourceTypeBinding(SlingModel.class.getName(), "relative/model")),
+                scan(SlingModel.class));
+    }
+
+    @Test
+    void testSlingServlet() throws IOException {
+        assertEquals(Arrays.asList(new ResourceTypeBinding(SlingServlet.class.getName(), "/libs/internal/servlet1"), new ResourceTypeBinding(SlingServlet.class.getName(), "/libs/internal/servlet2"),
+                new ResourceTypeBinding(SlingServlet.class.getName(), "/libs/internal/servlet3")), scan(SlingServlet.class));
+    }
+
+    @Test
+    void testClassesWithoutBindings() throws IOException {
+        assertEquals(Collections.emptyList(), scan(OtherComponent.class));
+        assertEquals(Collections.emptyList(), scan(ClassFileScannerTest.class));
+    }
+
+    @Test
+    void testInvalidClassFiles() throws IOException {
+        assertThrows(IOException.class, () -> ClassFileScanner.scan(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 })));
+        byte[] classFile = getClassFile(SlingModel.class);
+        assertThrows(IOException.class, () -> ClassFileScanner.scan(new ByteArrayInputStream(classFile, 0, classFile.length / 2)));
+    }
+
+    @Test
+    void testGetServletResourceType() {
+        assertEquals("/libs/a", ClassFileScanner.getServletResourceType("sling.servlet.resourceTypes=/libs/a"));
+        assertEquals("/libs/a", ClassFileScanner.getServletResourceType("sling.servlet.resourceTypes:String = /libs/a"));
+        assertNull(ClassFileScanner.getServletResourceType("sling.servlet.resourceSuperType=/libs/a"));
+        assertNull(ClassFileScanner.getServletResourceType("sling.servlet.resourceTypes"));
+    }
+
+    private static List<ResourceTypeBinding> scan(Class<?> clazz) throws IOException {
+        return ClassFileScanner.scan(new ByteArrayInputStream(getClassFile(clazz)));
+    }
+
+    static byte[] getClassFile(Class<?> clazz) throws IOException {
+        try (InputStream input = clazz.getClassLoader().getResourceAsStream(clazz.getName().replace('.', '/') + ".class");
+             ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = input.read(buffer)) != -1) {
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        }
+    }
+}
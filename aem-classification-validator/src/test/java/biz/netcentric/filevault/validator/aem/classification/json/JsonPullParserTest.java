@@ -0,0 +1,83 @@
+package biz.netcentric.filevault.validator.aem.classification.json;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import biz.netcentric.filevault.validator.aem.classification.json.JsonPullParser.Token;
+
+class JsonPullParserTest {
+
+    @Test
+    void testTokens() throws IOException {
+        try (JsonPullParser parser = new JsonPullParser(new StringReader("{\"name\" : \"va\\\"l\\u0075e\",\n \"array\":[1, -2.5e3, true, false, null], \"empty\":{}}"))) {
+            assertEquals(Token.BEGIN_OBJECT, parser.next());
+            assertEquals(Token.NAME, parser.next());
+            assertEquals("name", parser.getText());
+            assertTrue(parser.textEquals("name"));
+            assertEquals(Token.STRING, parser.next());
+            assertEquals("va\"lue", parser.getText());
+            assertEquals(Token.NAME, parser.next());
+            assertEquals("array", parser.getText());
+            assertEquals(2, parser.getLineNumber());
+            assertEquals(Token.BEGIN_ARRAY, parser.next());
+            assertEquals(Token.NUMBER, parser.next());
+            assertEquals("1", parser.getText());
+            assertEquals(Token.NUMBER, parser.next());
+            assertEquals("-2.5e3", parser.getText());
+            assertEquals(Token.TRUE, parser.next());
+            assertEquals(Token.FALSE, parser.next());
+            assertEquals(Token.NULL, parser.next());
+            assertEquals(Token.END_ARRAY, parser.next());
+            assertEquals(Token.NAME, parser.next());
+            assertEquals(Token.BEGIN_OBJECT, parser.next());
+            assertEquals(Token.END_OBJECT, parser.next());
+            assertEquals(Token.END_OBJECT, parser.next());
+            assertEquals(Token.END_DOCUMENT, parser.next());
+        }
+    }
+
+    @Test
+    void testSkipValue() throws IOException {
+        try (JsonPullParser parser = new JsonPullParser(new StringReader("{\"skipped\":{\"a\":[1,{\"b\":2}]},\"kept\":\"value\"}"))) {
+            assertEquals(Token.BEGIN_OBJECT, parser.next());
+            assertEquals(Token.NAME, parser.next());
+            parser.skipValue();
+            assertEquals(Token.NAME, parser.next());
+            assertEquals("kept", parser.getText());
+            assertEquals(Token.STRING, parser.next());
+            assertEquals("value", parser.getText());
+        }
+    }
+
+    @Test
+    void testMalformed() throws IOException {
+        try (JsonPullParser parser = new JsonPullParser(new StringReader("{\"unterminated"))) {
+            assertEquals(Token.BEGIN_OBJECT, parser.next());
+            assertThrows(IOException.class, parser::next);
+        }
+        try (JsonPullParser parser = new JsonPullParser(new StringReader("{\"invalid\":tru}"))) {
+            assertEquals(Token.BEGIN_OBJECT, parser.next());
+            assertEquals(Token.NAME, parser.next());
+            assertThrows(IOException.class, parser::next);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationLookupCursor;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+class AncestorChainLookupCursorTest {
+
+    @Test
+    void testOnlyDifferingSegmentsAreLookedUp() {
+        List<String> lookedUpPaths = new ArrayList<>();
+        AncestorChainLookupCursor cursor = new AncestorChainLookupCursor(null, resourcePath -> {
+            lookedUpPaths.add(resourcePath);
+            return resourcePath.equals("/") ? new SimpleEntry<>(ContentClassification.FINAL, null) : null;
+        });
+        // document order of a DocView file
+        for (String nodePath : Arrays.asList("/apps/a/cq:dialog", "/apps/a/cq:dialog/content", "/apps/a/cq:dialog/content/items", "/apps/a/cq:dialog/content/items/tab1",
+                "/apps/a/cq:dialog/content/items/tab2", "/apps/a/cq:dialog/content/items/tab2/items")) {
+            assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, null), cursor.getContentClassificationAndStructuredRemarkForResourcePath(nodePath));
+        }
+        assertEquals(new SimpleEntry<>(ContentClassification.FINAL, null), cursor.getContentClassificationAndStructuredRemarkForResourcePath("/"));
+        assertEquals(Arrays.asList("/", "/apps", "/apps/a", "/apps/a/cq:dialog", "/apps/a/cq:dialog/content", "/apps/a/cq:dialog/content/items",
+                "/apps/a/cq:dialog/content/items/tab1", "/apps/a/cq:dialog/content/items/tab2", "/apps/a/cq:dialog/content/items/tab2/items"), lookedUpPaths);
+    }
+
+    @Test
+    void testSameResultAsSingleLookups() throws IOException {
+        String[] segments = { "a", "a-b", "b", "*", "**" };
+        List<String> resourcePaths = new ArrayList<>();
+        resourcePaths.add("/");
+        for (int i = 0; i < resourcePaths.size(); i++) {
+            String parentPath = resourcePaths.get(i);
+            if (parentPath.split("/").length < 5) {
+                for (String segment : segments) {
+                    resourcePaths.add(parentPath.equals("/") ? "/" + segment : parentPath + "/" + segment);
+                }
+            }
+        }
+        ContentClassification[] classifications = ContentClassification.values();
+        Collection<Pattern> whitelistedResourcePaths = Collections.singleton(Pattern.compile("/a-b/b.*"));
+        for (long seed = 0; seed < 100; seed++) {
+            Random random = new Random(seed);
+            MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("random");
+            boolean withWildcards = seed % 2 == 1;
+            for (int i = 0; i < 20; i++) {
+                String resourcePath = resourcePaths.get(random.nextInt(resourcePaths.size()));
+                if (withWildcards || !ResourcePathTrie.containsWildcard(resourcePath)) {
+                    map.put(resourcePath, classifications[random.nextInt(classifications.length)], "remark" + i);
+                }
+            }
+            List<ContentClassificationMap> maps = Arrays.asList(map, new CompactContentClassificationMap(map), readSectioned(map),
+                    new CompositeContentClassificationMap(map, new CompactContentClassificationMap(map)));
+            for (ContentClassificationMap actualMap : maps) {
+                ContentClassificationLookupCursor cursor = actualMap.createLookupCursor(whitelistedResourcePaths);
+                // literal paths in document order followed by random ones
+                List<String> lookupPaths = new ArrayList<>();
+                for (int i = 0; i < resourcePaths.size(); i++) {
+                    lookupPaths.add(resourcePaths.get(i < resourcePaths.size() / 2 ? i : random.nextInt(resourcePaths.size())).replace("**", "c").replace('*', 'd'));
+                }
+                for (String lookupPath : lookupPaths) {
+                    String message = "Different result for " + lookupPath + " in " + actualMap.getClass().getSimpleName() + " with seed " + seed;
+                    Entry<ContentClassification, ContentClassificationRemark> expectedEntry;
+                    try {
+                        expectedEntry = actualMap.getContentClassificationAndStructuredRemarkForResourcePath(lookupPath, whitelistedResourcePaths);
+                    } catch (IllegalStateException e) {
+                        assertThrows(IllegalStateException.class, () -> cursor.getContentClassificationAndStructuredRemarkForResourcePath(lookupPath), message);
+                        continue;
+                    }
+                    assertEquals(expectedEntry, cursor.getContentClassificationAndStructuredRemarkForResourcePath(lookupPath), message);
+                }
+            }
+        }
+    }
+
+    private static SectionedContentClassificationMap readSectioned(ContentClassificationMapImpl map) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ContentClassificationMapIndex.write(map, 42, output);
+        return ContentClassificationMapIndex.readSectioned(new ByteArrayInputStream(output.toByteArray()), 42);
+    }
+}
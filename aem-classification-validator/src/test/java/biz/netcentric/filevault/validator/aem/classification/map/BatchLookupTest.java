@@ -0,0 +1,132 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+class BatchLookupTest {
+
+    @Test
+    void testPathOrder() {
+        List<String> paths = new ArrayList<>(Arrays.asList("/a/b", "/a-b", "/", "/a", "/b", "/a/b/c", "/a/a"));
+        paths.sort(BatchLookup.PATH_ORDER);
+        assertEquals(Arrays.asList("/", "/a", "/a/a", "/a/b", "/a/b/c", "/a-b", "/b"), paths);
+    }
+
+    @Test
+    void testLookup() {
+        ContentClassificationMapImpl map = new ContentClassificationMapImpl("test");
+        map.put("/", ContentClassification.PUBLIC, null);
+        map.put("/libs", ContentClassification.INTERNAL, "libs");
+        map.put("/libs/a", ContentClassification.FINAL, "a");
+        List<Entry<ContentClassification, ContentClassificationRemark>> expectedEntries = Arrays.asList(
+                new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, ContentClassificationRemark.parse("a")),
+                new SimpleEntry<>(ContentClassification.PUBLIC, null),
+                new SimpleEntry<>(ContentClassification.FINAL, ContentClassificationRemark.parse("a")),
+                new SimpleEntry<>(ContentClassification.INTERNAL, ContentClassificationRemark.parse("libs")),
+                new SimpleEntry<>(ContentClassification.PUBLIC, null),
+                new SimpleEntry<>(ContentClassification.PUBLIC, null),
+                new SimpleEntry<>(ContentClassification.INTERNAL, ContentClassificationRemark.parse("libs")));
+        assertEquals(expectedEntries, map.getContentClassificationsAndStructuredRemarksForResourcePaths(
+                Arrays.asList("/libs/a/b", "/apps/a", "a", "/libs", "", "/libs/whitelisted", "/libs/a-b"), Collections.singleton(Pattern.compile("/libs/whitelisted"))));
+        assertThrows(IllegalStateException.class, () -> map.getContentClassificationsAndStructuredRemarksForResourcePaths(Arrays.asList("/libs/a", "/libs/"), null));
+        assertThrows(IllegalStateException.class, () -> new ContentClassificationMapImpl("empty").getContentClassificationsAndStructuredRemarksForResourcePaths(Collections.singletonList("/libs"), null));
+    }
+
+    @Test
+    void testEachAncestorIsLookedUpOnce() {
+        List<String> lookedUpPaths = new ArrayList<>();
+        BatchLookup.lookup(Arrays.asList("/libs/a/b", "/libs/a/c", "/libs/a-b", "/libs/a", "/libs/a/b"), null, resourcePath -> {
+            lookedUpPaths.add(resourcePath);
+            return new SimpleEntry<>(ContentClassification.PUBLIC, null);
+        });
+        assertEquals(Arrays.asList("/", "/libs", "/libs/a", "/libs/a/b", "/libs/a/c", "/libs/a-b"), lookedUpPaths);
+    }
+
+    @Test
+    void testSameResultAsSingleLookups() throws IOException {
+        String[] segments = { "a", "a-b", "b", "*", "**" };
+        List<String> resourcePaths = new ArrayList<>();
+        resourcePaths.add("/");
+        for (int i = 0; i < resourcePaths.size(); i++) {
+            String parentPath = resourcePaths.get(i);
+            if (parentPath.split("/").length < 5) {
+                for (String segment : segments) {
+                    resourcePaths.add(parentPath.equals("/") ? "/" + segment : parentPath + "/" + segment);
+                }
+            }
+        }
+        ContentClassification[] classifications = ContentClassification.values();
+        Collection<Pattern> whitelistedResourcePaths = Collections.singleton(Pattern.compile("/a-b/b.*"));
+        for (long seed = 0; seed < 100; seed++) {
+            Random random = new Random(seed);
+            MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("random");
+            boolean withWildcards = seed % 2 == 1;
+            for (int i = 0; i < 20; i++) {
+                String resourcePath = resourcePaths.get(random.nextInt(resourcePaths.size()));
+                if (withWildcards || !ResourcePathTrie.containsWildcard(resourcePath)) {
+                    map.put(resourcePath, classifications[random.nextInt(classifications.length)], "remark" + i);
+                }
+            }
+            // only look up literal paths in random order
+            List<String> lookupPaths = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                lookupPaths.add(resourcePaths.get(random.nextInt(resourcePaths.size())).replace("**", "c").replace('*', 'd'));
+            }
+            List<ContentClassificationMap> maps = Arrays.asList(map, new CompactContentClassificationMap(map), readSectioned(map),
+                    new CompositeContentClassificationMap(map, new CompactContentClassificationMap(map)));
+            for (ContentClassificationMap actualMap : maps) {
+                String message = "Different result for " + actualMap.getClass().getSimpleName() + " with seed " + seed;
+                List<Entry<ContentClassification, ContentClassificationRemark>> expectedEntries = new ArrayList<>();
+                try {
+                    for (String lookupPath : lookupPaths) {
+                        expectedEntries.add(actualMap.getContentClassificationAndStructuredRemarkForResourcePath(lookupPath, whitelistedResourcePaths));
+                    }
+                } catch (IllegalStateException e) {
+                    assertTrue(map.size() == 0 || !map.entryIterator().next().getResourcePath().equals("/"), message);
+                    assertThrows(IllegalStateException.class, () -> actualMap.getContentClassificationsAndStructuredRemarksForResourcePaths(lookupPaths, whitelistedResourcePaths), message);
+                    continue;
+                }
+                assertEquals(expectedEntries, actualMap.getContentClassificationsAndStructuredRemarksForResourcePaths(lookupPaths, whitelistedResourcePaths), message);
+            }
+        }
+    }
+
+    private static SectionedContentClassificationMap readSectioned(ContentClassificationMapImpl map) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ContentClassificationMapIndex.write(map, 42, output);
+        return ContentClassificationMapIndex.readSectioned(new ByteArrayInputStream(output.toByteArray()), 42);
+    }
+}
@@ -0,0 +1,115 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+
+class CompactContentClassificationMapTest {
+
+    @Test
+    void testLookup() throws IOException {
+        ContentClassificationMapImpl map;
+        try (InputStream input = this.getClass().getResourceAsStream("/valid-classification.map")) {
+            map = new ContentClassificationMapImpl(input, "valid-classification.map");
+        }
+        CompactContentClassificationMap compactMap = new CompactContentClassificationMap(map);
+        assertEquals(map.getLabel(), compactMap.getLabel());
+        assertEquals(map.size(), compactMap.size());
+        Iterator<ContentClassificationMapEntry> entryIterator = map.entryIterator();
+        while (entryIterator.hasNext()) {
+            String resourcePath = entryIterator.next().getResourcePath();
+            assertEquals(map.getContentClassificationAndRemarkForResourcePath(resourcePath, null), compactMap.getContentClassificationAndRemarkForResourcePath(resourcePath, null));
+            assertEquals(map.getContentClassificationAndRemarkForResourcePath(resourcePath + "/child", null), compactMap.getContentClassificationAndRemarkForResourcePath(resourcePath + "/child", null));
+        }
+        assertEquals(new SimpleEntry<>(ContentClassification.PUBLIC, null), compactMap.getContentClassificationAndRemarkForResourcePath("", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.PUBLIC, null), compactMap.getContentClassificationAndRemarkForResourcePath("/libs/some/path", Collections.singleton(Pattern.compile("/libs/.*"))));
+        assertThrows(IllegalStateException.class, () -> compactMap.getContentClassificationAndRemarkForResourcePath("/libs/", null));
+    }
+
+    @Test
+    void testLookupWithoutRootEntry() {
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("no root");
+        map.put("/libs", ContentClassification.FINAL, null);
+        CompactContentClassificationMap compactMap = new CompactContentClassificationMap(map);
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, null), compactMap.getContentClassificationAndRemarkForResourcePath("/libs/child", null));
+        assertThrows(IllegalStateException.class, () -> compactMap.getContentClassificationAndRemarkForResourcePath("/apps/child", null));
+        assertThrows(IllegalStateException.class, () -> new CompactContentClassificationMap(new ContentClassificationMapImpl("empty")).getContentClassificationAndRemarkForResourcePath("/", null));
+    }
+
+    @Test
+    void testRandomMaps() {
+        // contains characters sorted before and after '/' as well as non-ASCII and supplementary characters
+        String[] segments = { "a", "a-b", "a0", "ä", "￤", "😀" };
+        String[] remarks = { null, "remark1", "remark2" };
+        List<String> resourcePaths = new ArrayList<>();
+        resourcePaths.add("/");
+        for (int i = 0; i < resourcePaths.size(); i++) {
+            String parentPath = resourcePaths.get(i);
+            if (parentPath.split("/").length < 4) {
+                for (String segment : segments) {
+                    resourcePaths.add(parentPath.equals("/") ? "/" + segment : parentPath + "/" + segment);
+                }
+            }
+        }
+        ContentClassification[] classifications = ContentClassification.values();
+        for (long seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("random");
+            map.put("/", ContentClassification.PUBLIC, null);
+            for (int i = 0; i < 100; i++) {
+                map.put(resourcePaths.get(random.nextInt(resourcePaths.size())), classifications[random.nextInt(classifications.length)], remarks[random.nextInt(remarks.length)]);
+            }
+            CompactContentClassificationMap compactMap = new CompactContentClassificationMap(map);
+            assertEquals(map.size(), compactMap.size());
+            for (String resourcePath : resourcePaths) {
+                assertEquals(map.getContentClassificationAndRemarkForResourcePath(resourcePath, null), compactMap.getContentClassificationAndRemarkForResourcePath(resourcePath, null),
+                        "Different result for " + resourcePath + " with seed " + seed);
+            }
+            // the iterator returns all entries
+            MutableContentClassificationMapImpl copy = new MutableContentClassificationMapImpl("random");
+            compactMap.entryIterator().forEachRemaining(entry -> copy.put(entry.getResourcePath(), entry.getClassification(), entry.getRemark()));
+            assertEquals(map, copy);
+            assertEquals(compactMap, new CompactContentClassificationMap(copy));
+        }
+    }
+
+    @Test
+    void testArraysSize() {
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("large");
+        map.put("/", ContentClassification.PUBLIC, null);
+        for (int i = 0; i < 10000; i++) {
+            map.put(String.format("/libs/granite/ui/components/coral/foundation/component%05d", i), ContentClassification.INTERNAL, i % 10 == 0 ? "Deprecated since 6.5: Use something else." : null);
+        }
+        CompactContentClassificationMap compactMap = new CompactContentClassificationMap(map);
+        // each entry only stores a short suffix (apart from the first entry of each block)
+        assertTrue(compactMap.getArraysSize() < 15 * map.size(), "Unexpected size " + compactMap.getArraysSize());
+    }
+}
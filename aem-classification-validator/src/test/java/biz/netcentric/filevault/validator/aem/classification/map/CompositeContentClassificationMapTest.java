@@ -16,10 +16,18 @@ package biz.netcentric.filevault.validator.aem.classification.map;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Collection;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
 
 class CompositeContentClassificationMapTest {
 
@@ -40,6 +48,37 @@ class CompositeContentClassificationMapTest {
         assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, "from map1"), compositeMap.getContentClassificationAndRemarkForResourcePath("/sometype/child/restricted", null));
     }
 
+    @Test
+    void testWithMapOnlyProvidingTextualRemarks() {
+        // implementation only providing the textual lookup (like the ones written before structured remarks were introduced)
+        ContentClassificationMap textualMap = new ContentClassificationMap() {
+            @Override
+            public @NotNull Entry<ContentClassification, String> getContentClassificationAndRemarkForResourcePath(@NotNull String resourcePath, @Nullable Collection<Pattern> whitelistedResourcePaths) {
+                return resourcePath.startsWith("/deprecated") ? new SimpleEntry<>(ContentClassification.INTERNAL_DEPRECATED, "Deprecated since 6.5: Use something else.")
+                        : new SimpleEntry<>(ContentClassification.PUBLIC, null);
+            }
+
+            @Override
+            public int size() {
+                return 1;
+            }
+
+            @Override
+            public @NotNull String getLabel() {
+                return "textual";
+            }
+        };
+        ContentClassificationMapImpl structuredMap = new ContentClassificationMapImpl("structured");
+        structuredMap.put("/", ContentClassification.PUBLIC, null);
+        structuredMap.put("/internal", ContentClassification.INTERNAL, "from structured map");
+        CompositeContentClassificationMap map = new CompositeContentClassificationMap(structuredMap, textualMap);
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_DEPRECATED, ContentClassificationRemark.deprecation("6.5", "Use something else.")),
+                map.getContentClassificationAndStructuredRemarkForResourcePath("/deprecated/child", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_DEPRECATED, "Deprecated since 6.5: Use something else."),
+                map.getContentClassificationAndRemarkForResourcePath("/deprecated/child", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, "from structured map"), map.getContentClassificationAndRemarkForResourcePath("/internal/child", null));
+    }
+
     @Test
     void testSize() {
         assertEquals(3, compositeMap.size());
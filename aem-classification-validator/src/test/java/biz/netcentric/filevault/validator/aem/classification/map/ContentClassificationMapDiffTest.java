@@ -0,0 +1,92 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapDiff.Change;
+import biz.netcentric.filevault.validator.aem.classification.map.ContentClassificationMapDiff.ChangeType;
+
+class ContentClassificationMapDiffTest {
+
+    @Test
+    void testDiff() {
+        MutableContentClassificationMapImpl oldMap = new MutableContentClassificationMapImpl("1.0");
+        oldMap.put("/", ContentClassification.PUBLIC, null);
+        oldMap.put("/libs/final", ContentClassification.FINAL, null);
+        oldMap.put("/libs/remark", ContentClassification.ABSTRACT, "Old remark");
+        oldMap.put("/libs/removed", ContentClassification.INTERNAL, null);
+        oldMap.put("/libs/unchanged", ContentClassification.INTERNAL, null);
+        oldMap.put("/libs/unchanged/redundant", ContentClassification.INTERNAL, null);
+        MutableContentClassificationMapImpl newMap = new MutableContentClassificationMapImpl("2.0");
+        newMap.put("/", ContentClassification.PUBLIC, null);
+        newMap.put("/libs/added", ContentClassification.INTERNAL_DEPRECATED, "Deprecated since 2.0: Reason");
+        newMap.put("/libs/final", ContentClassification.INTERNAL, null);
+        newMap.put("/libs/remark", ContentClassification.ABSTRACT, "New remark");
+        newMap.put("/libs/unchanged", ContentClassification.INTERNAL, null);
+
+        List<Change> changes = ContentClassificationMapDiff.diff(oldMap, newMap);
+        assertEquals(Arrays.asList(
+                new Change("/libs/added", null, entry("/libs/added", ContentClassification.INTERNAL_DEPRECATED, "Deprecated since 2.0: Reason"),
+                        entry("/libs/added", ContentClassification.PUBLIC, null), entry("/libs/added", ContentClassification.INTERNAL_DEPRECATED, "Deprecated since 2.0: Reason")),
+                new Change("/libs/final", entry("/libs/final", ContentClassification.FINAL, null), entry("/libs/final", ContentClassification.INTERNAL, null),
+                        entry("/libs/final", ContentClassification.FINAL, null), entry("/libs/final", ContentClassification.INTERNAL, null)),
+                new Change("/libs/remark", entry("/libs/remark", ContentClassification.ABSTRACT, "Old remark"), entry("/libs/remark", ContentClassification.ABSTRACT, "New remark"),
+                        entry("/libs/remark", ContentClassification.ABSTRACT, "Old remark"), entry("/libs/remark", ContentClassification.ABSTRACT, "New remark")),
+                new Change("/libs/removed", entry("/libs/removed", ContentClassification.INTERNAL, null), null,
+                        entry("/libs/removed", ContentClassification.INTERNAL, null), entry("/libs/removed", ContentClassification.PUBLIC, null)),
+                new Change("/libs/unchanged/redundant", entry("/libs/unchanged/redundant", ContentClassification.INTERNAL, null), null,
+                        entry("/libs/unchanged/redundant", ContentClassification.INTERNAL, null), entry("/libs/unchanged/redundant", ContentClassification.INTERNAL, null))),
+                changes);
+        assertEquals(EnumSet.of(ChangeType.ADDED), changes.get(0).getTypes());
+        assertTrue(changes.get(0).isEffectiveClassificationChanged());
+        assertEquals(EnumSet.of(ChangeType.RECLASSIFIED), changes.get(1).getTypes());
+        assertEquals(EnumSet.of(ChangeType.REMARK_CHANGED), changes.get(2).getTypes());
+        assertFalse(changes.get(2).isEffectiveClassificationChanged());
+        assertEquals(EnumSet.of(ChangeType.REMOVED), changes.get(3).getTypes());
+        assertTrue(changes.get(3).isEffectiveClassificationChanged());
+        // redundant entry removed (classification is inherited from parent)
+        assertEquals(EnumSet.of(ChangeType.REMOVED), changes.get(4).getTypes());
+        assertFalse(changes.get(4).isEffectiveClassificationChanged());
+
+        // symmetric
+        assertEquals(changes.size(), ContentClassificationMapDiff.diff(newMap, oldMap).size());
+        assertEquals(Collections.emptyList(), ContentClassificationMapDiff.diff(newMap, newMap));
+    }
+
+    @Test
+    void testDiffWithoutRootEntry() {
+        MutableContentClassificationMapImpl oldMap = new MutableContentClassificationMapImpl("1.0");
+        MutableContentClassificationMapImpl newMap = new MutableContentClassificationMapImpl("2.0");
+        newMap.put("/libs/added", ContentClassification.INTERNAL, null);
+        Change change = ContentClassificationMapDiff.diff(oldMap, newMap).get(0);
+        assertEquals(null, change.getOldEffectiveEntry());
+        assertTrue(change.isEffectiveClassificationChanged());
+    }
+
+    private static ContentClassificationMapEntry entry(String resourcePath, ContentClassification classification, String remark) {
+        return new ContentClassificationMapEntry(resourcePath, classification, remark);
+    }
+}
@@ -14,12 +14,19 @@ package biz.netcentric.filevault.validator.aem.classification.map;
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Assertions;
@@ -27,6 +34,8 @@ import org.junit.jupiter.api.Test;
 
 import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
 import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMap;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
 import biz.netcentric.filevault.validator.aem.classification.MutableContentClassificationMap;
 
 class ContentClassificationMapImplTest {
@@ -87,6 +96,57 @@ class ContentClassificationMapImplTest {
         Assertions.assertThrows(IllegalArgumentException.class,() -> { map.put("relativeresourcetype", ContentClassification.PUBLIC, null); });
     }
 
+    @Test
+    void testEntryIterator() {
+        ContentClassificationMapImpl map = new ContentClassificationMapImpl("somelabel");
+        map.put("/sometype/child", ContentClassification.INTERNAL, null);
+        map.put("/sometype", ContentClassification.FINAL, "someremark");
+        map.put("/", ContentClassification.PUBLIC, null);
+        List<ContentClassificationMapEntry> entries = new ArrayList<>();
+        map.entryIterator().forEachRemaining(entries::add);
+        assertEquals(Arrays.asList(
+                new ContentClassificationMapEntry("/", ContentClassification.PUBLIC, null),
+                new ContentClassificationMapEntry("/sometype", ContentClassification.FINAL, "someremark"),
+                new ContentClassificationMapEntry("/sometype/child", ContentClassification.INTERNAL, null)), entries);
+    }
+
+    @Test
+    void testStructuredRemarks() throws IOException {
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("somelabel");
+        map.put("/", ContentClassification.PUBLIC, null);
+        map.put("/libs/a", ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 6.5: Should not be used");
+        map.put("/libs/b", ContentClassification.FINAL, "Deprecated since " + "6.5: Should not be used");
+        map.putWithStructuredRemark("/libs/c", ContentClassification.FINAL, ContentClassificationRemark.deprecation("6.4", "Should not be used"));
+        map.put("/libs/d", ContentClassification.ABSTRACT, "Deprecated since: no version");
+        map.put("/libs/e", ContentClassification.ABSTRACT, "");
+
+        ContentClassificationRemark remarkA = map.getContentClassificationAndStructuredRemarkForResourcePath("/libs/a", null).getValue();
+        assertEquals("6.5", remarkA.getDeprecatedSince());
+        assertEquals("Should not be used", remarkA.getText());
+        assertEquals("Deprecated since 6.5: Should not be used", remarkA.toString());
+        // equal remarks and equal strings are shared
+        assertSame(remarkA, map.getContentClassificationAndStructuredRemarkForResourcePath("/libs/b/child", null).getValue());
+        assertSame(remarkA.getText(), map.getContentClassificationAndStructuredRemarkForResourcePath("/libs/c", null).getValue().getText());
+        ContentClassificationRemark remarkD = map.getContentClassificationAndStructuredRemarkForResourcePath("/libs/d", null).getValue();
+        assertNull(remarkD.getDeprecatedSince());
+        assertEquals("Deprecated since: no version", remarkD.toString());
+        assertNull(map.getContentClassificationAndStructuredRemarkForResourcePath("/libs/e", null).getValue());
+        assertEquals(new SimpleEntry<ContentClassification, String>(ContentClassification.FINAL, "Deprecated since 6.4: Should not be used"), map.getContentClassificationAndRemarkForResourcePath("/libs/c", null));
+
+        // the textual format is preserved when writing
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        map.write(output);
+        String serializedMap = new String(output.toByteArray(), "US-ASCII");
+        assertEquals("# somelabel\r\n"
+                + "/,PUBLIC\r\n"
+                + "/libs/a,INTERNAL_DEPRECATED_ANNOTATION,Deprecated since 6.5: Should not be used\r\n"
+                + "/libs/b,FINAL,Deprecated since 6.5: Should not be used\r\n"
+                + "/libs/c,FINAL,Deprecated since 6.4: Should not be used\r\n"
+                + "/libs/d,ABSTRACT,Deprecated since: no version\r\n"
+                + "/libs/e,ABSTRACT\r\n", serializedMap);
+        assertEquals(map, new ContentClassificationMapImpl(new ByteArrayInputStream(output.toByteArray()), "somelabel"));
+    }
+
     @Test
     void testInvalidMap() throws IOException {
         try (InputStream input = ContentClassificationMapImplTest.class.getResourceAsStream("/invalid-classification.map")) {
@@ -0,0 +1,60 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+
+class ContentClassificationMapIndexTest {
+
+    @Test
+    void testWriteAndRead() throws IOException {
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("1.0.0");
+        map.put("/", ContentClassification.PUBLIC, null);
+        map.put("/libs/a", ContentClassification.INTERNAL_DEPRECATED_ANNOTATION, "Deprecated since 6.5: Reason");
+        map.put("/libs/b", ContentClassification.FINAL, "Deprecated since 6.5: Reason");
+        map.put("/libs/c", ContentClassification.ABSTRACT, "Some other remark with umlaut ä");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ContentClassificationMapIndex.write(map, 42, output);
+        byte[] index = output.toByteArray();
+        ContentClassificationMapImpl readMap = ContentClassificationMapIndex.read(new ByteArrayInputStream(index), 42);
+        assertEquals(map, readMap);
+        assertEquals("6.5", readMap.getContentClassificationAndStructuredRemarkForResourcePath("/libs/a", null).getValue().getDeprecatedSince());
+        assertSame(readMap.getContentClassificationAndStructuredRemarkForResourcePath("/libs/a", null).getValue(),
+                readMap.getContentClassificationAndStructuredRemarkForResourcePath("/libs/b", null).getValue());
+        // checksum of another map file
+        assertNull(ContentClassificationMapIndex.read(new ByteArrayInputStream(index), 43));
+        // index is reproducible
+        output = new ByteArrayOutputStream();
+        ContentClassificationMapIndex.write(map, 42, output);
+        assertArrayEquals(index, output.toByteArray());
+    }
+
+    @Test
+    void testReadInvalidIndex() {
+        ByteArrayInputStream input = new ByteArrayInputStream("/,PUBLIC\n".getBytes());
+        assertThrows(IOException.class, () -> ContentClassificationMapIndex.read(input, 0));
+    }
+}
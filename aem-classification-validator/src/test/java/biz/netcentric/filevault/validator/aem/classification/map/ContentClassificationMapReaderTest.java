@@ -0,0 +1,147 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+
+class ContentClassificationMapReaderTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentClassificationMapReaderTest.class);
+
+    private static final String[] TOKENS = { "/libs", "/a", "b", ",", ",", "\"", "\"\"", "\r", "\n", "\r\n", "#", " ", "\t", "PUBLIC", "INTERNAL",
+            "FINAL", "ABSTRACT", "INTERNAL_CHILD", "INVALID", "ä", "Deprecated since 6.5: " };
+
+    @Test
+    void testRead() throws IOException {
+        String input = "# label\r\n# second line\n/libs/a,FINAL\r/libs/b,INTERNAL,remark\n\r\n/libs/c,ABSTRACT,remark,ignored\r\n";
+        ContentClassificationMapImpl map = new ContentClassificationMapImpl("");
+        assertThrows(IllegalArgumentException.class, () -> read(input, map));
+
+        ContentClassificationMapImpl map2 = new ContentClassificationMapImpl("");
+        assertEquals("label\nsecond line", read("# label\r\n# second line\n/libs/a,FINAL\r/libs/b,INTERNAL,remark\n/libs/c,ABSTRACT,remark,ignored\r\n", map2));
+        ContentClassificationMapImpl expectedMap = new ContentClassificationMapImpl("");
+        expectedMap.put("/libs/a", ContentClassification.FINAL, null);
+        expectedMap.put("/libs/b", ContentClassification.INTERNAL, "remark");
+        expectedMap.put("/libs/c", ContentClassification.ABSTRACT, null);
+        assertEquals(expectedMap, map2);
+
+        assertNull(read("/libs/a,FINAL", new ContentClassificationMapImpl("")));
+        assertEquals("default", ContentClassificationMapReader.read(new ByteArrayInputStream("# only comment".getBytes(StandardCharsets.US_ASCII)), "test",
+                new ContentClassificationMapImpl(""), "default"));
+    }
+
+    @Test
+    void testReadWithQuotes() throws IOException {
+        ContentClassificationMapImpl map = new ContentClassificationMapImpl("");
+        assertEquals("label", read("#label\n/libs/a,FINAL\n\"/libs/b,c\",INTERNAL,\"multi\nline\"\n/libs/d,PUBLIC\n", map));
+        ContentClassificationMapImpl expectedMap = new ContentClassificationMapImpl("");
+        expectedMap.put("/libs/a", ContentClassification.FINAL, null);
+        expectedMap.put("/libs/b,c", ContentClassification.INTERNAL, "multi\nline");
+        expectedMap.put("/libs/d", ContentClassification.PUBLIC, null);
+        assertEquals(expectedMap, map);
+        // error messages contain the record number of the full input
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> read("/libs/a,FINAL\n\"/libs/b\",INTERNAL\n/libs/c\n", new ContentClassificationMapImpl("")));
+        assertEquals("Error in line 3: Missing ',' character. At least 2 values have to be given per line!", e.getMessage());
+    }
+
+    @Test
+    void testSameResultAsRfc4180Parsing() throws IOException {
+        for (long seed = 0; seed < 2000; seed++) {
+            Random random = new Random(seed);
+            StringBuilder input = new StringBuilder();
+            int numTokens = random.nextInt(40);
+            for (int i = 0; i < numTokens; i++) {
+                input.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+            byte[] data = input.toString().getBytes(StandardCharsets.UTF_8);
+            ContentClassificationMapImpl expectedMap = new ContentClassificationMapImpl("");
+            ContentClassificationMapImpl actualMap = new ContentClassificationMapImpl("");
+            String expectedLabel = null;
+            String actualLabel = null;
+            RuntimeException expectedException = null;
+            RuntimeException actualException = null;
+            try {
+                expectedLabel = ContentClassificationMapReader.readRfc4180(new ByteArrayInputStream(data), "test", expectedMap, "");
+            } catch (RuntimeException e) {
+                expectedException = e;
+            }
+            try {
+                actualLabel = ContentClassificationMapReader.read(new ByteArrayInputStream(data), "test", actualMap, "");
+            } catch (RuntimeException e) {
+                actualException = e;
+            }
+            String message = "Different result for seed " + seed + " and input '" + input + "'";
+            if (expectedException != null) {
+                assertEquals(expectedException.getClass(), actualException != null ? actualException.getClass() : null, message);
+                if (expectedException instanceof IllegalArgumentException) {
+                    assertEquals(expectedException.getMessage(), actualException.getMessage(), message);
+                }
+            } else {
+                assertNull(actualException, message);
+                assertEquals(expectedLabel, actualLabel, message);
+                assertEquals(expectedMap, actualMap, message);
+            }
+        }
+    }
+
+    /**
+     * Only executed when system property {@code benchmark} is set to {@code true} (e.g. via {@code mvn test -Dbenchmark=true}).
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkRead() throws IOException {
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("benchmark");
+        ContentClassification[] classifications = ContentClassification.values();
+        Random random = new Random(0);
+        for (int i = 0; i < 500_000; i++) {
+            map.put("/libs/component" + (i % 1000) + "/child" + i, classifications[random.nextInt(classifications.length)], i % 10 == 0 ? "Deprecated since 6.5: some reason" : null);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        map.write(output);
+        byte[] data = output.toByteArray();
+        for (int run = 0; run < 5; run++) {
+            ContentClassificationMapImpl rfc4180Map = new ContentClassificationMapImpl("");
+            long start = System.nanoTime();
+            ContentClassificationMapReader.readRfc4180(new ByteArrayInputStream(data), "benchmark", rfc4180Map, "");
+            long rfc4180Duration = System.nanoTime() - start;
+            ContentClassificationMapImpl directMap = new ContentClassificationMapImpl("");
+            start = System.nanoTime();
+            ContentClassificationMapReader.read(new ByteArrayInputStream(data), "benchmark", directMap, "");
+            long duration = System.nanoTime() - start;
+            assertEquals(rfc4180Map, directMap);
+            LOGGER.info("Reading {} entries ({} bytes): RFC 4180 parser {} ms, direct {} ms", map.size(), data.length,
+                    rfc4180Duration / 1_000_000, duration / 1_000_000);
+        }
+    }
+
+    private static String read(String input, ContentClassificationMapImpl map) throws IOException {
+        return ContentClassificationMapReader.read(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), "test", map, "");
+    }
+}
@@ -13,12 +13,21 @@ package biz.netcentric.filevault.validator.aem.classification.map;
  * #L%
  */
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
 
+import org.apache.commons.csv.CSVPrinter;
 import org.junit.jupiter.api.Test;
 
 import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
@@ -43,4 +52,92 @@ class MutableContentClassificationMapImplTest {
             }
         }
     }
+
+    @Test
+    void testWriteIsCompatibleWithCsvPrinter() throws IOException {
+        String[] values = { "", "/libs/a", "a b", "a ", " a", "#a", "!a", "a,b", "a\"b", "a\rb", "a\nb", "ä", "\u007f", "Deprecated since 6.5: reason" };
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("some label");
+        ContentClassification[] classifications = ContentClassification.values();
+        for (int i = 0; i < values.length; i++) {
+            map.put("/" + values[i], classifications[i % classifications.length], i % 2 == 0 ? null : values[values.length - i]);
+        }
+        ByteArrayOutputStream expectedOutput = new ByteArrayOutputStream();
+        try (CSVPrinter csvPrinter = new CSVPrinter(new OutputStreamWriter(expectedOutput, StandardCharsets.US_ASCII), ContentClassificationMapImpl.CSV_FORMAT)) {
+            csvPrinter.printComment(map.getLabel());
+            map.entryIterator().forEachRemaining(entry -> {
+                try {
+                    csvPrinter.print(entry.getResourcePath());
+                    csvPrinter.print(entry.getClassification().toString());
+                    if (entry.getRemark() != null) {
+                        csvPrinter.print(entry.getRemark());
+                    }
+                    csvPrinter.println();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        map.write(output);
+        assertArrayEquals(expectedOutput.toByteArray(), output.toByteArray());
+    }
+
+    @Test
+    void testMinimize() {
+        MutableContentClassificationMap map = new MutableContentClassificationMapImpl("1.0.0");
+        map.put("/", ContentClassification.PUBLIC, null);
+        map.put("/public", ContentClassification.PUBLIC, null);
+        map.put("/final", ContentClassification.FINAL, null);
+        map.put("/final/child", ContentClassification.INTERNAL_CHILD, null);
+        map.put("/final/child/grandchild", ContentClassification.INTERNAL_CHILD, "some remark");
+        map.put("/internal", ContentClassification.INTERNAL, "some remark");
+        map.put("/internal/child", ContentClassification.INTERNAL, "some remark");
+        map.put("/internal/child/grandchild", ContentClassification.INTERNAL, null);
+        assertEquals(3, map.minimize());
+        MutableContentClassificationMap expectedMap = new MutableContentClassificationMapImpl("1.0.0");
+        expectedMap.put("/", ContentClassification.PUBLIC, null);
+        expectedMap.put("/final", ContentClassification.FINAL, null);
+        expectedMap.put("/final/child/grandchild", ContentClassification.INTERNAL_CHILD, "some remark");
+        expectedMap.put("/internal", ContentClassification.INTERNAL, "some remark");
+        expectedMap.put("/internal/child/grandchild", ContentClassification.INTERNAL, null);
+        assertEquals(expectedMap, map);
+    }
+
+    @Test
+    void testMinimizeKeepsLookupResults() {
+        String[] segments = { "a", "b", "c" };
+        String[] remarks = { null, "remark1", "remark2" };
+        // all paths up to depth 5
+        List<String> resourcePaths = new ArrayList<>();
+        resourcePaths.add("/");
+        for (int i = 0; i < resourcePaths.size(); i++) {
+            String parentPath = resourcePaths.get(i);
+            if (parentPath.length() < 10) {
+                for (String segment : segments) {
+                    resourcePaths.add(parentPath.equals("/") ? "/" + segment : parentPath + "/" + segment);
+                }
+            }
+        }
+        ContentClassification[] classifications = ContentClassification.values();
+        for (long seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            MutableContentClassificationMap map = new MutableContentClassificationMapImpl("random");
+            map.put("/", ContentClassification.PUBLIC, null);
+            for (int i = 0; i < 40; i++) {
+                map.put(resourcePaths.get(random.nextInt(resourcePaths.size())), classifications[random.nextInt(classifications.length)], remarks[random.nextInt(remarks.length)]);
+            }
+            List<Entry<ContentClassification, String>> expectedResults = new ArrayList<>();
+            for (String resourcePath : resourcePaths) {
+                expectedResults.add(map.getContentClassificationAndRemarkForResourcePath(resourcePath, null));
+            }
+            int size = map.size();
+            int numRemovedEntries = map.minimize();
+            assertEquals(size - numRemovedEntries, map.size());
+            for (int i = 0; i < resourcePaths.size(); i++) {
+                assertEquals(expectedResults.get(i), map.getContentClassificationAndRemarkForResourcePath(resourcePaths.get(i), null), "Different result for " + resourcePaths.get(i) + " with seed " + seed);
+            }
+            // minimizing is idempotent
+            assertEquals(0, map.minimize());
+        }
+    }
 }
@@ -0,0 +1,188 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+class ResourcePathTrieTest {
+
+    @Test
+    void testContainsWildcard() {
+        assertFalse(ResourcePathTrie.containsWildcard("/"));
+        assertFalse(ResourcePathTrie.containsWildcard("/libs/a*/b"));
+        assertFalse(ResourcePathTrie.containsWildcard("/libs/***"));
+        assertTrue(ResourcePathTrie.containsWildcard("/*"));
+        assertTrue(ResourcePathTrie.containsWildcard("/libs/*/cq:dialog"));
+        assertTrue(ResourcePathTrie.containsWildcard("/libs/**"));
+    }
+
+    @Test
+    void testLookup() {
+        ContentClassificationMapImpl map = new ContentClassificationMapImpl("wildcards");
+        map.put("/libs", ContentClassification.INTERNAL, null);
+        map.put("/libs/foundation/components", ContentClassification.FINAL, null);
+        map.put("/libs/foundation/components/*/cq:dialog", ContentClassification.INTERNAL, "dialog");
+        map.put("/libs/**/clientlibs", ContentClassification.PUBLIC, "clientlibs");
+        map.put("/libs/foundation/components/text/cq:dialog", ContentClassification.ABSTRACT, null);
+        ResourcePathTrie trie = new ResourcePathTrie(map.entryIterator());
+
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, null), trie.lookup("/libs"));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, null), trie.lookup("/libs/other"));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, null), trie.lookup("/libs/foundation/components/image"));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, remark("dialog")), trie.lookup("/libs/foundation/components/image/cq:dialog"));
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, remark("dialog")), trie.lookup("/libs/foundation/components/image/cq:dialog/items"));
+        // literal segments take precedence
+        assertEquals(new SimpleEntry<>(ContentClassification.ABSTRACT, null), trie.lookup("/libs/foundation/components/text/cq:dialog"));
+        // recursive wildcard matches zero or more segments
+        assertEquals(new SimpleEntry<>(ContentClassification.PUBLIC, remark("clientlibs")), trie.lookup("/libs/clientlibs"));
+        assertEquals(new SimpleEntry<>(ContentClassification.PUBLIC, remark("clientlibs")), trie.lookup("/libs/foundation/components/image/clientlibs"));
+        assertEquals(new SimpleEntry<>(ContentClassification.PUBLIC, remark("clientlibs")), trie.lookup("/libs/foundation/components/image/clientlibs/js"));
+        assertNull(trie.lookup("/apps/clientlibs"));
+    }
+
+    @Test
+    void testRandomPatterns() {
+        String[] segments = { "a", "b", "*", "**" };
+        ContentClassification[] classifications = ContentClassification.values();
+        List<String> lookupPaths = new ArrayList<>();
+        lookupPaths.add("/");
+        for (int i = 0; i < lookupPaths.size(); i++) {
+            String parentPath = lookupPaths.get(i);
+            if (parentPath.split("/").length < 5) {
+                for (String segment : new String[] { "a", "b", "c" }) {
+                    lookupPaths.add(parentPath.equals("/") ? "/" + segment : parentPath + "/" + segment);
+                }
+            }
+        }
+        for (long seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            ContentClassificationMapImpl map = new ContentClassificationMapImpl("random");
+            for (int i = 0; i < 8; i++) {
+                StringBuilder resourcePath = new StringBuilder();
+                int depth = random.nextInt(4);
+                for (int j = 0; j < depth; j++) {
+                    resourcePath.append('/').append(segments[random.nextInt(segments.length)]);
+                }
+                map.put(resourcePath.length() == 0 ? "/" : resourcePath.toString(), classifications[random.nextInt(classifications.length)], "remark" + i);
+            }
+            ResourcePathTrie trie = new ResourcePathTrie(map.entryIterator());
+            for (String lookupPath : lookupPaths) {
+                assertEquals(lookupWithoutTrie(map, lookupPath), trie.lookup(lookupPath), "Different result for " + lookupPath + " with seed " + seed + " in map " + map);
+            }
+        }
+    }
+
+    private static ContentClassificationRemark remark(String text) {
+        return ContentClassificationRemark.parse(text);
+    }
+
+    /**
+     * Reference implementation which checks every entry for every ancestor-or-self path.
+     */
+    private static Entry<ContentClassification, ContentClassificationRemark> lookupWithoutTrie(ContentClassificationMapImpl map, String resourcePath) {
+        List<String> pathSegments = getSegments(resourcePath);
+        for (int depth = pathSegments.size(); depth >= 0; depth--) {
+            List<String> ancestorSegments = pathSegments.subList(0, depth);
+            ContentClassificationMapEntry bestEntry = null;
+            List<Integer> bestRanks = null;
+            for (ContentClassificationMapEntry entry : (Iterable<ContentClassificationMapEntry>) map::entryIterator) {
+                List<String> pattern = getSegments(entry.getResourcePath());
+                List<Integer> ranks = getBestRanks(pattern, ancestorSegments);
+                if (ranks != null && (bestEntry == null || compareRanks(ranks, bestRanks) < 0
+                        || (compareRanks(ranks, bestRanks) == 0 && entry.getResourcePath().compareTo(bestEntry.getResourcePath()) < 0))) {
+                    bestEntry = entry;
+                    bestRanks = ranks;
+                }
+            }
+            if (bestEntry != null) {
+                ContentClassification classification = depth == pathSegments.size() ? bestEntry.getClassification() : bestEntry.getClassification().getChildNodeClassification();
+                return new SimpleEntry<>(classification, bestEntry.getStructuredRemark());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return for each path segment the rank of the pattern segment matching it (0 = literal, 1 = wildcard, 2 = recursive wildcard), the lexicographically smallest in case of multiple matches
+     *  or {@code null} if the pattern does not match
+     */
+    private static List<Integer> getBestRanks(List<String> pattern, List<String> path) {
+        if (pattern.isEmpty()) {
+            return path.isEmpty() ? Collections.emptyList() : null;
+        }
+        String patternSegment = pattern.get(0);
+        List<String> remainingPattern = pattern.subList(1, pattern.size());
+        if (patternSegment.equals("**")) {
+            List<Integer> best = null;
+            for (int consumed = 0; consumed <= path.size(); consumed++) {
+                List<Integer> ranks = getBestRanks(remainingPattern, path.subList(consumed, path.size()));
+                if (ranks != null) {
+                    List<Integer> candidate = new ArrayList<>(Collections.nCopies(consumed, 2));
+                    candidate.addAll(ranks);
+                    if (best == null || compareRanks(candidate, best) < 0) {
+                        best = candidate;
+                    }
+                }
+            }
+            return best;
+        }
+        if (path.isEmpty() || !(patternSegment.equals("*") || patternSegment.equals(path.get(0)))) {
+            return null;
+        }
+        List<Integer> ranks = getBestRanks(remainingPattern, path.subList(1, path.size()));
+        if (ranks == null) {
+            return null;
+        }
+        List<Integer> result = new ArrayList<>();
+        result.add(patternSegment.equals("*") ? 1 : 0);
+        result.addAll(ranks);
+        return result;
+    }
+
+    private static int compareRanks(List<Integer> ranks1, List<Integer> ranks2) {
+        for (int i = 0; i < ranks1.size(); i++) {
+            int comparison = Integer.compare(ranks1.get(i), ranks2.get(i));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private static List<String> getSegments(String resourcePath) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : resourcePath.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,179 @@
+package biz.netcentric.filevault.validator.aem.classification.map;
+
+/*-
+ * #%L
+ * AEM Classification Validator
+ * %%
+ * Copyright (C) 2026 Cognizant Netcentric
+ * %%
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import biz.netcentric.filevault.validator.aem.classification.ContentClassification;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationMapEntry;
+import biz.netcentric.filevault.validator.aem.classification.ContentClassificationRemark;
+
+class SectionedContentClassificationMapTest {
+
+    @Test
+    void testGetSectionKey() {
+        assertEquals("", SectionedContentClassificationMap.getSectionKey("/"));
+        assertEquals("", SectionedContentClassificationMap.getSectionKey("/libs"));
+        assertEquals("/libs/granite", SectionedContentClassificationMap.getSectionKey("/libs/granite"));
+        assertEquals("/libs/granite", SectionedContentClassificationMap.getSectionKey("/libs/granite/ui/components"));
+        assertEquals("/libs/granite", SectionedContentClassificationMap.getSectionKey("/libs/granite/*/cq:dialog"));
+        assertEquals("/", SectionedContentClassificationMap.getSectionKey("/libs/**/clientlibs"));
+        assertEquals("/", SectionedContentClassificationMap.getSectionKey("/*"));
+    }
+
+    @Test
+    void testLazySectionParsing() throws IOException {
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("1.0");
+        map.put("/", ContentClassification.PUBLIC, null);
+        map.put("/libs", ContentClassification.FINAL, "libs");
+        map.put("/libs/granite/ui", ContentClassification.INTERNAL, "granite");
+        map.put("/libs/wcm/core", ContentClassification.ABSTRACT, null);
+        map.put("/libs/fd/af", ContentClassification.INTERNAL, "Deprecated since 6.5: Forms");
+        SectionedContentClassificationMap sectionedMap = readSectioned(map);
+        assertEquals(0, sectionedMap.getNumParsedSections());
+        assertEquals("1.0", sectionedMap.getLabel());
+        assertEquals(5, sectionedMap.size());
+
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL, "granite"), sectionedMap.getContentClassificationAndRemarkForResourcePath("/libs/granite/ui/components", null));
+        assertEquals(1, sectionedMap.getNumParsedSections());
+        // falls back to the root section
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, "libs"), sectionedMap.getContentClassificationAndRemarkForResourcePath("granite/other", null));
+        assertEquals(2, sectionedMap.getNumParsedSections());
+        // section without entries
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, "libs"), sectionedMap.getContentClassificationAndRemarkForResourcePath("/libs/cq/core", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.PUBLIC, null), sectionedMap.getContentClassificationAndRemarkForResourcePath("/apps/cq", null));
+        assertEquals(new SimpleEntry<>(ContentClassification.PUBLIC, null), sectionedMap.getContentClassificationAndRemarkForResourcePath("/libs/fd/af", Collections.singleton(Pattern.compile("/libs/fd/.*"))));
+        assertEquals(2, sectionedMap.getNumParsedSections());
+        assertThrows(IllegalStateException.class, () -> sectionedMap.getContentClassificationAndRemarkForResourcePath("/libs/", null));
+
+        ContentClassificationMapImpl readMap = new ContentClassificationMapImpl("1.0");
+        sectionedMap.readAllSections(readMap);
+        assertEquals(map, readMap);
+
+        // iterating does not keep the unparsed sections
+        assertEquals(toSet(map.entryIterator()), toSet(sectionedMap.entryIterator()));
+        assertEquals(2, sectionedMap.getNumParsedSections());
+    }
+
+    private static Set<ContentClassificationMapEntry> toSet(Iterator<ContentClassificationMapEntry> entryIterator) {
+        Set<ContentClassificationMapEntry> entries = new HashSet<>();
+        entryIterator.forEachRemaining(entries::add);
+        return entries;
+    }
+
+    @Test
+    void testLookupWithoutRootSection() throws IOException {
+        MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("no root");
+        map.put("/libs/granite", ContentClassification.FINAL, null);
+        SectionedContentClassificationMap sectionedMap = readSectioned(map);
+        assertEquals(new SimpleEntry<>(ContentClassification.INTERNAL_CHILD, null), sectionedMap.getContentClassificationAndRemarkForResourcePath("/libs/granite/child", null));
+        assertThrows(IllegalStateException.class, () -> sectionedMap.getContentClassificationAndRemarkForResourcePath("/libs/wcm", null));
+    }
+
+    @Test
+    void testRandomMaps() throws IOException {
+        String[] segments = { "a", "a-b", "ä", "😀" };
+        String[] remarks = { null, "remark1", "Deprecated since 6.5: remark2" };
+        List<String> resourcePaths = new ArrayList<>();
+        resourcePaths.add("/");
+        for (int i = 0; i < resourcePaths.size(); i++) {
+            String parentPath = resourcePaths.get(i);
+            if (parentPath.split("/").length < 5) {
+                for (String segment : segments) {
+                    resourcePaths.add(parentPath.equals("/") ? "/" + segment : parentPath + "/" + segment);
+                }
+            }
+        }
+        ContentClassification[] classifications = ContentClassification.values();
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("random");
+            map.put("/", ContentClassification.PUBLIC, null);
+            for (int i = 0; i < 100; i++) {
+                map.put(resourcePaths.get(random.nextInt(resourcePaths.size())), classifications[random.nextInt(classifications.length)], remarks[random.nextInt(remarks.length)]);
+            }
+            SectionedContentClassificationMap sectionedMap = readSectioned(map);
+            for (String resourcePath : resourcePaths) {
+                assertEquals(map.getContentClassificationAndStructuredRemarkForResourcePath(resourcePath, null),
+                        sectionedMap.getContentClassificationAndStructuredRemarkForResourcePath(resourcePath, null),
+                        "Different result for " + resourcePath + " with seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    void testRandomMapsWithWildcards() throws IOException {
+        String[] segments = { "a", "b", "*", "**" };
+        List<String> resourcePaths = new ArrayList<>();
+        resourcePaths.add("/");
+        for (int i = 0; i < resourcePaths.size(); i++) {
+            String parentPath = resourcePaths.get(i);
+            if (parentPath.split("/").length < 5) {
+                for (String segment : segments) {
+                    resourcePaths.add(parentPath.equals("/") ? "/" + segment : parentPath + "/" + segment);
+                }
+            }
+        }
+        ContentClassification[] classifications = ContentClassification.values();
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            MutableContentClassificationMapImpl map = new MutableContentClassificationMapImpl("random");
+            map.put("/", ContentClassification.PUBLIC, null);
+            for (int i = 0; i < 20; i++) {
+                map.put(resourcePaths.get(random.nextInt(resourcePaths.size())), classifications[random.nextInt(classifications.length)], "remark" + i);
+            }
+            SectionedContentClassificationMap sectionedMap = readSectioned(map);
+            CompactContentClassificationMap compactMap = new CompactContentClassificationMap(map);
+            for (String resourcePath : resourcePaths) {
+                // only look up literal paths
+                String lookupPath = resourcePath.replace("**", "c").replace('*', 'd');
+                Entry<ContentClassification, ContentClassificationRemark> expectedEntry = map.getContentClassificationAndStructuredRemarkForResourcePath(lookupPath, null);
+                assertEquals(expectedEntry, sectionedMap.getContentClassificationAndStructuredRemarkForResourcePath(lookupPath, null),
+                        "Different result for " + lookupPath + " with seed " + seed);
+                assertEquals(expectedEntry, compactMap.getContentClassificationAndStructuredRemarkForResourcePath(lookupPath, null),
+                        "Different result for " + lookupPath + " with seed " + seed);
+            }
+            ContentClassificationMapImpl readMap = new ContentClassificationMapImpl("random");
+            sectionedMap.readAllSections(readMap);
+            assertEquals(map, readMap);
+            // both parsed (containing the inherited wildcard entries) and unparsed sections are iterated
+            assertEquals(toSet(map.entryIterator()), toSet(sectionedMap.entryIterator()));
+            // wildcard entries are never removed
+            assertEquals(0, map.minimize());
+        }
+    }
+
+    private static SectionedContentClassificationMap readSectioned(ContentClassificationMapImpl map) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ContentClassificationMapIndex.write(map, 42, output);
+        return ContentClassificationMapIndex.readSectioned(new ByteArrayInputStream(output.toByteArray()), 42);
+    }
+}